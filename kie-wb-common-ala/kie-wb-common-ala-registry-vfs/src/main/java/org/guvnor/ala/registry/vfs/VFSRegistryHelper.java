@@ -17,8 +17,16 @@
 package org.guvnor.ala.registry.vfs;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -43,6 +51,21 @@ public class VFSRegistryHelper {
 
     protected static final String PROVISIONING_PATH = "provisioning";
 
+    /**
+     * Milliseconds the entry writes are queued before being flushed together in a single VFS batch, 0 writes
+     * each entry immediately.
+     */
+    protected static final String FLUSH_INTERVAL_PROPERTY_NAME = "org.guvnor.ala.registry.vfs.flushInterval";
+
+    protected static final long DEFAULT_FLUSH_INTERVAL = 500;
+
+    /**
+     * Number of queued entry writes that causes an immediate flush.
+     */
+    protected static final String MAX_PENDING_WRITES_PROPERTY_NAME = "org.guvnor.ala.registry.vfs.maxPendingWrites";
+
+    protected static final int DEFAULT_MAX_PENDING_WRITES = 100;
+
     private static final Logger logger = LoggerFactory.getLogger(VFSRegistryHelper.class);
 
     private VFSMarshallerRegistry marshallerRegistry;
@@ -55,6 +78,31 @@ public class VFSRegistryHelper {
 
     private VFSRegistryEntryMarshaller entryMarshaller;
 
+    private long flushInterval;
+
+    private int maxPendingWrites;
+
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * Entry writes waiting for the next flush by path, a null content stands for a delete. Only the last write of a
+     * path is kept.
+     */
+    private final Map<Path, PendingWrite> pendingWrites = new LinkedHashMap<>();
+
+    private final Object flushLock = new Object();
+
+    /**
+     * True if the last flush failed, the next entry write then flushes the queued entries first.
+     */
+    private volatile boolean flushFailed;
+
+    private final AtomicLong commitsCount = new AtomicLong();
+
+    private final AtomicLong writtenEntriesCount = new AtomicLong();
+
+    private final AtomicLong totalWriteLatency = new AtomicLong();
+
     public VFSRegistryHelper() {
         //Empty constructor for Weld proxying
     }
@@ -80,6 +128,33 @@ public class VFSRegistryHelper {
                          e);
         }
         entryMarshaller = (VFSRegistryEntryMarshaller) marshallerRegistry.get(VFSRegistryEntry.class);
+        flushInterval = Long.getLong(FLUSH_INTERVAL_PROPERTY_NAME,
+                                     DEFAULT_FLUSH_INTERVAL);
+        maxPendingWrites = Integer.getInteger(MAX_PENDING_WRITES_PROPERTY_NAME,
+                                              DEFAULT_MAX_PENDING_WRITES);
+        if (flushInterval > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable,
+                                                 "vfs-registry-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly,
+                                                 flushInterval,
+                                                 flushInterval,
+                                                 TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the queued entries before the application stops.
+     */
+    @PreDestroy
+    protected void destroy() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        flush();
     }
 
     /**
@@ -108,7 +183,8 @@ public class VFSRegistryHelper {
     }
 
     /**
-     * Stores an Object marshalled value as a VFSRegistryEntry in the target path.
+     * Stores an Object marshalled value as a VFSRegistryEntry in the target path. The write is queued and flushed
+     * together with the other queued writes, see flush().
      * @param path a path for storing the generated VFSRegistryEntry.
      * @param value an object value to marshall and store.
      * @throws Exception exceptions might be thrown in cases of filesystem or marshalling errors.
@@ -124,10 +200,70 @@ public class VFSRegistryHelper {
         final VFSRegistryEntry entry = new VFSRegistryEntry(value.getClass().getName(),
                                                             marshalledValue);
         final String content = entryMarshaller.marshal(entry);
-        writeBatch(path,
+        queueWrite(path,
                    content);
     }
 
+    /**
+     * Deletes the VFSRegistryEntry stored in the target path. The delete is queued and flushed together with the
+     * queued writes, see flush().
+     * @param path the path of the VFSRegistryEntry to delete.
+     */
+    public void deleteEntry(final Path path) {
+        queueWrite(path,
+                   null);
+    }
+
+    /**
+     * Writes all the queued entries in a single VFS batch, and so in a single commit. Entries that couldn't be
+     * written are queued again unless they were written again in the meantime.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            final Map<Path, PendingWrite> batch;
+            synchronized (pendingWrites) {
+                if (pendingWrites.isEmpty()) {
+                    flushFailed = false;
+                    return;
+                }
+                batch = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+            }
+            try {
+                write(batch);
+                flushFailed = false;
+            } catch (RuntimeException e) {
+                flushFailed = true;
+                synchronized (pendingWrites) {
+                    batch.forEach(pendingWrites::putIfAbsent);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of VFS batches, and so of commits, used for writing the registry entries.
+     */
+    public long getCommitsCount() {
+        return commitsCount.get();
+    }
+
+    /**
+     * @return the number of registry entries written or deleted.
+     */
+    public long getWrittenEntriesCount() {
+        return writtenEntriesCount.get();
+    }
+
+    /**
+     * @return the average time in milliseconds from an entry write being queued to being written.
+     */
+    public long getAverageWriteLatency() {
+        final long written = writtenEntriesCount.get();
+        return written == 0 ? 0 : totalWriteLatency.get() / written;
+    }
+
     /**
      * Reads an Object previously marshalled and stored as a VFSRegistryEntry in a given path.
      * @param path the path where the VFSRegistryEntry is stored.
@@ -135,6 +271,8 @@ public class VFSRegistryHelper {
      * @throws Exception exceptions might be thrown in cases of filesystem or marshalling errors.
      */
     public Object readEntry(final Path path) throws Exception {
+        //queued entries must be written to be read.
+        flush();
         final String entryContent = ioService.readAllString(path);
         final VFSRegistryEntry entry = entryMarshaller.unmarshal(entryContent);
         final Marshaller marshaller = marshallerRegistry.get(Class.forName(entry.getContentType()));
@@ -152,6 +290,8 @@ public class VFSRegistryHelper {
      */
     public List<Object> readEntries(final Path rootPath,
                                     final DirectoryStream.Filter<Path> filter) throws Exception {
+        //queued entries must be written to be found by the directory stream.
+        flush();
         final List<Object> entries = new ArrayList<>();
         for (Path path : ioService.newDirectoryStream(rootPath,
                                                       filter)) {
@@ -195,6 +335,84 @@ public class VFSRegistryHelper {
         }
     }
 
+    private void queueWrite(final Path path,
+                            final String content) {
+        final PendingWrite write = new PendingWrite(content,
+                                                    System.currentTimeMillis());
+        if (flushExecutor == null) {
+            write(Collections.singletonMap(path,
+                                           write));
+            return;
+        }
+        if (flushFailed) {
+            //the entries of a failed background flush are written by the caller, so it gets the failure if any.
+            flush();
+        }
+        final boolean full;
+        synchronized (pendingWrites) {
+            //the entry is moved to the end so the writes are applied in the same order they were queued.
+            final PendingWrite previous = pendingWrites.remove(path);
+            pendingWrites.put(path,
+                              previous != null ? new PendingWrite(content,
+                                                                  previous.queuedAt) : write);
+            full = pendingWrites.size() >= maxPendingWrites;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the entries in a single VFS batch.
+     */
+    private void write(final Map<Path, PendingWrite> batch) {
+        final long start = System.currentTimeMillis();
+        //all the registry entries are stored in the provisioning file system.
+        ioService.startBatch(batch.keySet().iterator().next().getFileSystem());
+        try {
+            batch.forEach((path, pendingWrite) -> {
+                if (pendingWrite.content != null) {
+                    ioService.write(path,
+                                    pendingWrite.content);
+                } else {
+                    ioService.deleteIfExists(path);
+                }
+            });
+        } finally {
+            ioService.endBatch();
+        }
+        final long end = System.currentTimeMillis();
+        commitsCount.incrementAndGet();
+        writtenEntriesCount.addAndGet(batch.size());
+        batch.values().forEach(pendingWrite -> totalWriteLatency.addAndGet(end - pendingWrite.queuedAt));
+        logger.debug("{} registry entries were written in {} ms",
+                     batch.size(),
+                     end - start);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("An error was produced while flushing the VFS registry entries, they will be retried by " +
+                                 "the next flush or entry write.",
+                         e);
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final String content;
+
+        private final long queuedAt;
+
+        private PendingWrite(final String content,
+                             final long queuedAt) {
+            this.content = content;
+            this.queuedAt = queuedAt;
+        }
+    }
+
     /**
      * Helper class for filtering files by a suffix. Files that ends with the expected suffix verifies the filter.
      */
@@ -99,7 +99,7 @@ public class VFSRuntimeRegistry
         checkNotNull("providerId",
                      providerId);
         final Path path = buildProviderPath(providerId);
-        registryHelper.deleteBatch(path);
+        registryHelper.deleteEntry(path);
         super.deregisterProvider(providerId);
     }
 
@@ -126,7 +126,7 @@ public class VFSRuntimeRegistry
         checkNotNull("runtimeId",
                      runtimeId);
         final Path path = buildRuntimePath(runtimeId.getId());
-        registryHelper.deleteBatch(path);
+        registryHelper.deleteEntry(path);
         super.deregisterRuntime(runtimeId);
     }
 
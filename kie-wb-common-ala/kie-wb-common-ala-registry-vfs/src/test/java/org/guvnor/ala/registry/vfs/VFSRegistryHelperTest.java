@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.guvnor.ala.marshalling.Marshaller;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -114,6 +115,11 @@ public class VFSRegistryHelperTest {
                                  PROVISIONING_PATH);
     }
 
+    @After
+    public void tearDown() {
+        registryHelper.destroy();
+    }
+
     @Test
     public void testEnsureDirectoryWhenDirectoryExists() {
         Path path = mock(Path.class);
@@ -178,14 +184,164 @@ public class VFSRegistryHelperTest {
                                                               MARSHALLED_VALUE);
         when(entryMarshaller.marshal(expectedEntry)).thenReturn(MARSHALLED_ENTRY);
 
+        when(path.getFileSystem()).thenReturn(fileSystem);
+
         registryHelper.storeEntry(path,
                                   value);
 
         verify(marshallerRegistry,
                times(1)).get(value.getClass());
-        verify(registryHelper,
-               times(1)).writeBatch(path,
-                                    MARSHALLED_ENTRY);
+        registryHelper.flush();
+        verify(ioService,
+               times(1)).startBatch(fileSystem);
+        verify(ioService,
+               times(1)).write(path,
+                               MARSHALLED_ENTRY);
+        verify(ioService,
+               times(1)).endBatch();
+    }
+
+    @Test
+    public void testQueuedWritesAreFlushedInOneBatch() throws Exception {
+        when(marshallerRegistry.get(value.getClass())).thenReturn(marshaller);
+        when(marshaller.marshal(value)).thenReturn(MARSHALLED_VALUE);
+        when(entryMarshaller.marshal(any(VFSRegistryEntry.class))).thenReturn(MARSHALLED_ENTRY + 1,
+                                                                               MARSHALLED_ENTRY + 2);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+        Path deletedPath = mock(Path.class);
+
+        registryHelper.storeEntry(path,
+                                  value);
+        registryHelper.deleteEntry(deletedPath);
+        registryHelper.storeEntry(path,
+                                  value);
+        registryHelper.flush();
+
+        verify(ioService,
+               times(1)).startBatch(fileSystem);
+        verify(ioService,
+               never()).write(path,
+                              MARSHALLED_ENTRY + 1);
+        verify(ioService,
+               times(1)).write(path,
+                               MARSHALLED_ENTRY + 2);
+        verify(ioService,
+               times(1)).deleteIfExists(deletedPath);
+        verify(ioService,
+               times(1)).endBatch();
+        assertEquals(1,
+                     registryHelper.getCommitsCount());
+        assertEquals(2,
+                     registryHelper.getWrittenEntriesCount());
+
+        //nothing left to flush
+        registryHelper.flush();
+        assertEquals(1,
+                     registryHelper.getCommitsCount());
+    }
+
+    @Test
+    public void testWritesAreCountedWhenNotQueued() throws Exception {
+        registryHelper.destroy();
+        System.setProperty(VFSRegistryHelper.FLUSH_INTERVAL_PROPERTY_NAME,
+                           "0");
+        try {
+            registryHelper = new VFSRegistryHelper(marshallerRegistry,
+                                                   ioService,
+                                                   fileSystem);
+            registryHelper.init();
+        } finally {
+            System.clearProperty(VFSRegistryHelper.FLUSH_INTERVAL_PROPERTY_NAME);
+        }
+        when(marshallerRegistry.get(value.getClass())).thenReturn(marshaller);
+        when(marshaller.marshal(value)).thenReturn(MARSHALLED_VALUE);
+        when(entryMarshaller.marshal(any(VFSRegistryEntry.class))).thenReturn(MARSHALLED_ENTRY);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+
+        registryHelper.storeEntry(path,
+                                  value);
+        registryHelper.deleteEntry(path);
+
+        verify(ioService,
+               times(1)).write(path,
+                               MARSHALLED_ENTRY);
+        verify(ioService,
+               times(1)).deleteIfExists(path);
+        verify(ioService,
+               times(2)).endBatch();
+        assertEquals(2,
+                     registryHelper.getCommitsCount());
+        assertEquals(2,
+                     registryHelper.getWrittenEntriesCount());
+    }
+
+    @Test
+    public void testBatchIsNotEndedWhenNotStarted() throws Exception {
+        when(marshallerRegistry.get(value.getClass())).thenReturn(marshaller);
+        when(marshaller.marshal(value)).thenReturn(MARSHALLED_VALUE);
+        when(entryMarshaller.marshal(any(VFSRegistryEntry.class))).thenReturn(MARSHALLED_ENTRY);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+        doThrow(new IOException(ERROR_MESSAGE)).doNothing().when(ioService).startBatch(fileSystem);
+
+        registryHelper.storeEntry(path,
+                                  value);
+        try {
+            registryHelper.flush();
+            fail("The flush must fail.");
+        } catch (IOException e) {
+            assertEquals(ERROR_MESSAGE,
+                         e.getMessage());
+        }
+        verify(ioService,
+               never()).endBatch();
+        assertEquals(0,
+                     registryHelper.getCommitsCount());
+
+        //the entry is queued again and written by the next flush
+        registryHelper.flush();
+        verify(ioService,
+               times(1)).write(path,
+                               MARSHALLED_ENTRY);
+        verify(ioService,
+               times(1)).endBatch();
+        assertEquals(1,
+                     registryHelper.getCommitsCount());
+    }
+
+    @Test
+    public void testFailedFlushIsReportedToTheNextWrite() throws Exception {
+        when(marshallerRegistry.get(value.getClass())).thenReturn(marshaller);
+        when(marshaller.marshal(value)).thenReturn(MARSHALLED_VALUE);
+        when(entryMarshaller.marshal(any(VFSRegistryEntry.class))).thenReturn(MARSHALLED_ENTRY);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+        doThrow(new IOException(ERROR_MESSAGE)).when(ioService).write(path,
+                                                                      MARSHALLED_ENTRY);
+        Path deletedPath = mock(Path.class);
+
+        registryHelper.storeEntry(path,
+                                  value);
+        try {
+            registryHelper.flush();
+            fail("The flush must fail.");
+        } catch (IOException e) {
+            assertEquals(ERROR_MESSAGE,
+                         e.getMessage());
+        }
+
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage(ERROR_MESSAGE);
+        try {
+            registryHelper.deleteEntry(deletedPath);
+        } finally {
+            //the write failed before the delete was queued
+            verify(ioService,
+                   times(2)).write(path,
+                                   MARSHALLED_ENTRY);
+            verify(ioService,
+                   never()).deleteIfExists(deletedPath);
+            doNothing().when(ioService).write(path,
+                                              MARSHALLED_ENTRY);
+        }
     }
 
     @Test
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline;
+
+import java.util.List;
+
+/**
+ * Represents a Pipeline whose stages form a directed acyclic graph. A stage only waits for the stages it depends on,
+ * so independent branches of the pipeline can be executed concurrently. A stage may call back asynchronously, its
+ * dependents start once it does. The output of the pipeline is the output of its only sink, the stage no other stage
+ * depends on, or the List of the outputs of its sinks in the order they were added.
+ */
+public interface DagPipeline
+        extends Pipeline {
+
+    /**
+     * Get the stages that must finish before the given stage starts, the output of the last one is the input of the
+     * given stage. Stages with no dependencies receive the pipeline input.
+     * @param stage a stage of this pipeline.
+     * @return List<Stages>, empty if the stage has no dependencies.
+     */
+    List<Stage> getDependencies(final Stage stage);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline;
+
+import org.guvnor.ala.config.Config;
+
+/**
+ * Helper class for building a DagPipeline. A stage can only depend on stages that were added before it, so the
+ * resulting graph has no cycles.
+ */
+public interface DagPipelineBuilder {
+
+    DagPipelineBuilder addStage(final Stage stage,
+                                final String... dependsOn);
+
+    DagPipelineBuilder addConfigStage(final String name,
+                                      final Config config,
+                                      final String... dependsOn);
+
+    DagPipeline buildAs(final String name);
+}
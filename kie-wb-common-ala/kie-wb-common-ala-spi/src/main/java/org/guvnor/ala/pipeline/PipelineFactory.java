@@ -17,10 +17,14 @@
 package org.guvnor.ala.pipeline;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.guvnor.ala.config.Config;
 import org.guvnor.ala.pipeline.impl.ConfigBasedPipelineImpl;
+import org.guvnor.ala.pipeline.impl.DagPipelineImpl;
 import org.guvnor.ala.pipeline.impl.PipelineConfigImpl;
 
 /**
@@ -59,6 +63,54 @@ public final class PipelineFactory {
         };
     }
 
+    public static DagPipelineBuilder newDagBuilder() {
+
+        return new DagPipelineBuilder() {
+
+            private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+            private final Map<Stage, List<Stage>> dependencies = new IdentityHashMap<>();
+
+            @Override
+            public DagPipelineBuilder addStage(final Stage stage,
+                                               final String... dependsOn) {
+                if (stages.containsKey(stage.getName())) {
+                    throw new IllegalArgumentException("Stage " + stage.getName() + " was already added.");
+                }
+                final List<Stage> stageDependencies = new ArrayList<>();
+                for (final String dependency : dependsOn) {
+                    final Stage dependencyStage = stages.get(dependency);
+                    if (dependencyStage == null) {
+                        throw new IllegalArgumentException("Stage " + stage.getName() + " depends on " + dependency +
+                                                                   " which was not added before.");
+                    }
+                    stageDependencies.add(dependencyStage);
+                }
+                stages.put(stage.getName(),
+                           stage);
+                dependencies.put(stage,
+                                 stageDependencies);
+                return this;
+            }
+
+            @Override
+            public DagPipelineBuilder addConfigStage(final String name,
+                                                     final Config config,
+                                                     final String... dependsOn) {
+                return addStage(StageUtil.config(name,
+                                                 f -> config),
+                                dependsOn);
+            }
+
+            @Override
+            public DagPipeline buildAs(final String name) {
+                return new DagPipelineImpl(name,
+                                           new ArrayList<>(stages.values()),
+                                           dependencies);
+            }
+        };
+    }
+
     public static ConfigBasedPipeline newPipeline(final PipelineConfig pipelineConfig) {
         return new ConfigBasedPipelineImpl(pipelineConfig);
     }
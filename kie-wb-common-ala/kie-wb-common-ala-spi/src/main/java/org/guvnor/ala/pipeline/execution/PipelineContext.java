@@ -16,6 +16,7 @@
 
 package org.guvnor.ala.pipeline.execution;
 
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -43,7 +44,8 @@ public class PipelineContext {
     private final Pipeline pipeline;
     private Optional<Object> lastOutput = Optional.empty();
     private Optional<Stage<Object, ?>> currentStage = Optional.empty();
-    private Map<String, Object> values = new HashMap<>();
+    //stages of a DagPipeline may update the values concurrently
+    private Map<String, Object> values = Collections.synchronizedMap(new HashMap<>());
 
     private final Deque<Consumer<?>> callbacks = new LinkedList<>();
 
@@ -15,16 +15,29 @@
  */
 package org.guvnor.ala.pipeline.execution;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.guvnor.ala.pipeline.BiFunctionConfigExecutor;
 import org.guvnor.ala.pipeline.ConfigExecutor;
 import org.guvnor.ala.pipeline.ContextAware;
+import org.guvnor.ala.pipeline.DagPipeline;
 import org.guvnor.ala.pipeline.FunctionConfigExecutor;
 import org.guvnor.ala.pipeline.Input;
 import org.guvnor.ala.pipeline.Pipeline;
@@ -42,13 +55,24 @@ import static org.guvnor.ala.util.VariableInterpolation.interpolate;
 /*
  * Represent the Pipeline Executor which will be in charge of executing a pipeline instance 
  *  by using the Input data provided. After executing the pipeline a Consumer callback will be executed.
+ *  The stages of a DagPipeline are executed as soon as the stages they depend on are finished, on the stage
+ *  executor if one was set. A DagPipeline fails if its stages are not all finished within the DAG timeout.
 */
 public class PipelineExecutor {
 
     public static final String PIPELINE_EXECUTION_ID = "_pipelineExecutionId_";
 
+    public static final String DAG_TIMEOUT = "org.guvnor.ala.pipeline.dag.timeout";
+
+    private static final long DEFAULT_DAG_TIMEOUT = TimeUnit.HOURS.toMillis(1);
+
     private final Map<Class, ConfigExecutor> configExecutors = new HashMap<>();
 
+    private Executor stageExecutor;
+
+    private long dagTimeout = Long.getLong(DAG_TIMEOUT,
+                                           DEFAULT_DAG_TIMEOUT);
+
     public PipelineExecutor() {
     }
 
@@ -63,6 +87,22 @@ public class PipelineExecutor {
         init(configExecutors);
     }
 
+    /**
+     * Sets the executor for the stages of DagPipelines, so that independent stages run concurrently. When not set the
+     * stages are executed one after another in the calling thread.
+     */
+    public void setStageExecutor(final Executor stageExecutor) {
+        this.stageExecutor = stageExecutor;
+    }
+
+    /**
+     * Sets how long the stages of a DagPipeline have to finish, in milliseconds. The stages still running once it is
+     * elapsed, such as a stage that returned without calling back, fail the pipeline.
+     */
+    public void setDagTimeout(final long dagTimeout) {
+        this.dagTimeout = dagTimeout;
+    }
+
     public <T> void execute(final Input input,
                             final Pipeline pipeline,
                             final Consumer<T> callback,
@@ -73,8 +113,14 @@ public class PipelineExecutor {
         propagateEvent(new BeforePipelineExecutionEvent(context.getExecutionId(),
                                                         pipeline),
                        eventListeners);
-        continuePipeline(context,
-                         eventListeners);
+        if (pipeline instanceof DagPipeline) {
+            executeDag(context,
+                       (DagPipeline) pipeline,
+                       eventListeners);
+        } else {
+            continuePipeline(context,
+                             eventListeners);
+        }
         propagateEvent(new AfterPipelineExecutionEvent(context.getExecutionId(),
                                                        pipeline),
                        eventListeners);
@@ -93,29 +139,10 @@ public class PipelineExecutor {
                                eventListeners);
                 stage.execute(newInput,
                               output -> {
-
-                                  final ConfigExecutor executor = resolve(output.getClass());
-                                  if (output instanceof ContextAware) {
-                                      ((ContextAware) output).setContext(Collections.unmodifiableMap(context.getValues()));
-                                  }
-                                  final Object newOutput = interpolate(context.getValues(),
-                                                                       output);
-                                  if (executor == null) {
-                                      throw new RuntimeException("Fail to resolve ConfigExecutor for: " + output.getClass());
-                                  }
-                                  context.getValues().put(executor.inputId(),
-                                                          newOutput);
-                                  if (executor instanceof BiFunctionConfigExecutor) {
-                                      final Optional result = (Optional) ((BiFunctionConfigExecutor) executor).apply(newInput,
-                                                                                                                     newOutput);
-                                      context.pushOutput(executor.outputId(),
-                                                         result.get());
-                                  } else if (executor instanceof FunctionConfigExecutor) {
-                                      final Optional result = (Optional) ((FunctionConfigExecutor) executor).apply(newOutput);
-                                      context.pushOutput(executor.outputId(),
-                                                         result.get());
-                                  }
-
+                                  applyConfig(context,
+                                              newInput,
+                                              output,
+                                              context::pushOutput);
                                   propagateEvent(new AfterStageExecutionEvent(context.getExecutionId(),
                                                                               context.getPipeline(),
                                                                               stage),
@@ -144,6 +171,224 @@ public class PipelineExecutor {
         }
     }
 
+    private void executeDag(final PipelineContext context,
+                            final DagPipeline pipeline,
+                            final PipelineEventListener... eventListeners) {
+        final Executor executor = stageExecutor != null ? stageExecutor : Runnable::run;
+        final Object input = pollOutput(context);
+        final AtomicReference<StageFailure> failure = new AtomicReference<>();
+        final Map<Stage, CompletableFuture<Object>> outputs = new IdentityHashMap<>();
+        final Set<Stage> sinks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Stage stage : pipeline.getStages()) {
+            final List<Stage> dependencies = pipeline.getDependencies(stage);
+            final CompletableFuture<Object> stageInput;
+            if (dependencies.isEmpty()) {
+                stageInput = CompletableFuture.completedFuture(input);
+            } else {
+                final CompletableFuture<Object> lastDependency = outputs.get(dependencies.get(dependencies.size() - 1));
+                stageInput = CompletableFuture.allOf(dependencies.stream()
+                                                             .map(outputs::get)
+                                                             .toArray(CompletableFuture[]::new))
+                        .thenCompose(done -> lastDependency);
+                sinks.removeAll(dependencies);
+            }
+            outputs.put(stage,
+                        stageInput.thenComposeAsync(stageInputValue -> executeStage(context,
+                                                                                    stage,
+                                                                                    stageInputValue,
+                                                                                    failure,
+                                                                                    eventListeners),
+                                                    executor));
+            sinks.add(stage);
+        }
+        try {
+            CompletableFuture.allOf(outputs.values().toArray(new CompletableFuture[0])).get(dagTimeout,
+                                                                                             TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CancellationException e) {
+            //the failure of the first stage in error is reported below
+        } catch (TimeoutException e) {
+            failRunningStages(context,
+                              pipeline,
+                              outputs,
+                              new TimeoutException("The stage did not finish within " + dagTimeout + " ms."),
+                              failure,
+                              eventListeners);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failRunningStages(context,
+                              pipeline,
+                              outputs,
+                              e,
+                              failure,
+                              eventListeners);
+        }
+        final StageFailure stageFailure = failure.get();
+        if (stageFailure != null) {
+            propagateEvent(new OnErrorPipelineExecutionEvent(context.getExecutionId(),
+                                                             context.getPipeline(),
+                                                             stageFailure.stage,
+                                                             stageFailure.exception),
+                           eventListeners);
+            throw stageFailure.exception;
+        }
+        //the pipeline output is the output of its only sink, or the outputs of its sinks in the order they were added
+        final List<Object> sinkOutputs = new ArrayList<>();
+        for (final Stage stage : pipeline.getStages()) {
+            if (sinks.contains(stage)) {
+                sinkOutputs.add(outputs.get(stage).join());
+            }
+        }
+        final Object output = sinkOutputs.size() == 1 ? sinkOutputs.get(0) : sinkOutputs;
+        while (context.hasCallbacks()) {
+            context.applyCallbackAndPop(output);
+        }
+    }
+
+    /**
+     * Executes a stage of a DagPipeline, the returned output is completed once the stage calls back, which can happen
+     * after the stage execution returned.
+     */
+    private CompletableFuture<Object> executeStage(final PipelineContext context,
+                                                   final Stage<Object, ?> stage,
+                                                   final Object input,
+                                                   final AtomicReference<StageFailure> failure,
+                                                   final PipelineEventListener... eventListeners) {
+        if (failure.get() != null) {
+            throw new CancellationException("The pipeline failed before the " + stage.getName() + " stage started.");
+        }
+        final CompletableFuture<Object> stageOutput = new CompletableFuture<>();
+        try {
+            propagateEvent(new BeforeStageExecutionEvent(context.getExecutionId(),
+                                                         context.getPipeline(),
+                                                         stage),
+                           eventListeners);
+            stage.execute(input,
+                          output -> {
+                              try {
+                                  final AtomicReference<Object> result = new AtomicReference<>();
+                                  applyConfig(context,
+                                              input,
+                                              output,
+                                              (id, value) -> {
+                                                  context.getValues().put(id,
+                                                                          value);
+                                                  result.set(value);
+                                              });
+                                  propagateEvent(new AfterStageExecutionEvent(context.getExecutionId(),
+                                                                              context.getPipeline(),
+                                                                              stage),
+                                                 eventListeners);
+                                  if (result.get() == null) {
+                                      throw new IllegalStateException("The " + stage.getName() + " stage produced no output.");
+                                  }
+                                  stageOutput.complete(result.get());
+                              } catch (final Throwable t) {
+                                  failStage(context,
+                                            stage,
+                                            stageOutput,
+                                            t,
+                                            failure,
+                                            eventListeners);
+                              }
+                          });
+        } catch (final Throwable t) {
+            failStage(context,
+                      stage,
+                      stageOutput,
+                      t,
+                      failure,
+                      eventListeners);
+        }
+        return stageOutput;
+    }
+
+    /**
+     * Fails the stages started and not finished yet, the stages depending on them are cancelled
+     */
+    private void failRunningStages(final PipelineContext context,
+                                   final DagPipeline pipeline,
+                                   final Map<Stage, CompletableFuture<Object>> outputs,
+                                   final Throwable t,
+                                   final AtomicReference<StageFailure> failure,
+                                   final PipelineEventListener... eventListeners) {
+        for (final Stage stage : pipeline.getStages()) {
+            final CompletableFuture<Object> stageOutput = outputs.get(stage);
+            final boolean started = pipeline.getDependencies(stage).stream()
+                    .map(outputs::get)
+                    .allMatch(dependency -> dependency.isDone() && !dependency.isCompletedExceptionally());
+            if (started && !stageOutput.isDone()) {
+                failStage(context,
+                          stage,
+                          stageOutput,
+                          t,
+                          failure,
+                          eventListeners);
+            }
+        }
+    }
+
+    private void failStage(final PipelineContext context,
+                           final Stage<Object, ?> stage,
+                           final CompletableFuture<Object> stageOutput,
+                           final Throwable t,
+                           final AtomicReference<StageFailure> failure,
+                           final PipelineEventListener... eventListeners) {
+        if (stageOutput.isDone()) {
+            return;
+        }
+        final RuntimeException exception = new RuntimeException("An error occurred while executing the " + stage.getName() + " stage.",
+                                                                t);
+        failure.compareAndSet(null,
+                              new StageFailure(stage,
+                                               exception));
+        propagateEvent(new OnErrorStageExecutionEvent(context.getExecutionId(),
+                                                      context.getPipeline(),
+                                                      stage,
+                                                      exception),
+                       eventListeners);
+        stageOutput.completeExceptionally(exception);
+    }
+
+    private void applyConfig(final PipelineContext context,
+                             final Object input,
+                             final Object output,
+                             final BiConsumer<String, Object> outputConsumer) {
+        final ConfigExecutor executor = resolve(output.getClass());
+        final Map<String, Object> values = getValuesSnapshot(context);
+        if (output instanceof ContextAware) {
+            ((ContextAware) output).setContext(Collections.unmodifiableMap(values));
+        }
+        final Object newOutput = interpolate(values,
+                                             output);
+        if (executor == null) {
+            throw new RuntimeException("Fail to resolve ConfigExecutor for: " + output.getClass());
+        }
+        context.getValues().put(executor.inputId(),
+                                newOutput);
+        if (executor instanceof BiFunctionConfigExecutor) {
+            final Optional result = (Optional) ((BiFunctionConfigExecutor) executor).apply(input,
+                                                                                           newOutput);
+            outputConsumer.accept(executor.outputId(),
+                                  result.get());
+        } else if (executor instanceof FunctionConfigExecutor) {
+            final Optional result = (Optional) ((FunctionConfigExecutor) executor).apply(newOutput);
+            outputConsumer.accept(executor.outputId(),
+                                  result.get());
+        }
+    }
+
+    private static class StageFailure {
+
+        private final Stage stage;
+        private final RuntimeException exception;
+
+        private StageFailure(final Stage stage,
+                             final RuntimeException exception) {
+            this.stage = stage;
+            this.exception = exception;
+        }
+    }
+
     private ConfigExecutor resolve(final Class<?> clazz) {
         final ConfigExecutor result = configExecutors.get(clazz);
         if (result != null) {
@@ -157,6 +402,13 @@ public class PipelineExecutor {
         return null;
     }
 
+    private static Map<String, Object> getValuesSnapshot(final PipelineContext context) {
+        final Map<String, Object> values = context.getValues();
+        synchronized (values) {
+            return new HashMap<>(values);
+        }
+    }
+
     private static Object pollOutput(final PipelineContext context) {
         return context.pollOutput()
                 .orElseThrow(() -> new IllegalStateException("The " + PipelineContext.class.getSimpleName() + " was polled with no previous output."));
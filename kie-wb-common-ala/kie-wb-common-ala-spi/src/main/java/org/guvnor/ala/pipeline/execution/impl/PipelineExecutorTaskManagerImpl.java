@@ -16,13 +16,19 @@
 
 package org.guvnor.ala.pipeline.execution.impl;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -63,15 +69,51 @@ public class PipelineExecutorTaskManagerImpl
 
     protected static final String THREAD_POOL_SIZE_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.threadPoolSize";
 
+    protected static final int DEFAULT_STAGE_THREAD_POOL_SIZE = 4;
+
+    protected static final String STAGE_THREAD_POOL_SIZE_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.stageThreadPoolSize";
+
+    protected static final int DEFAULT_MAX_PENDING_TASKS = 1000;
+
+    protected static final String MAX_PENDING_TASKS_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.maxPendingTasks";
+
+    protected static final int DEFAULT_ADMISSION_TIMEOUT = 30;
+
+    protected static final String ADMISSION_TIMEOUT_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.admissionTimeout";
+
     protected ExecutorService executor;
 
+    protected ExecutorService stageExecutor;
+
     protected List<PipelineEventListener> externalListeners;
 
     protected PipelineExecutor pipelineExecutor;
 
-    protected final Map<String, TaskEntry> currentTasks = new HashMap<>();
+    protected final Map<String, TaskEntry> currentTasks = new ConcurrentHashMap<>();
+
+    protected Map<String, Future<?>> futureTaskMap = new ConcurrentHashMap<>();
+
+    /**
+     * Limits the asynchronous tasks that are waiting or running, a permit is held by each task in admittedTasks.
+     */
+    protected Semaphore admission;
+
+    protected long admissionTimeout;
+
+    protected final Set<String> admittedTasks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Submission time of the asynchronous tasks that were not started yet.
+     */
+    protected final Map<String, Long> queuedTasks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    private final LongAdder startedTasks = new LongAdder();
 
-    protected Map<String, Future<?>> futureTaskMap = new HashMap<>();
+    private final LongAdder totalWaitTime = new LongAdder();
+
+    private final AtomicLong maxWaitTime = new AtomicLong();
 
     protected PipelineExecutorRegistry pipelineExecutorRegistry;
 
@@ -120,6 +162,7 @@ public class PipelineExecutorTaskManagerImpl
 
     @PostConstruct
     protected void init() {
+        initAdmission();
         initExecutor();
         initPipelineExecutor();
         initLocalListener();
@@ -129,13 +172,12 @@ public class PipelineExecutorTaskManagerImpl
     @PreDestroy
     protected void destroy() {
         try {
-            synchronized (currentTasks) {
-                final Set<TaskEntry> entrySet = new HashSet<>();
-                entrySet.addAll(currentTasks.values());
-                entrySet.forEach(entry -> {
-                    currentTasks.remove(entry.getTask().getId());
-                    if (entry.isAsync()) {
-                        final PipelineExecutorTaskImpl task = entry.getTask();
+            final Set<TaskEntry> entrySet = new HashSet<>(currentTasks.values());
+            entrySet.forEach(entry -> {
+                currentTasks.remove(entry.getTask().getId());
+                if (entry.isAsync()) {
+                    final PipelineExecutorTaskImpl task = entry.getTask();
+                    synchronized (entry) {
                         if (stopEnabledStatus.contains(task.getPipelineStatus())) {
                             try {
                                 taskManagerHelper.setTaskInStoppedStatus(task);
@@ -147,23 +189,34 @@ public class PipelineExecutorTaskManagerImpl
                             }
                         }
                     }
-                });
-            }
+                }
+            });
             if (executor != null) {
                 executor.shutdown();
             }
+            if (stageExecutor != null) {
+                stageExecutor.shutdown();
+            }
         } catch (Exception e) {
             logger.error("executor shutdown failed. " + e.getMessage(),
                          e);
         }
     }
 
+    private void initAdmission() {
+        admission = new Semaphore(taskManagerHelper.getMaxPendingTasks(),
+                                  true);
+        admissionTimeout = taskManagerHelper.getAdmissionTimeout();
+    }
+
     private void initExecutor() {
         executor = taskManagerHelper.createExecutorService();
     }
 
     private void initPipelineExecutor() {
         pipelineExecutor = taskManagerHelper.createPipelineExecutor();
+        stageExecutor = taskManagerHelper.createStageExecutorService();
+        pipelineExecutor.setStageExecutor(stageExecutor);
     }
 
     private void initLocalListener() {
@@ -245,16 +298,34 @@ public class PipelineExecutorTaskManagerImpl
     }
 
     /**
-     * Executes the task definition in asynchronous mode.
+     * Executes the task definition in asynchronous mode. When the maximum number of pending tasks is reached the
+     * caller waits for a task to finish, up to the admission timeout.
      * @param taskDef task definition for executing.
      * @return the taskId assigned to the running task.
+     * @throws RejectedExecutionException if the task couldn't be admitted before the admission timeout.
      * @see PipelineExecutorTaskDef
      */
-    private synchronized String executeAsync(final PipelineExecutorTaskDef taskDef) {
-        final PipelineExecutorTaskImpl task = taskManagerHelper.createTask(taskDef);
-        storeTaskEntry(TaskEntry.newAsyncEntry(task));
-        startAsyncTask(task);
-        updateExecutorRegistry(task);
+    private String executeAsync(final PipelineExecutorTaskDef taskDef) {
+        acquireAdmission();
+        final PipelineExecutorTaskImpl task;
+        try {
+            task = taskManagerHelper.createTask(taskDef);
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+        admittedTasks.add(task.getId());
+        try {
+            storeTaskEntry(TaskEntry.newAsyncEntry(task));
+            //registered before starting so it can't overwrite the updates made by the task execution.
+            updateExecutorRegistry(task);
+            startAsyncTask(task);
+        } catch (RuntimeException e) {
+            removeTaskEntry(task.getId());
+            queuedTasks.remove(task.getId());
+            releaseAdmission(task.getId());
+            throw e;
+        }
         return task.getId();
     }
 
@@ -263,10 +334,13 @@ public class PipelineExecutorTaskManagerImpl
      * @param task the task for execute.
      * @return the taskId of the task.
      */
-    private synchronized void startAsyncTask(final PipelineExecutorTask task) {
+    private void startAsyncTask(final PipelineExecutorTask task) {
+        queuedTasks.put(task.getId(),
+                        System.nanoTime());
         final Future<?> future = executor.submit(() -> {
-            final Pipeline pipeline = pipelineRegistry.getPipelineByName(task.getTaskDef().getPipeline());
+            taskStarted(task.getId());
             try {
+                final Pipeline pipeline = pipelineRegistry.getPipelineByName(task.getTaskDef().getPipeline());
                 pipelineExecutor.execute(task.getTaskDef().getInput(),
                                          pipeline,
                                          output -> processPipelineOutput(task,
@@ -278,11 +352,79 @@ public class PipelineExecutorTaskManagerImpl
             } finally {
                 removeTaskEntry(task.getId());
                 removeFutureTask(task.getId());
+                activeTasks.decrementAndGet();
+                releaseAdmission(task.getId());
             }
         });
 
         storeFutureTask(task.getId(),
                         future);
+        if (getTaskEntry(task.getId()) == null) {
+            //the task finished before its future was stored.
+            removeFutureTask(task.getId());
+        }
+    }
+
+    private void acquireAdmission() {
+        boolean admitted;
+        try {
+            admitted = admission.tryAcquire(admissionTimeout,
+                                            TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            throw new RejectedExecutionException("The maximum number of pending PipelineExecutorTasks was reached, " +
+                                                         getQueuedTasksCount() + " tasks are waiting and " + getActiveTasksCount() + " are running.");
+        }
+    }
+
+    private void releaseAdmission(final String taskId) {
+        if (admittedTasks.remove(taskId)) {
+            admission.release();
+        }
+    }
+
+    private void taskStarted(final String taskId) {
+        activeTasks.incrementAndGet();
+        final Long queuedSince = queuedTasks.remove(taskId);
+        if (queuedSince != null) {
+            final long waitTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedSince);
+            startedTasks.increment();
+            totalWaitTime.add(waitTime);
+            maxWaitTime.accumulateAndGet(waitTime,
+                                         Math::max);
+        }
+    }
+
+    /**
+     * @return the number of asynchronous tasks waiting for a thread.
+     */
+    public int getQueuedTasksCount() {
+        return queuedTasks.size();
+    }
+
+    /**
+     * @return the number of asynchronous tasks running.
+     */
+    public int getActiveTasksCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * @return the average time in milliseconds the started asynchronous tasks waited for a thread.
+     */
+    public long getAverageWaitTime() {
+        final long started = startedTasks.sum();
+        return started == 0 ? 0 : totalWaitTime.sum() / started;
+    }
+
+    /**
+     * @return the maximum time in milliseconds a started asynchronous task waited for a thread.
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
     }
 
     /**
@@ -325,15 +467,17 @@ public class PipelineExecutorTaskManagerImpl
             throw new PipelineExecutorException("Stop operation is not available for taskId: " + taskId +
                                                         " running in SYNCHRONOUS mode");
         }
-        final PipelineExecutorTask.Status currentStatus = entry.getTask().getPipelineStatus();
-        if (!stopEnabledStatus.contains(currentStatus)) {
-            throw new PipelineExecutorException("A PipelineExecutorTask in status: " + currentStatus.name() + " can not" +
-                                                        " be stopped. Stop operation is available for the following status set: " + stopEnabledStatus);
+        synchronized (entry) {
+            final PipelineExecutorTask.Status currentStatus = entry.getTask().getPipelineStatus();
+            if (!stopEnabledStatus.contains(currentStatus)) {
+                throw new PipelineExecutorException("A PipelineExecutorTask in status: " + currentStatus.name() + " can not" +
+                                                            " be stopped. Stop operation is available for the following status set: " + stopEnabledStatus);
+            }
+            destroyFutureTask(taskId);
+            removeTaskEntry(taskId);
+            taskManagerHelper.setTaskInStoppedStatus(entry.getTask());
+            updateExecutorRegistry(entry.getTask());
         }
-        destroyFutureTask(taskId);
-        removeTaskEntry(taskId);
-        taskManagerHelper.setTaskInStoppedStatus(entry.getTask());
-        updateExecutorRegistry(entry.getTask());
     }
 
     @Override
@@ -374,82 +518,93 @@ public class PipelineExecutorTaskManagerImpl
 
     private void beforePipelineExecution(final BeforePipelineExecutionEvent bpee,
                                          final TaskEntry taskEntry) {
-        taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.RUNNING);
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.RUNNING);
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
     private void afterPipelineExecution(final AfterPipelineExecutionEvent apee,
                                         final TaskEntry taskEntry) {
-        taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.FINISHED);
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.FINISHED);
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
     private void beforeStageExecution(final BeforeStageExecutionEvent bsee,
                                       final TaskEntry taskEntry) {
-        taskEntry.getTask().setStageStatus(bsee.getStage().getName(),
-                                           PipelineExecutorTask.Status.RUNNING);
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setStageStatus(bsee.getStage().getName(),
+                                               PipelineExecutorTask.Status.RUNNING);
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
     private void onStageError(final OnErrorStageExecutionEvent oesee,
                               final TaskEntry taskEntry) {
-        taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.ERROR);
-        taskEntry.getTask().setStageStatus(oesee.getStage().getName(),
-                                           PipelineExecutorTask.Status.ERROR);
-        taskEntry.getTask().setStageError(oesee.getStage().getName(),
-                                          new PipelineExecutorError(oesee.getError().getMessage(),
-                                                                        oesee.getError()));
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.ERROR);
+            taskEntry.getTask().setStageStatus(oesee.getStage().getName(),
+                                               PipelineExecutorTask.Status.ERROR);
+            taskEntry.getTask().setStageError(oesee.getStage().getName(),
+                                              new PipelineExecutorError(oesee.getError().getMessage(),
+                                                                            oesee.getError()));
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
     private void afterStageExecution(final AfterStageExecutionEvent asee,
                                      final TaskEntry taskEntry) {
-        taskEntry.getTask().setStageStatus(asee.getStage().getName(),
-                                           PipelineExecutorTask.Status.FINISHED);
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setStageStatus(asee.getStage().getName(),
+                                               PipelineExecutorTask.Status.FINISHED);
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
     private void onPipelineError(final OnErrorPipelineExecutionEvent oepee,
                                  final TaskEntry taskEntry) {
-
-        taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.ERROR);
-        taskEntry.getTask().setPipelineError(new PipelineExecutorError(oepee.getError().getMessage(),
-                                                       oepee.getError()));
-        if (taskEntry.isAsync()) {
-            updateExecutorRegistry(taskEntry.getTask());
+        synchronized (taskEntry) {
+            taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.ERROR);
+            taskEntry.getTask().setPipelineError(new PipelineExecutorError(oepee.getError().getMessage(),
+                                                           oepee.getError()));
+            if (taskEntry.isAsync()) {
+                updateExecutorRegistry(taskEntry.getTask());
+            }
         }
     }
 
-    private synchronized TaskEntry getTaskEntry(final String taskId) {
+    private TaskEntry getTaskEntry(final String taskId) {
         return currentTasks.get(taskId);
     }
 
-    private synchronized void removeTaskEntry(final String taskId) {
+    private void removeTaskEntry(final String taskId) {
         currentTasks.remove(taskId);
     }
 
-    private synchronized void storeTaskEntry(final TaskEntry entry) {
+    private void storeTaskEntry(final TaskEntry entry) {
         currentTasks.put(entry.task.getId(),
                          entry);
     }
 
-    private synchronized void storeFutureTask(final String taskId,
+    private void storeFutureTask(final String taskId,
                                               final Future future) {
         futureTaskMap.put(taskId,
                           future);
     }
 
-    private synchronized void removeFutureTask(final String taskId) {
+    private void removeFutureTask(final String taskId) {
         futureTaskMap.remove(taskId);
     }
 
@@ -458,7 +613,11 @@ public class PipelineExecutorTaskManagerImpl
      * @param taskId the task id to be destroyed.
      * @return true if the task was destroyed with no errors, false in any other case.
      */
-    private synchronized boolean destroyFutureTask(final String taskId) {
+    private boolean destroyFutureTask(final String taskId) {
+        if (queuedTasks.remove(taskId) != null) {
+            //the task won't start, so it won't release its admission.
+            releaseAdmission(taskId);
+        }
         final Future future = futureTaskMap.remove(taskId);
         if (future != null && !future.isCancelled() && !future.isDone()) {
             try {
@@ -21,6 +21,9 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.inject.Instance;
 
@@ -40,7 +43,13 @@ import org.guvnor.ala.pipeline.execution.PipelineExecutorTaskDef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.ADMISSION_TIMEOUT_PROPERTY_NAME;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_ADMISSION_TIMEOUT;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_MAX_PENDING_TASKS;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_STAGE_THREAD_POOL_SIZE;
 import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_THREAD_POOL_SIZE;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.MAX_PENDING_TASKS_PROPERTY_NAME;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.STAGE_THREAD_POOL_SIZE_PROPERTY_NAME;
 import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.THREAD_POOL_SIZE_PROPERTY_NAME;
 
 /**
@@ -62,28 +71,64 @@ public class PipelineExecutorTaskManagerImplHelper {
     }
 
     public ExecutorService createExecutorService() {
-        final String threadPoolSizeValue = System.getProperties().getProperty(THREAD_POOL_SIZE_PROPERTY_NAME);
-        int threadPoolSize;
-        if (threadPoolSizeValue == null) {
-            threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-            logger.debug(THREAD_POOL_SIZE_PROPERTY_NAME + " property was not set, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE);
+        return Executors.newFixedThreadPool(getPositiveIntProperty(THREAD_POOL_SIZE_PROPERTY_NAME,
+                                                                   DEFAULT_THREAD_POOL_SIZE));
+    }
+
+    /**
+     * Creates the executor for the independent stages of the pipelines, its threads are released when idle.
+     */
+    public ExecutorService createStageExecutorService() {
+        final int threadPoolSize = getPositiveIntProperty(STAGE_THREAD_POOL_SIZE_PROPERTY_NAME,
+                                                          DEFAULT_STAGE_THREAD_POOL_SIZE);
+        final ThreadPoolExecutor stageExecutor = new ThreadPoolExecutor(threadPoolSize,
+                                                                        threadPoolSize,
+                                                                        60,
+                                                                        TimeUnit.SECONDS,
+                                                                        new LinkedBlockingQueue<>());
+        stageExecutor.allowCoreThreadTimeOut(true);
+        return stageExecutor;
+    }
+
+    /**
+     * @return the maximum number of asynchronous tasks that can be waiting or running at the same time.
+     */
+    public int getMaxPendingTasks() {
+        return getPositiveIntProperty(MAX_PENDING_TASKS_PROPERTY_NAME,
+                                      DEFAULT_MAX_PENDING_TASKS);
+    }
+
+    /**
+     * @return the seconds an asynchronous task submission waits for a pending task to finish before being rejected.
+     */
+    public int getAdmissionTimeout() {
+        return getPositiveIntProperty(ADMISSION_TIMEOUT_PROPERTY_NAME,
+                                      DEFAULT_ADMISSION_TIMEOUT);
+    }
+
+    private int getPositiveIntProperty(final String propertyName,
+                                       final int defaultValue) {
+        final String value = System.getProperties().getProperty(propertyName);
+        int result;
+        if (value == null) {
+            result = defaultValue;
+            logger.debug(propertyName + " property was not set, by default value will be used: " + defaultValue);
         } else {
             try {
-                threadPoolSize = Integer.parseInt(threadPoolSizeValue);
-                if (threadPoolSize <= 0) {
-                    threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-                    logger.error(THREAD_POOL_SIZE_PROPERTY_NAME + " property must be greater than 0, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE);
+                result = Integer.parseInt(value);
+                if (result <= 0) {
+                    result = defaultValue;
+                    logger.error(propertyName + " property must be greater than 0, by default value will be used: " + defaultValue);
                 } else {
-                    logger.debug(THREAD_POOL_SIZE_PROPERTY_NAME + " property will be set to: " + threadPoolSize);
+                    logger.debug(propertyName + " property will be set to: " + result);
                 }
             } catch (Exception e) {
-                threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-                logger.error(THREAD_POOL_SIZE_PROPERTY_NAME + " property was set to a wrong value, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE,
+                result = defaultValue;
+                logger.error(propertyName + " property was set to a wrong value, by default value will be used: " + defaultValue,
                              e);
             }
         }
-
-        return Executors.newFixedThreadPool(threadPoolSize);
+        return result;
     }
 
     public PipelineExecutor createPipelineExecutor() {
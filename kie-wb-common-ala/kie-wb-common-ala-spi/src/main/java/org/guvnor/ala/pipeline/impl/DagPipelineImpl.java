@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.guvnor.ala.pipeline.DagPipeline;
+import org.guvnor.ala.pipeline.Stage;
+
+public class DagPipelineImpl
+        extends BasePipeline
+        implements DagPipeline {
+
+    private final Map<Stage, List<Stage>> dependencies = new IdentityHashMap<>();
+
+    /**
+     * @param stages the stages of the pipeline, every stage after the stages it depends on.
+     * @param dependencies the dependencies of each stage.
+     */
+    public DagPipelineImpl(final String name,
+                           final List<Stage> stages,
+                           final Map<Stage, List<Stage>> dependencies) {
+        super(name,
+              Collections.unmodifiableList(new ArrayList<>(stages)));
+        for (int i = 0; i < stages.size(); i++) {
+            final Stage stage = stages.get(i);
+            final List<Stage> stageDependencies = dependencies.getOrDefault(stage,
+                                                                            Collections.emptyList());
+            for (final Stage dependency : stageDependencies) {
+                if (stages.subList(0,
+                                   i).stream().noneMatch(previous -> previous == dependency)) {
+                    throw new IllegalArgumentException("Stage " + stage.getName() + " depends on " + dependency.getName() +
+                                                               " which is not a previous stage of the pipeline.");
+                }
+            }
+            this.dependencies.put(stage,
+                                  Collections.unmodifiableList(new ArrayList<>(stageDependencies)));
+        }
+    }
+
+    @Override
+    public List<Stage> getDependencies(final Stage stage) {
+        return dependencies.getOrDefault(stage,
+                                         Collections.emptyList());
+    }
+}
@@ -17,6 +17,7 @@
 package org.guvnor.ala.registry;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTrace;
 import org.guvnor.ala.runtime.RuntimeId;
@@ -26,6 +27,14 @@ import org.guvnor.ala.runtime.RuntimeId;
  */
 public interface PipelineExecutorRegistry {
 
+    String TRACE_ID_SORT = "id";
+
+    String TRACE_PIPELINE_SORT = "pipeline";
+
+    String TRACE_PROVIDER_SORT = "provider";
+
+    String TRACE_STATUS_SORT = "status";
+
     /**
      * Registers a pipeline executor trace.
      * @param trace a pipeline executor trace for registering.
@@ -51,6 +60,19 @@ public interface PipelineExecutorRegistry {
      */
     Collection<PipelineExecutorTrace> getExecutorTraces();
 
+    /**
+     * Gets a page of the currently registered pipeline executor traces.
+     * @param page the page number, starting at 0.
+     * @param pageSize the number of traces per page.
+     * @param sort the sort to apply, one of TRACE_ID_SORT, TRACE_PIPELINE_SORT, TRACE_PROVIDER_SORT or TRACE_STATUS_SORT.
+     * @param sortOrder true for ascending order, false for descending order.
+     * @return a list with the pipeline executor traces in the page.
+     */
+    List<PipelineExecutorTrace> getExecutorTraces(final Integer page,
+                                                  final Integer pageSize,
+                                                  final String sort,
+                                                  final boolean sortOrder);
+
     /**
      * Gets the pipeline executor trace that produced a runtime.
      * @param runtimeId a runtime for finding the associated pipeline executor trace.
@@ -40,6 +40,12 @@ public interface RuntimeRegistry {
 
     String RUNTIME_STATE_SORT = "state";
 
+    String RUNTIME_NAME_SORT = "name";
+
+    String RUNTIME_PROVIDER_SORT = "provider";
+
+    String RUNTIME_STARTED_AT_SORT = "startedAt";
+
     /**
      * Registers a provider type.
      * @param providerType a provider type to register.
@@ -17,13 +17,13 @@
 package org.guvnor.ala.registry.inmemory;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
 import javax.enterprise.context.ApplicationScoped;
 
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTrace;
 import org.guvnor.ala.registry.PipelineExecutorRegistry;
+import org.guvnor.ala.registry.inmemory.util.SortedIndexes;
 import org.guvnor.ala.runtime.RuntimeId;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
@@ -32,7 +32,16 @@ import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull
 public class InMemoryPipelineExecutorRegistry
         implements PipelineExecutorRegistry {
 
-    protected Map<String, PipelineExecutorTrace> recordsMap = new ConcurrentHashMap<>();
+    protected SortedIndexes<PipelineExecutorTrace> records = new SortedIndexes<PipelineExecutorTrace>(PipelineExecutorTrace::getTaskId)
+            .withIndex(TRACE_ID_SORT,
+                       PipelineExecutorTrace::getTaskId)
+            .withIndex(TRACE_PIPELINE_SORT,
+                       PipelineExecutorTrace::getPipelineId)
+            .withIndex(TRACE_PROVIDER_SORT,
+                       trace -> trace.getTask() != null && trace.getTask().getTaskDef() != null && trace.getTask().getTaskDef().getProviderId() != null ?
+                               trace.getTask().getTaskDef().getProviderId().getId() : null)
+            .withIndex(TRACE_STATUS_SORT,
+                       trace -> trace.getTask() != null ? trace.getTask().getPipelineStatus() : null);
 
     public InMemoryPipelineExecutorRegistry() {
         //Empty constructor for Weld proxying
@@ -42,31 +51,41 @@ public class InMemoryPipelineExecutorRegistry
     public void register(final PipelineExecutorTrace trace) {
         checkNotNull("trace",
                      trace);
-        recordsMap.put(trace.getTaskId(),
-                       trace);
+        records.put(trace);
     }
 
     public void deregister(final String pipelineExecutionId) {
         checkNotNull("pipelineExecutionId",
                      pipelineExecutionId);
-        recordsMap.remove(pipelineExecutionId);
+        records.remove(pipelineExecutionId);
     }
 
     @Override
     public PipelineExecutorTrace getExecutorTrace(final String pipelineExecutionId) {
-        return recordsMap.get(pipelineExecutionId);
+        return records.get(pipelineExecutionId);
     }
 
     @Override
     public Collection<PipelineExecutorTrace> getExecutorTraces() {
-        return recordsMap.values();
+        return records.values();
+    }
+
+    @Override
+    public List<PipelineExecutorTrace> getExecutorTraces(final Integer page,
+                                                         final Integer pageSize,
+                                                         final String sort,
+                                                         final boolean sortOrder) {
+        return records.page(page,
+                            pageSize,
+                            sort,
+                            sortOrder);
     }
 
     @Override
     public PipelineExecutorTrace getExecutorTrace(final RuntimeId runtimeId) {
         checkNotNull("runtimeId",
                      runtimeId);
-        return recordsMap.values()
+        return records.values()
                 .stream()
                 .filter(trace ->
                                 (trace.getTask().getOutput() instanceof RuntimeId) &&
@@ -27,6 +27,7 @@ import javax.enterprise.context.ApplicationScoped;
 
 import org.guvnor.ala.registry.RuntimeRegistry;
 import org.guvnor.ala.registry.inmemory.util.PageSortUtil;
+import org.guvnor.ala.registry.inmemory.util.SortedIndexes;
 import org.guvnor.ala.runtime.Runtime;
 import org.guvnor.ala.runtime.RuntimeId;
 import org.guvnor.ala.runtime.providers.Provider;
@@ -41,9 +42,25 @@ public class InMemoryRuntimeRegistry
 
     protected Map<ProviderType, ProviderType> providerTypes = new ConcurrentHashMap<>();
 
-    protected Map<String, Provider> providers = new ConcurrentHashMap<>();
-
-    protected Map<String, Runtime> runtimes = new ConcurrentHashMap<>();
+    protected SortedIndexes<Provider> providers = new SortedIndexes<Provider>(Provider::getId)
+            .withIndex(PROVIDER_ID_SORT,
+                       Provider::getId)
+            .withIndex(PROVIDER_TYPE_NAME_SORT,
+                       provider -> provider.getProviderType() != null ? provider.getProviderType().getProviderTypeName() : null)
+            .withIndex(PROVIDER_TYPE_VERSION_SORT,
+                       provider -> provider.getProviderType() != null ? provider.getProviderType().getVersion() : null);
+
+    protected SortedIndexes<Runtime> runtimes = new SortedIndexes<Runtime>(Runtime::getId)
+            .withIndex(RUNTIME_ID_SORT,
+                       Runtime::getId)
+            .withIndex(RUNTIME_NAME_SORT,
+                       Runtime::getName)
+            .withIndex(RUNTIME_PROVIDER_SORT,
+                       runtime -> runtime.getProviderId() != null ? runtime.getProviderId().getId() : null)
+            .withIndex(RUNTIME_STATE_SORT,
+                       runtime -> runtime.getState() != null ? runtime.getState().getState() : null)
+            .withIndex(RUNTIME_STARTED_AT_SORT,
+                       runtime -> runtime.getState() != null ? runtime.getState().getStartedAt() : null);
 
     public InMemoryRuntimeRegistry() {
         //Empty constructor for Weld proxying
@@ -91,8 +108,7 @@ public class InMemoryRuntimeRegistry
     public void registerProvider(final Provider provider) {
         checkNotNull("provider",
                      provider);
-        providers.put(provider.getId(),
-                      provider);
+        providers.put(provider);
     }
 
     @Override
@@ -100,24 +116,10 @@ public class InMemoryRuntimeRegistry
                                        final Integer pageSize,
                                        final String sort,
                                        final boolean sortOrder) {
-        final Collection<Provider> values = providers.values();
-        return PageSortUtil.pageSort(values,
-                                     (Provider p1, Provider p2) -> {
-                                         switch (sort) {
-                                             case PROVIDER_ID_SORT:
-                                                 return p1.getId().compareTo(p2.getId());
-                                             case PROVIDER_TYPE_NAME_SORT:
-                                                 return p1.getProviderType().getProviderTypeName().compareTo(p2.getProviderType().getProviderTypeName());
-                                             case PROVIDER_TYPE_VERSION_SORT:
-                                                 return p1.getProviderType().getVersion().compareTo(p2.getProviderType().getVersion());
-                                             default:
-                                                 return p1.toString().compareTo(p2.toString());
-                                         }
-                                     },
-                                     page,
-                                     pageSize,
-                                     sort,
-                                     sortOrder);
+        return providers.page(page,
+                              pageSize,
+                              sort,
+                              sortOrder);
     }
 
     @Override
@@ -154,8 +156,7 @@ public class InMemoryRuntimeRegistry
     public void registerRuntime(final Runtime runtime) {
         checkNotNull("runtime",
                      runtime);
-        runtimes.put(runtime.getId(),
-                     runtime);
+        runtimes.put(runtime);
     }
 
     @Override
@@ -163,22 +164,10 @@ public class InMemoryRuntimeRegistry
                                      final Integer pageSize,
                                      final String sort,
                                      final boolean sortOrder) {
-        final Collection<Runtime> values = runtimes.values();
-        return PageSortUtil.pageSort(values,
-                                     (Runtime r1, Runtime r2) -> {
-                                         switch (sort) {
-                                             case RUNTIME_ID_SORT:
-                                                 return r1.getId().compareTo(r2.getId());
-                                             case RUNTIME_STATE_SORT:
-                                                 return r1.getState().getState().compareTo(r2.getState().getState());
-                                             default:
-                                                 return r1.toString().compareTo(r2.toString());
-                                         }
-                                     },
-                                     page,
-                                     pageSize,
-                                     sort,
-                                     sortOrder);
+        return runtimes.page(page,
+                             pageSize,
+                             sort,
+                             sortOrder);
     }
 
     @Override
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.registry.inmemory.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Holds the values of a registry by key, together with a sorted index for each supported sort. Pages are sliced
+ * directly from the index of the requested sort, so serving a page doesn't copy nor sort the whole collection.
+ * @param <T> the type of the registered values.
+ */
+public class SortedIndexes<T> {
+
+    private final Function<T, String> keyExtractor;
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+
+    private final Map<String, List<T>> indexes = new LinkedHashMap<>();
+
+    private final Map<String, Comparator<T>> comparators = new LinkedHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param keyExtractor extracts the unique and not null key of a value.
+     */
+    public SortedIndexes(final Function<T, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Adds an index for a sort, the first index added is used when no sort, or an unknown sort, is requested.
+     * Values with the same sort key are sorted by their key.
+     * @param sort the sort name served by the index.
+     * @param sortKeyExtractor extracts the sort key of a value, null keys are sorted first.
+     * @return this instance.
+     */
+    public <U extends Comparable<? super U>> SortedIndexes<T> withIndex(final String sort,
+                                                                        final Function<T, U> sortKeyExtractor) {
+        final Comparator<T> comparator = Comparator.comparing(sortKeyExtractor,
+                                                              Comparator.nullsFirst(Comparator.<U>naturalOrder()))
+                .thenComparing(keyExtractor);
+        lock.writeLock().lock();
+        try {
+            final List<T> index = new ArrayList<>(values.values());
+            index.sort(comparator);
+            indexes.put(sort,
+                        index);
+            comparators.put(sort,
+                            comparator);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Adds a value, or replaces the value with the same key.
+     */
+    public void put(final T value) {
+        lock.writeLock().lock();
+        try {
+            final T oldValue = values.put(keyExtractor.apply(value),
+                                          value);
+            comparators.forEach((sort, comparator) -> {
+                final List<T> index = indexes.get(sort);
+                if (oldValue != null) {
+                    removeFromIndex(index,
+                                    comparator,
+                                    oldValue);
+                }
+                final int position = Collections.binarySearch(index,
+                                                              value,
+                                                              comparator);
+                index.add(position < 0 ? -(position + 1) : position,
+                          value);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the value with the given key.
+     * @return the removed value, or null if no value had the key.
+     */
+    public T remove(final String key) {
+        lock.writeLock().lock();
+        try {
+            final T oldValue = values.remove(key);
+            if (oldValue != null) {
+                comparators.forEach((sort, comparator) -> removeFromIndex(indexes.get(sort),
+                                                                          comparator,
+                                                                          oldValue));
+            }
+            return oldValue;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public T get(final String key) {
+        return values.get(key);
+    }
+
+    /**
+     * @return an unsorted view of the values.
+     */
+    public Collection<T> values() {
+        return Collections.unmodifiableCollection(values.values());
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Gets a page of the values, sorted as requested.
+     * @param page the page number, starting at 0.
+     * @param pageSize the number of values per page.
+     * @param sort the sort to apply, when null or empty the values are returned in the default ascending order.
+     * @param sortOrder true for ascending order, false for descending order.
+     * @return the values of the page, an empty list if the page is out of range.
+     */
+    public List<T> page(final Integer page,
+                        final Integer pageSize,
+                        final String sort,
+                        final boolean sortOrder) {
+        if (page < 0) {
+            throw new IllegalStateException("Page must be greater or equals than 0");
+        }
+        if (pageSize < 1) {
+            throw new IllegalStateException("PageSize must be greater than 0");
+        }
+        final boolean ascending = sort == null || sort.isEmpty() || sortOrder;
+        lock.readLock().lock();
+        try {
+            List<T> index = sort != null ? indexes.get(sort) : null;
+            if (index == null) {
+                index = indexes.values().iterator().next();
+            }
+            final long from = (long) page * pageSize;
+            if (from >= index.size()) {
+                return Collections.emptyList();
+            }
+            final int to = (int) Math.min(index.size(),
+                                          from + pageSize);
+            final List<T> result = new ArrayList<>(to - (int) from);
+            for (int i = (int) from; i < to; i++) {
+                result.add(ascending ? index.get(i) : index.get(index.size() - 1 - i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromIndex(final List<T> index,
+                                 final Comparator<T> comparator,
+                                 final T value) {
+        final int position = Collections.binarySearch(index,
+                                                      value,
+                                                      comparator);
+        if (position >= 0) {
+            index.remove(position);
+        } else {
+            //the sort key of the value was modified after it was indexed.
+            final String key = keyExtractor.apply(value);
+            index.removeIf(indexed -> key.equals(keyExtractor.apply(indexed)));
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.guvnor.ala.config.Config;
+import org.guvnor.ala.pipeline.DagPipeline;
+import org.guvnor.ala.pipeline.FunctionConfigExecutor;
+import org.guvnor.ala.pipeline.Input;
+import org.guvnor.ala.pipeline.PipelineFactory;
+import org.guvnor.ala.pipeline.Stage;
+import org.guvnor.ala.pipeline.events.AfterPipelineExecutionEvent;
+import org.guvnor.ala.pipeline.events.AfterStageExecutionEvent;
+import org.guvnor.ala.pipeline.events.BeforePipelineExecutionEvent;
+import org.guvnor.ala.pipeline.events.BeforeStageExecutionEvent;
+import org.guvnor.ala.pipeline.events.OnErrorPipelineExecutionEvent;
+import org.guvnor.ala.pipeline.events.OnErrorStageExecutionEvent;
+import org.guvnor.ala.pipeline.events.PipelineEventListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PipelineExecutorDagTest {
+
+    public interface StepConfig extends Config {
+
+        String getName();
+    }
+
+    public static class StepConfigImpl implements StepConfig {
+
+        private final String name;
+
+        public StepConfigImpl(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class BaseListener implements PipelineEventListener {
+
+        @Override
+        public void beforePipelineExecution(final BeforePipelineExecutionEvent bpee) {
+        }
+
+        @Override
+        public void afterPipelineExecution(final AfterPipelineExecutionEvent apee) {
+        }
+
+        @Override
+        public void beforeStageExecution(final BeforeStageExecutionEvent bsee) {
+        }
+
+        @Override
+        public void onStageError(final OnErrorStageExecutionEvent oesee) {
+        }
+
+        @Override
+        public void afterStageExecution(final AfterStageExecutionEvent asee) {
+        }
+
+        @Override
+        public void onPipelineError(final OnErrorPipelineExecutionEvent oepee) {
+        }
+    }
+
+    private ExecutorService stageExecutor;
+
+    private CountDownLatch independentStages;
+
+    private List<String> executedSteps;
+
+    private PipelineExecutor executor;
+
+    private List<String> finishedStages;
+
+    private PipelineEventListener listener;
+
+    @Before
+    public void setUp() {
+        stageExecutor = Executors.newFixedThreadPool(2);
+        independentStages = new CountDownLatch(2);
+        executedSteps = Collections.synchronizedList(new ArrayList<>());
+        finishedStages = Collections.synchronizedList(new ArrayList<>());
+        listener = new BaseListener() {
+            @Override
+            public void afterStageExecution(final AfterStageExecutionEvent asee) {
+                finishedStages.add(asee.getStage().getName());
+            }
+        };
+        executor = new PipelineExecutor(Collections.singletonList(new FunctionConfigExecutor<StepConfig, StepConfig>() {
+            @Override
+            public Optional<StepConfig> apply(final StepConfig config) {
+                final String name = config.getName();
+                if (name.startsWith("independent")) {
+                    //both independent stages must be running at the same time for the latch to open
+                    independentStages.countDown();
+                    try {
+                        if (!independentStages.await(10,
+                                                     TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("Independent stages were not executed concurrently.");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                if (name.startsWith("failing")) {
+                    throw new IllegalStateException("Failing step.");
+                }
+                executedSteps.add(name);
+                //the output of a stage is the input of the stages depending on it
+                return Optional.of(new StepConfigImpl(name + "-output"));
+            }
+
+            @Override
+            public Class<? extends Config> executeFor() {
+                return StepConfig.class;
+            }
+
+            @Override
+            public String outputId() {
+                return "step";
+            }
+        }));
+        executor.setStageExecutor(stageExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        stageExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentStagesAreExecutedConcurrently() {
+        final DagPipeline pipeline = PipelineFactory.newDagBuilder()
+                .addConfigStage("first",
+                                new StepConfigImpl("independent1"))
+                .addConfigStage("second",
+                                new StepConfigImpl("independent2"))
+                .addConfigStage("join",
+                                new StepConfigImpl("join"),
+                                "first",
+                                "second")
+                .buildAs("dag");
+
+        final AtomicReference<StepConfig> result = new AtomicReference<>();
+        executor.execute(new Input(),
+                         pipeline,
+                         result::set,
+                         listener);
+
+        assertEquals("join-output",
+                     result.get().getName());
+        assertEquals(3,
+                     finishedStages.size());
+        assertEquals("join",
+                     finishedStages.get(2));
+        assertEquals("join",
+                     executedSteps.get(2));
+    }
+
+    @Test
+    public void testDependentStagesAreSkippedOnError() {
+        final DagPipeline pipeline = PipelineFactory.newDagBuilder()
+                .addConfigStage("first",
+                                new StepConfigImpl("failing"))
+                .addConfigStage("second",
+                                new StepConfigImpl("dependent"),
+                                "first")
+                .buildAs("dag");
+
+        final List<String> failedStages = new ArrayList<>();
+        final AtomicReference<StepConfig> result = new AtomicReference<>();
+        try {
+            executor.execute(new Input(),
+                             pipeline,
+                             result::set,
+                             listener,
+                             new BaseListener() {
+                                 @Override
+                                 public void onPipelineError(final OnErrorPipelineExecutionEvent oepee) {
+                                     failedStages.add(oepee.getStage().getName());
+                                 }
+                             });
+            fail("The pipeline execution must fail.");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("first"));
+        }
+        assertEquals(Collections.singletonList("first"),
+                     failedStages);
+        assertFalse(executedSteps.contains("dependent"));
+        assertTrue(finishedStages.isEmpty());
+        assertNull(result.get());
+    }
+
+    @Test
+    public void testCallbackReceivesTheOutputsOfEverySink() {
+        final DagPipeline pipeline = PipelineFactory.newDagBuilder()
+                .addConfigStage("first",
+                                new StepConfigImpl("first"))
+                .addConfigStage("second",
+                                new StepConfigImpl("second"),
+                                "first")
+                .addConfigStage("third",
+                                new StepConfigImpl("third"),
+                                "first")
+                .buildAs("dag");
+
+        final AtomicReference<List<StepConfig>> result = new AtomicReference<>();
+        executor.execute(new Input(),
+                         pipeline,
+                         result::set,
+                         listener);
+
+        assertEquals(2,
+                     result.get().size());
+        assertEquals("second-output",
+                     result.get().get(0).getName());
+        assertEquals("third-output",
+                     result.get().get(1).getName());
+    }
+
+    @Test
+    public void testDependentStagesWaitForAsynchronousStages() {
+        final Stage<Object, StepConfig> asyncStage = new Stage<Object, StepConfig>() {
+            @Override
+            public void execute(final Object input,
+                                final Consumer<StepConfig> callback) {
+                new Thread(() -> callback.accept(new StepConfigImpl("async"))).start();
+            }
+
+            @Override
+            public String getName() {
+                return "async";
+            }
+        };
+        final DagPipeline pipeline = PipelineFactory.newDagBuilder()
+                .addStage(asyncStage)
+                .addConfigStage("dependent",
+                                new StepConfigImpl("dependent"),
+                                "async")
+                .buildAs("dag");
+
+        final AtomicReference<StepConfig> result = new AtomicReference<>();
+        executor.execute(new Input(),
+                         pipeline,
+                         result::set,
+                         listener);
+
+        assertEquals("dependent-output",
+                     result.get().getName());
+        assertEquals(Arrays.asList("async",
+                                   "dependent"),
+                     executedSteps);
+        assertEquals(Arrays.asList("async",
+                                   "dependent"),
+                     finishedStages);
+    }
+
+    @Test
+    public void testStageNotCallingBackFailsThePipeline() {
+        final Stage<Object, StepConfig> silentStage = new Stage<Object, StepConfig>() {
+            @Override
+            public void execute(final Object input,
+                                final Consumer<StepConfig> callback) {
+                //returns without calling back
+            }
+
+            @Override
+            public String getName() {
+                return "silent";
+            }
+        };
+        final DagPipeline pipeline = PipelineFactory.newDagBuilder()
+                .addStage(silentStage)
+                .addConfigStage("dependent",
+                                new StepConfigImpl("dependent"),
+                                "silent")
+                .buildAs("dag");
+        executor.setDagTimeout(100);
+
+        final List<String> failedStages = new ArrayList<>();
+        try {
+            executor.execute(new Input(),
+                             pipeline,
+                             result -> fail("The pipeline must not complete."),
+                             listener,
+                             new BaseListener() {
+                                 @Override
+                                 public void onStageError(final OnErrorStageExecutionEvent oesee) {
+                                     failedStages.add(oesee.getStage().getName());
+                                 }
+                             });
+            fail("The pipeline execution must fail.");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("silent"));
+        }
+        assertEquals(Collections.singletonList("silent"),
+                     failedStages);
+        assertFalse(executedSteps.contains("dependent"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStagesCanOnlyDependOnPreviousStages() {
+        PipelineFactory.newDagBuilder()
+                .addConfigStage("first",
+                                new StepConfigImpl("first"),
+                                "second")
+                .addConfigStage("second",
+                                new StepConfigImpl("second"));
+    }
+}
@@ -111,6 +111,15 @@ public class PipelineExecutorTaskManagerImplHelperTest {
                                         PipelineExecutorTaskManagerImpl.DEFAULT_THREAD_POOL_SIZE);
     }
 
+    @Test
+    public void testCreateStageExecutorServiceWithDefaultValue() {
+        //verify the creation when the STAGE_THREAD_POOL_SIZE_PROPERTY_NAME property was not set.
+        //The by default value must be used.
+        ExecutorService executorService = taskManagerHelper.createStageExecutorService();
+        verifyExecutorServiceAndDestroy(executorService,
+                                        PipelineExecutorTaskManagerImpl.DEFAULT_STAGE_THREAD_POOL_SIZE);
+    }
+
     private void verifyExecutorServiceAndDestroy(ExecutorService executorService,
                                                  int expectedSize) {
         assertNotNull(executorService);
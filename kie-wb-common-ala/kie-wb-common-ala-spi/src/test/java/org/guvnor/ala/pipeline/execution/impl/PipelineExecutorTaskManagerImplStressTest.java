@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution.impl;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.guvnor.ala.pipeline.Input;
+import org.guvnor.ala.pipeline.Pipeline;
+import org.guvnor.ala.pipeline.events.PipelineEventListener;
+import org.guvnor.ala.pipeline.execution.PipelineExecutorTaskDef;
+import org.guvnor.ala.pipeline.execution.PipelineExecutorTaskManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PipelineExecutorTaskManagerImplStressTest
+        extends PipelineExecutorTaskManagerImplTestBase {
+
+    private static final int TASKS_COUNT = 5000;
+
+    private static final int SUBMITTERS_COUNT = 8;
+
+    private ExecutorService realExecutorService;
+
+    private ExecutorService submitters;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        realExecutorService = Executors.newFixedThreadPool(4);
+        submitters = Executors.newFixedThreadPool(SUBMITTERS_COUNT);
+        doReturn(realExecutorService).when(taskManagerHelper).createExecutorService();
+
+        pipeline = mock(Pipeline.class);
+        stages = mockStages(PIPELINE_STAGES_SIZE);
+        when(pipeline.getStages()).thenReturn(stages);
+        when(pipeline.getName()).thenReturn(PIPELINE_ID);
+        when(pipelineRegistry.getPipelineByName(PIPELINE_ID)).thenReturn(pipeline);
+
+        taskDef = mock(PipelineExecutorTaskDef.class);
+        input = mock(Input.class);
+        when(taskDef.getInput()).thenReturn(input);
+        when(taskDef.getPipeline()).thenReturn(PIPELINE_ID);
+    }
+
+    @After
+    public void tearDown() {
+        //releases the executors created by init(), such as the stage executor
+        taskManager.destroy();
+        submitters.shutdownNow();
+        realExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void testExecuteManyAsyncTasks() throws Exception {
+        taskManager.init();
+
+        final Set<String> taskIds = ConcurrentHashMap.newKeySet();
+        final CountDownLatch submitted = new CountDownLatch(TASKS_COUNT);
+        for (int i = 0; i < TASKS_COUNT; i++) {
+            submitters.execute(() -> {
+                taskIds.add(taskManager.execute(taskDef,
+                                                PipelineExecutorTaskManager.ExecutionMode.ASYNCHRONOUS));
+                submitted.countDown();
+            });
+        }
+        assertTrue(submitted.await(60,
+                                   TimeUnit.SECONDS));
+        assertEquals(TASKS_COUNT,
+                     taskIds.size());
+
+        realExecutorService.shutdown();
+        assertTrue(realExecutorService.awaitTermination(60,
+                                                        TimeUnit.SECONDS));
+
+        assertTrue(taskManager.currentTasks.isEmpty());
+        assertTrue(taskManager.futureTaskMap.isEmpty());
+        assertEquals(0,
+                     taskManager.getQueuedTasksCount());
+        assertEquals(0,
+                     taskManager.getActiveTasksCount());
+        assertEquals(taskManagerHelper.getMaxPendingTasks(),
+                     taskManager.admission.availablePermits());
+        assertTrue(taskManager.getMaxWaitTime() >= taskManager.getAverageWaitTime());
+    }
+
+    @Test
+    public void testTasksOverTheLimitAreRejected() throws Exception {
+        doReturn(2).when(taskManagerHelper).getMaxPendingTasks();
+        doReturn(1).when(taskManagerHelper).getAdmissionTimeout();
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(60,
+                          TimeUnit.SECONDS);
+            return null;
+        }).when(pipelineExecutor).execute(eq(input),
+                                          eq(pipeline),
+                                          any(Consumer.class),
+                                          any(PipelineEventListener.class));
+        taskManager.init();
+
+        taskManager.execute(taskDef,
+                            PipelineExecutorTaskManager.ExecutionMode.ASYNCHRONOUS);
+        taskManager.execute(taskDef,
+                            PipelineExecutorTaskManager.ExecutionMode.ASYNCHRONOUS);
+        try {
+            taskManager.execute(taskDef,
+                                PipelineExecutorTaskManager.ExecutionMode.ASYNCHRONOUS);
+            fail("The task must be rejected when the maximum number of pending tasks is reached.");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+        assertEquals(2,
+                     taskManager.currentTasks.size());
+
+        release.countDown();
+        realExecutorService.shutdown();
+        assertTrue(realExecutorService.awaitTermination(60,
+                                                        TimeUnit.SECONDS));
+        assertEquals(2,
+                     taskManager.admission.availablePermits());
+        assertEquals(0,
+                     taskManager.getActiveTasksCount());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.registry.inmemory.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SortedIndexesTest {
+
+    private static class Value {
+
+        private final String id;
+
+        private final String state;
+
+        Value(final String id,
+              final String state) {
+            this.id = id;
+            this.state = state;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getState() {
+            return state;
+        }
+    }
+
+    private SortedIndexes<Value> indexes;
+
+    @Before
+    public void setUp() {
+        indexes = new SortedIndexes<Value>(Value::getId)
+                .withIndex("id",
+                           Value::getId)
+                .withIndex("state",
+                           Value::getState);
+        indexes.put(new Value("c",
+                              "RUNNING"));
+        indexes.put(new Value("a",
+                              "STOPPED"));
+        indexes.put(new Value("e",
+                              null));
+        indexes.put(new Value("b",
+                              "RUNNING"));
+        indexes.put(new Value("d",
+                              "READY"));
+    }
+
+    @Test
+    public void testPagesAreSortedAcrossTheWholeCollection() {
+        assertEquals(Arrays.asList("a",
+                                   "b"),
+                     ids(indexes.page(0,
+                                      2,
+                                      "id",
+                                      true)));
+        assertEquals(Arrays.asList("c",
+                                   "d"),
+                     ids(indexes.page(1,
+                                      2,
+                                      "id",
+                                      true)));
+        assertEquals(Arrays.asList("e",
+                                   "d"),
+                     ids(indexes.page(0,
+                                      2,
+                                      "id",
+                                      false)));
+        assertEquals(Arrays.asList("a"),
+                     ids(indexes.page(2,
+                                      2,
+                                      "id",
+                                      false)));
+        assertTrue(indexes.page(3,
+                                2,
+                                "id",
+                                true).isEmpty());
+    }
+
+    @Test
+    public void testValuesWithTheSameSortKeyAreSortedByKey() {
+        assertEquals(Arrays.asList("e",
+                                   "d",
+                                   "b",
+                                   "c",
+                                   "a"),
+                     ids(indexes.page(0,
+                                      10,
+                                      "state",
+                                      true)));
+    }
+
+    @Test
+    public void testUnknownSortUsesTheFirstIndex() {
+        assertEquals(Arrays.asList("a",
+                                   "b",
+                                   "c",
+                                   "d",
+                                   "e"),
+                     ids(indexes.page(0,
+                                      10,
+                                      "",
+                                      false)));
+        assertEquals(Arrays.asList("e",
+                                   "d"),
+                     ids(indexes.page(0,
+                                      2,
+                                      "unknown",
+                                      false)));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        indexes.put(new Value("a",
+                              "READY"));
+        assertEquals(5,
+                     indexes.size());
+        assertEquals(Arrays.asList("e",
+                                   "a",
+                                   "d",
+                                   "b",
+                                   "c"),
+                     ids(indexes.page(0,
+                                      10,
+                                      "state",
+                                      true)));
+
+        assertEquals("b",
+                     indexes.remove("b").getId());
+        assertNull(indexes.get("b"));
+        assertNull(indexes.remove("b"));
+        assertEquals(Arrays.asList("a",
+                                   "c",
+                                   "d",
+                                   "e"),
+                     ids(indexes.page(0,
+                                      10,
+                                      "id",
+                                      true)));
+        assertEquals(Arrays.asList("e",
+                                   "a",
+                                   "d",
+                                   "c"),
+                     ids(indexes.page(0,
+                                      10,
+                                      "state",
+                                      true)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNegativePage() {
+        indexes.page(-1,
+                     10,
+                     "id",
+                     true);
+    }
+
+    private static List<String> ids(final List<Value> values) {
+        return values.stream()
+                .map(Value::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -71,4 +71,9 @@ public interface CompilationResponse {
      * Provides the list of all dependencies used by the project, included transitive
      */
     List<URL> getTargetContentAsURL();
+
+    /**
+     * Provides the time spent processing the poms of the project for this build, 0 if they were not processed
+     */
+    long getPomProcessingTimeMillis();
 }
@@ -22,6 +22,8 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.codehaus.plexus.classworlds.ClassWorld;
 import org.kie.workbench.common.services.backend.compiler.AFCompiler;
@@ -29,6 +31,7 @@ import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
 import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.configuration.MavenConfig;
 import org.kie.workbench.common.services.backend.compiler.impl.external339.ReusableAFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.impl.external339.ReusableAFMavenCliPool;
 import org.kie.workbench.common.services.backend.compiler.impl.incrementalenabler.DefaultIncrementalCompilerEnabler;
 import org.kie.workbench.common.services.backend.compiler.impl.incrementalenabler.IncrementalCompilerEnabler;
 import org.slf4j.Logger;
@@ -54,14 +57,17 @@ public class BaseMavenCompiler<T extends CompilationResponse> implements AFCompi
 
     private static final Logger logger = LoggerFactory.getLogger(BaseMavenCompiler.class);
     private int writeBlockSize = 1024;
-    private ReusableAFMavenCli cli;
+    private ReusableAFMavenCliPool cliPool;
+    private Set<String> usedCliKeys;
     private boolean changedPoms;
     private boolean skipLog;
+    private Boolean kiePluginPresent;
 
     private IncrementalCompilerEnabler enabler;
 
     public BaseMavenCompiler(boolean enableIncremental, boolean enableLogging) {
-        cli = new ReusableAFMavenCli();
+        cliPool = ReusableAFMavenCliPool.getInstance();
+        usedCliKeys = ConcurrentHashMap.newKeySet();
         enabler = new DefaultIncrementalCompilerEnabler();
         if(!enableIncremental){
             changedPoms = true;
@@ -72,7 +78,11 @@ public class BaseMavenCompiler<T extends CompilationResponse> implements AFCompi
     }
 
     public Boolean cleanInternalCache() {
-        return enabler.cleanHistory() && cli.cleanInternals();
+        boolean cleaned = enabler.cleanHistory();
+        for (String key : usedCliKeys) {
+            cleaned = cliPool.clean(key) && cleaned;
+        }
+        return cleaned;
     }
 
     @Override
@@ -86,9 +96,14 @@ public class BaseMavenCompiler<T extends CompilationResponse> implements AFCompi
             }
         }
 
+        long pomProcessingTimeMillis = 0;
         if(!changedPoms) {
-            enabler.process(req);
+            pomProcessingTimeMillis = enabler.process(req).getProcessingTimeMillis();
             changedPoms = true;
+            kiePluginPresent = req.getInfo().isKiePluginPresent();
+        } else {
+            // the poms are processed once, the kie plugin they were found with applies to every build
+            req.getInfo().lateAdditionKiePluginPresent(kiePluginPresent);
         }
 
         req.getKieCliRequest().getRequest().setLocalRepositoryPath(req.getMavenRepo());
@@ -102,14 +117,20 @@ public class BaseMavenCompiler<T extends CompilationResponse> implements AFCompi
         ClassLoader original = Thread.currentThread().getContextClassLoader();
         ClassWorld kieClassWorld = new ClassWorld("plexus.core", getClass().getClassLoader());
 
-        int exitCode = cli.doMain(req.getKieCliRequest(), kieClassWorld);
+        String cliKey = ReusableAFMavenCliPool.toKey(req);
+        usedCliKeys.add(cliKey);
+        ReusableAFMavenCli cli = cliPool.borrow(cliKey);
+        int exitCode;
+        try {
+            exitCode = cli.doMain(req.getKieCliRequest(), kieClassWorld);
+        } finally {
+            cliPool.release(cliKey, cli);
+        }
 
         Thread.currentThread().setContextClassLoader(original);
-        if (exitCode == 0) {
-            return (T) new DefaultKieCompilationResponse(Boolean.TRUE, req.getRequestUUID());
-        } else {
-            return (T) new DefaultKieCompilationResponse(Boolean.FALSE, req.getRequestUUID());
-        }
+        DefaultKieCompilationResponse res = new DefaultKieCompilationResponse(exitCode == 0, req.getRequestUUID());
+        res.setPomProcessingTimeMillis(pomProcessingTimeMillis);
+        return (T) res;
     }
 
     @Override
@@ -39,6 +39,7 @@ public class DefaultCompilationResponse implements CompilationResponse,
     private List<String> mavenOutput;
     private Path workingDir;
     private String requestUUID;
+    private long pomProcessingTimeMillis;
 
     private List<String> projectDependencies = Collections.emptyList();
     private List<URI> projectDependenciesAsURI = Collections.emptyList();
@@ -151,6 +152,15 @@ public class DefaultCompilationResponse implements CompilationResponse,
         return requestUUID;
     }
 
+    @Override
+    public long getPomProcessingTimeMillis() {
+        return pomProcessingTimeMillis;
+    }
+
+    public void setPomProcessingTimeMillis(long pomProcessingTimeMillis) {
+        this.pomProcessingTimeMillis = pomProcessingTimeMillis;
+    }
+
     private List<URL> getProjectDependenciesAsURLs() {
         if (projectDependencies != null && !projectDependencies.isEmpty()) {
             return CompilerClassloaderUtils.readAllDepsAsUrls(projectDependencies);
@@ -179,6 +189,7 @@ public class DefaultCompilationResponse implements CompilationResponse,
         sb.append(", mavenOutput=").append(mavenOutput);
         sb.append(", workingDir=").append(workingDir);
         sb.append(", requestUUID='").append(requestUUID).append('\'');
+        sb.append(", pomProcessingTimeMillis=").append(pomProcessingTimeMillis);
         sb.append(", projectDependencies=").append(projectDependencies);
         sb.append(", projectDependenciesAsURI=").append(projectDependenciesAsURI);
         sb.append(", projectDependenciesAsURL=").append(projectDependenciesAsURL);
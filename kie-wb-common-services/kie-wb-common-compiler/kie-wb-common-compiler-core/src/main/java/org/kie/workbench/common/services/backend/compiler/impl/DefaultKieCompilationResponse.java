@@ -15,6 +15,7 @@
  */
 package org.kie.workbench.common.services.backend.compiler.impl;
 
+import java.io.Closeable;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URL;
@@ -26,6 +27,7 @@ import java.util.Set;
 
 import org.drools.core.rule.KieModuleMetaInfo;
 import org.kie.api.builder.KieModule;
+import org.kie.workbench.common.services.backend.compiler.impl.classloader.MappedClassStore;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.Paths;
@@ -36,11 +38,13 @@ import org.uberfire.java.nio.file.Paths;
  * and a  List of String with the maven output
  */
 public class DefaultKieCompilationResponse implements KieCompilationResponse,
+                                                      Closeable,
                                                       Serializable {
 
     private KieModuleMetaInfo kieModuleMetaInfo;
     private KieModule kieModule;
     private Map<String, byte[]> projectClassLoaderStore;
+    private transient MappedClassStore classStore;
     private Set<String> eventsTypeClasses;
     private DefaultCompilationResponse defaultResponse;
 
@@ -104,7 +108,7 @@ public class DefaultKieCompilationResponse implements KieCompilationResponse,
                                                               requestUUID);
         this.kieModuleMetaInfo = kieModuleMetaInfo;
         this.kieModule = kieModule;
-        this.projectClassLoaderStore = projectClassLoaderStore;
+        this.projectClassLoaderStore = toMappedStore(projectClassLoaderStore);
         this.eventsTypeClasses = eventTypesClasses;
     }
 
@@ -118,8 +122,21 @@ public class DefaultKieCompilationResponse implements KieCompilationResponse,
 
         this.kieModuleMetaInfo = res.getKieModuleMetaInfo().orElse(null);
         this.kieModule = res.getKieModule().orElse(null);
-        this.projectClassLoaderStore = Optional.ofNullable(res.getProjectClassLoaderStore()).orElse(Collections.emptyMap());
+        this.projectClassLoaderStore = toMappedStore(Optional.ofNullable(res.getProjectClassLoaderStore()).orElse(Collections.emptyMap()));
         this.eventsTypeClasses = Optional.ofNullable(res.getEventTypeClasses()).orElse(Collections.emptySet());
+        this.defaultResponse.setPomProcessingTimeMillis(res.getPomProcessingTimeMillis());
+    }
+
+    /**
+     * Responses are cached with their builds, the generated classes are kept off heap until they are requested.
+     * A response copied from another one shares its store, each of them owns a reference to it, see {@link #close()}.
+     */
+    private Map<String, byte[]> toMappedStore(Map<String, byte[]> store) {
+        if (store == null || store.isEmpty()) {
+            return store;
+        }
+        classStore = MappedClassStore.of(store);
+        return classStore.asMap();
     }
 
     private Path getWorkingDir(String workingDir){
@@ -185,7 +202,7 @@ public class DefaultKieCompilationResponse implements KieCompilationResponse,
     }
 
     @Override
-    public Map<String, byte[]> getProjectClassLoaderStore() {
+    public synchronized Map<String, byte[]> getProjectClassLoaderStore() {
         return projectClassLoaderStore;
     }
 
@@ -198,6 +215,28 @@ public class DefaultKieCompilationResponse implements KieCompilationResponse,
         return defaultResponse.getRequestUUID();
     }
 
+    @Override
+    public long getPomProcessingTimeMillis() {
+        return defaultResponse.getPomProcessingTimeMillis();
+    }
+
+    public void setPomProcessingTimeMillis(long pomProcessingTimeMillis) {
+        defaultResponse.setPomProcessingTimeMillis(pomProcessingTimeMillis);
+    }
+
+    /**
+     * Releases the reference of the response to its generated classes, the class store is released once every
+     * response sharing it is closed. The class loader store of the response is empty afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        if (classStore != null) {
+            classStore.close();
+            classStore = null;
+            projectClassLoaderStore = Collections.emptyMap();
+        }
+    }
+
     @Override
     public String toString() {
         return "DefaultKieCompilationResponse{" +
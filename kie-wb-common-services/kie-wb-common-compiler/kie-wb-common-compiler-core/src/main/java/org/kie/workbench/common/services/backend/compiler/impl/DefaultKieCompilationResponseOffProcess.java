@@ -42,6 +42,7 @@ public class DefaultKieCompilationResponseOffProcess implements Serializable {
     private List<String> mavenOutput;
     private String workingDir;
     private String requestUUID;
+    private long pomProcessingTimeMillis;
 
     private List<String> projectDependencies = Collections.emptyList();
     private List<URI> projectDependenciesAsURI = Collections.emptyList();
@@ -72,6 +73,7 @@ public class DefaultKieCompilationResponseOffProcess implements Serializable {
         this.projectDependencies = Optional.ofNullable(res.getDependencies()).orElse(Collections.emptyList());
         this.targetContent = Optional.ofNullable(res.getTargetContent()).orElse(Collections.emptyList());
         this.workingDir = res.getWorkingDir().map(Object::toString).orElse("");
+        this.pomProcessingTimeMillis = res.getPomProcessingTimeMillis();
     }
 
     public Optional<KieModuleMetaInfo> getKieModuleMetaInfo() {
@@ -110,6 +112,10 @@ public class DefaultKieCompilationResponseOffProcess implements Serializable {
         return requestUUID;
     }
 
+    public long getPomProcessingTimeMillis() {
+        return pomProcessingTimeMillis;
+    }
+
     public List<URI> getDependenciesAsURI() {
         if (projectDependenciesAsURI.isEmpty()) {
             projectDependenciesAsURI = getProjectDependenciesAsURIs();
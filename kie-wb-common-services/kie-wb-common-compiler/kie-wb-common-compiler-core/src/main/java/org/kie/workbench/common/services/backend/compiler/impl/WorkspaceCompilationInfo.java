@@ -52,6 +52,13 @@ public class WorkspaceCompilationInfo {
         return Boolean.FALSE;
     }
 
+    /**
+     * Forgets the kie plugin found by a previous build, the info is shared by the builds of a project
+     */
+    public void resetKiePluginPresent() {
+        kiePluginPresent = Boolean.FALSE;
+    }
+
     public Boolean isKiePluginPresent() {
         return kiePluginPresent;
     }
@@ -16,7 +16,6 @@
 package org.kie.workbench.common.services.backend.compiler.impl.classloader;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -27,7 +26,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -108,27 +106,49 @@ public class CompilerClassloaderUtils {
         return Optional.empty();
     }
 
+    /**
+     * @return A view of the classes compiled under the path and of the given store, their bytes are kept in a
+     * {@link MappedClassStore} and read on access
+     */
     public static Map<String, byte[]> getMapClasses(String path,
                                                     Map<String, byte[]> store) {
+        return getClassStore(path,
+                             store).asMap();
+    }
+
+    /**
+     * @return The store of the classes compiled under the path and of the given store. The compiled classes are copied
+     * from their files straight into the store, without reading them on heap.
+     */
+    public static MappedClassStore getClassStore(String path,
+                                                 Map<String, byte[]> store) {
 
         final List<String> keys = IoUtils.recursiveListFile(new File(path),
                                                             "",
                                                             filterClasses());
-        final Map<String, byte[]> classes = new HashMap<>(keys.size() + store.size());
-
-        for (String item : keys) {
-            byte[] bytez = getBytes(path + CommonConstants.SEPARATOR + item);
-            String fqn = item.substring(item.lastIndexOf(CommonConstants.MAVEN_TARGET) + CommonConstants.MAVEN_TARGET.length());
-            classes.put(fqn,
-                        bytez);
-        }
-        if (!store.isEmpty()) {
+        MappedClassStore.Builder builder = null;
+        try {
+            builder = MappedClassStore.builder();
+            for (String item : keys) {
+                String fqn = item.substring(item.lastIndexOf(CommonConstants.MAVEN_TARGET) + CommonConstants.MAVEN_TARGET.length());
+                File classFile = new File(path + CommonConstants.SEPARATOR + item);
+                if (classFile.exists() && !store.containsKey(fqn)) {
+                    builder.add(fqn,
+                                classFile.toPath());
+                }
+            }
             for (Map.Entry<String, byte[]> entry : store.entrySet()) {
-                classes.put(entry.getKey(),
+                builder.add(entry.getKey(),
                             entry.getValue());
             }
+            return builder.build();
+        } catch (IOException e) {
+            if (builder != null) {
+                builder.discard();
+            }
+            throw new RuntimeException("Unable to store the classes of: " + path,
+                                       e);
         }
-        return classes;
     }
 
     public static Predicate<File> filterClasses() {
@@ -331,15 +351,6 @@ public class CompilerClassloaderUtils {
         return deps;
     }
 
-    private static byte[] getBytes(String pResourceName) {
-        try {
-            File resource = new File(pResourceName);
-            return resource.exists() ? IoUtils.readBytesFromInputStream(new FileInputStream(pResourceName)) : null;
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to get bytes for: " + new File(pResourceName) + " " + e.getMessage());
-        }
-    }
-
     public static Set<String> filterPathClasses(Collection<String> paths,
                                                 String mavenRepoPath) {
         return paths.stream().collect(new FilterPathClassesCollector(mavenRepoPath));
@@ -0,0 +1,482 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.classloader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable store of class bytes, written once in a single archive file that is memory mapped. The heap only holds
+ * the offset and length of each entry, the bytes are copied out of the mapping when requested.
+ * <p>
+ * The archive file is deleted as soon as it is mapped. A store is reference counted: the store built, and each store
+ * returned by {@link #of(Map)} for a view of it, is one reference its owner closes once. When the last reference is
+ * closed the store is released, the mapping is then freed by the garbage collection.
+ */
+public class MappedClassStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedClassStore.class);
+
+    private static final MappedClassStore EMPTY = new MappedClassStore(Collections.emptyMap(),
+                                                                       ByteBuffer.allocate(0),
+                                                                       null);
+
+    private final Map<String, Long> index;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private volatile ByteBuffer archive;
+    //Archive file that could not be deleted while mapped, null once deleted
+    private volatile Path file;
+
+    private MappedClassStore(final Map<String, Long> index,
+                             final ByteBuffer archive,
+                             final Path file) {
+        this.index = index;
+        this.archive = archive;
+        this.file = file;
+    }
+
+    /**
+     * Collects entries in the archive, each entry is read and written on its own
+     */
+    public static class Builder {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final Map<String, Long> index = new LinkedHashMap<>();
+        private long size;
+
+        private Builder() throws IOException {
+            this.file = Files.createTempFile("kie-class-store",
+                                             ".bin");
+            this.channel = FileChannel.open(file,
+                                            StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE);
+        }
+
+        public Builder add(final String name,
+                           final byte[] bytes) throws IOException {
+            if (bytes == null) {
+                return this;
+            }
+            if (size + bytes.length > Integer.MAX_VALUE) {
+                throw new IOException("Class store is limited to " + Integer.MAX_VALUE + " bytes");
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer,
+                              size + buffer.position());
+            }
+            index.put(name,
+                      (size << 32) | bytes.length);
+            size += bytes.length;
+            return this;
+        }
+
+        /**
+         * Copies the content of the file straight into the archive, without reading it on heap
+         */
+        public Builder add(final String name,
+                           final Path source) throws IOException {
+            try (FileChannel sourceChannel = FileChannel.open(source,
+                                                              StandardOpenOption.READ)) {
+                final long length = sourceChannel.size();
+                if (size + length > Integer.MAX_VALUE) {
+                    throw new IOException("Class store is limited to " + Integer.MAX_VALUE + " bytes");
+                }
+                long copied = 0;
+                while (copied < length) {
+                    final long transferred = sourceChannel.transferTo(copied,
+                                                                      length - copied,
+                                                                      channel.position(size + copied));
+                    if (transferred <= 0) {
+                        throw new IOException("Unable to copy " + source + " into the class store");
+                    }
+                    copied += transferred;
+                }
+                index.put(name,
+                          (size << 32) | length);
+                size += length;
+            }
+            return this;
+        }
+
+        public MappedClassStore build() throws IOException {
+            final MappedByteBuffer mapping;
+            try {
+                if (index.isEmpty()) {
+                    discard();
+                    return EMPTY;
+                }
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY,
+                                      0,
+                                      size);
+            } catch (IOException e) {
+                discard();
+                throw e;
+            }
+            channel.close();
+            //The mapping outlives the file where the platform allows it, otherwise the file is deleted on close
+            return new MappedClassStore(new HashMap<>(index),
+                                        mapping,
+                                        delete(file) ? null : file);
+        }
+
+        /**
+         * Releases the archive of a store that is not going to be built
+         */
+        public void discard() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Unable to close class store {}: {}",
+                             file,
+                             e.getMessage());
+            }
+            delete(file);
+        }
+    }
+
+    public static Builder builder() throws IOException {
+        return new Builder();
+    }
+
+    /**
+     * @return The store of the given classes, to be closed by the caller. A view of a store, see {@link #asMap()},
+     * returns a new reference to the store it views as long as it has not been modified.
+     * @throws IllegalStateException if the classes are an unmodified view of a released store
+     */
+    public static MappedClassStore of(final Map<String, byte[]> classes) {
+        if (classes instanceof MapView && !((MapView) classes).isModified()) {
+            final MappedClassStore store = ((MapView) classes).store;
+            if (store.retain()) {
+                return store;
+            }
+        }
+        if (classes.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = null;
+        try {
+            builder = builder();
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                builder.add(entry.getKey(),
+                            entry.getValue());
+            }
+            return builder.build();
+        } catch (IOException e) {
+            if (builder != null) {
+                builder.discard();
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return A copy of the bytes of the entry, or null if not present
+     * @throws IllegalStateException if all the references to the store are closed
+     */
+    public byte[] getBytes(final String name) {
+        final ByteBuffer mapping = archive;
+        if (mapping == null) {
+            throw new IllegalStateException("The class store is closed");
+        }
+        return read(mapping,
+                    name);
+    }
+
+    private byte[] read(final ByteBuffer mapping,
+                        final String name) {
+        final Long location = index.get(name);
+        if (location == null) {
+            return null;
+        }
+        final byte[] bytes = new byte[(int) (location & 0xFFFFFFFFL)];
+        final ByteBuffer view = mapping.duplicate();
+        view.position((int) (location >>> 32));
+        view.get(bytes);
+        return bytes;
+    }
+
+    private boolean isOpen() {
+        return archive != null;
+    }
+
+    public boolean contains(final String name) {
+        return index.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return False if the store is already released
+     */
+    private boolean retain() {
+        if (this == EMPTY) {
+            return true;
+        }
+        while (true) {
+            final int count = references.get();
+            if (count == 0) {
+                return false;
+            }
+            if (references.compareAndSet(count,
+                                         count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Closes one reference to the store. Once the last one is closed neither the store nor its views can be read
+     * anymore.
+     */
+    @Override
+    public void close() {
+        if (this == EMPTY) {
+            return;
+        }
+        while (true) {
+            final int count = references.get();
+            if (count == 0) {
+                return;
+            }
+            if (references.compareAndSet(count,
+                                         count - 1)) {
+                if (count > 1) {
+                    return;
+                }
+                break;
+            }
+        }
+        archive = null;
+        final Path archiveFile = file;
+        if (archiveFile != null && delete(archiveFile)) {
+            file = null;
+        }
+    }
+
+    /**
+     * @return A view of the store, loading the bytes of each entry on first access. The view is modifiable: it is
+     * turned into a plain map of the bytes of the store when modified.
+     */
+    public Map<String, byte[]> asMap() {
+        return new MapView(this);
+    }
+
+    private static boolean delete(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            logger.debug("Class store {} not deleted yet: {}",
+                         file,
+                         e.getMessage());
+            file.toFile().deleteOnExit();
+            return false;
+        }
+    }
+
+    private static class MapView extends AbstractMap<String, byte[]> implements Serializable {
+
+        private final transient MappedClassStore store;
+        //Bytes already read from the store, until the heap needs them back
+        private final transient Map<String, SoftReference<byte[]>> loaded = new ConcurrentHashMap<>();
+        //Copy of the entries of the store once the view is modified
+        private transient Map<String, byte[]> modified;
+
+        private MapView(final MappedClassStore store) {
+            this.store = store;
+        }
+
+        private boolean isModified() {
+            return modified != null;
+        }
+
+        @Override
+        public byte[] get(final Object key) {
+            if (modified != null) {
+                return modified.get(key);
+            }
+            checkOpen();
+            return key instanceof String ? load((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            if (modified != null) {
+                return modified.containsKey(key);
+            }
+            checkOpen();
+            return key instanceof String && store.contains((String) key);
+        }
+
+        @Override
+        public int size() {
+            return modified != null ? modified.size() : names().size();
+        }
+
+        private Set<String> names() {
+            checkOpen();
+            return store.getNames();
+        }
+
+        /**
+         * @throws IllegalStateException if the store viewed is released
+         */
+        private void checkOpen() {
+            if (!store.isOpen()) {
+                throw new IllegalStateException("The class store is closed");
+            }
+        }
+
+        @Override
+        public byte[] put(final String key,
+                          final byte[] value) {
+            return modify().put(key,
+                                value);
+        }
+
+        @Override
+        public byte[] remove(final Object key) {
+            return modify().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            modify().clear();
+        }
+
+        @Override
+        public Set<Entry<String, byte[]>> entrySet() {
+            if (modified != null) {
+                return modified.entrySet();
+            }
+            return new AbstractSet<Entry<String, byte[]>>() {
+                @Override
+                public Iterator<Entry<String, byte[]>> iterator() {
+                    final Iterator<String> names = names().iterator();
+                    return new Iterator<Entry<String, byte[]>>() {
+
+                        private String current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, byte[]> next() {
+                            current = names.next();
+                            return new SimpleEntry<String, byte[]>(current,
+                                                                   load(current)) {
+                                @Override
+                                public byte[] setValue(final byte[] value) {
+                                    put(getKey(),
+                                        value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current == null) {
+                                throw new IllegalStateException();
+                            }
+                            MapView.this.remove(current);
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names().size();
+                }
+            };
+        }
+
+        private byte[] load(final String name) {
+            final SoftReference<byte[]> reference = loaded.get(name);
+            byte[] bytes = reference != null ? reference.get() : null;
+            if (bytes == null) {
+                final ByteBuffer mapping = store.archive;
+                if (mapping == null) {
+                    throw new IllegalStateException("The class store is closed");
+                }
+                bytes = store.read(mapping,
+                                   name);
+                if (bytes != null) {
+                    loaded.put(name,
+                               new SoftReference<>(bytes));
+                }
+            }
+            return bytes;
+        }
+
+        private Map<String, byte[]> modify() {
+            if (modified == null) {
+                final Map<String, byte[]> entries = new HashMap<>(store.size());
+                for (String name : names()) {
+                    final byte[] bytes = load(name);
+                    if (bytes != null) {
+                        entries.put(name,
+                                    bytes);
+                    }
+                }
+                modified = entries;
+                loaded.clear();
+            }
+            return modified;
+        }
+
+        /**
+         * The mapping can not leave the process, the bytes are serialized instead
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return new HashMap<>(this);
+        }
+    }
+}
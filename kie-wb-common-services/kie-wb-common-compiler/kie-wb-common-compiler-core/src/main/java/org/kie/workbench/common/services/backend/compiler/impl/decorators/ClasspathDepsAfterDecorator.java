@@ -65,24 +65,25 @@ public class ClasspathDepsAfterDecorator<T extends CompilationResponse, C extend
     }
 
     private T handleClasspath(CompilationRequest req, T res) {
-        T t;
+        DefaultCompilationResponse t;
         Map<String, Object> kieMap = req.getMap();
         String classpathKey = req.getRequestUUID() + "." + STRING_CLASSPATH_KEY;
         Object o = kieMap.get(classpathKey);
         if (o != null) {
             Set<String> depsModules = (Set<String>) o;
             List<String> deps = CompilerClassloaderUtils.readItemsFromClasspathString(depsModules);
-            t = (T) new DefaultCompilationResponse(res.isSuccessful(),
-                                                   res.getMavenOutput(),
-                                                   req.getInfo().getPrjPath(),
-                                                   deps,
-                                                   req.getRequestUUID());
+            t = new DefaultCompilationResponse(res.isSuccessful(),
+                                               res.getMavenOutput(),
+                                               req.getInfo().getPrjPath(),
+                                               deps,
+                                               req.getRequestUUID());
         } else {
-            t = (T) new DefaultCompilationResponse(res.isSuccessful(),
-                                                   res.getMavenOutput(),
-                                                   req.getInfo().getPrjPath(),
-                                                   req.getRequestUUID());
+            t = new DefaultCompilationResponse(res.isSuccessful(),
+                                               res.getMavenOutput(),
+                                               req.getInfo().getPrjPath(),
+                                               req.getRequestUUID());
         }
-        return t;
+        t.setPomProcessingTimeMillis(res.getPomProcessingTimeMillis());
+        return (T) t;
     }
 }
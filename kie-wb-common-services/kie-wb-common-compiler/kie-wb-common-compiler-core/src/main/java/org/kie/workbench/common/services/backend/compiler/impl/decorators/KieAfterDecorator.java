@@ -37,7 +37,7 @@ import org.kie.workbench.common.services.backend.compiler.AFCompiler;
 import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
 import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
-import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.classloader.MappedClassStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,13 +82,17 @@ public class KieAfterDecorator<T extends CompilationResponse, C extends AFCompil
     }
 
     private T handleAfter(CompilationRequest req, T res) {
+        final DefaultKieCompilationResponse kieRes;
         if (req.getInfo().isKiePluginPresent()) {
-            return (T) handleKieMavenPlugin(req, res);
+            kieRes = handleKieMavenPlugin(req, res);
+        } else {
+            kieRes = handleNormalBuild(req, res);
         }
-        return (T) handleNormalBuild(req, res);
+        kieRes.setPomProcessingTimeMillis(res.getPomProcessingTimeMillis());
+        return (T) kieRes;
     }
 
-    private KieCompilationResponse handleKieMavenPlugin(CompilationRequest req,
+    private DefaultKieCompilationResponse handleKieMavenPlugin(CompilationRequest req,
                                                         CompilationResponse res) {
 
         final KieTuple kieModuleMetaInfoTuple = read(req, KieModuleMetaInfo.class.getName(), "kieModuleMetaInfo not present in the map");
@@ -96,21 +100,21 @@ public class KieAfterDecorator<T extends CompilationResponse, C extends AFCompil
 
         if (kieModuleMetaInfoTuple.getOptionalObject().isPresent() && kieModuleTuple.getOptionalObject().isPresent()) {
             final List<String> targetContent = getStringFromTargets(req.getInfo().getPrjPath());
-            final KieTuple kieProjectClassloaderStore = read(req, prjClassloaderStoreKey, "ProjectClassLoaderStore Map not present in the map");
             final KieTuple eventClasses = read(req, eventClassesKey, "EventClasses Set not present in the map");
             final Set<String> events = getEventTypes(eventClasses);
-            final Map<String, byte[]> store = getDroolsGeneratedClasses(kieProjectClassloaderStore);
-
-            return new DefaultKieCompilationResponse(res.isSuccessful(),
-                                                     (KieModuleMetaInfo) kieModuleMetaInfoTuple.getOptionalObject().get(),
-                                                     (KieModule) kieModuleTuple.getOptionalObject().get(),
-                                                     store,
-                                                     res.getMavenOutput(),
-                                                     targetContent,
-                                                     res.getDependencies(),
-                                                     req.getInfo().getPrjPath(),
-                                                     events,
-                                                     req.getRequestUUID());
+            //The response takes a reference of its own to the store
+            try (MappedClassStore store = getDroolsGeneratedClasses(req)) {
+                return new DefaultKieCompilationResponse(res.isSuccessful(),
+                                                         (KieModuleMetaInfo) kieModuleMetaInfoTuple.getOptionalObject().get(),
+                                                         (KieModule) kieModuleTuple.getOptionalObject().get(),
+                                                         store.asMap(),
+                                                         res.getMavenOutput(),
+                                                         targetContent,
+                                                         res.getDependencies(),
+                                                         req.getInfo().getPrjPath(),
+                                                         events,
+                                                         req.getRequestUUID());
+            }
         } else {
             List<String> msgs = new ArrayList<>();
             if (kieModuleMetaInfoTuple.getErrorMsg().isPresent()) {
@@ -124,15 +128,25 @@ public class KieAfterDecorator<T extends CompilationResponse, C extends AFCompil
         }
     }
 
-    private Map<String, byte[]> getDroolsGeneratedClasses(KieTuple kieProjectClassloaderStore) {
-        return (Map<String, byte[]>) kieProjectClassloaderStore.getOptionalObject().orElse(Collections.emptyMap());
+    /**
+     * The generated classes are only made of Strings and byte arrays, which are shared by all the class loaders, so they
+     * are written straight into a {@link MappedClassStore} instead of being copied on heap through serialization.
+     */
+    private MappedClassStore getDroolsGeneratedClasses(CompilationRequest req) {
+        final StringBuilder sb = new StringBuilder(req.getKieCliRequest().getRequestUUID()).append(".").append(prjClassloaderStoreKey);
+        final Object store = req.getKieCliRequest().getMap().get(sb.toString());
+        if (store instanceof Map) {
+            return MappedClassStore.of((Map<String, byte[]>) store);
+        }
+        final KieTuple kieProjectClassloaderStore = read(req, prjClassloaderStoreKey, "ProjectClassLoaderStore Map not present in the map");
+        return MappedClassStore.of((Map<String, byte[]>) kieProjectClassloaderStore.getOptionalObject().orElse(Collections.emptyMap()));
     }
 
     private Set<String> getEventTypes(final KieTuple eventClasses) {
         return (Set<String>) eventClasses.getOptionalObject().orElse(Collections.emptySet());
     }
 
-    private KieCompilationResponse handleNormalBuild(final CompilationRequest req,
+    private DefaultKieCompilationResponse handleNormalBuild(final CompilationRequest req,
                                                      final CompilationResponse res) {
 
         final List<String> targetContent = getStringFromTargets(req.getInfo().getPrjPath());
@@ -53,14 +53,15 @@ public class OutputLogAfterDecorator<T extends CompilationResponse, C extends AF
     }
 
     private T handleMavenOutput(CompilationRequest req, T res) {
-        T t = (T) new DefaultCompilationResponse(res.isSuccessful(),
-                                                 OutputSharedMap.getLog(req.getKieCliRequest().getRequestUUID()),
-                                                 req.getInfo().getPrjPath(),
-                                                 res.getDependencies(),
-                                                 req.getRequestUUID());
+        DefaultCompilationResponse t = new DefaultCompilationResponse(res.isSuccessful(),
+                                                                      OutputSharedMap.getLog(req.getKieCliRequest().getRequestUUID()),
+                                                                      req.getInfo().getPrjPath(),
+                                                                      res.getDependencies(),
+                                                                      req.getRequestUUID());
+        t.setPomProcessingTimeMillis(res.getPomProcessingTimeMillis());
         OutputSharedMap.removeLog(req.getKieCliRequest().getRequestUUID());
         MDC.clear();
-        return t;
+        return (T) t;
     }
 
     @Override
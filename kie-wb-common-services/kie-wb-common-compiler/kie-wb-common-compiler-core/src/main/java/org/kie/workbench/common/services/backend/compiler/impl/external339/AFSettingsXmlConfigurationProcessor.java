@@ -17,10 +17,13 @@ package org.kie.workbench.common.services.backend.compiler.impl.external339;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
 import javax.inject.Named;
 
 import org.apache.commons.cli.CommandLine;
@@ -37,6 +40,7 @@ import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.SettingsUtils;
 import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.settings.building.SettingsBuildingException;
 import org.apache.maven.settings.building.SettingsBuildingResult;
 import org.apache.maven.settings.building.SettingsProblem;
 import org.apache.maven.settings.crypto.SettingsDecrypter;
@@ -78,6 +82,14 @@ public class AFSettingsXmlConfigurationProcessor implements AFConfigurationProce
     @Requirement
     private SettingsDecrypter settingsDecrypter;
 
+    /**
+     * The component lives as long as its (pooled) container, the settings parsed by the last build are kept
+     * and reused while the settings files and the properties they are interpolated with do not change
+     */
+    private SettingsKey cachedSettingsKey;
+
+    private SettingsBuildingResult cachedSettingsResult;
+
     static Path resolvePath(Path file, String workingDirectory) {
         if (file == null) {
             return null;
@@ -154,14 +166,17 @@ public class AFSettingsXmlConfigurationProcessor implements AFConfigurationProce
                              + getLocation(settingsRequest.getUserSettingsSource(),
                                            settingsRequest.getUserSettingsPath()));
 
-        SettingsBuildingResult settingsResult = settingsBuilder.build(settingsRequest);
+        SettingsBuildingResult settingsResult = buildSettings(settingsRequest,
+                                                              cliRequest,
+                                                              userSettingsFile,
+                                                              globalSettingsFile);
 
         if (request.getEventSpyDispatcher() != null) {
             request.getEventSpyDispatcher().onEvent(settingsResult);
         }
 
         populateFromSettings(request,
-                             settingsResult.getEffectiveSettings());
+                             settingsResult.getEffectiveSettings() == null ? null : SettingsUtils.copySettings(settingsResult.getEffectiveSettings()));
 
         if (!settingsResult.getProblems().isEmpty() && logger.isWarnEnabled()) {
             logger.warn("");
@@ -174,6 +189,88 @@ public class AFSettingsXmlConfigurationProcessor implements AFConfigurationProce
         }
     }
 
+    private synchronized SettingsBuildingResult buildSettings(AFSettingsBuildingRequest settingsRequest,
+                                                              AFCliRequest cliRequest,
+                                                              Path userSettingsFile,
+                                                              Path globalSettingsFile)
+            throws SettingsBuildingException, IOException {
+        SettingsKey key = new SettingsKey(getFileFingerprint(userSettingsFile),
+                                          getFileFingerprint(globalSettingsFile),
+                                          cliRequest.getUserProperties(),
+                                          cliRequest.getSystemProperties());
+        if (!key.equals(cachedSettingsKey)) {
+            cachedSettingsResult = settingsBuilder.build(settingsRequest);
+            cachedSettingsKey = key;
+        } else {
+            logger.debug("Reusing the settings read from " + userSettingsFile);
+        }
+        return cachedSettingsResult;
+    }
+
+    private static String getFileFingerprint(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return file + "#missing";
+        }
+        return file + "#" + Files.size(file) + "#" + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    /**
+     * The settings files and the properties the settings were interpolated with. The properties are copied, so
+     * changes made to them by a later build are seen
+     */
+    private static final class SettingsKey {
+
+        private final String userSettings;
+        private final String globalSettings;
+        private final Properties userProperties;
+        private final Properties systemProperties;
+
+        private SettingsKey(String userSettings,
+                            String globalSettings,
+                            Properties userProperties,
+                            Properties systemProperties) {
+            this.userSettings = userSettings;
+            this.globalSettings = globalSettings;
+            this.userProperties = copy(userProperties);
+            this.systemProperties = copy(systemProperties);
+        }
+
+        private static Properties copy(Properties properties) {
+            Properties copy = new Properties();
+            if (properties != null) {
+                //Flattens the defaults, which equals() does not compare
+                for (String name : properties.stringPropertyNames()) {
+                    copy.setProperty(name,
+                                     properties.getProperty(name));
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SettingsKey)) {
+                return false;
+            }
+            SettingsKey that = (SettingsKey) o;
+            return userSettings.equals(that.userSettings)
+                    && globalSettings.equals(that.globalSettings)
+                    && userProperties.equals(that.userProperties)
+                    && systemProperties.equals(that.systemProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userSettings,
+                                globalSettings,
+                                userProperties,
+                                systemProperties);
+        }
+    }
+
     private MavenExecutionRequest populateFromSettings(MavenExecutionRequest request,
                                                        Settings settings)
             throws MavenExecutionRequestPopulationException {
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.external339;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+
+/**
+ * A process wide pool of warm {@link ReusableAFMavenCli}, so that the plexus container, the components looked up from
+ * it and the parsed settings are reused across builds instead of being set up by every compiler.
+ * Engines are keyed by project directory, user settings file and local repository: the components of the container
+ * (the project builder, the artifact resolution caches, the core extensions of .mvn/extensions.xml...) keep state about
+ * the projects they have built, so an engine is never shared by different projects.
+ * An engine is borrowed by a single build at a time.
+ */
+public class ReusableAFMavenCliPool {
+
+    public static final String MAX_IDLE_PER_KEY = "org.kie.compiler.maven.cli.pool.size";
+    public static final String MAX_KEYS = "org.kie.compiler.maven.cli.pool.keys";
+
+    private static final int DEFAULT_MAX_IDLE_PER_KEY = 4;
+    private static final int DEFAULT_MAX_KEYS = 20;
+
+    private static final ReusableAFMavenCliPool INSTANCE = new ReusableAFMavenCliPool(Integer.getInteger(MAX_IDLE_PER_KEY,
+                                                                                                         DEFAULT_MAX_IDLE_PER_KEY),
+                                                                                      Integer.getInteger(MAX_KEYS,
+                                                                                                         DEFAULT_MAX_KEYS),
+                                                                                      ReusableAFMavenCli::new);
+
+    private final int maxIdlePerKey;
+    private final Supplier<ReusableAFMavenCli> factory;
+    private final Map<String, Deque<ReusableAFMavenCli>> idle;
+
+    ReusableAFMavenCliPool(final int maxIdlePerKey,
+                           final int maxKeys,
+                           final Supplier<ReusableAFMavenCli> factory) {
+        this.maxIdlePerKey = maxIdlePerKey;
+        this.factory = factory;
+        this.idle = new LinkedHashMap<String, Deque<ReusableAFMavenCli>>(16,
+                                                                         0.75f,
+                                                                         true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Deque<ReusableAFMavenCli>> eldest) {
+                if (size() > maxKeys) {
+                    eldest.getValue().forEach(ReusableAFMavenCli::cleanInternals);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ReusableAFMavenCliPool getInstance() {
+        return INSTANCE;
+    }
+
+    public static String toKey(final CompilationRequest req) {
+        String settings = "";
+        final String[] args = req.getOriginalArgs();
+        if (args != null) {
+            for (String arg : args) {
+                if (arg != null && arg.startsWith(MavenCLIArgs.ALTERNATE_USER_SETTINGS)) {
+                    settings = arg.substring(MavenCLIArgs.ALTERNATE_USER_SETTINGS.length()).trim();
+                }
+            }
+        }
+        return req.getKieCliRequest().getMultiModuleProjectDirectory() + "|" + settings + "|" + req.getMavenRepo();
+    }
+
+    /**
+     * @return An idle engine for the key, or a new one if all of them are in use
+     */
+    public ReusableAFMavenCli borrow(final String key) {
+        synchronized (idle) {
+            final Deque<ReusableAFMavenCli> engines = idle.get(key);
+            if (engines != null && !engines.isEmpty()) {
+                return engines.pop();
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Returns an engine borrowed for the key, the engine is discarded if enough engines are already idle
+     */
+    public void release(final String key,
+                        final ReusableAFMavenCli cli) {
+        synchronized (idle) {
+            final Deque<ReusableAFMavenCli> engines = idle.computeIfAbsent(key,
+                                                                           k -> new ArrayDeque<>());
+            if (engines.size() < maxIdlePerKey) {
+                engines.push(cli);
+                return;
+            }
+        }
+        cli.cleanInternals();
+    }
+
+    /**
+     * Discards the idle engines of the key, engines in use are pooled again once released
+     */
+    public Boolean clean(final String key) {
+        final Deque<ReusableAFMavenCli> engines;
+        synchronized (idle) {
+            engines = idle.remove(key);
+        }
+        if (engines != null) {
+            engines.forEach(ReusableAFMavenCli::cleanInternals);
+        }
+        return Boolean.TRUE;
+    }
+
+    int getIdleCount(final String key) {
+        synchronized (idle) {
+            final Deque<ReusableAFMavenCli> engines = idle.get(key);
+            return engines == null ? 0 : engines.size();
+        }
+    }
+}
@@ -20,13 +20,18 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
 import org.kie.workbench.common.services.backend.compiler.configuration.ConfigurationContextProvider;
 import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.DefaultPomEditor;
+import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.PluginPresents;
 import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.PomPlaceHolder;
+import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.ProcessedPomCache;
 import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.ProcessedPoms;
 import org.kie.workbench.common.services.backend.compiler.impl.utils.MavenUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.file.Files;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.Paths;
@@ -36,12 +41,24 @@ import org.uberfire.java.nio.file.Paths;
  */
 public class DefaultIncrementalCompilerEnabler implements IncrementalCompilerEnabler {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultIncrementalCompilerEnabler.class);
+
     private final String POM_NAME = "pom.xml";
     protected String FILE_URI = "file://";
     private boolean isValidConfiguration;
     private DefaultPomEditor editor;
+    private Function<String, ProcessedPomCache> caches;
 
     public DefaultIncrementalCompilerEnabler() {
+        this(ProcessedPomCache::forWorkspace);
+    }
+
+    public DefaultIncrementalCompilerEnabler(ProcessedPomCache cache) {
+        this(workspace -> cache);
+    }
+
+    private DefaultIncrementalCompilerEnabler(Function<String, ProcessedPomCache> caches) {
+        this.caches = caches;
         ConfigurationContextProvider confProvider = new ConfigurationContextProvider();
         isValidConfiguration = confProvider.isValid();
         if (isValidConfiguration) {
@@ -54,41 +71,64 @@ public class DefaultIncrementalCompilerEnabler implements IncrementalCompilerEna
         if (!isValidConfiguration) {
             return new ProcessedPoms(Boolean.FALSE, Collections.emptyList());
         }
+        long start = System.currentTimeMillis();
         Path mainPom = Paths.get(URI.create(FILE_URI + req.getKieCliRequest().getWorkingDirectory() + "/" + POM_NAME));
 
         if (!Files.isReadable(mainPom)) {
             return new ProcessedPoms(Boolean.FALSE, Collections.emptyList());
         }
 
-        PomPlaceHolder placeHolder = editor.readSingle(mainPom);
-        Boolean isPresent = isPresent(placeHolder);   // check if the main pom is already scanned and edited
-        if (placeHolder.isValid() && !isPresent) {
-            List<String> pomsList = MavenUtils.searchPoms(mainPom.getParent()); // recursive NIO search in all subfolders
-            boolean result = false;
-            if (pomsList.size() > 0) {
-                result = processFoundPoms(pomsList,
-                                          req);
+        ProcessedPomCache cache = caches.apply(mainPom.getParent().toAbsolutePath().toString());
+        // a main pom unchanged since its processing was valid, it is only parsed when it changed
+        if (cache.getKiePluginPresent(mainPom.toAbsolutePath().toString(), hash(mainPom)) == null) {
+            PomPlaceHolder placeHolder = editor.readSingle(mainPom);
+            Boolean isPresent = isPresent(placeHolder);   // check if the main pom is already scanned and edited
+            if (!placeHolder.isValid() || isPresent) {
+                return new ProcessedPoms(Boolean.FALSE,
+                                         Collections.emptyList());
             }
-            return new ProcessedPoms(result,
-                                     pomsList);
-        } else {
-            return new ProcessedPoms(Boolean.FALSE,
-                                     Collections.emptyList());
         }
+        List<String> pomsList = MavenUtils.searchPoms(mainPom.getParent()); // recursive NIO search in all subfolders
+        boolean result = false;
+        int skipped = 0;
+        if (pomsList.size() > 0) {
+            result = true;
+            for (String pom : pomsList) {
+                Path tmpPom = Paths.get(URI.create(FILE_URI + pom));
+                // a pom unchanged since its processing doesn't need to be parsed nor written again
+                Boolean kiePluginPresent = cache.getKiePluginPresent(pom, hash(tmpPom));
+                if (kiePluginPresent != null) {
+                    editor.updateRequest(req, kiePluginPresent);
+                    skipped++;
+                } else {
+                    // the pom is parsed once, by the update
+                    result = processFoundPom(cache, pom, tmpPom, req) && result;
+                }
+            }
+            cache.flush();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        logger.debug("Processed {} poms in {} ms, {} unchanged", pomsList.size(), elapsed, skipped);
+        return new ProcessedPoms(result,
+                                 pomsList,
+                                 skipped,
+                                 elapsed);
     }
 
-    private boolean processFoundPoms(List<String> poms,
-                                     CompilationRequest request) {
-
-        boolean result = true;
-        for (String pom : poms) {
-            Path tmpPom = Paths.get(URI.create(FILE_URI + pom));
-            PomPlaceHolder tmpPlaceHolder = editor.readSingle(tmpPom);
-            if (!isPresent(tmpPlaceHolder)) {
-                result = result && editor.write(tmpPom, request);
-            }
+    private boolean processFoundPom(ProcessedPomCache cache,
+                                    String pom,
+                                    Path tmpPom,
+                                    CompilationRequest request) {
+        PluginPresents plugs = editor.update(tmpPom, request);
+        if (plugs == null) {
+            return false;
         }
-        return result;
+        cache.put(pom, hash(tmpPom), plugs.isKiePluginPresent());
+        return true;
+    }
+
+    private String hash(Path pom) {
+        return ProcessedPomCache.hash(Files.readAllBytes(pom));
     }
 
     /**
@@ -110,35 +110,9 @@ public class DefaultPomEditor implements PomEditor {
                                                       Files.readAllBytes(pom));
 
             if (!history.contains(pomPH)) {
-
-                PluginPresents plugs = updatePom(model);
-                request.getInfo().lateAdditionKiePluginPresent(plugs.isKiePluginPresent());
-                if (!request.skipProjectDependenciesCreationList()) {
-                    // we add the mvn cli args to run the dependency:build-classpath
-                    String args[] = addCreateClasspathMavenArgs(request.getKieCliRequest().getArgs(), request);
-                    request.getKieCliRequest().setArgs(args);
-                }
-                if (plugs.pomOverwriteRequired()) {
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                    writer.write(baos,
-                                 model);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Pom changed:{}",
-                                     new String(baos.toByteArray(),
-                                                StandardCharsets.UTF_8));
-                    }
-
-                    Path pomParent = Paths.get(URI.create(
-                            new StringBuffer().
-                                    append(FILE_URI).
-                                    append(pom.getParent().toAbsolutePath().toString()).
-                                    append("/").
-                                    append(POM_NAME).toString()));
-                    Files.delete(pomParent);
-                    Files.write(pomParent,
-                                baos.toByteArray(),
-                                StandardOpenOption.CREATE_NEW);//enhanced pom
-                }
+                write(pom,
+                      model,
+                      request);
                 history.add(pomPH);
             }
             return true;
@@ -148,7 +122,76 @@ public class DefaultPomEditor implements PomEditor {
         }
     }
 
+    /**
+     * Changes the build tag of the pom and the compilation request, for a pom not in the history
+     * @return the plugins found in the pom, null if the pom can't be processed
+     */
+    public PluginPresents update(Path pom,
+                                 CompilationRequest request) {
+        try {
+            Model model = reader.read(new ByteArrayInputStream(Files.readAllBytes(pom)));
+            if (model == null) {
+                logger.error("Model null from pom file:",
+                             pom.toString());
+                return null;
+            }
+            PluginPresents plugs = write(pom,
+                                         model,
+                                         request);
+            history.add(new PomPlaceHolder(pom.toAbsolutePath().toString(),
+                                           model.getArtifactId(),
+                                           model.getGroupId(),
+                                           model.getVersion(),
+                                           model.getPackaging()));
+            return plugs;
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Changes the compilation request as the processing of a pom does, for a pom already processed
+     */
+    public void updateRequest(CompilationRequest request,
+                              Boolean kiePluginPresent) {
+        request.getInfo().lateAdditionKiePluginPresent(kiePluginPresent);
+        if (!request.skipProjectDependenciesCreationList()) {
+            // we add the mvn cli args to run the dependency:build-classpath
+            String args[] = addCreateClasspathMavenArgs(request.getKieCliRequest().getArgs(), request);
+            request.getKieCliRequest().setArgs(args);
+        }
+    }
 
+    private PluginPresents write(Path pom,
+                                 Model model,
+                                 CompilationRequest request) throws Exception {
+        PluginPresents plugs = updatePom(model);
+        updateRequest(request,
+                      plugs.isKiePluginPresent());
+        if (plugs.pomOverwriteRequired()) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            writer.write(baos,
+                         model);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Pom changed:{}",
+                             new String(baos.toByteArray(),
+                                        StandardCharsets.UTF_8));
+            }
+
+            Path pomParent = Paths.get(URI.create(
+                    new StringBuffer().
+                            append(FILE_URI).
+                            append(pom.getParent().toAbsolutePath().toString()).
+                            append("/").
+                            append(POM_NAME).toString()));
+            Files.delete(pomParent);
+            Files.write(pomParent,
+                        baos.toByteArray(),
+                        StandardOpenOption.CREATE_NEW);//enhanced pom
+        }
+        return plugs;
+    }
 
     /* Pom's Plugin manipulation methods*/
 
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.pomprocessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/***
+ * Persistent cache of the poms already processed, keyed by path and by the hash of the content written by the
+ * processing. A pom whose content is unchanged since it was processed doesn't need to be parsed nor rewritten.
+ * Each workspace, the folder holding the main pom of a project, has its own cache file. The compilers of every JVM
+ * building the workspace share the file: it is written under a file lock, merged with the entries other JVMs
+ * stored meanwhile, and replaced atomically. The file of a workspace is loaded once per JVM, see
+ * {@link #forWorkspace(String)}, and the entries stored by other JVMs are picked up on flush.
+ */
+public class ProcessedPomCache {
+
+    public static final String CACHE_DIR = "org.kie.compiler.pom.cache.dir";
+    public static final String CACHE_SIZE = "org.kie.compiler.pom.cache.size";
+    public static final String CACHED_WORKSPACES = "org.kie.compiler.pom.cache.workspaces";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedPomCache.class);
+
+    private static final int DEFAULT_CACHE_SIZE = 5000;
+    private static final int DEFAULT_CACHED_WORKSPACES = 100;
+    private static final String CACHE_FILE_PREFIX = "kie-processed-poms-";
+    private static final String CACHE_FILE_SUFFIX = ".properties";
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final int WORKSPACE_ID_LENGTH = 16;
+    private static final String SEPARATOR = ",";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final Map<String, ProcessedPomCache> workspaces = new LinkedHashMap<String, ProcessedPomCache>(16,
+                                                                                                                0.75f,
+                                                                                                                true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ProcessedPomCache> eldest) {
+            return size() > Integer.getInteger(CACHED_WORKSPACES,
+                                               DEFAULT_CACHED_WORKSPACES);
+        }
+    };
+
+    private final Path file;
+    private final int maxEntries;
+    private final Map<String, String> entries;
+    private boolean dirty;
+
+    public ProcessedPomCache(final Path file,
+                             final int maxEntries) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, String>(16,
+                                                         0.75f,
+                                                         true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        load();
+    }
+
+    /**
+     * @return the cache of the poms of the workspace, loaded from its file the first time the workspace is processed
+     */
+    public static ProcessedPomCache forWorkspace(final String workspace) {
+        synchronized (workspaces) {
+            return workspaces.computeIfAbsent(workspace,
+                                              ProcessedPomCache::load);
+        }
+    }
+
+    private static ProcessedPomCache load(final String workspace) {
+        final String id = hash(workspace.getBytes(StandardCharsets.UTF_8)).substring(0,
+                                                                                  WORKSPACE_ID_LENGTH);
+        final Path dir = Paths.get(System.getProperty(CACHE_DIR,
+                                                      System.getProperty("java.io.tmpdir")));
+        return new ProcessedPomCache(dir.resolve(CACHE_FILE_PREFIX + id + CACHE_FILE_SUFFIX),
+                                     Integer.getInteger(CACHE_SIZE,
+                                                        DEFAULT_CACHE_SIZE));
+    }
+
+    /**
+     * @return the SHA-256 of the content, in hex
+     */
+    public static String hash(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                chars[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(chars);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return if the kie plugin is declared in the pom, null if the pom with this content was not processed
+     */
+    public synchronized Boolean getKiePluginPresent(final String pom,
+                                                    final String hash) {
+        final String entry = entries.get(pom);
+        if (entry != null && entry.startsWith(hash + SEPARATOR)) {
+            return Boolean.valueOf(entry.substring(hash.length() + 1));
+        }
+        return null;
+    }
+
+    public synchronized void put(final String pom,
+                                 final String hash,
+                                 final Boolean kiePluginPresent) {
+        entries.put(pom,
+                    hash + SEPARATOR + kiePluginPresent);
+        dirty = true;
+    }
+
+    /**
+     * Writes the entries added since the last flush, along with the entries stored meanwhile by other compilers, which
+     * are loaded as well. Beyond the maximum size the least recently used entries are dropped, the entries only known
+     * from the file being the least recently used ones.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        final Path dir = file.toAbsolutePath().getParent();
+        Path tmp = null;
+        //File locks are held by the JVM, the compilers of this JVM are serialized on the class
+        synchronized (ProcessedPomCache.class) {
+            try (FileChannel channel = FileChannel.open(dir.resolve(file.getFileName() + LOCK_FILE_SUFFIX),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                final Properties stored = read();
+                final Map<String, String> merged = new LinkedHashMap<>();
+                for (String pom : stored.stringPropertyNames()) {
+                    if (!entries.containsKey(pom)) {
+                        merged.put(pom,
+                                   stored.getProperty(pom));
+                    }
+                }
+                merged.putAll(entries);
+                final Iterator<String> eldest = merged.keySet().iterator();
+                while (merged.size() > maxEntries) {
+                    eldest.next();
+                    eldest.remove();
+                }
+                entries.clear();
+                entries.putAll(merged);
+                final Properties props = new Properties();
+                props.putAll(merged);
+                tmp = Files.createTempFile(dir,
+                                           CACHE_FILE_PREFIX,
+                                           ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    props.store(out,
+                                null);
+                }
+                Files.move(tmp,
+                           file,
+                           StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+                tmp = null;
+                dirty = false;
+            } catch (IOException e) {
+                logger.warn("Unable to store processed poms in {}: {}",
+                            file,
+                            e.getMessage());
+            } finally {
+                deleteQuietly(tmp);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void load() {
+        final Properties props = read();
+        for (String pom : props.stringPropertyNames()) {
+            entries.put(pom,
+                        props.getProperty(pom));
+        }
+    }
+
+    private Properties read() {
+        final Properties props = new Properties();
+        if (!Files.isReadable(file)) {
+            return props;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Unable to load processed poms from {}: {}",
+                        file,
+                        e.getMessage());
+            props.clear();
+        }
+        return props;
+    }
+
+    private static void deleteQuietly(final Path tmp) {
+        if (tmp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            logger.debug("Unable to delete {}: {}",
+                         tmp,
+                         e.getMessage());
+        }
+    }
+}
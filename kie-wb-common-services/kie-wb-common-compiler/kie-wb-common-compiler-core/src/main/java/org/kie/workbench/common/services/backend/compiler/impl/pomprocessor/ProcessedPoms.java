@@ -25,6 +25,8 @@ public class ProcessedPoms {
 
     private Boolean result;
     private List<String> projectPoms;
+    private int skippedPoms;
+    private long processingTimeMillis;
 
     public ProcessedPoms(Boolean result,
                          List<String> projectPoms) {
@@ -32,6 +34,16 @@ public class ProcessedPoms {
         this.projectPoms = projectPoms;
     }
 
+    public ProcessedPoms(Boolean result,
+                         List<String> projectPoms,
+                         int skippedPoms,
+                         long processingTimeMillis) {
+        this(result,
+             projectPoms);
+        this.skippedPoms = skippedPoms;
+        this.processingTimeMillis = processingTimeMillis;
+    }
+
     public Boolean getResult() {
         return result;
     }
@@ -39,4 +51,15 @@ public class ProcessedPoms {
     public List<String> getProjectPoms() {
         return projectPoms;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return number of poms unchanged since they were processed, neither parsed nor rewritten
+     */
+    public int getSkippedPoms() {
+        return skippedPoms;
+    }
+
+    public long getProcessingTimeMillis() {
+        return processingTimeMillis;
+    }
+}
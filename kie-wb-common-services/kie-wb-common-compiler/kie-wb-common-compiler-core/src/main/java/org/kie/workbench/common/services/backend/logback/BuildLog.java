@@ -0,0 +1,370 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.logback;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output of a single build. The most recent lines are kept in memory up to a number of bytes, older lines are spilled
+ * to temporary files up to a number of bytes. The spill is split in segments, and the oldest segment is dropped when
+ * the spill is full. Lines are numbered from 0 in the order they are added, so that a running build can be tailed
+ * with {@link #read(long, int)}.
+ * Sizes are measured as the heap taken by the characters of the lines, that is two bytes per character.
+ */
+public class BuildLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildLog.class);
+
+    private static final int SPILL_SEGMENTS = 4;
+    private static final int READ_CHUNK_LINES = 1024;
+
+    /**
+     * Lines of a build log, starting at {@link #getFirstLine()}; lines dropped by the log are skipped
+     */
+    public static class Chunk {
+
+        private final long firstLine;
+        private final List<String> lines;
+
+        Chunk(final long firstLine,
+              final List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        /**
+         * @return Number of the line to read next
+         */
+        public long getNextLine() {
+            return firstLine + lines.size();
+        }
+    }
+
+    /**
+     * Spilled lines written in a file, read back sequentially from where the last read stopped
+     */
+    private static class Segment {
+
+        private final Path file;
+        private final BufferedWriter writer;
+        private final long firstLine;
+        private long lines;
+        private long bytes;
+        private BufferedReader reader;
+        private long readerLine;
+
+        private Segment(final long firstLine) throws IOException {
+            this.firstLine = firstLine;
+            this.file = Files.createTempFile("kie-build-log",
+                                             ".log");
+            try {
+                this.writer = Files.newBufferedWriter(file,
+                                                      StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+
+        private void write(final String line,
+                           final long size) throws IOException {
+            writer.write(line.replace('\n',
+                                      ' '));
+            writer.newLine();
+            lines++;
+            bytes += size;
+        }
+
+        private void read(final long fromLine,
+                          final int maxLines,
+                          final List<String> out) throws IOException {
+            final long offset = fromLine - firstLine;
+            writer.flush();
+            if (reader == null || readerLine > offset) {
+                closeReader();
+                reader = Files.newBufferedReader(file,
+                                                 StandardCharsets.UTF_8);
+            }
+            while (readerLine < offset && reader.readLine() != null) {
+                readerLine++;
+            }
+            String line;
+            while (out.size() < maxLines && readerLine < lines && (line = reader.readLine()) != null) {
+                out.add(line);
+                readerLine++;
+            }
+        }
+
+        private void closeReader() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+            readerLine = 0;
+        }
+
+        private void delete() {
+            try {
+                closeReader();
+                writer.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.debug("Unable to delete spilled build log {}: {}",
+                             file,
+                             e.getMessage());
+            }
+        }
+    }
+
+    private final long maxMemoryBytes;
+    private final long maxSpillBytes;
+    private final long maxSegmentBytes;
+    private final Deque<String> memory = new ArrayDeque<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long memoryBytes;
+    private long memoryFirstLine;
+    private long spillBytes;
+    private long droppedLines;
+    private volatile long lastUpdate = System.currentTimeMillis();
+
+    BuildLog(final long maxMemoryBytes,
+             final long maxSpillBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxSpillBytes = maxSpillBytes;
+        this.maxSegmentBytes = Math.max(1,
+                                        maxSpillBytes / SPILL_SEGMENTS);
+    }
+
+    public synchronized void add(final String line) {
+        memory.addLast(line);
+        memoryBytes += sizeOf(line);
+        while (memoryBytes > maxMemoryBytes && memory.size() > 1) {
+            final String evicted = memory.removeFirst();
+            memoryBytes -= sizeOf(evicted);
+            spill(evicted);
+            memoryFirstLine++;
+        }
+        lastUpdate = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Up to maxLines lines, from the given line or from the first line still retained after it
+     */
+    public synchronized Chunk read(final long fromLine,
+                                   final int maxLines) {
+        final List<String> lines = new ArrayList<>();
+        final long first = Math.max(fromLine,
+                                    droppedLines);
+        if (first < memoryFirstLine) {
+            readSpilled(first,
+                        maxLines,
+                        lines);
+        }
+        final long line = first + lines.size();
+        if (lines.size() < maxLines && line >= memoryFirstLine) {
+            long index = memoryFirstLine;
+            for (String inMemory : memory) {
+                if (lines.size() >= maxLines) {
+                    break;
+                }
+                if (index++ >= line) {
+                    lines.add(inMemory);
+                }
+            }
+        }
+        return new Chunk(first,
+                         Collections.unmodifiableList(lines));
+    }
+
+    /**
+     * @return A view of the lines retained, in memory and on disk. The spilled lines are streamed from disk in chunks
+     * when the view is iterated, they are not loaded at once. The view is empty once the log is released.
+     */
+    public List<String> asList() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                final List<String> lines = read(getFirstLine() + index,
+                                                1).getLines();
+                if (lines.isEmpty()) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return lines.get(0);
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(Integer.MAX_VALUE,
+                                      getLineCount());
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+
+                    private Chunk chunk = read(0,
+                                               READ_CHUNK_LINES);
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (index == chunk.getLines().size() && !chunk.getLines().isEmpty()) {
+                            chunk = read(chunk.getNextLine(),
+                                         READ_CHUNK_LINES);
+                            index = 0;
+                        }
+                        return index < chunk.getLines().size();
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return chunk.getLines().get(index++);
+                    }
+                };
+            }
+        };
+    }
+
+    public synchronized long getRetainedBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getSpilledBytes() {
+        return spillBytes;
+    }
+
+    public synchronized long getDroppedLines() {
+        return droppedLines;
+    }
+
+    long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    synchronized void release() {
+        dropSegments(-1);
+        droppedLines = memoryFirstLine + memory.size();
+        memoryFirstLine = droppedLines;
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    private synchronized long getFirstLine() {
+        return droppedLines;
+    }
+
+    private synchronized long getLineCount() {
+        return memoryFirstLine + memory.size() - droppedLines;
+    }
+
+    /**
+     * Spills the oldest line in memory, whose number is memoryFirstLine. Spilled lines are contiguous: when a line can
+     * not be spilled every line before it is dropped as well.
+     */
+    private void spill(final String line) {
+        final long size = sizeOf(line);
+        if (size > maxSpillBytes) {
+            dropSpill();
+            return;
+        }
+        //Rotate the oldest segments out until the line fits
+        dropSegments(maxSpillBytes - size);
+        Segment segment = segments.peekLast();
+        try {
+            if (segment == null || (segment.lines > 0 && segment.bytes + size > maxSegmentBytes)) {
+                segment = new Segment(memoryFirstLine);
+                segments.addLast(segment);
+            }
+            segment.write(line,
+                          size);
+            spillBytes += size;
+        } catch (IOException e) {
+            logger.warn("Unable to spill build log line: {}",
+                        e.getMessage());
+            dropSpill();
+        }
+    }
+
+    /**
+     * Drops the oldest segments until the spill holds at most the given number of bytes
+     */
+    private void dropSegments(final long maxBytes) {
+        while (spillBytes > maxBytes && !segments.isEmpty()) {
+            final Segment oldest = segments.removeFirst();
+            droppedLines = oldest.firstLine + oldest.lines;
+            spillBytes -= oldest.bytes;
+            oldest.delete();
+        }
+    }
+
+    private void dropSpill() {
+        dropSegments(-1);
+        droppedLines = memoryFirstLine + 1;
+    }
+
+    private void readSpilled(final long from,
+                             final int maxLines,
+                             final List<String> lines) {
+        for (Segment segment : segments) {
+            if (lines.size() >= maxLines) {
+                return;
+            }
+            final long line = from + lines.size();
+            if (line < segment.firstLine + segment.lines) {
+                try {
+                    segment.read(line,
+                                 maxLines,
+                                 lines);
+                } catch (IOException e) {
+                    logger.warn("Unable to read spilled build log: {}",
+                                e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private static long sizeOf(final String line) {
+        return 2L * line.length();
+    }
+}
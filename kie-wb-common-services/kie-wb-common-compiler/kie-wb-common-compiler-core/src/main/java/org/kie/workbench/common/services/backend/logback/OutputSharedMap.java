@@ -15,41 +15,98 @@
  */
 package org.kie.workbench.common.services.backend.logback;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /***
- * Map to hold the outputs of the compilations using the UUID key to retrieve and store
+ * Map to hold the outputs of the compilations using the UUID key to retrieve and store.
+ * Each output is a bounded {@link BuildLog}, released when removed or once it has not been written for a while.
  */
 public class OutputSharedMap {
 
-    private static Map<String, List<String>> map = new ConcurrentHashMap();
+    public static final String MAX_MEMORY_BYTES = "org.kie.compiler.log.memory.bytes";
+    public static final String MAX_SPILL_BYTES = "org.kie.compiler.log.spill.bytes";
+    public static final String EXPIRY_SECONDS = "org.kie.compiler.log.expiry.seconds";
 
+    private static final int DEFAULT_MAX_MEMORY_BYTES = 512 * 1024;
+    private static final int DEFAULT_MAX_SPILL_BYTES = 32 * 1024 * 1024;
+    private static final int DEFAULT_EXPIRY_SECONDS = 1800;
+    private static final long EXPIRY_CHECK_INTERVAL_MILLIS = 60000;
+
+    private static final long maxMemoryBytes = Integer.getInteger(MAX_MEMORY_BYTES,
+                                                                  DEFAULT_MAX_MEMORY_BYTES);
+    private static final long maxSpillBytes = Integer.getInteger(MAX_SPILL_BYTES,
+                                                                 DEFAULT_MAX_SPILL_BYTES);
+    private static final long expiryMillis = TimeUnit.SECONDS.toMillis(Integer.getInteger(EXPIRY_SECONDS,
+                                                                                           DEFAULT_EXPIRY_SECONDS));
+
+    private static Map<String, BuildLog> map = new ConcurrentHashMap<>();
+    private static volatile long lastExpiryCheck = System.currentTimeMillis();
+
+    /**
+     * @return A view of the output of a compilation, read from the log as it is iterated until the log is removed
+     */
     public static List<String> getLog(String key) {
-        if (map.containsKey(key)) {
-            return map.get(key);
-        } else {
-            return Collections.emptyList();
-        }
+        BuildLog log = map.get(key);
+        return log == null ? Collections.emptyList() : log.asList();
+    }
+
+    /**
+     * Reads the output of a compilation from a line on, to tail a running build
+     */
+    public static BuildLog.Chunk readLog(String key, long fromLine, int maxLines) {
+        BuildLog log = map.get(key);
+        return log == null ? new BuildLog.Chunk(fromLine, Collections.emptyList()) : log.read(fromLine, maxLines);
+    }
+
+    /**
+     * @return Bytes of the output of a compilation held in memory
+     */
+    public static long getRetainedBytes(String key) {
+        BuildLog log = map.get(key);
+        return log == null ? 0 : log.getRetainedBytes();
     }
 
     public static void removeLog(String key) {
-        map.remove(key);
+        BuildLog log = map.remove(key);
+        if (log != null) {
+            log.release();
+        }
     }
 
     public static void addMsgToLog(String key, String msg) {
-        if (map.containsKey(key)) {
-            map.get(key).add(msg);
-        } else {
-            map.put(key, new ArrayList<>());
-            map.get(key).add(msg);
-        }
+        expireLogs();
+        map.computeIfAbsent(key, k -> new BuildLog(maxMemoryBytes, maxSpillBytes)).add(msg);
     }
 
     public static void purgeAll() {
-        map.clear();
+        Iterator<BuildLog> logs = map.values().iterator();
+        while (logs.hasNext()) {
+            BuildLog log = logs.next();
+            logs.remove();
+            log.release();
+        }
+    }
+
+    /**
+     * Releases the outputs of compilations whose response was never consumed
+     */
+    private static void expireLogs() {
+        long now = System.currentTimeMillis();
+        if (now - lastExpiryCheck < EXPIRY_CHECK_INTERVAL_MILLIS) {
+            return;
+        }
+        lastExpiryCheck = now;
+        map.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().getLastUpdate() < expiryMillis) {
+                return false;
+            }
+            entry.getValue().release();
+            return true;
+        });
     }
 }
@@ -42,6 +42,8 @@ public class WorkspaceCompilationInfoTest {
         assertThat(info.isKiePluginPresent()).isFalse();
         info.lateAdditionKiePluginPresent(Boolean.TRUE);
         assertThat(info.isKiePluginPresent()).isTrue();
+        info.resetKiePluginPresent();
+        assertThat(info.isKiePluginPresent()).isFalse();
         assertThat(info.getPrjPath().toUri()).isEqualTo(tmpRoot.toUri());
     }
 }
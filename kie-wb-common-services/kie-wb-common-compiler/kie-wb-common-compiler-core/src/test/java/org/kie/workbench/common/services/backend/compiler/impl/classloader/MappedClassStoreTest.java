@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.classloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MappedClassStoreTest {
+
+    @Test
+    public void testBytesAreReadFromTheStore() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        classes.put("b/B.class",
+                    new byte[]{4, 5});
+        classes.put("c/Empty.class",
+                    new byte[0]);
+
+        final MappedClassStore store = MappedClassStore.of(classes);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.getBytes("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(store.getBytes("b/B.class")).isEqualTo(new byte[]{4, 5});
+        assertThat(store.getBytes("c/Empty.class")).isEmpty();
+        assertThat(store.getBytes("d/Missing.class")).isNull();
+        assertThat(store.getNames()).containsOnly("a/A.class",
+                                                  "b/B.class",
+                                                  "c/Empty.class");
+    }
+
+    @Test
+    public void testMapViewIsSerializedWithItsBytes() throws Exception {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        final Map<String, byte[]> view = MappedClassStore.of(classes).asMap();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(view);
+        }
+        final Map<String, byte[]> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Map<String, byte[]>) in.readObject();
+        }
+
+        assertThat(copy).isInstanceOf(HashMap.class);
+        assertThat(copy.get("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testMapViewReturnsTheLoadedBytes() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        final Map<String, byte[]> view = MappedClassStore.of(classes).asMap();
+
+        assertThat(view.get("a/A.class")).isSameAs(view.get("a/A.class"));
+    }
+
+    @Test
+    public void testMapViewIsModifiable() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        classes.put("b/B.class",
+                    new byte[]{4, 5});
+        final MappedClassStore store = MappedClassStore.of(classes);
+        final Map<String, byte[]> view = store.asMap();
+
+        view.put("c/C.class",
+                 new byte[]{6});
+        view.remove("b/B.class");
+
+        assertThat(view).containsOnlyKeys("a/A.class",
+                                          "c/C.class");
+        assertThat(view.get("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(view.get("c/C.class")).isEqualTo(new byte[]{6});
+        assertThat(store.getNames()).containsOnly("a/A.class",
+                                                  "b/B.class");
+        assertThat(MappedClassStore.of(view)).isNotSameAs(store);
+    }
+
+    @Test
+    public void testStoreIsSharedByItsView() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        final MappedClassStore store = MappedClassStore.of(classes);
+
+        assertThat(MappedClassStore.of(store.asMap())).isSameAs(store);
+    }
+
+    @Test
+    public void testStoreIsReleasedWithItsLastReference() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        final MappedClassStore store = MappedClassStore.of(classes);
+        final Map<String, byte[]> view = store.asMap();
+        final MappedClassStore shared = MappedClassStore.of(view);
+
+        store.close();
+
+        assertThat(shared.getBytes("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(view.get("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+
+        shared.close();
+
+        assertThatThrownBy(() -> store.getBytes("a/A.class")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(view::size).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> view.containsKey("a/A.class")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> view.get("a/A.class")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> MappedClassStore.of(view)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testClosedStoreCanNotBeRead() {
+        final Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a/A.class",
+                    new byte[]{1, 2, 3});
+        final MappedClassStore store = MappedClassStore.of(classes);
+
+        store.close();
+
+        assertThat(store.contains("a/A.class")).isTrue();
+        assertThatThrownBy(() -> store.getBytes("a/A.class")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testFilesAreCopiedIntoTheStore() throws Exception {
+        final Path file = Files.createTempFile("mapped-class-store-test",
+                                               ".class");
+        try {
+            Files.write(file,
+                        new byte[]{7, 8, 9});
+            final MappedClassStore store = MappedClassStore.builder()
+                    .add("a/A.class",
+                         new byte[]{1, 2, 3})
+                    .add("b/B.class",
+                         file)
+                    .build();
+
+            assertThat(store.getBytes("a/A.class")).isEqualTo(new byte[]{1, 2, 3});
+            assertThat(store.getBytes("b/B.class")).isEqualTo(new byte[]{7, 8, 9});
+            store.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
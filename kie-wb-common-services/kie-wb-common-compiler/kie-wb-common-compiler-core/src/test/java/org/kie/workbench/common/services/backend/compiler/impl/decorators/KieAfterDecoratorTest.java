@@ -23,11 +23,13 @@ import java.util.Map;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.AFCompiler;
 import org.kie.workbench.common.services.backend.compiler.BaseCompilerTest;
 import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
 import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
 import org.kie.workbench.common.services.backend.compiler.impl.BaseMavenCompiler;
 import org.kie.workbench.common.services.backend.compiler.impl.DefaultCompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
 import org.kie.workbench.common.services.backend.constants.ResourcesConstants;
 import org.uberfire.java.nio.file.Path;
@@ -80,6 +82,21 @@ public class KieAfterDecoratorTest extends BaseCompilerTest {
         });
     }
 
+    @Test
+    public void compileKeepsPomProcessingTime() {
+        CompilationRequest req = new DefaultCompilationRequest(mavenRepoPath,
+                                                               info,
+                                                               new String[]{MavenCLIArgs.COMPILE},
+                                                               Boolean.FALSE);
+
+        KieAfterDecorator decorator = new KieAfterDecorator(new OutputLogAfterDecorator(new ClasspathDepsAfterDecorator(new PomProcessingCompiler(42))));
+        KieCompilationResponse kieRes = (KieCompilationResponse) decorator.compile(req);
+        SoftAssertions.assertSoftly(softly -> {
+            softly.assertThat(kieRes.isSuccessful()).isTrue();
+            softly.assertThat(kieRes.getPomProcessingTimeMillis()).isEqualTo(42);
+        });
+    }
+
     @Test
     public void compileWithouKieMavenPlugin() throws Exception {
         CompilationRequest req = new DefaultCompilationRequest(mavenRepoPath,
@@ -113,4 +130,35 @@ public class KieAfterDecoratorTest extends BaseCompilerTest {
             softly.assertThat(kieRes.getKieModuleMetaInfo()).isEmpty();
         });
     }
+
+    /**
+     * Compiler reporting a build that spent the given time processing the poms of the project
+     */
+    private static class PomProcessingCompiler implements AFCompiler<KieCompilationResponse> {
+
+        private final long pomProcessingTimeMillis;
+
+        PomProcessingCompiler(long pomProcessingTimeMillis) {
+            this.pomProcessingTimeMillis = pomProcessingTimeMillis;
+        }
+
+        @Override
+        public KieCompilationResponse compile(CompilationRequest req) {
+            DefaultKieCompilationResponse res = new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                                  req.getRequestUUID());
+            res.setPomProcessingTimeMillis(pomProcessingTimeMillis);
+            return res;
+        }
+
+        @Override
+        public KieCompilationResponse compile(CompilationRequest req,
+                                              Map<Path, InputStream> override) {
+            return compile(req);
+        }
+
+        @Override
+        public Boolean cleanInternalCache() {
+            return Boolean.TRUE;
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.external339;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultCompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.impl.WorkspaceCompilationInfo;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReusableAFMavenCliPoolTest {
+
+    private static final String KEY = "settings.xml|repo";
+
+    private ReusableAFMavenCliPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ReusableAFMavenCliPool(2,
+                                          2,
+                                          ReusableAFMavenCli::new);
+    }
+
+    @Test
+    public void testReleasedEnginesAreReused() {
+        final ReusableAFMavenCli cli = pool.borrow(KEY);
+        assertThat(pool.borrow(KEY)).isNotSameAs(cli);
+
+        pool.release(KEY,
+                     cli);
+
+        assertThat(pool.borrow(KEY)).isSameAs(cli);
+        assertThat(pool.borrow("other|repo")).isNotSameAs(cli);
+    }
+
+    @Test
+    public void testIdleEnginesAreBounded() {
+        final ReusableAFMavenCli first = pool.borrow(KEY);
+        final ReusableAFMavenCli second = pool.borrow(KEY);
+        final ReusableAFMavenCli third = pool.borrow(KEY);
+
+        pool.release(KEY,
+                     first);
+        pool.release(KEY,
+                     second);
+        pool.release(KEY,
+                     third);
+
+        assertThat(pool.getIdleCount(KEY)).isEqualTo(2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedKeysAreDiscarded() {
+        pool.release("a",
+                     pool.borrow("a"));
+        pool.release("b",
+                     pool.borrow("b"));
+        pool.release("c",
+                     pool.borrow("c"));
+
+        assertThat(pool.getIdleCount("a")).isZero();
+        assertThat(pool.getIdleCount("b")).isEqualTo(1);
+        assertThat(pool.getIdleCount("c")).isEqualTo(1);
+    }
+
+    @Test
+    public void testClean() {
+        pool.release(KEY,
+                     pool.borrow(KEY));
+
+        assertThat(pool.clean(KEY)).isTrue();
+        assertThat(pool.getIdleCount(KEY)).isZero();
+    }
+
+    @Test
+    public void testKeyIsProjectSettingsAndRepository() throws Exception {
+        final Path project = Files.createTempDirectory("project");
+
+        final String key = ReusableAFMavenCliPool.toKey(request(project,
+                                                                "/tmp/settings.xml"));
+        assertThat(key).isEqualTo(project.toAbsolutePath().toString() + "|/tmp/settings.xml|repo");
+        assertThat(ReusableAFMavenCliPool.toKey(request(project,
+                                                        "/tmp/settings.xml"))).isEqualTo(key);
+        assertThat(ReusableAFMavenCliPool.toKey(request(project,
+                                                        "/tmp/other.xml"))).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testProjectsHaveTheirOwnEngines() throws Exception {
+        final Path projectA = Files.createTempDirectory("projectA");
+        final Path projectB = Files.createTempDirectory("projectB");
+
+        assertThat(ReusableAFMavenCliPool.toKey(request(projectA,
+                                                        "/tmp/settings.xml"))).isNotEqualTo(ReusableAFMavenCliPool.toKey(request(projectB,
+                                                                                                                                 "/tmp/settings.xml")));
+    }
+
+    private CompilationRequest request(final Path project,
+                                       final String settings) {
+        return new DefaultCompilationRequest("repo",
+                                             new WorkspaceCompilationInfo(project),
+                                             new String[]{MavenCLIArgs.ALTERNATE_USER_SETTINGS + settings, MavenCLIArgs.COMPILE},
+                                             Boolean.FALSE);
+    }
+}
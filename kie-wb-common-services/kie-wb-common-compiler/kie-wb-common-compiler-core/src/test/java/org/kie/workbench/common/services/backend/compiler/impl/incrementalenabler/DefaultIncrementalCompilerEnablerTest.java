@@ -26,6 +26,7 @@ import org.kie.workbench.common.services.backend.compiler.BaseCompilerTest;
 import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
 import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
 import org.kie.workbench.common.services.backend.compiler.impl.DefaultCompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.ProcessedPomCache;
 import org.kie.workbench.common.services.backend.compiler.impl.pomprocessor.ProcessedPoms;
 import org.kie.workbench.common.services.backend.constants.ResourcesConstants;
 import org.kie.workbench.common.services.backend.constants.TestConstants;
@@ -96,6 +97,31 @@ public class DefaultIncrementalCompilerEnablerTest extends BaseCompilerTest {
         assertThat(pomAsAstring).contains("<version>" + mavenCompilerVersion + "</version>");
     }
 
+    @Test
+    public void processUnchangedPomsFromCacheTest() throws Exception {
+        ProcessedPomCache cache = new ProcessedPomCache(java.nio.file.Files.createTempFile("processed-poms", ".properties"), 10);
+        CompilationRequest req = new DefaultCompilationRequest(mavenRepoPath,
+                                                               info,
+                                                               new String[]{MavenCLIArgs.COMPILE, MavenCLIArgs.ALTERNATE_USER_SETTINGS + alternateSettingsAbsPath},
+                                                               Boolean.FALSE);
+        ProcessedPoms poms = new DefaultIncrementalCompilerEnabler(cache).process(req);
+        assertThat(poms.getResult()).isTrue();
+        assertThat(poms.getSkippedPoms()).isZero();
+        assertThat(cache.size()).isEqualTo(1);
+        byte[] processed = Files.readAllBytes(Paths.get(tmpRoot + "/dummy/pom.xml"));
+
+        CompilationRequest secondReq = new DefaultCompilationRequest(mavenRepoPath,
+                                                                     info,
+                                                                     new String[]{MavenCLIArgs.COMPILE, MavenCLIArgs.ALTERNATE_USER_SETTINGS + alternateSettingsAbsPath},
+                                                                     Boolean.FALSE);
+        poms = new DefaultIncrementalCompilerEnabler(cache).process(secondReq);
+        assertThat(poms.getResult()).isTrue();
+        assertThat(poms.getProjectPoms()).hasSize(1);
+        assertThat(poms.getSkippedPoms()).isEqualTo(1);
+        assertThat(Files.readAllBytes(Paths.get(tmpRoot + "/dummy/pom.xml"))).isEqualTo(processed);
+        assertThat(secondReq.getKieCliRequest().getArgs()).isEqualTo(req.getKieCliRequest().getArgs());
+    }
+
     private Properties loadProperties(String propName) {
         Properties prop = new Properties();
         InputStream in = getClass().getClassLoader().getResourceAsStream(propName);
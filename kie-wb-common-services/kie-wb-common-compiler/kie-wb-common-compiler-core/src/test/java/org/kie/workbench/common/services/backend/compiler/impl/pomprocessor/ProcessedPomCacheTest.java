@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.impl.pomprocessor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessedPomCacheTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("processed-poms",
+                                    ".properties");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreTrimmedOnFlush() {
+        final ProcessedPomCache other = new ProcessedPomCache(file,
+                                                              3);
+        other.put("/other/pom.xml",
+                  "h0",
+                  Boolean.TRUE);
+        other.flush();
+
+        final ProcessedPomCache cache = new ProcessedPomCache(file,
+                                                              3);
+        cache.put("/a/pom.xml",
+                  "h1",
+                  Boolean.TRUE);
+        cache.put("/b/pom.xml",
+                  "h2",
+                  Boolean.FALSE);
+        cache.flush();
+        cache.getKiePluginPresent("/a/pom.xml",
+                                  "h1");
+        cache.put("/c/pom.xml",
+                  "h3",
+                  Boolean.TRUE);
+        cache.flush();
+
+        final ProcessedPomCache reloaded = new ProcessedPomCache(file,
+                                                                 3);
+        assertThat(reloaded.size()).isEqualTo(3);
+        assertThat(reloaded.getKiePluginPresent("/other/pom.xml",
+                                                "h0")).isNull();
+        assertThat(reloaded.getKiePluginPresent("/a/pom.xml",
+                                                "h1")).isTrue();
+        assertThat(reloaded.getKiePluginPresent("/b/pom.xml",
+                                                "h2")).isFalse();
+        assertThat(reloaded.getKiePluginPresent("/c/pom.xml",
+                                                "h3")).isTrue();
+    }
+
+    @Test
+    public void testEntriesStoredByOtherCompilersAreLoadedOnFlush() {
+        final ProcessedPomCache cache = new ProcessedPomCache(file,
+                                                              10);
+        final ProcessedPomCache other = new ProcessedPomCache(file,
+                                                              10);
+        other.put("/other/pom.xml",
+                  "h0",
+                  Boolean.TRUE);
+        other.flush();
+
+        cache.put("/a/pom.xml",
+                  "h1",
+                  Boolean.TRUE);
+        cache.flush();
+
+        assertThat(cache.getKiePluginPresent("/other/pom.xml",
+                                             "h0")).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testWorkspaceCacheIsLoadedOnce() {
+        final String workspace = file.getParent().resolve("workspace").toString();
+
+        assertThat(ProcessedPomCache.forWorkspace(workspace)).isSameAs(ProcessedPomCache.forWorkspace(workspace));
+    }
+}
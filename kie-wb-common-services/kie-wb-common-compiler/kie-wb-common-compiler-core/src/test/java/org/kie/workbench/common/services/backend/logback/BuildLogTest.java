@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.logback;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildLogTest {
+
+    @Test
+    public void testOlderLinesAreSpilledToDisk() {
+        //each line takes 4 bytes, two of them fit in memory
+        final BuildLog log = new BuildLog(8,
+                                          1024);
+        log.add("l0");
+        log.add("l1");
+        log.add("l2");
+        log.add("l3");
+
+        assertThat(log.getRetainedBytes()).isEqualTo(8);
+        assertThat(log.getSpilledBytes()).isEqualTo(8);
+        assertThat(log.asList()).containsExactly("l0",
+                                                   "l1",
+                                                   "l2",
+                                                   "l3");
+        log.release();
+        assertThat(log.getRetainedBytes()).isZero();
+    }
+
+    @Test
+    public void testRunningBuildIsTailed() {
+        final BuildLog log = new BuildLog(8,
+                                          1024);
+        log.add("l0");
+        log.add("l1");
+        log.add("l2");
+
+        BuildLog.Chunk chunk = log.read(0,
+                                        2);
+        assertThat(chunk.getLines()).containsExactly("l0",
+                                                     "l1");
+        assertThat(chunk.getNextLine()).isEqualTo(2);
+
+        log.add("l3");
+        chunk = log.read(chunk.getNextLine(),
+                         10);
+        assertThat(chunk.getLines()).containsExactly("l2",
+                                                     "l3");
+        assertThat(log.read(chunk.getNextLine(),
+                            10).getLines()).isEmpty();
+        log.release();
+    }
+
+    @Test
+    public void testLinesOverTheSpillLimitAreDropped() {
+        final BuildLog log = new BuildLog(4,
+                                          4);
+        log.add("l0");
+        log.add("l1");
+        log.add("l2");
+        log.add("l3");
+
+        assertThat(log.getDroppedLines()).isEqualTo(2);
+        assertThat(log.asList()).containsExactly("l2",
+                                                   "l3");
+        final BuildLog.Chunk chunk = log.read(0,
+                                              10);
+        assertThat(chunk.getFirstLine()).isEqualTo(2);
+        assertThat(chunk.getNextLine()).isEqualTo(4);
+        log.release();
+    }
+
+    @Test
+    public void testOnlyTheOldestSegmentIsDroppedWhenTheSpillIsFull() {
+        //one line in memory, the spill holds four segments of one line each
+        final BuildLog log = new BuildLog(4,
+                                          16);
+        for (int i = 0; i < 7; i++) {
+            log.add("l" + i);
+        }
+
+        assertThat(log.getDroppedLines()).isEqualTo(2);
+        assertThat(log.getSpilledBytes()).isEqualTo(16);
+        assertThat(log.asList()).containsExactly("l2",
+                                                 "l3",
+                                                 "l4",
+                                                 "l5",
+                                                 "l6");
+        log.release();
+    }
+
+    @Test
+    public void testViewIsStreamedFromTheLog() {
+        final BuildLog log = new BuildLog(8,
+                                          1024 * 1024);
+        for (int i = 0; i < 3000; i++) {
+            log.add("l" + i);
+        }
+        final List<String> view = log.asList();
+
+        assertThat(view).hasSize(3000);
+        assertThat(view.get(0)).isEqualTo("l0");
+        assertThat(view.get(2999)).isEqualTo("l2999");
+        int index = 0;
+        for (String line : view) {
+            assertThat(line).isEqualTo("l" + index++);
+        }
+        assertThat(index).isEqualTo(3000);
+
+        log.release();
+        assertThat(view).isEmpty();
+    }
+}
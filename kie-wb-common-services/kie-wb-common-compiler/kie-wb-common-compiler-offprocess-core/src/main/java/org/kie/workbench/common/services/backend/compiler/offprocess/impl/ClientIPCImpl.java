@@ -57,10 +57,10 @@ public class ClientIPCImpl implements ClientIPC {
     private boolean isLoaded(String uuid) {
         ExcerptTailer tailer = provider.getQueue().createTailer();
         DefaultKieCompilationResponseOffProcess res = readThisDocument(tailer);
-        DefaultKieCompilationResponse kres = new DefaultKieCompilationResponse(res);
-        if (uuid.equals(kres.getRequestUUID())) {
-            if (!map.contains(kres.getRequestUUID())) {
-                map.addResponse(uuid, kres);
+        //Responses are only created for the map, as each of them copies the generated classes in a store of its own
+        if (uuid.equals(res.getRequestUUID())) {
+            if (!map.contains(uuid)) {
+                map.addResponse(uuid, new DefaultKieCompilationResponse(res));
                 return true;
             }
         } else {
@@ -70,8 +70,7 @@ public class ClientIPCImpl implements ClientIPC {
             res = loopOverQueue(tailer,uuid, 0l);
         }
 
-        kres = new DefaultKieCompilationResponse(res);
-        if (!map.contains(kres.getRequestUUID())) {
+        if (!map.contains(res.getRequestUUID())) {
             map.addResponse(uuid, new DefaultKieCompilationResponse(res));
             return true;
         } else {
@@ -36,7 +36,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Coordinator of the build executed in a separate process and the cleint to read the result
+ * Coordinator of the build executed in a separate process and the cleint to read the result.
+ * Builds run on a pool of warm worker processes, unless the pool size is set to 0 and a process is started per build.
  */
 public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
 
@@ -52,6 +53,7 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
     private QueueProvider provider;
     private String queueName;
     private String kieVersion;
+    private CompilerWorkerPool workerPool;
 
     public CompilerIPCCoordinatorImpl(QueueProvider provider) {
         this.kieVersion = getKieVersion();
@@ -66,6 +68,7 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
         }
+        workerPool = new CompilerWorkerPool(this::getWorkerProcessBuilder);
     }
 
     @Override
@@ -95,7 +98,13 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
     private CompilationResponse internalBuild(String mavenRepo, String projectPath, String alternateSettingsAbsPath, String uuid) {
         String classpath = classpathTemplate.replace(placeholder, mavenRepo);
         try {
-            invokeServerBuild(mavenRepo, projectPath, uuid, classpath, alternateSettingsAbsPath, queueName);
+            if (workerPool.isEnabled()) {
+                if (!workerPool.build(uuid, projectPath, mavenRepo, alternateSettingsAbsPath)) {
+                    return new DefaultKieCompilationResponse(false, uuid);
+                }
+            } else {
+                invokeServerBuild(mavenRepo, projectPath, uuid, classpath, alternateSettingsAbsPath, queueName);
+            }
             if(logger.isDebugEnabled()) {
                 logger.debug("invokeServerBuild completed");
             }
@@ -108,6 +117,8 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
 
     private CompilationResponse getCompilationResponse(String uuid) {
         KieCompilationResponse res = clientIPC.getResponse(uuid);
+        // the response is handed over to the caller, who owns it from then on, so the map doesn't keep it
+        responseMap.removeResponse(uuid);
         if (res != null) {
             return res;
         } else {
@@ -140,6 +151,40 @@ public class CompilerIPCCoordinatorImpl implements CompilerIPCCoordinator {
         writeStdOut(serverPb);
     }
 
+    private ProcessBuilder getWorkerProcessBuilder(String mavenRepo, String projectPath) {
+        String[] commandArrayServer =
+                {
+                        javaBin,
+                        "-cp",
+                        getClasspathIncludedCurrentModuleDep(mavenRepo, classpathTemplate.replace(placeholder, mavenRepo)),
+                        "-Dorg.uberfire.nio.git.daemon.enabled=false",
+                        "-Dorg.uberfire.nio.ssh.daemon.enabled=false",
+                        ServerIPCImpl.class.getCanonicalName(),
+                        ServerIPCImpl.DAEMON_ARG,
+                        queueName
+                };
+        if (logger.isDebugEnabled()) {
+            logger.debug("Starting a compiler worker with args: {}", (Object) commandArrayServer);
+        }
+        ProcessBuilder workerPb = new ProcessBuilder(commandArrayServer);
+        workerPb.directory(new File(projectPath));
+        return workerPb;
+    }
+
+    /**
+     * @return Number of worker processes started by the coordinator since its creation
+     */
+    public int getStartedWorkersCount() {
+        return workerPool.getStartedWorkersCount();
+    }
+
+    /**
+     * Shuts the worker processes down, the coordinator can not run builds afterwards
+     */
+    public void shutdown() {
+        workerPool.shutdown();
+    }
+
     private String getClasspathIncludedCurrentModuleDep(String mavenRepo, String classpath){
         StringBuilder sb = new StringBuilder();
         this.getClass().getPackage();
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long lived process running {@link ServerIPCImpl} in daemon mode. Build requests are written on the standard input
+ * of the process, the responses are written by the process on the Chronicle queue and each build is acknowledged on
+ * the standard output, that is otherwise logged.
+ * A worker runs a single build at a time.
+ */
+class CompilerWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilerWorker.class);
+
+    private final Process process;
+    private final Writer requests;
+    private final BlockingQueue<String> acknowledgements = new LinkedBlockingQueue<>();
+    private int buildsCount;
+    private long usedHeapBytes;
+
+    CompilerWorker(final ProcessBuilder builder) throws IOException {
+        builder.redirectErrorStream(true);
+        this.process = builder.start();
+        this.requests = new OutputStreamWriter(process.getOutputStream(),
+                                               StandardCharsets.UTF_8);
+        final Thread reader = new Thread(this::readOutput,
+                                         "kie-offprocess-worker-output");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readOutput() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                                                                              StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int marker = line.indexOf(ServerIPCImpl.ACK_MARKER);
+                if (marker >= 0) {
+                    acknowledgements.add(line.substring(marker + ServerIPCImpl.ACK_MARKER.length()).trim());
+                } else if (logger.isInfoEnabled()) {
+                    logger.info(line);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Output of the compiler worker closed: {}",
+                         e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a build and waits for its acknowledgement
+     * @return true if the worker acknowledged the build within the timeout
+     */
+    boolean build(final String uuid,
+                  final String projectPath,
+                  final String mavenRepo,
+                  final String alternateSettingsAbsPath,
+                  final long timeoutMillis) throws IOException, InterruptedException {
+        buildsCount++;
+        send(String.join(ServerIPCImpl.FIELD_SEPARATOR,
+                         uuid,
+                         projectPath,
+                         mavenRepo,
+                         alternateSettingsAbsPath));
+        final String acknowledgement = awaitAcknowledgement(uuid,
+                                                            timeoutMillis);
+        if (acknowledgement == null) {
+            return false;
+        }
+        final String[] fields = acknowledgement.split(" ");
+        if (fields.length > 1) {
+            try {
+                usedHeapBytes = Long.parseLong(fields[1]);
+            } catch (NumberFormatException e) {
+                logger.debug("Unexpected acknowledgement {}",
+                             acknowledgement);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the process is alive and answers a ping within the timeout
+     */
+    boolean isHealthy(final long timeoutMillis) {
+        if (!process.isAlive()) {
+            return false;
+        }
+        try {
+            send(ServerIPCImpl.PING_COMMAND);
+            return awaitAcknowledgement(ServerIPCImpl.PING_COMMAND,
+                                        timeoutMillis) != null;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void shutdown() {
+        try {
+            send(ServerIPCImpl.SHUTDOWN_COMMAND);
+            if (!process.waitFor(5,
+                                 TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (IOException e) {
+            process.destroyForcibly();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void kill() {
+        process.destroyForcibly();
+    }
+
+    int getBuildsCount() {
+        return buildsCount;
+    }
+
+    long getUsedHeapBytes() {
+        return usedHeapBytes;
+    }
+
+    private void send(final String command) throws IOException {
+        requests.write(command);
+        requests.write('\n');
+        requests.flush();
+    }
+
+    private String awaitAcknowledgement(final String id,
+                                        final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (remaining > 0) {
+            final String acknowledgement = acknowledgements.poll(remaining,
+                                                                 TimeUnit.MILLISECONDS);
+            if (acknowledgement == null) {
+                return null;
+            }
+            //Acknowledgements of timed out requests are skipped
+            if (acknowledgement.equals(id) || acknowledgement.startsWith(id + " ")) {
+                return acknowledgement;
+            }
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return null;
+    }
+}
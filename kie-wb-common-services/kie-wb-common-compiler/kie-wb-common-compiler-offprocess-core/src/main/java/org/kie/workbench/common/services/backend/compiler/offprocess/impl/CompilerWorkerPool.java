@@ -0,0 +1,290 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of warm off process compiler workers, keyed by maven repository and project, as the classpath of a worker
+ * depends on the former and its working directory is the latter.
+ * The number of live workers is bounded: once the bound is reached, an idle worker of another key is shut down to
+ * start a new one, or the build waits for a worker to be released.
+ * Idle workers are health checked before being reused, and recycled after a number of builds or once their heap
+ * grows over a threshold.
+ */
+class CompilerWorkerPool {
+
+    static final String POOL_SIZE = "org.kie.compiler.offprocess.pool.size";
+    static final String MAX_WORKERS = "org.kie.compiler.offprocess.max.workers";
+    static final String MAX_BUILDS_PER_WORKER = "org.kie.compiler.offprocess.worker.max.builds";
+    static final String MAX_WORKER_HEAP_MB = "org.kie.compiler.offprocess.worker.max.heap.mb";
+    static final String BUILD_TIMEOUT_SECONDS = "org.kie.compiler.offprocess.worker.build.timeout";
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilerWorkerPool.class);
+
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int DEFAULT_MAX_WORKERS = 4;
+    private static final int DEFAULT_MAX_BUILDS_PER_WORKER = 50;
+    private static final int DEFAULT_MAX_WORKER_HEAP_MB = 1024;
+    private static final int DEFAULT_BUILD_TIMEOUT_SECONDS = 600;
+    private static final long HEALTH_CHECK_TIMEOUT_MILLIS = 5000;
+
+    private final int poolSize;
+    private final int maxWorkers;
+    private final int maxBuildsPerWorker;
+    private final long maxWorkerHeapBytes;
+    private final long buildTimeoutMillis;
+    private final BiFunction<String, String, ProcessBuilder> workerFactory;
+    private final Thread shutdownHook;
+    //Guarded by idle
+    private final Map<String, Deque<CompilerWorker>> idle = new LinkedHashMap<>();
+    private int liveWorkers;
+    private boolean closed;
+    private final AtomicInteger startedWorkers = new AtomicInteger();
+
+    /**
+     * @param workerFactory Creates the process of a worker given the maven repository and the project path
+     */
+    CompilerWorkerPool(final BiFunction<String, String, ProcessBuilder> workerFactory) {
+        this(Integer.getInteger(POOL_SIZE,
+                                DEFAULT_POOL_SIZE),
+             Integer.getInteger(MAX_WORKERS,
+                                DEFAULT_MAX_WORKERS),
+             Integer.getInteger(MAX_BUILDS_PER_WORKER,
+                                DEFAULT_MAX_BUILDS_PER_WORKER),
+             Integer.getInteger(MAX_WORKER_HEAP_MB,
+                                DEFAULT_MAX_WORKER_HEAP_MB) * 1024L * 1024L,
+             Integer.getInteger(BUILD_TIMEOUT_SECONDS,
+                                DEFAULT_BUILD_TIMEOUT_SECONDS) * 1000L,
+             workerFactory);
+    }
+
+    CompilerWorkerPool(final int poolSize,
+                       final int maxWorkers,
+                       final int maxBuildsPerWorker,
+                       final long maxWorkerHeapBytes,
+                       final long buildTimeoutMillis,
+                       final BiFunction<String, String, ProcessBuilder> workerFactory) {
+        this.poolSize = poolSize;
+        this.maxWorkers = Math.max(1,
+                                   maxWorkers);
+        this.maxBuildsPerWorker = maxBuildsPerWorker;
+        this.maxWorkerHeapBytes = maxWorkerHeapBytes;
+        this.buildTimeoutMillis = buildTimeoutMillis;
+        this.workerFactory = workerFactory;
+        this.shutdownHook = new Thread(this::shutdownWorkers,
+                                       "kie-offprocess-worker-pool-shutdown");
+        if (isEnabled()) {
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * @return false if the pool is disabled and every build has to start a process of its own
+     */
+    boolean isEnabled() {
+        return poolSize > 0;
+    }
+
+    /**
+     * Runs a build on a worker of the maven repository and project, waiting for a worker to be released if the
+     * maximum number of workers are busy
+     * @return true if the build was acknowledged by the worker, so that its response is on the queue
+     */
+    boolean build(final String uuid,
+                  final String projectPath,
+                  final String mavenRepo,
+                  final String alternateSettingsAbsPath) throws IOException, InterruptedException {
+        final String key = getKey(mavenRepo,
+                                  projectPath);
+        final CompilerWorker worker = borrow(key,
+                                             mavenRepo,
+                                             projectPath);
+        boolean acknowledged = false;
+        try {
+            acknowledged = worker.build(uuid,
+                                        projectPath,
+                                        mavenRepo,
+                                        alternateSettingsAbsPath,
+                                        buildTimeoutMillis);
+            return acknowledged;
+        } finally {
+            if (acknowledged) {
+                release(key,
+                        worker);
+            } else {
+                logger.warn("Compiler worker did not complete build {}, discarding it",
+                            uuid);
+                worker.kill();
+                retire();
+            }
+        }
+    }
+
+    int getStartedWorkersCount() {
+        return startedWorkers.get();
+    }
+
+    /**
+     * Shuts the idle workers down. Busy workers are shut down once their build completes.
+     */
+    void shutdown() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            //The JVM is already shutting down and runs the hook
+        }
+        shutdownWorkers();
+    }
+
+    private void shutdownWorkers() {
+        final List<CompilerWorker> workers = new ArrayList<>();
+        synchronized (idle) {
+            closed = true;
+            idle.values().forEach(workers::addAll);
+            idle.clear();
+            liveWorkers -= workers.size();
+            idle.notifyAll();
+        }
+        workers.forEach(CompilerWorker::shutdown);
+    }
+
+    private CompilerWorker borrow(final String key,
+                                  final String mavenRepo,
+                                  final String projectPath) throws IOException, InterruptedException {
+        while (true) {
+            CompilerWorker worker = null;
+            CompilerWorker evicted = null;
+            synchronized (idle) {
+                while (true) {
+                    if (closed) {
+                        throw new IllegalStateException("The compiler worker pool is shut down");
+                    }
+                    final Deque<CompilerWorker> workers = idle.get(key);
+                    worker = workers == null ? null : workers.poll();
+                    if (worker != null) {
+                        break;
+                    }
+                    if (liveWorkers < maxWorkers) {
+                        liveWorkers++;
+                        break;
+                    }
+                    //The new worker takes the place of an idle worker of another key
+                    evicted = pollIdleWorker();
+                    if (evicted != null) {
+                        break;
+                    }
+                    idle.wait();
+                }
+            }
+            if (evicted != null) {
+                evicted.shutdown();
+            }
+            if (worker == null) {
+                return startWorker(mavenRepo,
+                                   projectPath);
+            }
+            if (worker.isHealthy(HEALTH_CHECK_TIMEOUT_MILLIS)) {
+                return worker;
+            }
+            logger.warn("Discarding unhealthy compiler worker");
+            worker.kill();
+            retire();
+        }
+    }
+
+    private CompilerWorker startWorker(final String mavenRepo,
+                                       final String projectPath) throws IOException {
+        try {
+            final CompilerWorker worker = new CompilerWorker(workerFactory.apply(mavenRepo,
+                                                                                 projectPath));
+            startedWorkers.incrementAndGet();
+            return worker;
+        } catch (IOException | RuntimeException e) {
+            retire();
+            throw e;
+        }
+    }
+
+    private void release(final String key,
+                         final CompilerWorker worker) {
+        if (worker.getBuildsCount() >= maxBuildsPerWorker || worker.getUsedHeapBytes() > maxWorkerHeapBytes) {
+            logger.debug("Recycling compiler worker after {} builds, {} bytes of heap used",
+                         worker.getBuildsCount(),
+                         worker.getUsedHeapBytes());
+            worker.shutdown();
+            retire();
+            return;
+        }
+        synchronized (idle) {
+            if (!closed) {
+                final Deque<CompilerWorker> workers = idle.computeIfAbsent(key,
+                                                                           k -> new ArrayDeque<>());
+                if (workers.size() < poolSize) {
+                    workers.push(worker);
+                    idle.notifyAll();
+                    return;
+                }
+            }
+        }
+        worker.shutdown();
+        retire();
+    }
+
+    /**
+     * Accounts for a worker that is no longer alive, letting a waiting build start a new one
+     */
+    private void retire() {
+        synchronized (idle) {
+            liveWorkers--;
+            idle.notifyAll();
+        }
+    }
+
+    //Guarded by idle. The worker stays accounted for, as it is replaced by a new one
+    private CompilerWorker pollIdleWorker() {
+        final Iterator<Deque<CompilerWorker>> iterator = idle.values().iterator();
+        while (iterator.hasNext()) {
+            final Deque<CompilerWorker> workers = iterator.next();
+            final CompilerWorker worker = workers.pollLast();
+            if (workers.isEmpty()) {
+                iterator.remove();
+            }
+            if (worker != null) {
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    private static String getKey(final String mavenRepo,
+                                 final String projectPath) {
+        return mavenRepo + File.pathSeparator + projectPath;
+    }
+}
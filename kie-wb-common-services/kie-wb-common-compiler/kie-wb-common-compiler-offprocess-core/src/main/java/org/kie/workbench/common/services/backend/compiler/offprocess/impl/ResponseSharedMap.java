@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
 
 /***
  * Map to hold the Response of the compilations using the UUID key to retrieve and store
@@ -35,13 +36,16 @@ public class ResponseSharedMap {
         return map.getOrDefault(key, null);
     }
 
-    public void removeResponse(String key) {
-        map.remove(key);
+    /**
+     * @return The response removed, which is then owned by the caller
+     */
+    public CompilationResponse removeResponse(String key) {
+        return map.remove(key);
     }
 
     public void addResponse(String key, CompilationResponse res) {
-        if (!map.containsKey(key)) {
-            map.put(key, res);
+        if (map.putIfAbsent(key, res) != null) {
+            close(res);
         }
     }
 
@@ -50,6 +54,17 @@ public class ResponseSharedMap {
     }
 
     public void purgeAll() {
-        map.clear();
+        for (String key : map.keySet()) {
+            close(map.remove(key));
+        }
+    }
+
+    /**
+     * Releases the generated classes of a response held by the map only
+     */
+    private void close(CompilationResponse res) {
+        if (res instanceof DefaultKieCompilationResponse) {
+            ((DefaultKieCompilationResponse) res).close();
+        }
     }
 }
@@ -15,10 +15,14 @@
  */
 package org.kie.workbench.common.services.backend.compiler.offprocess.impl;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
 
 import net.openhft.chronicle.bytes.Bytes;
@@ -38,13 +42,27 @@ import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.file.Paths;
 
 /***
- * Class invoked through the main method, by the CompilerIPCCoordinatorImpl when the compile method is called to run a offProcess build
+ * Class invoked through the main method, by the CompilerIPCCoordinatorImpl when the compile method is called to run a offProcess build.
+ * Started with {@link #DAEMON_ARG} and the queue name, it runs as a long lived worker reading build requests from the standard input.
  */
 public class ServerIPCImpl {
 
+    public static final String DAEMON_ARG = "--daemon";
+    public static final String FIELD_SEPARATOR = "\t";
+    public static final String ACK_MARKER = "[KIE-OFFPROCESS-ACK]";
+    public static final String PING_COMMAND = "PING";
+    public static final String SHUTDOWN_COMMAND = "SHUTDOWN";
+
     private static Logger logger = LoggerFactory.getLogger(ServerIPCImpl.class);
 
     public static void main(String[] args) throws Exception {
+        if (args.length == 2 && DAEMON_ARG.equals(args[0])) {
+            checksQueueNameLenght(args[1]);
+            serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                  System.out,
+                  new QueueProvider(args[1], true));
+            return;
+        }
         checksParamsNumber(args);
         String uuid = args[0];
         checksUUIDLength(uuid);
@@ -62,6 +80,48 @@ public class ServerIPCImpl {
         Thread.currentThread().setName(threadName);// restore the previous name to avoid the override of the maven output
     }
 
+    /**
+     * Runs the build requests read from the input, one per line with the uuid, the working dir, the maven repo and the
+     * alternate settings separated by {@link #FIELD_SEPARATOR}, until the input is closed or {@link #SHUTDOWN_COMMAND}
+     * is read. Every request is acknowledged on the output, with the heap in use once the build is completed.
+     */
+    public static void serve(BufferedReader input, PrintStream output, QueueProvider provider) throws IOException {
+        String threadName = Thread.currentThread().getName();
+        String line;
+        while ((line = input.readLine()) != null && !SHUTDOWN_COMMAND.equals(line)) {
+            if (PING_COMMAND.equals(line)) {
+                acknowledge(output, PING_COMMAND);
+                continue;
+            }
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            String uuid = fields[0];
+            try {
+                if (fields.length != 4) {
+                    throw new RuntimeException("Wrong number of params:" + fields.length);
+                }
+                checksUUIDLength(uuid);
+                checksWorkingDir(fields[1]);
+                checksMavenRepo(fields[2]);
+                checksSettingFile(fields[3]);
+                execute(fields[1], fields[2], fields[3], uuid, provider);
+            } catch (Exception e) {
+                logger.error("Build {} failed: {}", uuid, e.getMessage(), e);
+            } finally {
+                Thread.currentThread().setName(threadName);
+            }
+            Runtime runtime = Runtime.getRuntime();
+            acknowledge(output, uuid + " " + (runtime.totalMemory() - runtime.freeMemory()));
+        }
+        provider.cleanQueue();
+    }
+
+    private static void acknowledge(PrintStream output, String acknowledgement) {
+        //Own line, whatever the build left on the current one
+        output.println();
+        output.println(ACK_MARKER + " " + acknowledgement);
+        output.flush();
+    }
+
     private static void checksQueueNameLenght(String queueName) {
         if(StringUtils.isEmpty(queueName) || queueName.length() < 5){
             logger.error("uuid too short, less than 5 chars:{}", queueName);
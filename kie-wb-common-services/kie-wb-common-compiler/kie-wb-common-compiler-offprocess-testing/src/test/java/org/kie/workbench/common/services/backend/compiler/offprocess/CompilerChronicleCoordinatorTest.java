@@ -123,4 +123,26 @@ public class CompilerChronicleCoordinatorTest {
         DefaultKieCompilationResponse secondKres = (DefaultKieCompilationResponse) secondRes;
         assertThat(secondUuid).isEqualToIgnoringCase(secondKres.getRequestUUID());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void offProcessBuildsReuseTheWorkerTest() {
+        CompilerIPCCoordinatorImpl compiler = new CompilerIPCCoordinatorImpl(queueProvider);
+        WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(prjPath);
+
+        for (int i = 0; i < 2; i++) {
+            String uuid = UUID.randomUUID().toString();
+            CompilationRequest req = new DefaultCompilationRequest(mavenRepo,
+                                                                   info,
+                                                                   new String[]{
+                                                                           MavenCLIArgs.COMPILE,
+                                                                           MavenCLIArgs.ALTERNATE_USER_SETTINGS + alternateSettingsAbsPath
+                                                                   },
+                                                                   Boolean.FALSE, uuid);
+            CompilationResponse res = compiler.compile(req);
+            assertThat(res.isSuccessful()).isTrue();
+            assertThat(uuid).isEqualToIgnoringCase(((DefaultKieCompilationResponse) res).getRequestUUID());
+        }
+        assertThat(compiler.getStartedWorkersCount()).isEqualTo(1);
+        compiler.shutdown();
+    }
+}
@@ -16,10 +16,18 @@
 package org.kie.workbench.common.services.backend.compiler.service.executors;
 
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.workbench.common.services.backend.compiler.AFCompiler;
@@ -30,28 +38,75 @@ import org.kie.workbench.common.services.backend.compiler.impl.DefaultCompilatio
 import org.kie.workbench.common.services.backend.compiler.impl.WorkspaceCompilationInfo;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.impl.kie.KieMavenCompilerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.file.Path;
 
 /**
- * Implementation for a local build requested by a local execution (Contains NIO Objects)
+ * Implementation for a local build requested by a local execution (Contains NIO Objects).
+ * Concurrent requests to build the same project with the same arguments share a single build that has not started
+ * yet, builds of the same project are chained as they share one compiler, and the number of concurrent Maven
+ * invocations is bounded.
  */
 public class DefaultLocalExecutor implements CompilerExecutor {
 
+    public static final String COMPILER_CACHE_SIZE = "org.kie.compiler.local.cache.size";
+    public static final String MAX_CONCURRENT_BUILDS = "org.kie.compiler.local.max.concurrent.builds";
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultLocalExecutor.class);
+
+    private static final int DEFAULT_COMPILER_CACHE_SIZE = 20;
+
     private ExecutorService executor;
     private LRUCache<Path, CompilerAggregateEntryCache> compilerCacheForLocalInvocation;
+    private ConcurrentMap<String, CompletableFuture<KieCompilationResponse>> queuedBuilds;
+    private Map<Path, CompletableFuture<Void>> projectBuilds;
+    private BuildPermits buildPermits;
+    private Supplier<AFCompiler> compilerSupplier;
 
     public DefaultLocalExecutor(ExecutorService executorService) {
+        this(executorService,
+             DefaultLocalExecutor::newCompiler,
+             Integer.getInteger(COMPILER_CACHE_SIZE,
+                                DEFAULT_COMPILER_CACHE_SIZE),
+             Integer.getInteger(MAX_CONCURRENT_BUILDS,
+                                Runtime.getRuntime().availableProcessors()));
+    }
+
+    DefaultLocalExecutor(ExecutorService executorService,
+                         Supplier<AFCompiler> compilerSupplier,
+                         int compilerCacheSize,
+                         int maxConcurrentBuilds) {
         executor = executorService;
-        compilerCacheForLocalInvocation = new LRUCache<Path, CompilerAggregateEntryCache>() {
+        this.compilerSupplier = compilerSupplier;
+        compilerCacheForLocalInvocation = new LRUCache<Path, CompilerAggregateEntryCache>(Math.max(1,
+                                                                                                   compilerCacheSize)) {
         };
+        queuedBuilds = new ConcurrentHashMap<>();
+        projectBuilds = new HashMap<>();
+        buildPermits = new BuildPermits(Math.max(1,
+                                                 maxConcurrentBuilds));
     }
 
-    private AFCompiler getCompiler(Path projectPath) {
-        CompilerAggregateEntryCache info = compilerCacheForLocalInvocation.getEntry(projectPath);
-        if (info != null && info.getCompiler() != null) {
-            return info.getCompiler();
-        } else {
-            return getNewCachedAFCompiler(projectPath);
+    private static AFCompiler newCompiler() {
+        return KieMavenCompilerFactory.getCompiler(EnumSet.of(KieDecorator.ENABLE_LOGGING,
+                                                              KieDecorator.UPDATE_JGIT_BEFORE_BUILD,
+                                                              KieDecorator.STORE_KIE_OBJECTS,
+                                                              KieDecorator.STORE_BUILD_CLASSPATH,
+                                                              KieDecorator.ENABLE_INCREMENTAL_BUILD));
+    }
+
+    private CompilerAggregateEntryCache getCompilerEntry(Path projectPath) {
+        synchronized (compilerCacheForLocalInvocation) {
+            CompilerAggregateEntryCache info = compilerCacheForLocalInvocation.getEntry(projectPath);
+            if (info != null && info.getCompiler() != null) {
+                return info;
+            }
+            info = new CompilerAggregateEntryCache(compilerSupplier.get(),
+                                                   new WorkspaceCompilationInfo(projectPath));
+            compilerCacheForLocalInvocation.setEntry(projectPath,
+                                                     info);
+            return info;
         }
     }
 
@@ -65,59 +120,49 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                              skipProjectDepCreation);
     }
 
-    private AFCompiler getNewCachedAFCompiler(Path projectPath) {
-        CompilerAggregateEntryCache info = setupCompileInfo(projectPath);
-        compilerCacheForLocalInvocation.setEntry(projectPath,
-                                                 info);
-        return info.getCompiler();
-    }
-
-    private CompilerAggregateEntryCache setupCompileInfo(Path workingDir) {
-        final AFCompiler compiler = KieMavenCompilerFactory.getCompiler(EnumSet.of(KieDecorator.ENABLE_LOGGING,
-                                                                                   KieDecorator.UPDATE_JGIT_BEFORE_BUILD,
-                                                                                   KieDecorator.STORE_KIE_OBJECTS,
-                                                                                   KieDecorator.STORE_BUILD_CLASSPATH,
-                                                                                   KieDecorator.ENABLE_INCREMENTAL_BUILD));
-        WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(workingDir);
-        return new CompilerAggregateEntryCache(compiler,
-                                               info);
-    }
-
-    private CompletableFuture<KieCompilationResponse> internalBuild(Path projectPath,
-                                                                    String mavenRepoPath,
-                                                                    String settingXML,
-                                                                    boolean skipProjectDepCreation,
-                                                                    String goal) {
-        WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(projectPath);
-        AFCompiler compiler = getCompiler(projectPath);
-        CompilationRequest req;
+    private String[] getGoals(String settingXML,
+                              String goal) {
         if (settingXML != null) {
-            req = getDefaultRequest(mavenRepoPath,
-                                    info,
-                                    skipProjectDepCreation,
-                                    new String[]{MavenCLIArgs.ALTERNATE_USER_SETTINGS + settingXML, goal});
-        } else {
-            req = getDefaultRequest(mavenRepoPath,
-                                    info,
-                                    skipProjectDepCreation,
-                                    new String[]{goal});
+            return new String[]{MavenCLIArgs.ALTERNATE_USER_SETTINGS + settingXML, goal};
         }
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req)),
-                                             executor);
+        return new String[]{goal};
+    }
+
+    private String getBuildKey(Path projectPath,
+                               String mavenRepoPath,
+                               boolean skipProjectDepCreation,
+                               String[] args) {
+        return projectPath.toUri() + "|" + mavenRepoPath + "|" + skipProjectDepCreation + "|" + String.join(" ",
+                                                                                                            args);
     }
 
     private CompletableFuture<KieCompilationResponse> internalBuild(Path projectPath,
                                                                     String mavenRepoPath,
                                                                     boolean skipProjectDepCreation,
                                                                     String[] args) {
-        WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(projectPath);
-        AFCompiler compiler = getCompiler(projectPath);
-        CompilationRequest req = getDefaultRequest(mavenRepoPath,
-                                                   info,
-                                                   skipProjectDepCreation,
-                                                   args);
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req)),
-                                             executor);
+        final String key = getBuildKey(projectPath,
+                                       mavenRepoPath,
+                                       skipProjectDepCreation,
+                                       args);
+        final CompletableFuture<KieCompilationResponse> build = new CompletableFuture<>();
+        //Only builds that have not started yet are joined, they read the project after the last change of the caller
+        final CompletableFuture<KieCompilationResponse> queued = queuedBuilds.putIfAbsent(key,
+                                                                                         build);
+        if (queued != null) {
+            logger.debug("Joining the queued build of {}",
+                         key);
+            return queued;
+        }
+        return enqueue(projectPath,
+                       entry -> {
+                           queuedBuilds.remove(key,
+                                               build);
+                           return (KieCompilationResponse) entry.getCompiler().compile(getDefaultRequest(mavenRepoPath,
+                                                                                                         entry.getInfo(),
+                                                                                                         skipProjectDepCreation,
+                                                                                                         args));
+                       },
+                       build);
     }
 
     private CompletableFuture<KieCompilationResponse> internalBuild(Path projectPath,
@@ -126,23 +171,114 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                                     boolean skipProjectDepCreation,
                                                                     String goal,
                                                                     Map<Path, InputStream> override) {
-        WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(projectPath);
-        AFCompiler compiler = getCompiler(projectPath);
-        CompilationRequest req;
-        if (settingXML != null) {
-            req = getDefaultRequest(mavenRepoPath,
-                                    info,
-                                    skipProjectDepCreation,
-                                    new String[]{MavenCLIArgs.ALTERNATE_USER_SETTINGS + settingXML, goal});
-        } else {
-            req = getDefaultRequest(mavenRepoPath,
-                                    info,
-                                    skipProjectDepCreation,
-                                    new String[]{goal});
+        //Builds with overridden resources can not be shared
+        return enqueue(projectPath,
+                       entry -> (KieCompilationResponse) entry.getCompiler().compile(getDefaultRequest(mavenRepoPath,
+                                                                                                       entry.getInfo(),
+                                                                                                       skipProjectDepCreation,
+                                                                                                       getGoals(settingXML,
+                                                                                                                goal)),
+                                                                                     override),
+                       new CompletableFuture<>());
+    }
+
+    /**
+     * Chains the compilation after the builds of the same project already queued, as they share one compiler and its
+     * incremental state. No pool thread waits for another build: the compilation is only submitted to the executor
+     * once the previous build of the project is done and a build permit is available.
+     */
+    private CompletableFuture<KieCompilationResponse> enqueue(Path projectPath,
+                                                              Function<CompilerAggregateEntryCache, KieCompilationResponse> compilation,
+                                                              CompletableFuture<KieCompilationResponse> result) {
+        synchronized (projectBuilds) {
+            final CompletableFuture<Void> previous = projectBuilds.getOrDefault(projectPath,
+                                                                                CompletableFuture.completedFuture(null));
+            final CompletableFuture<Void> next = previous.thenCompose(done -> run(projectPath,
+                                                                                  compilation,
+                                                                                  result));
+            projectBuilds.put(projectPath,
+                              next);
+            next.whenComplete((done, error) -> {
+                synchronized (projectBuilds) {
+                    projectBuilds.remove(projectPath,
+                                         next);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * @return A future completed once the compilation is done, never exceptionally so the next build of the project
+     * always runs; the outcome of the compilation is reported through the result
+     */
+    private CompletableFuture<Void> run(Path projectPath,
+                                        Function<CompilerAggregateEntryCache, KieCompilationResponse> compilation,
+                                        CompletableFuture<KieCompilationResponse> result) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        buildPermits.acquire(() -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        final CompilerAggregateEntryCache entry = getCompilerEntry(projectPath);
+                        //The kie plugin found by the previous build of the project must be found again by this one
+                        entry.getInfo().resetKiePluginPresent();
+                        result.complete(compilation.apply(entry));
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    } finally {
+                        buildPermits.release();
+                        done.complete(null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                buildPermits.release();
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    int getQueuedBuildsCount() {
+        return queuedBuilds.size();
+    }
+
+    /**
+     * Bounds the number of concurrent Maven invocations without blocking: a task waiting for a permit is queued and run
+     * by the thread releasing the permit, in request order.
+     */
+    private static class BuildPermits {
+
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int available;
+
+        BuildPermits(int permits) {
+            this.available = permits;
+        }
+
+        void acquire(Runnable task) {
+            synchronized (this) {
+                if (available == 0) {
+                    waiting.add(task);
+                    return;
+                }
+                available--;
+            }
+            task.run();
+        }
+
+        void release() {
+            final Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            next.run();
         }
-        return CompletableFuture.supplyAsync(() -> ((KieCompilationResponse) compiler.compile(req,
-                                                                                              override)),
-                                             executor);
     }
 
     /************************************ Suitable for the Local Builds ***********************************************/
@@ -152,9 +288,9 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                            String settingXML) {
         return internalBuild(projectPath,
                              mavenRepoPath,
-                             settingXML,
                              Boolean.FALSE,
-                             MavenCLIArgs.COMPILE);
+                             getGoals(settingXML,
+                                      MavenCLIArgs.COMPILE));
     }
 
     @Override
@@ -177,9 +313,9 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                            Boolean skipPrjDependenciesCreationList) {
         return internalBuild(projectPath,
                              mavenRepoPath,
-                             settingXML,
                              skipPrjDependenciesCreationList,
-                             MavenCLIArgs.COMPILE);
+                             getGoals(settingXML,
+                                      MavenCLIArgs.COMPILE));
     }
 
     @Override
@@ -188,9 +324,9 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                                      String settingXML) {
         return internalBuild(projectPath,
                              mavenRepoPath,
-                             settingXML,
                              Boolean.FALSE,
-                             MavenCLIArgs.INSTALL);
+                             getGoals(settingXML,
+                                      MavenCLIArgs.INSTALL));
     }
 
     @Override
@@ -200,9 +336,9 @@ public class DefaultLocalExecutor implements CompilerExecutor {
                                                                      Boolean skipPrjDependenciesCreationList) {
         return internalBuild(projectPath,
                              mavenRepoPath,
-                             settingXML,
                              skipPrjDependenciesCreationList,
-                             MavenCLIArgs.INSTALL);
+                             getGoals(settingXML,
+                                      MavenCLIArgs.INSTALL));
     }
 
     @Override
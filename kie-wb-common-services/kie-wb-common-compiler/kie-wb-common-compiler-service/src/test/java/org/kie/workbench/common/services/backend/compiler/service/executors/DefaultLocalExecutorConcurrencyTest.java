@@ -0,0 +1,274 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.service.executors;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.AFCompiler;
+import org.kie.workbench.common.services.backend.compiler.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.WorkspaceCompilationInfo;
+import org.kie.workbench.common.services.backend.compiler.impl.kie.KieCompilationResponse;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultLocalExecutorConcurrencyTest {
+
+    private static final int PROJECTS = 10;
+    private static final int REQUESTS_PER_PROJECT = 5;
+    private static final int MAX_CONCURRENT_BUILDS = 3;
+
+    private final AtomicInteger compilations = new AtomicInteger();
+    private final AtomicInteger runningCompilations = new AtomicInteger();
+    private final AtomicInteger maxRunningCompilations = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Semaphore started = new Semaphore(0);
+    private final Set<WorkspaceCompilationInfo> infos = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Boolean> kiePluginPresentAtStart = Collections.synchronizedList(new ArrayList<>());
+
+    private ExecutorService executorService;
+    private DefaultLocalExecutor executor;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(PROJECTS * 2);
+        executor = new DefaultLocalExecutor(executorService,
+                                            BlockingCompiler::new,
+                                            PROJECTS,
+                                            MAX_CONCURRENT_BUILDS);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void concurrentBuildsOfTheSameProjectAreCoalesced() throws Exception {
+        final List<CompletableFuture<KieCompilationResponse>> builds = new ArrayList<>();
+        for (int project = 0; project < PROJECTS; project++) {
+            builds.add(executor.build(projectPath(project),
+                                      "repo",
+                                      null));
+        }
+        assertThat(started.tryAcquire(MAX_CONCURRENT_BUILDS,
+                                      30,
+                                      TimeUnit.SECONDS)).isTrue();
+        for (int request = 0; request < REQUESTS_PER_PROJECT; request++) {
+            for (int project = 0; project < PROJECTS; project++) {
+                builds.add(executor.build(projectPath(project),
+                                          "repo",
+                                          null));
+            }
+        }
+        assertThat(executor.getQueuedBuildsCount()).isEqualTo(PROJECTS);
+
+        release.countDown();
+        CompletableFuture.allOf(builds.toArray(new CompletableFuture[builds.size()])).get(30,
+                                                                                         TimeUnit.SECONDS);
+
+        //The running builds are not joined, a single build follows each of them; the queued builds are joined
+        assertThat(compilations.get()).isEqualTo(PROJECTS + MAX_CONCURRENT_BUILDS);
+        assertThat(maxRunningCompilations.get()).isLessThanOrEqualTo(MAX_CONCURRENT_BUILDS);
+        assertThat(executor.getQueuedBuildsCount()).isZero();
+        for (int i = PROJECTS; i < builds.size(); i++) {
+            final int project = i % PROJECTS;
+            final int joined = project < MAX_CONCURRENT_BUILDS ? PROJECTS + project : project;
+            assertThat(builds.get(i).get()).isSameAs(builds.get(joined).get());
+        }
+    }
+
+    @Test
+    public void runningBuildsAreNotJoined() throws Exception {
+        final CompletableFuture<KieCompilationResponse> running = executor.build(projectPath(0),
+                                                                                 "repo",
+                                                                                 null);
+        assertThat(started.tryAcquire(30,
+                                      TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<KieCompilationResponse> next = executor.build(projectPath(0),
+                                                                              "repo",
+                                                                              null);
+        assertThat(next).isNotSameAs(running);
+
+        release.countDown();
+        assertThat(next.get(30,
+                            TimeUnit.SECONDS)).isNotSameAs(running.get(30,
+                                                                       TimeUnit.SECONDS));
+        assertThat(compilations.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void queuedBuildsDoNotHoldPoolThreads() throws Exception {
+        final ExecutorService twoThreads = Executors.newFixedThreadPool(2);
+        try {
+            final DefaultLocalExecutor executor = new DefaultLocalExecutor(twoThreads,
+                                                                           BlockingCompiler::new,
+                                                                           PROJECTS,
+                                                                           MAX_CONCURRENT_BUILDS);
+            final CompletableFuture<KieCompilationResponse> build = executor.build(projectPath(0),
+                                                                                   "repo",
+                                                                                   null);
+            final CompletableFuture<KieCompilationResponse> install = executor.buildAndInstall(projectPath(0),
+                                                                                               "repo",
+                                                                                               null);
+            final CompletableFuture<KieCompilationResponse> other = executor.build(projectPath(1),
+                                                                                   "repo",
+                                                                                   null);
+            //The install waits for the build of its project without taking the second thread
+            assertThat(started.tryAcquire(2,
+                                          30,
+                                          TimeUnit.SECONDS)).isTrue();
+
+            release.countDown();
+            CompletableFuture.allOf(build,
+                                    install,
+                                    other).get(30,
+                                               TimeUnit.SECONDS);
+            assertThat(compilations.get()).isEqualTo(3);
+        } finally {
+            twoThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void buildsOfAProjectReuseItsWorkspaceCompilationInfo() throws Exception {
+        release.countDown();
+        executor.build(projectPath(0),
+                       "repo",
+                       null).get(30,
+                                 TimeUnit.SECONDS);
+        executor.buildAndInstall(projectPath(0),
+                                 "repo",
+                                 null).get(30,
+                                           TimeUnit.SECONDS);
+
+        assertThat(infos).hasSize(1);
+    }
+
+    @Test
+    public void kiePluginFoundByABuildIsResetForTheNextBuild() throws Exception {
+        release.countDown();
+        executor.build(projectPath(0),
+                       "repo",
+                       null).get(30,
+                                 TimeUnit.SECONDS);
+        executor.build(projectPath(0),
+                       "repo",
+                       null).get(30,
+                                 TimeUnit.SECONDS);
+
+        assertThat(kiePluginPresentAtStart).containsExactly(Boolean.FALSE,
+                                                            Boolean.FALSE);
+    }
+
+    @Test
+    public void buildsWithDifferentGoalsAreNotCoalesced() throws Exception {
+        final CompletableFuture<KieCompilationResponse> build = executor.build(projectPath(0),
+                                                                               "repo",
+                                                                               null);
+        final CompletableFuture<KieCompilationResponse> install = executor.buildAndInstall(projectPath(0),
+                                                                                           "repo",
+                                                                                           null);
+        assertThat(build).isNotSameAs(install);
+
+        release.countDown();
+        build.get(30,
+                  TimeUnit.SECONDS);
+        install.get(30,
+                    TimeUnit.SECONDS);
+
+        assertThat(compilations.get()).isEqualTo(2);
+        //Both builds share the compiler of the project, so they are run one after the other
+        assertThat(maxRunningCompilations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void completedBuildsAreNotShared() throws Exception {
+        release.countDown();
+        executor.build(projectPath(0),
+                       "repo",
+                       null).get(30,
+                                 TimeUnit.SECONDS);
+        executor.build(projectPath(0),
+                       "repo",
+                       null).get(30,
+                                 TimeUnit.SECONDS);
+
+        assertThat(compilations.get()).isEqualTo(2);
+    }
+
+    private Path projectPath(final int index) {
+        return Paths.get("/tmp/projects/project" + index);
+    }
+
+    private class BlockingCompiler implements AFCompiler<KieCompilationResponse> {
+
+        @Override
+        public KieCompilationResponse compile(final CompilationRequest req) {
+            compilations.incrementAndGet();
+            infos.add(req.getInfo());
+            kiePluginPresentAtStart.add(req.getInfo().isKiePluginPresent());
+            //Every build finds the kie plugin in the poms of the project
+            req.getInfo().lateAdditionKiePluginPresent(Boolean.TRUE);
+            started.release();
+            final int running = runningCompilations.incrementAndGet();
+            maxRunningCompilations.accumulateAndGet(running,
+                                                    Math::max);
+            try {
+                release.await();
+                return new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                         UUID.randomUUID().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new DefaultKieCompilationResponse(Boolean.FALSE,
+                                                         UUID.randomUUID().toString());
+            } finally {
+                runningCompilations.decrementAndGet();
+            }
+        }
+
+        @Override
+        public KieCompilationResponse compile(final CompilationRequest req,
+                                              final Map<Path, InputStream> override) {
+            return compile(req);
+        }
+
+        @Override
+        public Boolean cleanInternalCache() {
+            return Boolean.TRUE;
+        }
+    }
+}
@@ -60,6 +60,9 @@ public class PackageDataModelOracleIncrementalPayload {
     // A map of FactTypes {factType, isCollection} to determine which Fact Types are Collections.
     private Map<String, Boolean> collectionTypes = new HashMap<String, Boolean>();
 
+    //Version of the server-side DataModelOracle the content was taken from, 0 if unknown
+    private long oracleVersion;
+
     public Map<String, ModelField[]> getModelFields() {
         return modelFields;
     }
@@ -131,4 +134,12 @@ public class PackageDataModelOracleIncrementalPayload {
     public void setCollectionTypes(final Map<String, Boolean> collectionTypes) {
         this.collectionTypes = collectionTypes;
     }
+
+    public long getOracleVersion() {
+        return oracleVersion;
+    }
+
+    public void setOracleVersion(final long oracleVersion) {
+        this.oracleVersion = oracleVersion;
+    }
 }
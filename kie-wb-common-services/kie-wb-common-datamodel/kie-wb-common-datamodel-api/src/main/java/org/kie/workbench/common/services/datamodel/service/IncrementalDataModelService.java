@@ -15,6 +15,8 @@
  */
 package org.kie.workbench.common.services.datamodel.service;
 
+import java.util.Set;
+
 import org.jboss.errai.bus.server.annotations.Remote;
 import org.kie.soup.project.datamodel.imports.Imports;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
@@ -29,4 +31,20 @@ public interface IncrementalDataModelService {
     PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
                                                         final Imports imports,
                                                         final String factType);
+
+    /**
+     * Get the content of several Fact Types in a single payload. When the DataModelOracle has been rebuilt since the
+     * version known to the client, the payload also holds the new content of the Fact Types the client already loaded.
+     * @param resourcePath Resource whose package DataModelOracle holds the Fact Types
+     * @param imports Imports of the resource, used to resolve simple Fact Type names
+     * @param factTypes Fact Types missing client-side
+     * @param knownOracleVersion Version of the last payload received by the client, or 0 if none was received
+     * @param knownFactTypes Fully qualified names of the Fact Types the client loaded so far
+     * @return Content of the Fact Types known to the DataModelOracle and the version of the DataModelOracle
+     */
+    PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                             final Imports imports,
+                                                             final Set<String> factTypes,
+                                                             final long knownOracleVersion,
+                                                             final Set<String> knownFactTypes);
 }
@@ -15,6 +15,12 @@
  */
 package org.kie.workbench.common.services.datamodel.backend.server;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -25,25 +31,41 @@ import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.soup.project.datamodel.imports.Import;
 import org.kie.soup.project.datamodel.imports.Imports;
+import org.kie.soup.project.datamodel.oracle.MethodInfo;
+import org.kie.soup.project.datamodel.oracle.ModelField;
 import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
 import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUDataModelOracleCache;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
 import org.kie.workbench.common.services.datamodel.service.IncrementalDataModelService;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.data.Pair;
 
 /**
- *
+ * Serves the content of the Fact Types a client-side DataModelOracle is missing, and of those it loaded from an
+ * outdated version of the server-side DataModelOracle. The number of Fact Types, fields and methods served and the
+ * time taken by each request are logged at debug level and accumulated for monitoring.
  */
 @Service
 @ApplicationScoped
 public class IncrementalDataModelServiceImpl implements IncrementalDataModelService {
 
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalDataModelServiceImpl.class);
+
     private LRUDataModelOracleCache cachePackages;
 
     private KieModuleService moduleService;
 
+    //Instrumentation of the requests served, for monitoring purposes
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder servedFactTypesCount = new LongAdder();
+    private final LongAdder servedFieldsCount = new LongAdder();
+    private final LongAdder servedMethodsCount = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
     @Inject
     public IncrementalDataModelServiceImpl(@Named("PackageDataModelOracleCache") final LRUDataModelOracleCache cachePackages,
                                            final KieModuleService moduleService) {
@@ -60,13 +82,31 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
     public PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
                                                                final Imports imports,
                                                                final String factType) {
+        PortablePreconditions.checkNotNull("factType",
+                                           factType);
+        return getBatchUpdates(resourcePath,
+                               imports,
+                               Collections.singleton(factType),
+                               0,
+                               Collections.emptySet());
+    }
+
+    @Override
+    public PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                                    final Imports imports,
+                                                                    final Set<String> factTypes,
+                                                                    final long knownOracleVersion,
+                                                                    final Set<String> knownFactTypes) {
         PortablePreconditions.checkNotNull("resourcePath",
                                            resourcePath);
         PortablePreconditions.checkNotNull("imports",
                                            imports);
-        PortablePreconditions.checkNotNull("factType",
-                                           factType);
+        PortablePreconditions.checkNotNull("factTypes",
+                                           factTypes);
+        PortablePreconditions.checkNotNull("knownFactTypes",
+                                           knownFactTypes);
 
+        final long startTime = System.nanoTime();
         final PackageDataModelOracleIncrementalPayload dataModel = new PackageDataModelOracleIncrementalPayload();
 
         try {
@@ -81,42 +121,129 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
                 return dataModel;
             }
 
-            //Get the fully qualified class name of the fact type
-            String fullyQualifiedClassName = factType;
-
             //Retrieve (or build) oracle and populate incremental content
-            final PackageDataModelOracle oracle = cachePackages.assertPackageDataModelOracle(project,
-                                                                                             pkg);
-
-            // Check if the FactType is already known to the DataModelOracle, otherwise we need to find the FQCN
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
-                for (Import imp : imports.getImports()) {
-                    if (imp.getType().endsWith(factType)) {
-                        fullyQualifiedClassName = imp.getType();
-                        break;
+            final Pair<PackageDataModelOracle, Long> versionedOracle = cachePackages.assertVersionedPackageDataModelOracle(project,
+                                                                                                                           pkg);
+            final PackageDataModelOracle oracle = versionedOracle.getK1();
+            final long oracleVersion = versionedOracle.getK2();
+            dataModel.setOracleVersion(oracleVersion);
+
+            //Get the fully qualified class names of the fact types known to the DataModelOracle
+            final Set<String> fullyQualifiedClassNames = new HashSet<>();
+
+            //Fact Types loaded from a DataModelOracle that has since been rebuilt are sent again
+            if (knownOracleVersion != 0 && knownOracleVersion != oracleVersion) {
+                for (String knownFactType : knownFactTypes) {
+                    if (oracle.getModuleModelFields().get(knownFactType) != null) {
+                        fullyQualifiedClassNames.add(knownFactType);
                     }
                 }
             }
 
-            //If the FactType isn't recognised try using the Package Name
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
-                fullyQualifiedClassName = pkg.getPackageName() + "." + factType;
+            for (String factType : factTypes) {
+                final String fullyQualifiedClassName = resolveFactType(oracle,
+                                                                       imports,
+                                                                       pkg,
+                                                                       factType);
+                if (fullyQualifiedClassName != null) {
+                    fullyQualifiedClassNames.add(fullyQualifiedClassName);
+                }
             }
 
-            //If the FactType still isn't recognised return an empty payload
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            //If no FactType is recognised return an empty payload
+            if (fullyQualifiedClassNames.isEmpty()) {
                 return dataModel;
             }
 
             DataModelOracleUtilities.populateDataModel(oracle,
                                                        dataModel,
-                                                       fullyQualifiedClassName);
+                                                       fullyQualifiedClassNames);
             return dataModel;
         } catch (Exception e) {
             throw ExceptionUtilities.handleException(e);
+        } finally {
+            recordRequest(factTypes.size(),
+                          dataModel,
+                          System.nanoTime() - startTime);
         }
     }
 
+    private String resolveFactType(final PackageDataModelOracle oracle,
+                                   final Imports imports,
+                                   final Package pkg,
+                                   final String factType) {
+        //Get the fully qualified class name of the fact type
+        String fullyQualifiedClassName = factType;
+
+        // Check if the FactType is already known to the DataModelOracle, otherwise we need to find the FQCN
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            for (Import imp : imports.getImports()) {
+                if (imp.getType().endsWith(factType)) {
+                    fullyQualifiedClassName = imp.getType();
+                    break;
+                }
+            }
+        }
+
+        //If the FactType isn't recognised try using the Package Name
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            fullyQualifiedClassName = pkg.getPackageName() + "." + factType;
+        }
+
+        //If the FactType still isn't recognised there's nothing to return for it
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            return null;
+        }
+        return fullyQualifiedClassName;
+    }
+
+    private void recordRequest(final int requestedFactTypes,
+                               final PackageDataModelOracleIncrementalPayload dataModel,
+                               final long elapsedNanos) {
+        int fields = 0;
+        for (ModelField[] modelFields : dataModel.getModelFields().values()) {
+            fields += modelFields.length;
+        }
+        int methods = 0;
+        for (List<MethodInfo> methodInfos : dataModel.getMethodInformation().values()) {
+            methods += methodInfos.size();
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+        requestCount.increment();
+        servedFactTypesCount.add(dataModel.getModelFields().size());
+        servedFieldsCount.add(fields);
+        servedMethodsCount.add(methods);
+        totalLatencyMillis.add(elapsedMillis);
+
+        logger.debug("Served {} of {} requested fact types ({} fields, {} methods) in {} ms.",
+                     dataModel.getModelFields().size(),
+                     requestedFactTypes,
+                     fields,
+                     methods,
+                     elapsedMillis);
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getServedFactTypesCount() {
+        return servedFactTypesCount.sum();
+    }
+
+    public long getServedFieldsCount() {
+        return servedFieldsCount.sum();
+    }
+
+    public long getServedMethodsCount() {
+        return servedMethodsCount.sum();
+    }
+
+    public long getTotalLatencyMillis() {
+        return totalLatencyMillis.sum();
+    }
+
     private KieModule resolveModule(final Path resourcePath) {
         return moduleService.resolveModule(resourcePath);
     }
@@ -16,9 +16,6 @@
 package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -32,18 +29,21 @@ import org.kie.soup.project.datamodel.oracle.Annotation;
 import org.kie.soup.project.datamodel.oracle.MethodInfo;
 import org.kie.soup.project.datamodel.oracle.ModelField;
 import org.kie.soup.project.datamodel.oracle.TypeSource;
-import org.kie.workbench.common.services.datamodel.backend.server.builder.util.AnnotationUtils;
-import org.kie.workbench.common.services.datamodel.backend.server.builder.util.BlackLists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Builder for Fact Types originating from a .class
+ * Builder for Fact Types originating from a .class. The reflection of the class is shared through the
+ * {@link ClassFactsCache} of the {@link ModuleDataModelOracleBuilder}, if any
  */
 public class ClassFactBuilder extends BaseFactBuilder {
 
+    private static final Logger logger = LoggerFactory.getLogger(ClassFactBuilder.class);
+
     private final Map<String, List<MethodInfo>> methodInformation = new HashMap<String, List<MethodInfo>>();
     private final Map<String, String> fieldParametersType = new HashMap<String, String>();
 
-    private final List<String> superTypes;
+    private final List<String> superTypes = new ArrayList<String>();
     private final Set<Annotation> annotations = new LinkedHashSet<Annotation>();
     private final Map<String, Set<Annotation>> fieldAnnotations = new HashMap<String, Set<Annotation>>();
 
@@ -69,8 +69,6 @@ public class ClassFactBuilder extends BaseFactBuilder {
               clazz,
               isEvent,
               typeSourceResolver);
-        this.superTypes = getSuperTypes(clazz);
-        this.annotations.addAll(AnnotationUtils.getClassAnnotations(clazz));
         loadClassFields(clazz, discoveredFieldFactBuilders);
     }
 
@@ -84,17 +82,6 @@ public class ClassFactBuilder extends BaseFactBuilder {
         oracle.addModuleTypeFieldsAnnotations(buildTypeFieldsAnnotations());
     }
 
-    private List<String> getSuperTypes(final Class<?> clazz) {
-        ArrayList<String> strings = new ArrayList<String>();
-        Class<?> superType = clazz.getSuperclass();
-        while (superType != null) {
-            strings.add(superType.getName());
-            superType = superType.getSuperclass();
-        }
-
-        return strings;
-    }
-
     private void loadClassFields(final Class<?> clazz,
                                  final Map<String, FactBuilder> discoveredFieldFactBuilders) throws IOException {
         if (clazz == null) {
@@ -103,78 +90,59 @@ public class ClassFactBuilder extends BaseFactBuilder {
 
         final String factType = getType();
 
-        //Get all getters and setters for the class. This does not handle delegated properties
-        //- FIELDS need a getter ("getXXX", "isXXX") or setter ("setXXX") or are public properties
-        //- METHODS are any accessor that does not have a getter or setter
-        final ClassFieldInspector inspector = new ClassFieldInspector(clazz);
-        final Set<String> fieldNames = inspector.getFieldNames();
-
-        for (final String fieldName : fieldNames) {
-            final ClassFieldInspector.FieldInfo f = inspector.getFieldTypesFieldInfo().get(fieldName);
-            addParametricTypeForField(factType,
-                                      fieldName,
-                                      f.getGenericType());
-
-            final Class<?> returnType = f.getReturnType();
-            final String genericReturnType = typeSystemConverter.translateClassToGenericType(returnType);
-
-            addField(new ModelField(fieldName,
-                                    returnType.getName(),
-                                    ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
-                                    f.getOrigin(),
-                                    f.getAccessorAndMutator(),
-                                    genericReturnType));
-
-            addEnumsForField(factType,
-                             fieldName,
-                             returnType);
+        final ClassFactsCache classFactsCache = getDataModelBuilder().getClassFactsCache();
+        final ClassFacts facts = classFactsCache != null ?
+                classFactsCache.getClassFacts(clazz,
+                                              typeSystemConverter) :
+                ClassFacts.reflect(clazz,
+                                   typeSystemConverter);
+        this.superTypes.addAll(facts.getSuperTypes());
+        this.annotations.addAll(facts.getAnnotations());
+
+        for (final ModelField field : facts.getFields()) {
+            addField(field);
+        }
+        for (final Map.Entry<String, String[]> e : facts.getFieldEnums().entrySet()) {
+            getDataModelBuilder().addEnum(factType,
+                                          e.getKey(),
+                                          e.getValue());
+        }
 
-            //To prevent recursion we keep track of all ClassFactBuilder's created and re-use where applicable
-            if (BlackLists.isReturnTypeBlackListed(returnType)) {
+        //To prevent recursion we keep track of all ClassFactBuilder's created and re-use where applicable
+        for (final ClassFacts.FieldTypeReference reference : facts.getFieldTypeReferences()) {
+            if (reference.getTypeName() != null && discoveredFieldFactBuilders.containsKey(reference.getTypeName())) {
                 continue;
             }
-
-            discoverFieldFactBuilder(genericReturnType, returnType, discoveredFieldFactBuilders);
-
-            // Check types on generic arguments
-            if (f.getGenericType() instanceof ParameterizedType) {
-                ParameterizedType parameterizedType = (ParameterizedType) f.getGenericType();
-
-                for (Type parameterType : parameterizedType.getActualTypeArguments()) {
-                    if (discoveredFieldFactBuilders.containsKey(parameterType.getTypeName())) {
-                        continue;
-                    }
-
-                    if (parameterType instanceof Class) {
-                        Class<?> parameterClazz = (Class<?>) parameterType;
-                        discoverFieldFactBuilder(parameterClazz.getName(),
-                                                 parameterClazz,
-                                                 discoveredFieldFactBuilders);
-                    }
-                }
-            }
-
-            Set<Annotation> fieldAnnotations = f.getAnnotations();
-            if (fieldAnnotations != null && !fieldAnnotations.isEmpty()) {
-                this.fieldAnnotations.put(fieldName, f.getAnnotations());
+            final Class<?> fieldType = loadFieldType(clazz,
+                                                     reference.getClassName());
+            if (fieldType != null) {
+                discoverFieldFactBuilder(reference.getDiscoveryName(),
+                                         fieldType,
+                                         discoveredFieldFactBuilders);
             }
         }
+        this.fieldAnnotations.putAll(facts.getFieldAnnotations());
 
         //Methods for use in Expressions and ActionCallMethod's
-        ClassMethodInspector methodInspector = new ClassMethodInspector(clazz,
-                                                                        typeSystemConverter);
+        this.fieldParametersType.putAll(facts.getFieldParametersType());
+        this.methodInformation.put(factType,
+                                   new ArrayList<MethodInfo>(facts.getMethodInformation()));
+    }
 
-        final List<MethodInfo> methodInformation = methodInspector.getMethodInfos();
-        for (final MethodInfo mi : methodInformation) {
-            final String genericType = mi.getParametricReturnType();
-            if (genericType != null) {
-                final String qualifiedFactFieldName = factType + "#" + mi.getNameWithParameters();
-                this.fieldParametersType.put(qualifiedFactFieldName,
-                                             genericType);
-            }
+    private Class<?> loadFieldType(final Class<?> clazz,
+                                   final String className) {
+        try {
+            return Class.forName(className,
+                                 false,
+                                 clazz.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            //The type was resolved when the class was reflected, so it is only missing if the class loader is broken
+            logger.debug("Unable to load type {} of a field of {}.",
+                         className,
+                         clazz.getName(),
+                         e);
+            return null;
         }
-        this.methodInformation.put(factType,
-                                   methodInformation);
     }
 
     protected void discoverFieldFactBuilder(final String genericTypeName,
@@ -196,60 +164,6 @@ public class ClassFactBuilder extends BaseFactBuilder {
         }
     }
 
-    private void addEnumsForField(final String className,
-                                  final String fieldName,
-                                  final Class<?> fieldClazz) {
-        if (fieldClazz.isEnum()) {
-            final Field[] enumFields = fieldClazz.getDeclaredFields();
-            final List<String> enumValues = new ArrayList<String>();
-            for (final Field enumField : enumFields) {
-                if (enumField.isEnumConstant()) {
-                    String shortName = fieldClazz.getName().substring(fieldClazz.getName().lastIndexOf(".") + 1) + "." + enumField.getName();
-                    if (shortName.contains("$")) {
-                        shortName = shortName.replaceAll("\\$",
-                                                         ".");
-                    }
-                    enumValues.add(shortName + "=" + shortName);
-                }
-            }
-            final String a[] = new String[enumValues.size()];
-            enumValues.toArray(a);
-            getDataModelBuilder().addEnum(className,
-                                          fieldName,
-                                          a);
-        }
-    }
-
-    private void addParametricTypeForField(final String className,
-                                           final String fieldName,
-                                           final Type type) {
-        final String qualifiedFactFieldName = className + "#" + fieldName;
-        final String parametricType = getParametricType(type);
-        if (parametricType != null) {
-            fieldParametersType.put(qualifiedFactFieldName,
-                                    parametricType);
-        }
-    }
-
-    private String getParametricType(final Type type) {
-        if (type instanceof ParameterizedType) {
-            final ParameterizedType pt = (ParameterizedType) type;
-            Type parameter = null;
-            for (final Type t : pt.getActualTypeArguments()) {
-                parameter = t;
-            }
-            if (parameter != null) {
-                if (parameter instanceof Class<?>) {
-                    return ((Class<?>) parameter).getName();
-                }
-                return null;
-            } else {
-                return null;
-            }
-        }
-        return null;
-    }
-
     private Map<String, List<String>> buildSuperTypes() {
         final Map<String, List<String>> loadableSuperTypes = new HashMap<String, List<String>>();
         loadableSuperTypes.put(getType(),
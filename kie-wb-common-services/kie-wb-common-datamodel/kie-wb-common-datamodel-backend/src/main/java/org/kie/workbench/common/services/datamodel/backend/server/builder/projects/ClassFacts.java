@@ -0,0 +1,327 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.soup.project.datamodel.oracle.Annotation;
+import org.kie.soup.project.datamodel.oracle.FieldAccessorsAndMutators;
+import org.kie.soup.project.datamodel.oracle.MethodInfo;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.util.AnnotationUtils;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.util.BlackLists;
+
+/**
+ * The outcome of reflecting a class for the DataModelOracle. Types are only referenced by name, so that the outcome
+ * can be shared by the DataModelOracles of modules loading the same class with different class loaders. As the
+ * outcome is shared, the fields, enumerations and annotations are returned as copies that callers are free to modify;
+ * the method information is immutable once reflected and must not be modified.
+ */
+final class ClassFacts {
+
+    /**
+     * A type referenced by a field, for which a {@link FactBuilder} needs to be discovered.
+     */
+    static final class FieldTypeReference {
+
+        private final String discoveryName;
+        private final String className;
+        private final String typeName;
+
+        private FieldTypeReference(final String discoveryName,
+                                   final String className,
+                                   final String typeName) {
+            this.discoveryName = discoveryName;
+            this.className = className;
+            this.typeName = typeName;
+        }
+
+        /**
+         * @return Name the FactBuilder of the type is discovered with
+         */
+        String getDiscoveryName() {
+            return discoveryName;
+        }
+
+        /**
+         * @return Binary name of the type, as accepted by {@link Class#forName(String, boolean, ClassLoader)}
+         */
+        String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return Name of a generic type argument, that is not discovered if already known; null for field types
+         */
+        String getTypeName() {
+            return typeName;
+        }
+    }
+
+    /**
+     * A field of the class, from which a new {@link ModelField} is created for each caller.
+     */
+    private static final class FieldFacts {
+
+        private final String name;
+        private final String className;
+        private final ModelField.FIELD_ORIGIN origin;
+        private final FieldAccessorsAndMutators accessorAndMutator;
+        private final String type;
+
+        private FieldFacts(final String name,
+                           final String className,
+                           final ModelField.FIELD_ORIGIN origin,
+                           final FieldAccessorsAndMutators accessorAndMutator,
+                           final String type) {
+            this.name = name;
+            this.className = className;
+            this.origin = origin;
+            this.accessorAndMutator = accessorAndMutator;
+            this.type = type;
+        }
+
+        private ModelField toModelField() {
+            return new ModelField(name,
+                                  className,
+                                  ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                  origin,
+                                  accessorAndMutator,
+                                  type);
+        }
+    }
+
+    private final List<String> superTypes;
+    private final Set<Annotation> annotations;
+    private final List<FieldFacts> fields = new ArrayList<>();
+    private final Map<String, String> fieldParametersType = new LinkedHashMap<>();
+    private final Map<String, String[]> fieldEnums = new LinkedHashMap<>();
+    private final Set<String> enumTypes = new LinkedHashSet<>();
+    private final List<FieldTypeReference> fieldTypeReferences = new ArrayList<>();
+    private final Map<String, Set<Annotation>> fieldAnnotations = new LinkedHashMap<>();
+    private final List<MethodInfo> methodInformation;
+
+    private ClassFacts(final Class<?> clazz,
+                       final ClassToGenericClassConverter typeSystemConverter) {
+        this.superTypes = getSuperTypes(clazz);
+        this.annotations = new LinkedHashSet<>(AnnotationUtils.getClassAnnotations(clazz));
+
+        final String factType = clazz.getName();
+
+        //Get all getters and setters for the class. This does not handle delegated properties
+        //- FIELDS need a getter ("getXXX", "isXXX") or setter ("setXXX") or are public properties
+        //- METHODS are any accessor that does not have a getter or setter
+        final ClassFieldInspector inspector = new ClassFieldInspector(clazz);
+        for (final String fieldName : inspector.getFieldNames()) {
+            final ClassFieldInspector.FieldInfo f = inspector.getFieldTypesFieldInfo().get(fieldName);
+            addParametricTypeForField(factType,
+                                      fieldName,
+                                      f.getGenericType());
+
+            final Class<?> returnType = f.getReturnType();
+            final String genericReturnType = typeSystemConverter.translateClassToGenericType(returnType);
+
+            fields.add(new FieldFacts(fieldName,
+                                      returnType.getName(),
+                                      f.getOrigin(),
+                                      f.getAccessorAndMutator(),
+                                      genericReturnType));
+
+            addEnumsForField(fieldName,
+                             returnType);
+
+            //To prevent recursion ClassFactBuilder's are discovered once and re-used where applicable
+            if (!BlackLists.isReturnTypeBlackListed(returnType)) {
+                fieldTypeReferences.add(new FieldTypeReference(genericReturnType,
+                                                               returnType.getName(),
+                                                               null));
+
+                // Check types on generic arguments
+                if (f.getGenericType() instanceof ParameterizedType) {
+                    final ParameterizedType parameterizedType = (ParameterizedType) f.getGenericType();
+                    for (Type parameterType : parameterizedType.getActualTypeArguments()) {
+                        if (parameterType instanceof Class) {
+                            final Class<?> parameterClazz = (Class<?>) parameterType;
+                            fieldTypeReferences.add(new FieldTypeReference(parameterClazz.getName(),
+                                                                           parameterClazz.getName(),
+                                                                           parameterType.getTypeName()));
+                        }
+                    }
+                }
+            }
+
+            final Set<Annotation> fieldAnnotations = f.getAnnotations();
+            if (fieldAnnotations != null && !fieldAnnotations.isEmpty()) {
+                this.fieldAnnotations.put(fieldName,
+                                          fieldAnnotations);
+            }
+        }
+
+        //Methods for use in Expressions and ActionCallMethod's
+        final ClassMethodInspector methodInspector = new ClassMethodInspector(clazz,
+                                                                              typeSystemConverter);
+
+        this.methodInformation = methodInspector.getMethodInfos();
+        for (final MethodInfo mi : methodInformation) {
+            final String genericType = mi.getParametricReturnType();
+            if (genericType != null) {
+                final String qualifiedFactFieldName = factType + "#" + mi.getNameWithParameters();
+                this.fieldParametersType.put(qualifiedFactFieldName,
+                                             genericType);
+            }
+        }
+    }
+
+    static ClassFacts reflect(final Class<?> clazz,
+                              final ClassToGenericClassConverter typeSystemConverter) {
+        return new ClassFacts(clazz,
+                              typeSystemConverter);
+    }
+
+    List<String> getSuperTypes() {
+        return Collections.unmodifiableList(superTypes);
+    }
+
+    Set<Annotation> getAnnotations() {
+        return copyAnnotations(annotations);
+    }
+
+    List<ModelField> getFields() {
+        final List<ModelField> modelFields = new ArrayList<>(fields.size());
+        for (final FieldFacts field : fields) {
+            modelFields.add(field.toModelField());
+        }
+        return modelFields;
+    }
+
+    Map<String, String> getFieldParametersType() {
+        return Collections.unmodifiableMap(fieldParametersType);
+    }
+
+    /**
+     * @return Enumeration values of each field with an enum type, keyed by field name
+     */
+    Map<String, String[]> getFieldEnums() {
+        final Map<String, String[]> enums = new LinkedHashMap<>();
+        for (final Map.Entry<String, String[]> e : fieldEnums.entrySet()) {
+            enums.put(e.getKey(),
+                      e.getValue().clone());
+        }
+        return enums;
+    }
+
+    /**
+     * @return Names of the enum types the enumeration values of the fields are taken from
+     */
+    Set<String> getEnumTypes() {
+        return Collections.unmodifiableSet(enumTypes);
+    }
+
+    List<FieldTypeReference> getFieldTypeReferences() {
+        return Collections.unmodifiableList(fieldTypeReferences);
+    }
+
+    Map<String, Set<Annotation>> getFieldAnnotations() {
+        final Map<String, Set<Annotation>> annotationsByField = new LinkedHashMap<>();
+        for (final Map.Entry<String, Set<Annotation>> e : fieldAnnotations.entrySet()) {
+            annotationsByField.put(e.getKey(),
+                                   copyAnnotations(e.getValue()));
+        }
+        return annotationsByField;
+    }
+
+    List<MethodInfo> getMethodInformation() {
+        return Collections.unmodifiableList(methodInformation);
+    }
+
+    private static Set<Annotation> copyAnnotations(final Set<Annotation> annotations) {
+        final Set<Annotation> copies = new LinkedHashSet<>();
+        for (final Annotation annotation : annotations) {
+            final Annotation copy = new Annotation(annotation.getQualifiedTypeName());
+            for (final Map.Entry<String, Object> parameter : annotation.getParameters().entrySet()) {
+                copy.addParameter(parameter.getKey(),
+                                  parameter.getValue());
+            }
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static List<String> getSuperTypes(final Class<?> clazz) {
+        final List<String> strings = new ArrayList<>();
+        Class<?> superType = clazz.getSuperclass();
+        while (superType != null) {
+            strings.add(superType.getName());
+            superType = superType.getSuperclass();
+        }
+        return strings;
+    }
+
+    private void addEnumsForField(final String fieldName,
+                                  final Class<?> fieldClazz) {
+        if (fieldClazz.isEnum()) {
+            final Field[] enumFields = fieldClazz.getDeclaredFields();
+            final List<String> enumValues = new ArrayList<>();
+            for (final Field enumField : enumFields) {
+                if (enumField.isEnumConstant()) {
+                    String shortName = fieldClazz.getName().substring(fieldClazz.getName().lastIndexOf(".") + 1) + "." + enumField.getName();
+                    if (shortName.contains("$")) {
+                        shortName = shortName.replaceAll("\\$",
+                                                         ".");
+                    }
+                    enumValues.add(shortName + "=" + shortName);
+                }
+            }
+            fieldEnums.put(fieldName,
+                           enumValues.toArray(new String[enumValues.size()]));
+            enumTypes.add(fieldClazz.getName());
+        }
+    }
+
+    private void addParametricTypeForField(final String className,
+                                           final String fieldName,
+                                           final Type type) {
+        final String qualifiedFactFieldName = className + "#" + fieldName;
+        final String parametricType = getParametricType(type);
+        if (parametricType != null) {
+            fieldParametersType.put(qualifiedFactFieldName,
+                                    parametricType);
+        }
+    }
+
+    private static String getParametricType(final Type type) {
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType pt = (ParameterizedType) type;
+            Type parameter = null;
+            for (final Type t : pt.getActualTypeArguments()) {
+                parameter = t;
+            }
+            if (parameter instanceof Class<?>) {
+                return ((Class<?>) parameter).getName();
+            }
+        }
+        return null;
+    }
+}
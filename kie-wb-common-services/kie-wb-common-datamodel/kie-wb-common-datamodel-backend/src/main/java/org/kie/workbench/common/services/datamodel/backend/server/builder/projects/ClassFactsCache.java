@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.io.File;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.kie.workbench.common.services.backend.builder.core.DependencyArtifacts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A LRU cache of {@link ClassFacts} shared by all modules. Classes are identified by their name and by the artifacts
+ * their class hierarchy is loaded from, each identified by its GAV and the SHA-1 checksum of its jar, see
+ * {@link DependencyArtifacts}. Modules depending on the same jars reflect their classes only once, whatever class
+ * loader each module uses. The enumeration values of fields come from the artifacts of the enum types, so the facts of
+ * a class are only reused while those artifacts are the same as well. Classes that are not loaded from a jar, such as
+ * the classes of the module being built, are reflected every time.
+ */
+@ApplicationScoped
+public class ClassFactsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassFactsCache.class);
+
+    static final String CLASS_FACTS_CACHE_SIZE = "org.kie.dmo.class.facts.cache.size";
+    static final int DEFAULT_CLASS_FACTS_CACHE_SIZE = 10000;
+
+    private static final String BOOTSTRAP = "bootstrap";
+
+    private final Map<String, Entry> entries;
+    //Artifact keys by jar location, size and modification time, so the checksum of a jar is only computed once
+    private final Map<String, String> artifactKeys = new ConcurrentHashMap<>();
+
+    private long hitCount;
+    private long missCount;
+
+    public ClassFactsCache() {
+        this(Integer.getInteger(CLASS_FACTS_CACHE_SIZE,
+                                DEFAULT_CLASS_FACTS_CACHE_SIZE));
+    }
+
+    ClassFactsCache(final int maxEntries) {
+        this.entries = new LinkedHashMap<String, Entry>(16,
+                                                        0.75f,
+                                                        true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    ClassFacts getClassFacts(final Class<?> clazz,
+                             final ClassToGenericClassConverter typeSystemConverter) {
+        final String key = toKey(clazz);
+        if (key == null) {
+            return ClassFacts.reflect(clazz,
+                                      typeSystemConverter);
+        }
+        final Entry cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.enumArtifactKeys.equals(toEnumArtifactKeys(clazz,
+                                                                                 cached.facts))) {
+            synchronized (this) {
+                hitCount++;
+            }
+            return cached.facts;
+        }
+
+        //Reflect outside of the lock; classes reflected concurrently are simply stored twice
+        final ClassFacts facts = ClassFacts.reflect(clazz,
+                                                    typeSystemConverter);
+        final Map<String, String> enumArtifactKeys = toEnumArtifactKeys(clazz,
+                                                                        facts);
+        synchronized (this) {
+            missCount++;
+            if (enumArtifactKeys != null) {
+                entries.put(key,
+                            new Entry(facts,
+                                      enumArtifactKeys));
+            } else {
+                entries.remove(key);
+            }
+        }
+        return facts;
+    }
+
+    synchronized void invalidateCache() {
+        entries.clear();
+        artifactKeys.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    String toKey(final Class<?> clazz) {
+        final Set<String> artifacts = new LinkedHashSet<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        final Deque<Class<?>> hierarchy = new ArrayDeque<>(Collections.singleton(clazz));
+        while (!hierarchy.isEmpty()) {
+            final Class<?> type = hierarchy.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            final String artifact = toArtifactKey(type);
+            if (artifact == null) {
+                return null;
+            }
+            artifacts.add(artifact);
+            if (type.getSuperclass() != null) {
+                hierarchy.add(type.getSuperclass());
+            }
+            Collections.addAll(hierarchy,
+                               type.getInterfaces());
+        }
+        return clazz.getName() + "|" + String.join("|",
+                                                   artifacts);
+    }
+
+    /**
+     * @return The artifact keys of the enum types of the fields of the class, or null if one of them is not loaded from
+     * a jar
+     */
+    private Map<String, String> toEnumArtifactKeys(final Class<?> clazz,
+                                                   final ClassFacts facts) {
+        final Map<String, String> enumArtifactKeys = new HashMap<>();
+        for (final String enumType : facts.getEnumTypes()) {
+            final String artifactKey;
+            try {
+                artifactKey = toArtifactKey(Class.forName(enumType,
+                                                          false,
+                                                          clazz.getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.debug("Unable to load enum type {} of {}, its facts will not be cached.",
+                             enumType,
+                             clazz.getName(),
+                             e);
+                return null;
+            }
+            if (artifactKey == null) {
+                return null;
+            }
+            enumArtifactKeys.put(enumType,
+                                 artifactKey);
+        }
+        return enumArtifactKeys;
+    }
+
+    private String toArtifactKey(final Class<?> type) {
+        if (type.getClassLoader() == null) {
+            return BOOTSTRAP;
+        }
+        final ProtectionDomain protectionDomain = type.getProtectionDomain();
+        final CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+        final URL location = codeSource == null ? null : codeSource.getLocation();
+        final File jar = location == null ? null : DependencyArtifacts.toFile(location);
+        if (jar == null || !jar.isFile()) {
+            //Class directories can change without notice
+            return null;
+        }
+        final String fingerprint = jar.getAbsolutePath() + "#" + jar.length() + "#" + jar.lastModified();
+        final String artifactKey = artifactKeys.get(fingerprint);
+        if (artifactKey != null) {
+            return artifactKey;
+        }
+        //The checksum is computed outside of the map, so reading a large jar does not block other keys
+        final String computedKey = DependencyArtifacts.toArtifactKey(jar);
+        final String previousKey = artifactKeys.putIfAbsent(fingerprint,
+                                                            computedKey);
+        return previousKey != null ? previousKey : computedKey;
+    }
+
+    private static final class Entry {
+
+        private final ClassFacts facts;
+        private final Map<String, String> enumArtifactKeys;
+
+        private Entry(final ClassFacts facts,
+                      final Map<String, String> enumArtifactKeys) {
+            this.facts = facts;
+            this.enumArtifactKeys = enumArtifactKeys;
+        }
+    }
+}
@@ -46,12 +46,30 @@ public final class ModuleDataModelOracleBuilder {
 
     private MVELEvaluator evaluator;
 
+    private ClassFactsCache classFactsCache;
+
     public static ModuleDataModelOracleBuilder newModuleOracleBuilder(MVELEvaluator evaluator) {
-        return new ModuleDataModelOracleBuilder(evaluator);
+        return new ModuleDataModelOracleBuilder(evaluator,
+                                                null);
+    }
+
+    /**
+     * @param classFactsCache Cache the reflection of the classes is shared through, with the other modules
+     */
+    public static ModuleDataModelOracleBuilder newModuleOracleBuilder(MVELEvaluator evaluator,
+                                                                      ClassFactsCache classFactsCache) {
+        return new ModuleDataModelOracleBuilder(evaluator,
+                                                classFactsCache);
     }
 
-    private ModuleDataModelOracleBuilder(MVELEvaluator evaluator) {
+    private ModuleDataModelOracleBuilder(MVELEvaluator evaluator,
+                                         ClassFactsCache classFactsCache) {
         this.evaluator = evaluator;
+        this.classFactsCache = classFactsCache;
+    }
+
+    ClassFactsCache getClassFactsCache() {
+        return classFactsCache;
     }
 
     //Used by tests
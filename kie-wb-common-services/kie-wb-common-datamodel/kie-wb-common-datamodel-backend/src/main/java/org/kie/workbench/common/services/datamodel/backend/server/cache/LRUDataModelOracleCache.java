@@ -17,14 +17,19 @@ package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.backend.file.FileDiscoveryService;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOPackageCacheEvent;
@@ -35,6 +40,7 @@ import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.backend.file.EnumerationsFileFilter;
 import org.kie.workbench.common.services.backend.file.GlobalsFileFilter;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
@@ -43,6 +49,7 @@ import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.data.Pair;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.DirectoryStream.Filter;
@@ -51,11 +58,18 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Package DataModelOracles
+ * A simple LRU cache for Package DataModelOracles, weighed by the references they keep to the Module DataModelOracle
+ * and by their package specific definitions. Cached packages are indexed by the root of their module, so that
+ * invalidating the packages of a module does not need to inspect the packages of every other module. Packages without
+ * a module root are kept aside and inspected on every invalidation.
  */
 @ApplicationScoped
 @Named("PackageDataModelOracleCache")
-public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelOracle> {
+public class LRUDataModelOracleCache extends WeightedLRUCache<Package, PackageDataModelOracle> {
+
+    //Rough footprint of each type referenced from the Module DataModelOracle and of each package specific definition
+    private static final long TYPE_REFERENCE_BYTES = 128;
+    private static final long DEFINITION_BYTES = 512;
 
     private static final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> FILTER_ENUMERATIONS = new EnumerationsFileFilter();
 
@@ -75,6 +89,18 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
 
     private MVELEvaluator evaluator;
 
+    //Cached packages by module root URI, sorted to look up the module roots starting with a URI, and the module root
+    //URI of each cached package
+    private final NavigableMap<String, Set<Package>> packagesByModule = new TreeMap<>();
+    private final Map<Package, String> moduleByPackage = new HashMap<>();
+    private final Set<Package> packagesWithoutModule = new HashSet<>();
+
+    //Version of each cached package DataModelOracle, unique across every oracle built by this cache. Versions start
+    //from the time the cache is created, in microseconds, so that they keep growing across server restarts and a
+    //client never mistakes an oracle built after a restart for the one it already holds
+    private final Map<Package, Long> versions = new HashMap<>();
+    private long lastVersion = System.currentTimeMillis() * 1000;
+
     public LRUDataModelOracleCache() {
         //CDI proxy
     }
@@ -87,6 +113,7 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
                                    final BuildInfoService buildInfoService,
                                    final Instance<DataModelExtension> dataModelExtensionsProvider,
                                    final MVELEvaluator evaluator) {
+        super((pkg, oracle) -> estimateRetainedBytes(oracle));
         this.ioService = ioService;
         this.fileDiscoveryService = fileDiscoveryService;
         this.cacheModules = cacheModules;
@@ -119,20 +146,21 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
             return;
         }
 
-        final String moduleUri = module.getRootPath().toURI();
-        final List<Package> cacheEntriesToInvalidate = new ArrayList<Package>();
-        for (final Package pkg : getKeys()) {
-            final Path packageMainSrcPath = pkg.getPackageMainSrcPath();
-            final Path packageTestSrcPath = pkg.getPackageTestSrcPath();
-            final Path packageMainResourcesPath = pkg.getPackageMainResourcesPath();
-            final Path packageTestResourcesPath = pkg.getPackageTestResourcesPath();
-            if (packageMainSrcPath != null && packageMainSrcPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageTestSrcPath != null && packageTestSrcPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageMainResourcesPath != null && packageMainResourcesPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageTestResourcesPath != null && packageTestResourcesPath.toURI().startsWith(moduleUri)) {
+        invalidateModulePackages(module.getRootPath().toURI());
+    }
+
+    synchronized void invalidateModulePackages(final String moduleUri) {
+        final List<Package> cacheEntriesToInvalidate = new ArrayList<>();
+        for (final Map.Entry<String, Set<Package>> entry : packagesByModule.tailMap(moduleUri,
+                                                                                   true).entrySet()) {
+            if (!entry.getKey().startsWith(moduleUri)) {
+                break;
+            }
+            cacheEntriesToInvalidate.addAll(entry.getValue());
+        }
+        for (final Package pkg : packagesWithoutModule) {
+            if (isWithinModule(pkg,
+                               moduleUri)) {
                 cacheEntriesToInvalidate.add(pkg);
             }
         }
@@ -141,17 +169,110 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         }
     }
 
+    private static boolean isWithinModule(final Package pkg,
+                                          final String moduleUri) {
+        return isWithinModule(pkg.getPackageMainSrcPath(),
+                              moduleUri)
+                || isWithinModule(pkg.getPackageTestSrcPath(),
+                                  moduleUri)
+                || isWithinModule(pkg.getPackageMainResourcesPath(),
+                                  moduleUri)
+                || isWithinModule(pkg.getPackageTestResourcesPath(),
+                                  moduleUri);
+    }
+
+    private static boolean isWithinModule(final Path packagePath,
+                                          final String moduleUri) {
+        return packagePath != null && packagePath.toURI().startsWith(moduleUri);
+    }
+
+    @Override
+    public synchronized void setEntry(final Package pkg,
+                                      final PackageDataModelOracle oracle) {
+        super.setEntry(pkg,
+                       oracle);
+        versions.put(pkg,
+                     ++lastVersion);
+        //The entry just stored is never evicted by storing it, so it can be indexed straight away
+        final Path moduleRootPath = pkg.getModuleRootPath();
+        if (moduleRootPath != null) {
+            final String moduleUri = moduleRootPath.toURI();
+            moduleByPackage.put(pkg,
+                                moduleUri);
+            packagesByModule.computeIfAbsent(moduleUri,
+                                             uri -> new HashSet<>()).add(pkg);
+        } else {
+            packagesWithoutModule.add(pkg);
+        }
+    }
+
+    synchronized int getIndexedPackagesCount() {
+        return moduleByPackage.size() + packagesWithoutModule.size();
+    }
+
+    /**
+     * @param pkg The package
+     * @return Version of the package's cached DataModelOracle, or 0 if it is not cached
+     */
+    public synchronized long getVersion(final Package pkg) {
+        final Long version = versions.get(pkg);
+        return version == null ? 0 : version;
+    }
+
+    @Override
+    protected void onEntryRemoved(final Package pkg) {
+        versions.remove(pkg);
+        packagesWithoutModule.remove(pkg);
+        final String moduleUri = moduleByPackage.remove(pkg);
+        if (moduleUri == null) {
+            return;
+        }
+        final Set<Package> modulePackages = packagesByModule.get(moduleUri);
+        if (modulePackages != null) {
+            modulePackages.remove(pkg);
+            if (modulePackages.isEmpty()) {
+                packagesByModule.remove(moduleUri);
+            }
+        }
+    }
+
+    static long estimateRetainedBytes(final PackageDataModelOracle oracle) {
+        return TYPE_REFERENCE_BYTES * oracle.getModuleModelFields().size()
+                + DEFINITION_BYTES * (oracle.getPackageGlobals().size() + oracle.getPackageWorkbenchDefinitions().size());
+    }
+
     //Check the DataModelOracle for the Package has been created, otherwise create one!
     public PackageDataModelOracle assertPackageDataModelOracle(final KieModule module,
                                                                final Package pkg) {
-        PackageDataModelOracle oracle = getEntry(pkg);
-        if (oracle == null) {
-            oracle = makePackageDataModelOracle(module,
-                                                pkg);
+        return assertVersionedPackageDataModelOracle(module,
+                                                     pkg).getK1();
+    }
+
+    /**
+     * Same as {@link #assertPackageDataModelOracle(KieModule, Package)}, along with the version of the returned
+     * DataModelOracle. Both are read at once, so the version can not belong to a DataModelOracle stored meanwhile.
+     * @param module The module
+     * @param pkg The package
+     * @return The DataModelOracle of the package and its version
+     */
+    public Pair<PackageDataModelOracle, Long> assertVersionedPackageDataModelOracle(final KieModule module,
+                                                                                    final Package pkg) {
+        synchronized (this) {
+            final PackageDataModelOracle oracle = getEntry(pkg);
+            if (oracle != null) {
+                return new Pair<>(oracle,
+                                  getVersion(pkg));
+            }
+        }
+        //The DataModelOracle is built without holding the lock, so that other packages can be served meanwhile
+        final PackageDataModelOracle oracle = makePackageDataModelOracle(module,
+                                                                         pkg);
+        synchronized (this) {
             setEntry(pkg,
                      oracle);
+            return new Pair<>(oracle,
+                              getVersion(pkg));
         }
-        return oracle;
     }
 
     private PackageDataModelOracle makePackageDataModelOracle(final KieModule module,
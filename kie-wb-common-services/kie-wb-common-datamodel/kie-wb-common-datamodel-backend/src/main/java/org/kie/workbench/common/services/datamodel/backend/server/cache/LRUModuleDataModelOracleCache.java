@@ -15,31 +15,42 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
+import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.soup.project.datamodel.oracle.MethodInfo;
+import org.kie.soup.project.datamodel.oracle.ModelField;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
 
 /**
- * A simple LRU cache for Module DataModelOracles
+ * A simple LRU cache for Module DataModelOracles, weighed by the number of types, fields and methods they hold.
+ * Cache misses are served from the module's on-disk snapshot, when snapshots are enabled and it is still valid,
+ * avoiding a build of the module.
  */
 @ApplicationScoped
 @Named("ModuleDataModelOracleCache")
 public class LRUModuleDataModelOracleCache
-        extends LRUCache<KieModule, ModuleDataModelOracle> {
+        extends WeightedLRUCache<KieModule, ModuleDataModelOracle> {
+
+    //Rough footprint of the information kept for each type, field and method
+    private static final long TYPE_BYTES = 1024;
+    private static final long FIELD_BYTES = 256;
+    private static final long METHOD_BYTES = 512;
 
     private ModuleDataModelOracleBuilderProvider builderProvider;
     private KieModuleService moduleService;
     private BuildInfoService buildInfoService;
+    private ModuleDataModelOracleSnapshotStore snapshotStore;
 
     public LRUModuleDataModelOracleCache() {
     }
@@ -47,10 +58,13 @@ public class LRUModuleDataModelOracleCache
     @Inject
     public LRUModuleDataModelOracleCache(final ModuleDataModelOracleBuilderProvider builderProvider,
                                          final KieModuleService moduleService,
-                                         final BuildInfoService buildInfoService) {
+                                         final BuildInfoService buildInfoService,
+                                         final ModuleDataModelOracleSnapshotStore snapshotStore) {
+        super((module, oracle) -> estimateRetainedBytes(oracle));
         this.builderProvider = builderProvider;
         this.moduleService = moduleService;
         this.buildInfoService = buildInfoService;
+        this.snapshotStore = snapshotStore;
     }
 
     public void invalidateModuleCache(@Observes final InvalidateDMOModuleCacheEvent event) {
@@ -62,6 +76,7 @@ public class LRUModuleDataModelOracleCache
         //If resource was not within a Module there's nothing to invalidate
         if (module != null) {
             invalidateCache(module);
+            snapshotStore.invalidate(module);
         }
     }
 
@@ -69,15 +84,33 @@ public class LRUModuleDataModelOracleCache
     public ModuleDataModelOracle assertModuleDataModelOracle(final KieModule module) {
         ModuleDataModelOracle moduleOracle = getEntry(module);
         if (moduleOracle == null) {
-            moduleOracle = makeModuleOracle(module);
+            //Identify the module content before building, so that changes made meanwhile invalidate the snapshot
+            final String snapshotKey = snapshotStore.getSnapshotKey(module);
+            moduleOracle = snapshotStore.load(module,
+                                              snapshotKey);
+            if (moduleOracle == null) {
+                final ModuleDataModelOracleBuilderProvider.InnerBuilder builder = builderProvider.newBuilder(module,
+                                                                                                            buildInfoService.getBuildInfo(module));
+                moduleOracle = builder.build();
+                snapshotStore.store(module,
+                                    snapshotKey,
+                                    moduleOracle,
+                                    builder.getDependencyJars());
+            }
             setEntry(module,
                      moduleOracle);
         }
         return moduleOracle;
     }
 
-    private ModuleDataModelOracle makeModuleOracle(final KieModule module) {
-        return builderProvider.newBuilder(module,
-                                          buildInfoService.getBuildInfo(module)).build();
+    static long estimateRetainedBytes(final ModuleDataModelOracle oracle) {
+        long bytes = 0;
+        for (final ModelField[] fields : oracle.getModuleModelFields().values()) {
+            bytes += TYPE_BYTES + FIELD_BYTES * fields.length;
+        }
+        for (final List<MethodInfo> methods : oracle.getModuleMethodInformation().values()) {
+            bytes += METHOD_BYTES * methods.size();
+        }
+        return bytes;
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@
  */
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
@@ -26,8 +27,10 @@ import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
 import org.kie.soup.project.datamodel.imports.Import;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.backend.builder.core.DependencyArtifacts;
 import org.kie.workbench.common.services.backend.builder.core.TypeSourceResolver;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfo;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ClassFactsCache;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ModuleDataModelOracleBuilder;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -44,6 +47,7 @@ public class ModuleDataModelOracleBuilderProvider {
 
     private ProjectImportsService importsService;
     private PackageNameWhiteListService packageNameWhiteListService;
+    private ClassFactsCache classFactsCache;
 
     public ModuleDataModelOracleBuilderProvider() {
         //CDI proxy
@@ -51,9 +55,11 @@ public class ModuleDataModelOracleBuilderProvider {
 
     @Inject
     public ModuleDataModelOracleBuilderProvider(final PackageNameWhiteListService packageNameWhiteListService,
-                                                final ProjectImportsService importsService) {
+                                                final ProjectImportsService importsService,
+                                                final ClassFactsCache classFactsCache) {
         this.packageNameWhiteListService = packageNameWhiteListService;
         this.importsService = importsService;
+        this.classFactsCache = classFactsCache;
     }
 
     public InnerBuilder newBuilder(final KieModule project,
@@ -69,7 +75,8 @@ public class ModuleDataModelOracleBuilderProvider {
 
     class InnerBuilder {
 
-        private final ModuleDataModelOracleBuilder pdBuilder = ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator());
+        private final ModuleDataModelOracleBuilder pdBuilder = ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator(),
+                                                                                                                   classFactsCache);
 
         private final KieModule project;
         private final KieModuleMetaData kieModuleMetaData;
@@ -92,6 +99,15 @@ public class ModuleDataModelOracleBuilderProvider {
             return pdBuilder.build();
         }
 
+        /**
+         * @return The jars of the dependencies the module is built with, or null if they are not known
+         */
+        public List<File> getDependencyJars() {
+            //By construction the parent of the KieModuleMetaData class loader holds the module dependencies.
+            final ClassLoader classLoader = kieModuleMetaData.getClassLoader();
+            return classLoader != null ? DependencyArtifacts.getJars(classLoader.getParent()) : null;
+        }
+
         /**
          * The availability of these classes is checked in Builder and failed fast. Here we load them into the DMO
          */
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.soup.xstream.XStreamUtils;
+import org.kie.workbench.common.services.backend.builder.core.DependencyArtifacts;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.version.VersionAttributes;
+import org.uberfire.java.nio.base.version.VersionRecord;
+
+/**
+ * Keeps an on-disk snapshot of the Module DataModelOracle of each module, so that the first request for a module's
+ * DataModelOracle after a restart is served from disk rather than by building the module. A snapshot is only valid
+ * for the module content it was taken from; it is identified by the module root, a checksum of its pom.xml and the
+ * commits in the module's history. The key of the content must be read before the DataModelOracle is built, so that
+ * changes made during the build invalidate the snapshot.
+ * <p>
+ * The dependencies a module resolves to are only known once it is built, so a snapshot also records the key of each
+ * dependency artifact it was built with, see {@link DependencyArtifacts}. A snapshot is stale as soon as one of them
+ * is changed or removed, such as a redeployed SNAPSHOT. Only the jars whose size or modification time differ from the
+ * ones recorded in the snapshot are checksummed again.
+ * <p>
+ * Snapshots are disabled unless a directory to write them to is set with {@link #SNAPSHOT_DIR}.
+ */
+@ApplicationScoped
+public class ModuleDataModelOracleSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModuleDataModelOracleSnapshotStore.class);
+
+    protected static final String SNAPSHOT_DIR = "org.kie.dmo.snapshot.dir";
+
+    private static final String SNAPSHOT_EXTENSION = ".dmo";
+    //Snapshots written in another format are stale
+    static final String SNAPSHOT_FORMAT = "dmo-snapshot-2";
+    private static final String[] SNAPSHOT_TYPES = {"org.kie.soup.project.datamodel.**"};
+
+    private IOService ioService;
+    private java.nio.file.Path snapshotDir;
+    private XStream xStream;
+    //Artifact key of each dependency jar, by its absolute path
+    private final Map<String, ArtifactKey> artifactKeys = new ConcurrentHashMap<>();
+
+    public ModuleDataModelOracleSnapshotStore() {
+        //CDI proxy
+    }
+
+    @Inject
+    public ModuleDataModelOracleSnapshotStore(final @Named("ioStrategy") IOService ioService) {
+        this(ioService,
+             getConfiguredSnapshotDir());
+    }
+
+    /**
+     * @param ioService IOService used to read the module content
+     * @param snapshotDir Directory holding the snapshots, or null to disable snapshots
+     */
+    public ModuleDataModelOracleSnapshotStore(final IOService ioService,
+                                              final java.nio.file.Path snapshotDir) {
+        this.ioService = ioService;
+        this.snapshotDir = snapshotDir;
+        //Snapshots are read back from disk, so only the types a DataModelOracle is made of are accepted
+        this.xStream = XStreamUtils.createNonTrustingXStream(new DomDriver());
+        this.xStream.allowTypesByWildcard(SNAPSHOT_TYPES);
+    }
+
+    private static java.nio.file.Path getConfiguredSnapshotDir() {
+        final String dir = System.getProperty(SNAPSHOT_DIR);
+        if (dir == null || dir.trim().isEmpty()) {
+            return null;
+        }
+        return java.nio.file.Paths.get(dir);
+    }
+
+    public boolean isEnabled() {
+        return snapshotDir != null;
+    }
+
+    /**
+     * Loads the snapshot of the module's DataModelOracle, provided it was taken from the given module content.
+     * @param module The module
+     * @param snapshotKey The key of the current module content, see {@link #getSnapshotKey(KieModule)}
+     * @return The DataModelOracle, or null if there is no valid snapshot for the module.
+     */
+    public ModuleDataModelOracle load(final KieModule module,
+                                      final String snapshotKey) {
+        if (!isEnabled() || snapshotKey == null) {
+            return null;
+        }
+        final java.nio.file.Path snapshot = getSnapshotPath(module);
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (!SNAPSHOT_FORMAT.equals(in.readUTF()) || !snapshotKey.equals(in.readUTF()) || !readDependencies(in)) {
+                logger.debug("Snapshot of module {} is stale.",
+                             module.getRootPath().toURI());
+                return null;
+            }
+            try (final InputStream payload = new GZIPInputStream(in)) {
+                final ModuleDataModelOracle oracle = (ModuleDataModelOracle) xStream.fromXML(payload);
+                logger.debug("Loaded snapshot of module {} in {} ms.",
+                             module.getRootPath().toURI(),
+                             System.currentTimeMillis() - startTime);
+                return oracle;
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to load snapshot of module {}, it will be rebuilt.",
+                        module.getRootPath().toURI(),
+                        e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the module's DataModelOracle, replacing any previous snapshot of the module.
+     * @param module The module
+     * @param snapshotKey The key of the module content read before building the DataModelOracle
+     * @param oracle The DataModelOracle built from the module content
+     * @param dependencies The jars of the dependencies the DataModelOracle was built with, or null if they are not known
+     */
+    public void store(final KieModule module,
+                      final String snapshotKey,
+                      final ModuleDataModelOracle oracle,
+                      final List<File> dependencies) {
+        if (!isEnabled() || snapshotKey == null || dependencies == null) {
+            return;
+        }
+
+        final java.nio.file.Path snapshot = getSnapshotPath(module);
+        java.nio.file.Path tempSnapshot = null;
+        try {
+            Files.createDirectories(snapshotDir);
+            //Write to a temporary file first so that a concurrent load never sees a partial snapshot
+            tempSnapshot = Files.createTempFile(snapshotDir,
+                                                snapshot.getFileName().toString(),
+                                                ".tmp");
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempSnapshot)))) {
+                out.writeUTF(SNAPSHOT_FORMAT);
+                out.writeUTF(snapshotKey);
+                writeDependencies(out,
+                                  dependencies);
+                final GZIPOutputStream payload = new GZIPOutputStream(out);
+                xStream.toXML(oracle,
+                              payload);
+                payload.finish();
+            }
+            Files.move(tempSnapshot,
+                       snapshot,
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Unable to write snapshot of module {}.",
+                        module.getRootPath().toURI(),
+                        e);
+            deleteQuietly(tempSnapshot);
+        }
+    }
+
+    /**
+     * Deletes the snapshot of the module, if any.
+     * @param module The module
+     */
+    public void invalidate(final KieModule module) {
+        if (!isEnabled()) {
+            return;
+        }
+        deleteQuietly(getSnapshotPath(module));
+    }
+
+    java.nio.file.Path getSnapshotPath(final KieModule module) {
+        return snapshotDir.resolve(hash(module.getRootPath().toURI().getBytes(StandardCharsets.UTF_8)) + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Identifies the current content of the module.
+     * @param module The module
+     * @return The key of the module content, or null if snapshots are disabled or the content can not be identified.
+     */
+    public String getSnapshotKey(final KieModule module) {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            final org.uberfire.java.nio.file.Path nioRootPath = Paths.convert(module.getRootPath());
+            final org.uberfire.java.nio.file.Path nioPomPath = Paths.convert(module.getPomXMLPath());
+            final List<VersionRecord> records = ioService.readAttributes(nioRootPath,
+                                                                         VersionAttributes.class).history().records();
+            if (records == null || records.isEmpty()) {
+                return null;
+            }
+            return module.getRootPath().toURI()
+                    + "|" + hash(ioService.readAllBytes(nioPomPath))
+                    + "|" + records.size()
+                    + "|" + records.get(0).id()
+                    + "|" + records.get(records.size() - 1).id();
+        } catch (Exception e) {
+            //Modules without version history can not be identified reliably
+            logger.debug("Unable to identify the content of module {}, no snapshot will be used.",
+                         module.getRootPath().toURI(),
+                         e);
+            return null;
+        }
+    }
+
+    private void writeDependencies(final DataOutputStream out,
+                                   final List<File> dependencies) throws IOException {
+        out.writeInt(dependencies.size());
+        for (final File dependency : dependencies) {
+            final ArtifactKey artifactKey = getArtifactKey(dependency);
+            out.writeUTF(dependency.getAbsolutePath());
+            out.writeLong(artifactKey.length);
+            out.writeLong(artifactKey.lastModified);
+            out.writeUTF(artifactKey.key);
+        }
+    }
+
+    /**
+     * @return Whether every dependency the snapshot was built with is still the same
+     */
+    private boolean readDependencies(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        boolean unchanged = true;
+        for (int i = 0; i < count; i++) {
+            final File dependency = new File(in.readUTF());
+            final ArtifactKey artifactKey = new ArtifactKey(in.readLong(),
+                                                            in.readLong(),
+                                                            in.readUTF());
+            if (unchanged) {
+                unchanged = dependency.isFile() && isUnchanged(dependency,
+                                                               artifactKey);
+            }
+        }
+        return unchanged;
+    }
+
+    private boolean isUnchanged(final File dependency,
+                                final ArtifactKey artifactKey) {
+        if (artifactKey.isKeyOf(dependency)) {
+            //Same jar as when the snapshot was taken, no need to checksum it again
+            artifactKeys.putIfAbsent(dependency.getAbsolutePath(),
+                                     artifactKey);
+            return true;
+        }
+        return artifactKey.key.equals(getArtifactKey(dependency).key);
+    }
+
+    private ArtifactKey getArtifactKey(final File dependency) {
+        final String path = dependency.getAbsolutePath();
+        final ArtifactKey artifactKey = artifactKeys.get(path);
+        if (artifactKey != null && artifactKey.isKeyOf(dependency)) {
+            return artifactKey;
+        }
+        //Size and modification time are read before the checksum, so a jar replaced meanwhile is checksummed again next time
+        final ArtifactKey computedKey = new ArtifactKey(dependency.length(),
+                                                        dependency.lastModified(),
+                                                        DependencyArtifacts.toArtifactKey(dependency));
+        artifactKeys.put(path,
+                         computedKey);
+        return computedKey;
+    }
+
+    private static String hash(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            final StringBuilder sb = new StringBuilder();
+            for (final byte b : digest) {
+                sb.append(String.format("%02x",
+                                        b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(final java.nio.file.Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Unable to delete {}.",
+                         path,
+                         e);
+        }
+    }
+
+    private static final class ArtifactKey {
+
+        private final long length;
+        private final long lastModified;
+        private final String key;
+
+        private ArtifactKey(final long length,
+                            final long lastModified,
+                            final String key) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.key = key;
+        }
+
+        private boolean isKeyOf(final File dependency) {
+            return length == dependency.length() && lastModified == dependency.lastModified();
+        }
+    }
+}
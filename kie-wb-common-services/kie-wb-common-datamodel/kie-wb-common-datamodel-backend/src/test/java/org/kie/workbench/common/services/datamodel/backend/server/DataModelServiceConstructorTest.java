@@ -75,6 +75,7 @@ import org.kie.workbench.common.services.backend.builder.ala.LocalBuildExecConfi
 import org.kie.workbench.common.services.backend.builder.ala.LocalModuleConfigExecutor;
 import org.kie.workbench.common.services.backend.builder.ala.LocalSourceConfigExecutor;
 import org.kie.workbench.common.services.backend.builder.core.BuildHelper;
+import org.kie.workbench.common.services.backend.builder.core.ClassVerificationCache;
 import org.kie.workbench.common.services.backend.builder.core.DeploymentVerifier;
 import org.kie.workbench.common.services.backend.builder.core.LRUBuilderCache;
 import org.kie.workbench.common.services.backend.builder.core.LRUModuleDependenciesClassLoaderCache;
@@ -94,9 +95,11 @@ import org.kie.workbench.common.services.backend.whitelist.PackageNameSearchProv
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListLoader;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListSaver;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.ClassFactsCache;
 import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUDataModelOracleCache;
 import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUModuleDataModelOracleCache;
 import org.kie.workbench.common.services.datamodel.backend.server.cache.ModuleDataModelOracleBuilderProvider;
+import org.kie.workbench.common.services.datamodel.backend.server.cache.ModuleDataModelOracleSnapshotStore;
 import org.kie.workbench.common.services.datamodel.backend.server.service.DataModelService;
 import org.kie.workbench.common.services.datamodel.spi.DataModelExtension;
 import org.kie.workbench.common.services.refactoring.service.PackageServiceLoader;
@@ -298,7 +301,8 @@ public class DataModelServiceConstructorTest {
                                                            dependenciesClassLoaderCache,
                                                            pomModelCache,
                                                            packageNameWhiteListService,
-                                                           classFilterBeans
+                                                           classFilterBeans,
+                                                           new ClassVerificationCache()
         );
 
         Instance<PostBuildHandler> handlerInstance = mock(Instance.class);
@@ -331,11 +335,14 @@ public class DataModelServiceConstructorTest {
                                                                  builderCache);
 
         ModuleDataModelOracleBuilderProvider builderProvider = new ModuleDataModelOracleBuilderProvider(packageNameWhiteListService,
-                                                                                                        importsService);
+                                                                                                        importsService,
+                                                                                                        new ClassFactsCache());
 
         LRUModuleDataModelOracleCache cacheModules = new LRUModuleDataModelOracleCache(builderProvider,
                                                                                        moduleService,
-                                                                                       buildInfoService);
+                                                                                       buildInfoService,
+                                                                                       new ModuleDataModelOracleSnapshotStore(ioService,
+                                                                                                                              null));
 
         dependenciesClassLoaderCache.setBuildInfoService(buildInfoService);
         LRUDataModelOracleCache cachePackages = new LRUDataModelOracleCache(ioService,
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.imports.Import;
+import org.kie.soup.project.datamodel.imports.Imports;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+import org.kie.workbench.common.services.datamodel.backend.server.cache.LRUDataModelOracleCache;
+import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.data.Pair;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IncrementalDataModelServiceImplTest {
+
+    private static final String PERSON = "org.test.Person";
+    private static final String ADDRESS = "org.other.Address";
+
+    @Mock
+    private LRUDataModelOracleCache cachePackages;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private PackageDataModelOracle oracle;
+
+    @Mock
+    private Path resourcePath;
+
+    @Mock
+    private KieModule module;
+
+    @Mock
+    private Package pkg;
+
+    private IncrementalDataModelServiceImpl service;
+
+    @Before
+    public void setUp() {
+        final Map<String, ModelField[]> modelFields = new HashMap<>();
+        modelFields.put(PERSON,
+                        new ModelField[0]);
+        modelFields.put(ADDRESS,
+                        new ModelField[0]);
+        when(oracle.getModuleModelFields()).thenReturn(modelFields);
+        when(moduleService.resolveModule(resourcePath)).thenReturn(module);
+        when(moduleService.resolvePackage(resourcePath)).thenReturn(pkg);
+        when(cachePackages.assertVersionedPackageDataModelOracle(module,
+                                                                 pkg)).thenReturn(new Pair<>(oracle,
+                                                                                             7L));
+
+        service = new IncrementalDataModelServiceImpl(cachePackages,
+                                                      moduleService);
+    }
+
+    @Test
+    public void testBatchUpdatesResolveEveryFactType() {
+        when(pkg.getPackageName()).thenReturn("org.test");
+        final Imports imports = new Imports();
+        imports.addImport(new Import(ADDRESS));
+
+        final PackageDataModelOracleIncrementalPayload payload = service.getBatchUpdates(resourcePath,
+                                                                                         imports,
+                                                                                         new HashSet<>(Arrays.asList("Person",
+                                                                                                                     "Address",
+                                                                                                                     "Unknown")),
+                                                                                         0,
+                                                                                         Collections.emptySet());
+
+        assertEquals(new HashSet<>(Arrays.asList(PERSON,
+                                                 ADDRESS)),
+                     payload.getModelFields().keySet());
+        assertEquals(7L,
+                     payload.getOracleVersion());
+        verify(cachePackages,
+               times(1)).assertVersionedPackageDataModelOracle(module,
+                                                               pkg);
+        assertEquals(1,
+                     service.getRequestCount());
+        assertEquals(2,
+                     service.getServedFactTypesCount());
+    }
+
+    @Test
+    public void testSingleUpdate() {
+        final PackageDataModelOracleIncrementalPayload payload = service.getUpdates(resourcePath,
+                                                                                    new Imports(),
+                                                                                    PERSON);
+
+        assertEquals(1,
+                     payload.getModelFields().size());
+        assertTrue(payload.getModelFields().containsKey(PERSON));
+        assertEquals(7L,
+                     payload.getOracleVersion());
+    }
+
+    @Test
+    public void testBatchUpdatesResendKnownFactTypesOfOutdatedVersion() {
+        final PackageDataModelOracleIncrementalPayload payload = service.getBatchUpdates(resourcePath,
+                                                                                         new Imports(),
+                                                                                         Collections.singleton(ADDRESS),
+                                                                                         6L,
+                                                                                         new HashSet<>(Arrays.asList(PERSON,
+                                                                                                                     "org.test.Removed")));
+
+        assertEquals(new HashSet<>(Arrays.asList(PERSON,
+                                                 ADDRESS)),
+                     payload.getModelFields().keySet());
+        assertEquals(7L,
+                     payload.getOracleVersion());
+    }
+
+    @Test
+    public void testBatchUpdatesSkipKnownFactTypesOfCurrentVersion() {
+        final PackageDataModelOracleIncrementalPayload payload = service.getBatchUpdates(resourcePath,
+                                                                                         new Imports(),
+                                                                                         Collections.singleton(ADDRESS),
+                                                                                         7L,
+                                                                                         Collections.singleton(PERSON));
+
+        assertEquals(Collections.singleton(ADDRESS),
+                     payload.getModelFields().keySet());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.builder.projects;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.PapaSmurf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassFactsCacheTest {
+
+    private final JavaTypeSystemTranslator typeSystemConverter = new JavaTypeSystemTranslator();
+
+    private ClassFactsCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new ClassFactsCache(10);
+    }
+
+    @Test
+    public void testArtifactClassesAreReflectedOnce() {
+        final ClassFacts facts = cache.getClassFacts(Date.class,
+                                                     typeSystemConverter);
+
+        assertSame(facts,
+                   cache.getClassFacts(Date.class,
+                                       typeSystemConverter));
+        assertEquals(1,
+                     cache.size());
+        assertEquals(1,
+                     cache.getHitCount());
+        assertEquals(1,
+                     cache.getMissCount());
+    }
+
+    @Test
+    public void testClassDirectoriesAreNotCached() {
+        //Test classes are loaded from a directory, as the classes of the module being built
+        assertNull(cache.toKey(PapaSmurf.class));
+
+        cache.getClassFacts(PapaSmurf.class,
+                            typeSystemConverter);
+
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testCachedFactsAreCopied() {
+        final ClassFacts facts = cache.getClassFacts(Thread.class,
+                                                     typeSystemConverter);
+        final String[] states = facts.getFieldEnums().get("state");
+        assertNotNull(states);
+        states[0] = "modified";
+        facts.getFields().clear();
+
+        final ClassFacts cachedFacts = cache.getClassFacts(Thread.class,
+                                                           typeSystemConverter);
+        assertNotEquals("modified",
+                        cachedFacts.getFieldEnums().get("state")[0]);
+        assertFalse(cachedFacts.getFields().isEmpty());
+        assertNotSame(cachedFacts.getFields().get(0),
+                      cachedFacts.getFields().get(0));
+    }
+
+    @Test
+    public void testBuildersShareReflection() throws Exception {
+        final ModuleDataModelOracleImpl oracle1 = buildOracle();
+        final ModuleDataModelOracleImpl oracle2 = buildOracle();
+
+        assertNotNull(oracle1.getModuleModelFields().get(Date.class.getName()));
+        assertEquals(oracle1.getModuleModelFields().get(Date.class.getName()).length,
+                     oracle2.getModuleModelFields().get(Date.class.getName()).length);
+        assertEquals(oracle1.getModuleMethodInformation().get(Date.class.getName()).size(),
+                     oracle2.getModuleMethodInformation().get(Date.class.getName()).size());
+        assertEquals(oracle1.getModuleSuperTypes().get(Date.class.getName()),
+                     oracle2.getModuleSuperTypes().get(Date.class.getName()));
+        assertTrue(cache.getHitCount() > 0);
+    }
+
+    @Test
+    public void testEnumTypesAreTracked() {
+        final ClassFacts facts = cache.getClassFacts(Thread.class,
+                                                     typeSystemConverter);
+
+        assertTrue(facts.getEnumTypes().contains(Thread.State.class.getName()));
+        assertSame(facts,
+                   cache.getClassFacts(Thread.class,
+                                       typeSystemConverter));
+    }
+
+    private ModuleDataModelOracleImpl buildOracle() throws Exception {
+        final ModuleDataModelOracleBuilder builder = ModuleDataModelOracleBuilder.newModuleOracleBuilder(new RawMVELEvaluator(),
+                                                                                                         cache);
+        final ModuleDataModelOracleImpl oracle = new ModuleDataModelOracleImpl();
+        new ClassFactBuilder(builder,
+                             Date.class,
+                             false,
+                             type -> TypeSource.JAVA_DEPENDENCY).build(oracle);
+        return oracle;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.rpc.SessionInfo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LRUDataModelOracleCacheTest {
+
+    private static final int MODULES = 200;
+    private static final int PACKAGES_PER_MODULE = 15;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private PackageDataModelOracle oracle;
+
+    @Mock
+    private SessionInfo sessionInfo;
+
+    private LRUDataModelOracleCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new LRUDataModelOracleCache(null,
+                                            null,
+                                            null,
+                                            moduleService,
+                                            null,
+                                            null,
+                                            null);
+    }
+
+    @Test
+    public void testInvalidateProjectPackagesCache() {
+        final Path resourcePath = mock(Path.class);
+        final KieModule module = mock(KieModule.class);
+        final Path moduleRootPath = moduleRootPath(0);
+        when(module.getRootPath()).thenReturn(moduleRootPath);
+        when(moduleService.resolveModule(resourcePath)).thenReturn(module);
+
+        final List<Package> modulePackages = cachePackages(moduleRootPath,
+                                                           3);
+        final List<Package> otherPackages = cachePackages(moduleRootPath(1),
+                                                          3);
+
+        cache.invalidateProjectPackagesCache(new InvalidateDMOModuleCacheEvent(sessionInfo,
+                                                                               module,
+                                                                               resourcePath));
+
+        for (Package pkg : modulePackages) {
+            assertNull(cache.getEntry(pkg));
+        }
+        for (Package pkg : otherPackages) {
+            assertNotNull(cache.getEntry(pkg));
+        }
+        assertEquals(3,
+                     cache.getIndexedPackagesCount());
+    }
+
+    @Test
+    public void testInvalidateModulePackagesMatchesModuleRootPrefix() {
+        final Path moduleRootPath = moduleRootPath(0);
+        final Path nestedModuleRootPath = mock(Path.class);
+        when(nestedModuleRootPath.toURI()).thenReturn(moduleRootPath.toURI() + "/nested");
+
+        final List<Package> nestedPackages = cachePackages(nestedModuleRootPath,
+                                                           2);
+        final List<Package> otherPackages = cachePackages(moduleRootPath(1),
+                                                          2);
+
+        cache.invalidateModulePackages(moduleRootPath.toURI());
+
+        for (Package pkg : nestedPackages) {
+            assertNull(cache.getEntry(pkg));
+        }
+        for (Package pkg : otherPackages) {
+            assertNotNull(cache.getEntry(pkg));
+        }
+    }
+
+    @Test
+    public void testInvalidatePackagesWithoutModuleRoot() {
+        final Path moduleRootPath = moduleRootPath(0);
+        final Package modulePackage = packageWithoutModuleRoot(moduleRootPath.toURI() + "/src/main/java/org/test");
+        final Package otherPackage = packageWithoutModuleRoot(moduleRootPath(1).toURI() + "/src/main/java/org/test");
+
+        cache.invalidateModulePackages(moduleRootPath.toURI());
+
+        assertNull(cache.getEntry(modulePackage));
+        assertNotNull(cache.getEntry(otherPackage));
+        assertEquals(1,
+                     cache.getIndexedPackagesCount());
+    }
+
+    @Test
+    public void testIndexFollowsCacheContent() {
+        //Far more packages than the cache can hold, so that most of them are evicted
+        final List<Path> moduleRootPaths = new ArrayList<>();
+        for (int i = 0; i < MODULES; i++) {
+            final Path moduleRootPath = moduleRootPath(i);
+            moduleRootPaths.add(moduleRootPath);
+            cachePackages(moduleRootPath,
+                          PACKAGES_PER_MODULE);
+        }
+        assertEquals(cache.getKeys().size(),
+                     cache.getIndexedPackagesCount());
+
+        for (Path moduleRootPath : moduleRootPaths) {
+            cache.invalidateModulePackages(moduleRootPath.toURI());
+        }
+
+        assertTrue(cache.getKeys().isEmpty());
+        assertEquals(0,
+                     cache.getIndexedPackagesCount());
+    }
+
+    @Test
+    public void testVersionsGrowAcrossRestarts() throws Exception {
+        final Package pkg = mock(Package.class);
+        cache.setEntry(pkg,
+                       oracle);
+        final long version = cache.getVersion(pkg);
+
+        Thread.sleep(20);
+        final LRUDataModelOracleCache restartedCache = new LRUDataModelOracleCache(null,
+                                                                                   null,
+                                                                                   null,
+                                                                                   moduleService,
+                                                                                   null,
+                                                                                   null,
+                                                                                   null);
+        restartedCache.setEntry(pkg,
+                                oracle);
+
+        assertTrue(restartedCache.getVersion(pkg) > version);
+    }
+
+    private Path moduleRootPath(final int index) {
+        final Path moduleRootPath = mock(Path.class);
+        when(moduleRootPath.toURI()).thenReturn("default://master@repo/module" + index);
+        return moduleRootPath;
+    }
+
+    private Package packageWithoutModuleRoot(final String packageMainSrcUri) {
+        final Path packageMainSrcPath = mock(Path.class);
+        when(packageMainSrcPath.toURI()).thenReturn(packageMainSrcUri);
+        final Package pkg = mock(Package.class);
+        when(pkg.getPackageMainSrcPath()).thenReturn(packageMainSrcPath);
+        cache.setEntry(pkg,
+                       oracle);
+        return pkg;
+    }
+
+    private List<Package> cachePackages(final Path moduleRootPath,
+                                        final int count) {
+        final List<Package> packages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Package pkg = mock(Package.class);
+            when(pkg.getModuleRootPath()).thenReturn(moduleRootPath);
+            cache.setEntry(pkg,
+                           oracle);
+            packages.add(pkg);
+        }
+        return packages;
+    }
+}
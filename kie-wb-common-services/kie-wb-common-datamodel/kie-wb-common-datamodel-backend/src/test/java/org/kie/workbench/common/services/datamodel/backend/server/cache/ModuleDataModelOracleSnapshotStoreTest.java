@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.version.VersionAttributes;
+import org.uberfire.java.nio.base.version.VersionRecord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ModuleDataModelOracleSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private IOService ioService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private VersionAttributes versionAttributes;
+
+    @Mock
+    private KieModule module;
+
+    @Mock
+    private Path rootPath;
+
+    @Mock
+    private Path pomPath;
+
+    private ModuleDataModelOracleSnapshotStore store;
+
+    private File dependency;
+
+    private List<File> dependencies;
+
+    @Before
+    public void setUp() throws Exception {
+        final java.nio.file.Path moduleDir = temporaryFolder.newFolder("module").toPath();
+        when(rootPath.toURI()).thenReturn(moduleDir.toUri().toString());
+        when(pomPath.toURI()).thenReturn(moduleDir.resolve("pom.xml").toUri().toString());
+        when(module.getRootPath()).thenReturn(rootPath);
+        when(module.getPomXMLPath()).thenReturn(pomPath);
+        when(ioService.readAttributes(any(org.uberfire.java.nio.file.Path.class),
+                                      eq(VersionAttributes.class))).thenReturn(versionAttributes);
+        when(ioService.readAllBytes(any(org.uberfire.java.nio.file.Path.class))).thenReturn("<project/>".getBytes(StandardCharsets.UTF_8));
+        setHistory("commit1");
+        dependency = temporaryFolder.newFile("dependency-1.0-SNAPSHOT.jar");
+        Files.write(dependency.toPath(),
+                    "1".getBytes(StandardCharsets.UTF_8));
+        dependencies = Collections.singletonList(dependency);
+
+        store = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                       temporaryFolder.newFolder("snapshots").toPath());
+    }
+
+    @Test
+    public void testSnapshotIsReloaded() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+
+        final ModuleDataModelOracle oracle = store.load(module,
+                                                        store.getSnapshotKey(module));
+
+        assertNotNull(oracle);
+        assertEquals(Collections.singletonList("org.test"),
+                     oracle.getModulePackageNames());
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterCommit() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        setHistory("commit1",
+                   "commit2");
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterPomChange() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        when(ioService.readAllBytes(any(org.uberfire.java.nio.file.Path.class))).thenReturn("<project></project>".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterDependencyChange() throws Exception {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        //A SNAPSHOT dependency is redeployed
+        Files.write(dependency.toPath(),
+                    "22".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testUnchangedDependencyIsNotChecksummedAfterRestart() throws Exception {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        //Content of the same size and modification time is taken to be the same jar, so it is not checksummed again
+        final long lastModified = dependency.lastModified();
+        Files.write(dependency.toPath(),
+                    "2".getBytes(StandardCharsets.UTF_8));
+        assertTrue(dependency.setLastModified(lastModified));
+
+        final ModuleDataModelOracleSnapshotStore restartedStore = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                                                                         store.getSnapshotPath(module).getParent());
+        assertNotNull(restartedStore.load(module,
+                                          restartedStore.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterDependencyTouchedWithSameSize() throws Exception {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        Files.write(dependency.toPath(),
+                    "2".getBytes(StandardCharsets.UTF_8));
+        assertTrue(dependency.setLastModified(dependency.lastModified() + 10000));
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterDependencyRemoval() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        assertTrue(dependency.delete());
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsNotStoredWithUnknownDependencies() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    null);
+
+        assertFalse(Files.exists(store.getSnapshotPath(module)));
+    }
+
+    @Test
+    public void testInvalidate() {
+        store.store(module,
+                    store.getSnapshotKey(module),
+                    makeOracle(),
+                    dependencies);
+        assertTrue(Files.exists(store.getSnapshotPath(module)));
+
+        store.invalidate(module);
+
+        assertFalse(Files.exists(store.getSnapshotPath(module)));
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotIsStaleAfterCommitDuringBuild() {
+        final String snapshotKey = store.getSnapshotKey(module);
+        //The module changes while its DataModelOracle is being built
+        setHistory("commit1",
+                   "commit2");
+        store.store(module,
+                    snapshotKey,
+                    makeOracle(),
+                    dependencies);
+
+        assertNull(store.load(module,
+                              store.getSnapshotKey(module)));
+    }
+
+    @Test
+    public void testSnapshotOfUnexpectedTypeIsRejected() throws Exception {
+        final String snapshotKey = store.getSnapshotKey(module);
+        final java.nio.file.Path snapshot = store.getSnapshotPath(module);
+        try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshot))) {
+            out.writeUTF(ModuleDataModelOracleSnapshotStore.SNAPSHOT_FORMAT);
+            out.writeUTF(snapshotKey);
+            out.writeInt(0);
+            final GZIPOutputStream payload = new GZIPOutputStream(out);
+            payload.write("<java.lang.ProcessBuilder/>".getBytes(StandardCharsets.UTF_8));
+            payload.finish();
+        }
+
+        assertNull(store.load(module,
+                              snapshotKey));
+    }
+
+    @Test
+    public void testDisabled() {
+        final ModuleDataModelOracleSnapshotStore disabledStore = new ModuleDataModelOracleSnapshotStore(ioService,
+                                                                                                        null);
+        disabledStore.store(module,
+                            "key",
+                            makeOracle(),
+                    dependencies);
+
+        assertFalse(disabledStore.isEnabled());
+        assertNull(disabledStore.getSnapshotKey(module));
+        assertNull(disabledStore.load(module,
+                                      "key"));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(new ModuleDataModelOracleSnapshotStore(ioService).isEnabled());
+    }
+
+    private ModuleDataModelOracle makeOracle() {
+        final ModuleDataModelOracleImpl oracle = new ModuleDataModelOracleImpl();
+        oracle.addModulePackageNames(Collections.singletonList("org.test"));
+        return oracle;
+    }
+
+    private void setHistory(final String... commitIds) {
+        final List<VersionRecord> records = new ArrayList<>();
+        for (String commitId : Arrays.asList(commitIds)) {
+            final VersionRecord record = mock(VersionRecord.class);
+            when(record.id()).thenReturn(commitId);
+            records.add(record);
+        }
+        when(versionAttributes.history().records()).thenReturn(records);
+    }
+}
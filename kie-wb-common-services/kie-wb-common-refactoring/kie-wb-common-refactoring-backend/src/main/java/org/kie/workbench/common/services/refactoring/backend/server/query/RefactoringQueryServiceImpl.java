@@ -23,9 +23,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.function.IntFunction;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -59,6 +57,11 @@ import org.uberfire.paging.PageResponse;
 @ApplicationScoped
 public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
+    //Page size requesting every hit after the start index
+    private static final int ALL_HITS = -1;
+    //Hit limit understood by the index provider as "return every match"
+    private static final int NO_LIMIT = 0;
+
     private Logger logger = LoggerFactory.getLogger(RefactoringQueryServiceImpl.class);
 
     private MetadataConfig config;
@@ -166,12 +169,9 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         List<KObject> kObjects
                 = search(query,
                          sort,
-                         () -> (startIndex),
-                         // start index of docs to get
-                         (numHits) -> (numHits - startIndex > pageSize ? pageSize : numHits - startIndex),
-                         request.distinctResults()
-                         // num docs to add to response
-        );
+                         startIndex,
+                         pageSize,
+                         request.distinctResults());
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -202,12 +202,9 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final List<KObject> kObjects
                 = search(query,
                          sort,
-                         () -> (0),
-                         // start index of docs to get
-                         (numHits) -> (numHits),
-                         false
-                         // num docs to add to response
-        );
+                         0,
+                         ALL_HITS,
+                         false);
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -217,10 +214,18 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         }
     }
 
+    /**
+     * Searches the index for the window [startIndex, startIndex + pageSize) of the (optionally distinct) hits.
+     * The window is pushed down to the index provider as a hit limit, so Lucene only collects and materializes
+     * the top startIndex + pageSize documents instead of every match. When distinct results are requested the
+     * limit is grown until either enough unique hits fill the window or the index has no more matches.
+     * @param startIndex index of the first hit to return
+     * @param pageSize maximum number of hits to return, or {@link #ALL_HITS} to return every hit after startIndex
+     */
     private List<KObject> search(final Query query,
                                  final Sort sort,
-                                 final Supplier<Integer> startIndexSupplier,
-                                 final IntFunction<Integer> numOfHitsToReturnSupplier,
+                                 final int startIndex,
+                                 final int pageSize,
                                  final boolean distinct,
                                  final ClusterSegment... clusterSegments) {
 
@@ -229,19 +234,35 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                     .map(clusterSegment -> clusterSegment.getClusterId())
                     .collect(Collectors.toList());
 
-            List<KObject> found = config.getIndexProvider().findByQuery(indices,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
+            if (pageSize == 0) {
+                return Collections.emptyList();
+            }
 
-            if (distinct) {
-                found = distinct(found);
+            final long windowEnd = (long) startIndex + pageSize;
+            final int required = (pageSize == ALL_HITS || windowEnd > Integer.MAX_VALUE) ? NO_LIMIT : (int) windowEnd;
+
+            int limit = required;
+            List<KObject> found;
+            while (true) {
+                final List<KObject> hits = config.getIndexProvider().findByQuery(indices,
+                                                                                 query,
+                                                                                 sort,
+                                                                                 limit);
+                found = distinct ? distinct(hits) : hits;
+
+                if (limit == NO_LIMIT || hits.size() < limit || found.size() >= required) {
+                    break;
+                }
+                //Duplicates collapsed some of the hits, widen the window and try again
+                limit = limit > Integer.MAX_VALUE / 2 ? NO_LIMIT : limit * 2;
             }
-            final int startIndex = startIndexSupplier.get();
-            final int numOfHitsToReturn = numOfHitsToReturnSupplier.apply(found.size());
 
-            return found.subList(startIndex,
-                                 startIndex + numOfHitsToReturn);
+            final int fromIndex = Math.min(startIndex,
+                                           found.size());
+            final int toIndex = required == NO_LIMIT ? found.size() : Math.min(required,
+                                                                                 found.size());
+            return found.subList(fromIndex,
+                                 toIndex);
         } catch (
                 final Exception ex)
 
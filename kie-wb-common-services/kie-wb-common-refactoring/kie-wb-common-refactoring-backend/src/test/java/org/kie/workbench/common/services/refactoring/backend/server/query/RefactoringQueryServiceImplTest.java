@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.paging.PageResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RefactoringQueryServiceImplTest {
+
+    private static final String QUERY_NAME = "query";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private MetadataConfig config;
+
+    @Mock
+    private NamedQueries namedQueries;
+
+    @Mock
+    private NamedQuery namedQuery;
+
+    @Mock
+    private ResponseBuilder responseBuilder;
+
+    @Mock
+    private Query query;
+
+    @Captor
+    private ArgumentCaptor<List<KObject>> kObjectsCaptor;
+
+    private RefactoringQueryServiceImpl service;
+
+    @Before
+    public void setUp() {
+        when(namedQueries.findNamedQuery(QUERY_NAME)).thenReturn(namedQuery);
+        when(namedQuery.toQuery(any())).thenReturn(query);
+        when(namedQuery.getSortOrder()).thenReturn(Sort.INDEXORDER);
+
+        service = new RefactoringQueryServiceImpl(config,
+                                                  namedQueries);
+        service.init();
+    }
+
+    @Test
+    public void testPageIsPushedDownAsHitLimit() {
+        when(namedQuery.getResponseBuilder()).thenReturn(responseBuilder);
+        final List<KObject> hits = kObjects(30);
+        when(config.getIndexProvider().findByQuery(anyList(),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(30))).thenReturn(hits);
+
+        service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                 Collections.emptySet(),
+                                                 10,
+                                                 20));
+
+        verify(responseBuilder).buildResponse(eq(20),
+                                              eq(10),
+                                              kObjectsCaptor.capture());
+        assertEquals(hits.subList(10,
+                                  30),
+                     kObjectsCaptor.getValue());
+        verify(config.getIndexProvider(),
+               times(1)).findByQuery(anyList(),
+                                     any(Query.class),
+                                     any(Sort.class),
+                                     anyInt());
+    }
+
+    @Test
+    public void testPageBeyondLastHit() {
+        when(config.getIndexProvider().findByQuery(anyList(),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(30))).thenReturn(kObjects(5));
+
+        final PageResponse<RefactoringPageRow> response = service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                                                                   Collections.emptySet(),
+                                                                                                   10,
+                                                                                                   20));
+
+        assertTrue(response.getPageRowList().isEmpty());
+    }
+
+    @Test
+    public void testDistinctPageWidensHitLimit() {
+        when(namedQuery.getResponseBuilder()).thenReturn(responseBuilder);
+        //Every document indexed twice, as happens in a cluster
+        final List<KObject> duplicated = new ArrayList<>();
+        for (KObject kObject : keyedKObjects(10)) {
+            duplicated.add(kObject);
+            duplicated.add(kObject);
+        }
+        when(config.getIndexProvider().findByQuery(anyList(),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(10))).thenReturn(duplicated.subList(0,
+                                                                                         10));
+        when(config.getIndexProvider().findByQuery(anyList(),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(20))).thenReturn(duplicated.subList(0,
+                                                                                         20));
+
+        service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                 Collections.emptySet(),
+                                                 5,
+                                                 5,
+                                                 true));
+
+        verify(responseBuilder).buildResponse(eq(5),
+                                              eq(5),
+                                              kObjectsCaptor.capture());
+        assertEquals(5,
+                     kObjectsCaptor.getValue().size());
+        assertEquals("key5",
+                     kObjectsCaptor.getValue().get(0).getKey());
+        assertEquals("key9",
+                     kObjectsCaptor.getValue().get(4).getKey());
+    }
+
+    private List<KObject> kObjects(final int count) {
+        final List<KObject> kObjects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            kObjects.add(mock(KObject.class));
+        }
+        return kObjects;
+    }
+
+    private List<KObject> keyedKObjects(final int count) {
+        final List<KObject> kObjects = kObjects(count);
+        for (int i = 0; i < count; i++) {
+            when(kObjects.get(i).getClusterId()).thenReturn("cluster");
+            when(kObjects.get(i).getKey()).thenReturn("key" + i);
+        }
+        return kObjects;
+    }
+}
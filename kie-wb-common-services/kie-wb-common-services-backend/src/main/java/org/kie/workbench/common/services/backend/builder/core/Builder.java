@@ -31,6 +31,7 @@ import java.util.function.Predicate;
 
 import org.appformer.maven.support.DependencyFilter;
 import org.appformer.maven.support.PomModel;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.compiler.kie.builder.impl.KieContainerImpl;
@@ -76,6 +77,8 @@ import org.uberfire.java.nio.file.Files;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.workbench.events.ResourceChange;
 import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
 import static org.kie.workbench.common.services.backend.builder.core.BaseFileNameResolver.getBaseFileName;
@@ -91,6 +94,17 @@ public class Builder implements Serializable {
     private final static String ERROR_CLASS_NOT_FOUND = "Definition of class \"{0}\" was not found.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
+    //Time in milliseconds the changes saved together wait for further changes to be built in a single batch
+    static final String INCREMENTAL_BUILD_WINDOW = "org.kie.build.incremental.window";
+    static final long DEFAULT_INCREMENTAL_BUILD_WINDOW = 50;
+
+    //Footprint of a built empty module and ratio of the knowledge bases and class loaders to the built module files.
+    //These are estimates, see estimateRetainedBytes on how to calibrate them for an installation.
+    static final String BUILDER_BYTES = "org.kie.builder.cache.weight.base";
+    static final long DEFAULT_BUILDER_BYTES = 1024 * 1024;
+    static final String RETAINED_BYTES_PER_MODULE_BYTE = "org.kie.builder.cache.weight.factor";
+    static final long DEFAULT_RETAINED_BYTES_PER_MODULE_BYTE = 4;
+
     private final GAV projectGAV;
     private final KieServices kieServices;
     private final KieFileSystem kieFileSystem;
@@ -110,10 +124,14 @@ public class Builder implements Serializable {
     private final DirectoryStream.Filter<Path> dotFileFilter = new DotFileFilter();
     private final Set<String> javaResources = new HashSet<String>();
     private final Predicate<String> classFilter;
+    private final IncrementalBuildCoalescer incrementalBuildCoalescer;
     private KieBuilder kieBuilder;
     private LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache;
     private LRUPomModelCache pomModelCache;
     private PackageNameWhiteListService packageNameWhiteListService;
+    private ClassVerificationCache classVerificationCache;
+    private Runnable retainedStateListener = () -> {
+    };
 
     public Builder(final Module project,
                    final IOService ioService,
@@ -126,6 +144,32 @@ public class Builder implements Serializable {
                    final Predicate<String> classFilter,
                    final KieBuilder kieBuilder,
                    final KieFileSystem kieFileSystem) {
+        this(project,
+             ioService,
+             moduleService,
+             importsService,
+             buildValidationHelpers,
+             dependenciesClassLoaderCache,
+             pomModelCache,
+             packageNameWhiteListService,
+             classFilter,
+             null,
+             kieBuilder,
+             kieFileSystem);
+    }
+
+    public Builder(final Module project,
+                   final IOService ioService,
+                   final KieModuleService moduleService,
+                   final ProjectImportsService importsService,
+                   final List<BuildValidationHelper> buildValidationHelpers,
+                   final LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache,
+                   final LRUPomModelCache pomModelCache,
+                   final PackageNameWhiteListService packageNameWhiteListService,
+                   final Predicate<String> classFilter,
+                   final ClassVerificationCache classVerificationCache,
+                   final KieBuilder kieBuilder,
+                   final KieFileSystem kieFileSystem) {
         this.project = project;
         this.ioService = ioService;
         this.moduleService = moduleService;
@@ -142,6 +186,11 @@ public class Builder implements Serializable {
         this.kieFileSystem = kieFileSystem;
         this.dependenciesClassLoaderCache = dependenciesClassLoaderCache;
         this.pomModelCache = pomModelCache;
+        this.classVerificationCache = classVerificationCache;
+        this.incrementalBuildCoalescer = new IncrementalBuildCoalescer(this::buildCoalescedChanges,
+                                                                       () -> new IncrementalBuildResults(projectGAV),
+                                                                       Long.getLong(INCREMENTAL_BUILD_WINDOW,
+                                                                                    DEFAULT_INCREMENTAL_BUILD_WINDOW));
 
         DirectoryStream<Path> directoryStream = Files.newDirectoryStream(projectRoot);
         visitPaths(directoryStream);
@@ -165,6 +214,29 @@ public class Builder implements Serializable {
              pomModelCache,
              packageNameWhiteListService,
              classFilter,
+             null);
+    }
+
+    public Builder(final Module project,
+                   final IOService ioService,
+                   final KieModuleService moduleService,
+                   final ProjectImportsService importsService,
+                   final List<BuildValidationHelper> buildValidationHelpers,
+                   final LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache,
+                   final LRUPomModelCache pomModelCache,
+                   final PackageNameWhiteListService packageNameWhiteListService,
+                   final Predicate<String> classFilter,
+                   final ClassVerificationCache classVerificationCache) {
+        this(project,
+             ioService,
+             moduleService,
+             importsService,
+             buildValidationHelpers,
+             dependenciesClassLoaderCache,
+             pomModelCache,
+             packageNameWhiteListService,
+             classFilter,
+             classVerificationCache,
              null,
              KieServices.Factory.get().newKieFileSystem());
     }
@@ -182,12 +254,13 @@ public class Builder implements Serializable {
                            pomModelCache,
                            packageNameWhiteListService,
                            classFilter,
+                           classVerificationCache,
                            kieBuilder,
                            kieFileSystemClone);
     }
 
     private KieFileSystem kieFileSystemClone() {
-        return ((KieFileSystemImpl) this.kieFileSystem).clone();
+        return getKieFileSystemImpl().clone();
     }
 
     private KieBuilderImpl kieBuilderClone(final KieFileSystem kieFileSystemClone) {
@@ -268,6 +341,7 @@ public class Builder implements Serializable {
 
         results.addAllBuildMessages(verifyClasses(kieModuleMetaData));
 
+        retainedStateListener.run();
         return results;
     }
 
@@ -288,8 +362,13 @@ public class Builder implements Serializable {
         //At the end we are interested to ensure that external .jar files referenced as dependencies don't have
         // referential inconsistencies. We will at least provide a basic algorithm to ensure that if an external class
         // X references another external class Y, Y is also accessible by the class loader.
-        return new ClassVerifier(kieModuleMetaData,
-                                 getTypeSourceResolver(kieModuleMetaData)).verify(getWhiteList(kieModuleMetaData));
+        final ClassVerifier classVerifier = classVerificationCache != null ?
+                new ClassVerifier(kieModuleMetaData,
+                                  getTypeSourceResolver(kieModuleMetaData),
+                                  classVerificationCache) :
+                new ClassVerifier(kieModuleMetaData,
+                                  getTypeSourceResolver(kieModuleMetaData));
+        return classVerifier.verify(getWhiteList(kieModuleMetaData));
     }
 
     private WhiteList getWhiteList(final KieModuleMetaData kieModuleMetaData) {
@@ -321,8 +400,8 @@ public class Builder implements Serializable {
         // This validation prevents faulty update resource operation that may come during save and rename operation
         // For more information see https://github.com/kiegroup/kie-wb-common/pull/3277
         if (ioService.exists(resource)) {
-            results = addResource(resource,
-                                  ioService.newInputStream(resource));
+            results = incrementalBuildCoalescer.submit(Paths.convert(resource),
+                                                       new ResourceUpdated(""));
         }
 
         return results;
@@ -381,6 +460,11 @@ public class Builder implements Serializable {
         checkNotNull("resource",
                      resource);
 
+        return incrementalBuildCoalescer.submit(Paths.convert(resource),
+                                                new ResourceDeleted(""));
+    }
+
+    private IncrementalBuildResults doDeleteResource(final Path resource) {
         checkAFullBuildHasBeenPerformed();
 
         //Resource Type might have been validated "externally" (i.e. it's not covered by Kie). Clear any errors.
@@ -427,6 +511,31 @@ public class Builder implements Serializable {
                            inputStream);
     }
 
+    /**
+     * Builds the changes coalesced by the {@link IncrementalBuildCoalescer}. A single change is built exactly as if it
+     * had been applied on its own.
+     */
+    private IncrementalBuildResults buildCoalescedChanges(final Map<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> changes) {
+        if (changes.size() != 1) {
+            return applyBatchResourceChanges(changes);
+        }
+
+        final Map.Entry<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> change = changes.entrySet().iterator().next();
+        final Path resource = Paths.convert(change.getKey());
+        switch (change.getValue().iterator().next().getType()) {
+            case DELETE:
+            case RENAME:
+                return doDeleteResource(resource);
+            default:
+                //The resource could have been removed while the change was waiting to be built
+                if (!ioService.exists(resource)) {
+                    return new IncrementalBuildResults(projectGAV);
+                }
+                return addResource(resource,
+                                   ioService.newInputStream(resource));
+        }
+    }
+
     public IncrementalBuildResults applyBatchResourceChanges(final Map<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> changes) {
         checkNotNull("changes",
                      changes);
@@ -631,6 +740,52 @@ public class Builder implements Serializable {
         return kieBuilder != null;
     }
 
+    /**
+     * Estimates the memory retained by this Builder. The files of the built module, holding the compiled classes and
+     * the resources, are counted as they are; the knowledge bases and class loaders built from them are estimated in
+     * proportion to them, on top of a fixed footprint of the builder itself. Before the first build only the resources
+     * are counted. It reads every file of the module, so it is only called when the builder is cached and after full
+     * builds.
+     * <p>
+     * The footprint and the ratio are not measured at runtime. To calibrate them for an installation, compare the
+     * weight of the {@link LRUBuilderCache} with the retained size of its Builders in a heap dump, taken after building
+     * a few representative modules, and set the {@value #BUILDER_BYTES} and {@value #RETAINED_BYTES_PER_MODULE_BYTE}
+     * system properties accordingly.
+     */
+    public long estimateRetainedBytes() {
+        long moduleBytes = 0;
+        synchronized (kieFileSystem) {
+            final MemoryFileSystem memoryFileSystem = getKieFileSystemImpl().getMfs();
+            for (final String fileName : memoryFileSystem.getFileNames()) {
+                final byte[] bytes = memoryFileSystem.getBytes(fileName);
+                moduleBytes += bytes != null ? bytes.length : 0;
+            }
+            if (isBuilt()) {
+                final InternalKieModule kieModule = (InternalKieModule) ((InternalKieBuilder) kieBuilder).getKieModuleIgnoringErrors();
+                for (final String fileName : kieModule.getFileNames()) {
+                    final byte[] bytes = kieModule.getBytes(fileName);
+                    moduleBytes += bytes != null ? bytes.length : 0;
+                }
+            }
+        }
+        return Long.getLong(BUILDER_BYTES,
+                            DEFAULT_BUILDER_BYTES) + Long.getLong(RETAINED_BYTES_PER_MODULE_BYTE,
+                                                                  DEFAULT_RETAINED_BYTES_PER_MODULE_BYTE) * moduleBytes;
+    }
+
+    /**
+     * Sets the listener notified once a full build has updated the state retained by this Builder, so its cache can
+     * weigh it again. Incremental builds are not notified, weighing the module on each of them would cost as much as
+     * the module size, they are accounted for by the next full build.
+     */
+    void setRetainedStateListener(final Runnable retainedStateListener) {
+        this.retainedStateListener = retainedStateListener;
+    }
+
+    private KieFileSystemImpl getKieFileSystemImpl() {
+        return (KieFileSystemImpl) kieFileSystem;
+    }
+
     private void visitPaths(final DirectoryStream<Path> directoryStream) {
         for (final Path path : directoryStream) {
             if (Files.isDirectory(path)) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * A simple LRU cache of the external classes verified without errors, grouped by the dependency artifact providing
+ * them and the set of dependencies they were verified against, see {@link DependencyArtifacts}. A verification
+ * resolves classes of other artifacts as well, so any change of the module dependencies discards its verified classes,
+ * while modules with the same dependencies share them.
+ * <p>
+ * Failed verifications are not cached, so their warnings are reported on every build.
+ * <p>
+ * The cache also owns the executor the classes are verified on, which is shut down with the cache.
+ */
+@ApplicationScoped
+public class ClassVerificationCache {
+
+    protected static final String VERIFICATION_CACHE_SIZE = "org.kie.builder.verification.cache.size";
+    protected static final int DEFAULT_VERIFICATION_CACHE_SIZE = 500;
+    protected static final String VERIFICATION_THREADS = "org.kie.builder.verification.threads";
+
+    private final Map<String, Set<String>> entries;
+    private final Map<String, String> artifactKeys;
+    private ExecutorService executor;
+
+    public ClassVerificationCache() {
+        this(Integer.getInteger(VERIFICATION_CACHE_SIZE,
+                                DEFAULT_VERIFICATION_CACHE_SIZE));
+    }
+
+    public ClassVerificationCache(final int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Set<String>>(16,
+                                                                                         0.75f,
+                                                                                         true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Set<String>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.artifactKeys = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the key of the dependency artifact the given dependencies class loader loads a class from.
+     * @param dependenciesClassLoader The class loader holding the module dependencies.
+     * @param fqcn The fully qualified class name.
+     * @return The artifact key or null if the class is not provided by a jar.
+     */
+    public String getArtifactKey(final ClassLoader dependenciesClassLoader,
+                                 final String fqcn) {
+        if (dependenciesClassLoader == null) {
+            return null;
+        }
+        final URL resource = dependenciesClassLoader.getResource(fqcn.replace('.',
+                                                                              '/') + ".class");
+        final File jar = resource != null ? DependencyArtifacts.toJarFile(resource) : null;
+        if (jar == null) {
+            return null;
+        }
+        return getArtifactKey(jar);
+    }
+
+    /**
+     * Returns the key of the set of dependencies held by the given class loader, the classes verified against them
+     * are only reused by modules with the same dependencies.
+     * @param dependenciesClassLoader The class loader holding the module dependencies.
+     * @return The dependencies key or null if the dependencies are not known.
+     */
+    public String getDependenciesKey(final ClassLoader dependenciesClassLoader) {
+        final List<File> jars = DependencyArtifacts.getJars(dependenciesClassLoader);
+        if (jars == null) {
+            return null;
+        }
+        final List<String> keys = new ArrayList<>();
+        for (final File jar : jars) {
+            keys.add(getArtifactKey(jar));
+        }
+        Collections.sort(keys);
+        return DependencyArtifacts.sha1(String.join(",",
+                                                    keys).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the key of the given verified class within the given dependencies.
+     */
+    public static String toVerificationKey(final String artifactKey,
+                                           final String dependenciesKey) {
+        return artifactKey != null && dependenciesKey != null ? artifactKey + "|" + dependenciesKey : null;
+    }
+
+    private String getArtifactKey(final File jar) {
+        final String fingerprint = jar.getAbsolutePath() + "#" + jar.length() + "#" + jar.lastModified();
+        final String artifactKey = artifactKeys.get(fingerprint);
+        if (artifactKey != null) {
+            return artifactKey;
+        }
+        //The checksum is computed outside of the map, so reading a large jar does not block other keys
+        final String computedKey = DependencyArtifacts.toArtifactKey(jar);
+        final String previousKey = artifactKeys.putIfAbsent(fingerprint,
+                                                            computedKey);
+        return previousKey != null ? previousKey : computedKey;
+    }
+
+    public boolean isVerified(final String verificationKey,
+                              final String fqcn) {
+        final Set<String> verifiedClasses = entries.get(verificationKey);
+        return verifiedClasses != null && verifiedClasses.contains(fqcn);
+    }
+
+    public void setVerified(final String verificationKey,
+                            final String fqcn) {
+        synchronized (entries) {
+            entries.computeIfAbsent(verificationKey,
+                                    key -> ConcurrentHashMap.newKeySet())
+                    .add(fqcn);
+        }
+    }
+
+    /**
+     * Returns the executor to verify classes on, which is created on first use.
+     */
+    public synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final int threads = Integer.getInteger(VERIFICATION_THREADS,
+                                                   Runtime.getRuntime().availableProcessors());
+            executor = Executors.newFixedThreadPool(Math.max(1,
+                                                             threads),
+                                                    runnable -> {
+                                                        final Thread thread = new Thread(runnable,
+                                                                                         "kie-class-verifier");
+                                                        thread.setDaemon(true);
+                                                        return thread;
+                                                    });
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        invalidateCache();
+    }
+
+    public void invalidateCache() {
+        entries.clear();
+        artifactKeys.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
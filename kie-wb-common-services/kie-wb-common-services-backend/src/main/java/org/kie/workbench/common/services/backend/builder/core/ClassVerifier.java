@@ -18,6 +18,8 @@ package org.kie.workbench.common.services.backend.builder.core;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.kie.scanner.KieModuleMetaData;
@@ -37,30 +39,99 @@ public class ClassVerifier {
 
     private final TypeSourceResolver typeSourceResolver;
     private final KieModuleMetaData kieModuleMetaData;
-
-    private final List<BuildMessage> buildMessages = new ArrayList<BuildMessage>();
+    private final ClassVerificationCache cache;
+    private final ExecutorService executor;
 
     public ClassVerifier(final KieModuleMetaData kieModuleMetaData,
                          final TypeSourceResolver typeSourceResolver) {
+        this(kieModuleMetaData,
+             typeSourceResolver,
+             null,
+             null);
+    }
+
+    public ClassVerifier(final KieModuleMetaData kieModuleMetaData,
+                         final TypeSourceResolver typeSourceResolver,
+                         final ClassVerificationCache cache) {
+        this(kieModuleMetaData,
+             typeSourceResolver,
+             cache,
+             cache.getExecutor());
+    }
+
+    public ClassVerifier(final KieModuleMetaData kieModuleMetaData,
+                         final TypeSourceResolver typeSourceResolver,
+                         final ClassVerificationCache cache,
+                         final ExecutorService executor) {
+        //Classes are verified on the calling thread when no executor is given, and verified again when no cache is given
         this.kieModuleMetaData = kieModuleMetaData;
         this.typeSourceResolver = typeSourceResolver;
+        this.cache = cache;
+        this.executor = executor;
     }
 
     public List<BuildMessage> verify(WhiteList whiteList) {
+        final long startTime = System.currentTimeMillis();
+        final ClassLoader dependenciesClassLoader = getDependenciesClassLoader();
+        final String dependenciesKey = cache != null ? cache.getDependenciesKey(dependenciesClassLoader) : null;
+        final List<CompletableFuture<String>> outcomes = new ArrayList<>();
+        int cacheHits = 0;
 
         for (final String packageName : kieModuleMetaData.getPackages()) {
             if (whiteList.contains(packageName)) {
                 for (final String className : kieModuleMetaData.getClasses(packageName)) {
-                    verifyClass(packageName,
-                                className);
+                    final String fqcn = toFQCN(packageName, className);
+                    final String verificationKey = dependenciesKey != null ?
+                            ClassVerificationCache.toVerificationKey(cache.getArtifactKey(dependenciesClassLoader,
+                                                                                          fqcn),
+                                                                     dependenciesKey) :
+                            null;
+                    if (verificationKey != null && cache.isVerified(verificationKey,
+                                                                    fqcn)) {
+                        cacheHits++;
+                    } else if (executor != null) {
+                        outcomes.add(CompletableFuture.supplyAsync(() -> verifyClass(packageName,
+                                                                                     className,
+                                                                                     verificationKey),
+                                                                   executor));
+                    } else {
+                        outcomes.add(CompletableFuture.completedFuture(verifyClass(packageName,
+                                                                                   className,
+                                                                                   verificationKey)));
+                    }
                 }
             }
         }
+
+        final List<BuildMessage> buildMessages = new ArrayList<BuildMessage>();
+        for (final CompletableFuture<String> outcome : outcomes) {
+            final String msg = outcome.join();
+            if (msg != null) {
+                buildMessages.add(makeWarningMessage(msg));
+            }
+        }
+
+        logger.debug("Verified {} classes ({} from cache) in {} ms.",
+                     outcomes.size() + cacheHits,
+                     cacheHits,
+                     System.currentTimeMillis() - startTime);
         return buildMessages;
     }
 
-    private void verifyClass(final String packageName,
-                             final String className) {
+    private ClassLoader getDependenciesClassLoader() {
+        //By construction the parent of the KieModuleMetaData class loader holds the module dependencies.
+        //See LRUModuleDependenciesClassLoaderCache.buildClassLoader
+        final ClassLoader classLoader = kieModuleMetaData.getClassLoader();
+        return classLoader != null ? classLoader.getParent() : null;
+    }
+
+    /**
+     * Verifies a single class.
+     * @return The warning message if the verification failed, otherwise null.
+     */
+    private String verifyClass(final String packageName,
+                               final String className,
+                               final String verificationKey) {
 
         try {
             final Class clazz = kieModuleMetaData.getClass(packageName,
@@ -68,20 +139,34 @@ public class ClassVerifier {
             if (clazz != null) {
                 if (TypeSource.JAVA_DEPENDENCY == typeSourceResolver.getTypeSource(clazz)) {
                     verifyExternalClass(clazz);
+                    //Only classes provided by the dependencies remain valid while the dependencies do not change
+                    if (verificationKey != null) {
+                        cache.setVerified(verificationKey,
+                                          toFQCN(packageName, className));
+                    }
                 }
             } else {
                 logger.warn(MessageFormat.format(ERROR_EXTERNAL_CLASS_VERIFICATION,
                                                  toFQCN(packageName, className)));
             }
         } catch (Throwable e) {
-            final String msg = MessageFormat.format(ERROR_EXTERNAL_CLASS_VERIFICATION,
-                                                    toFQCN(packageName, className),
-                                                    e.getMessage());
-
-            logger.warn(msg);
-            logger.debug("This state is usually encountered when the Project references a class not on the classpath; e.g. in a Maven 'provided' scope or 'optional' dependency.", e);
-            buildMessages.add(makeWarningMessage(msg));
+            return toWarning(packageName,
+                             className,
+                             e);
         }
+        return null;
+    }
+
+    private String toWarning(final String packageName,
+                             final String className,
+                             final Throwable e) {
+        final String msg = MessageFormat.format(ERROR_EXTERNAL_CLASS_VERIFICATION,
+                                                toFQCN(packageName, className),
+                                                e.getMessage());
+
+        logger.warn(msg);
+        logger.debug("This state is usually encountered when the Project references a class not on the classpath; e.g. in a Maven 'provided' scope or 'optional' dependency.", e);
+        return msg;
     }
 
     private String toFQCN(final String packageName,
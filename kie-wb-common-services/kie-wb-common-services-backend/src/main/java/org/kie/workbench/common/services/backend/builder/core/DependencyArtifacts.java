@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Identifies the dependency artifacts of a module. An artifact is identified by its GAV, as found in its
+ * pom.properties, and the SHA-1 checksum of its jar, so a redeployed SNAPSHOT is told apart from the one it replaces.
+ */
+public final class DependencyArtifacts {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyArtifacts.class);
+
+    private static final String JAR_URL_SEPARATOR = "!/";
+    private static final String POM_PROPERTIES = "pom.properties";
+    private static final String MAVEN_METADATA_PATH = "META-INF/maven/";
+    private static final String SHA1_EXTENSION = ".sha1";
+
+    private DependencyArtifacts() {
+    }
+
+    /**
+     * Returns the jars a class loader holding the module dependencies loads classes from.
+     * @param dependenciesClassLoader The class loader holding the module dependencies.
+     * @return The jars or null if the class loader also loads classes from directories, or from other locations.
+     */
+    public static List<File> getJars(final ClassLoader dependenciesClassLoader) {
+        if (!(dependenciesClassLoader instanceof URLClassLoader)) {
+            return null;
+        }
+        final List<File> jars = new ArrayList<>();
+        for (final URL url : ((URLClassLoader) dependenciesClassLoader).getURLs()) {
+            //Classes of a directory may change at any time
+            final File file = toFile(url);
+            if (file == null || !file.isFile()) {
+                return null;
+            }
+            jars.add(file);
+        }
+        return jars;
+    }
+
+    /**
+     * Returns the jar a class, or resource, is loaded from.
+     * @param resource The URL of the class, or resource, within its jar.
+     * @return The jar or null if the resource is not loaded from a local jar.
+     */
+    public static File toJarFile(final URL resource) {
+        if (!"jar".equals(resource.getProtocol())) {
+            return null;
+        }
+        final String location = resource.getPath();
+        final int separator = location.indexOf(JAR_URL_SEPARATOR);
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            final URI jarUri = new URI(location.substring(0,
+                                                          separator));
+            return "file".equals(jarUri.getScheme()) ? new File(jarUri) : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            logger.debug("Unable to locate the jar of {}.",
+                         resource,
+                         e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the file of a local URL.
+     * @param url The URL, such as the code source of a class.
+     * @return The file or null if the URL is not a local file.
+     */
+    public static File toFile(final URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            logger.debug("Unable to locate the dependency {}.",
+                         url,
+                         e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the key of an artifact, made of its GAV and of the SHA-1 checksum of its jar. The checksum is read from
+     * the checksum file Maven stores along with the jar when it is newer than the jar, otherwise computed.
+     * @param jar The jar of the artifact.
+     * @return The artifact key.
+     */
+    public static String toArtifactKey(final File jar) {
+        return readGAV(jar) + "@" + readChecksum(jar);
+    }
+
+    public static String sha1(final byte[] content) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readGAV(final File jar) {
+        try (final JarFile jarFile = new JarFile(jar)) {
+            final Enumeration<JarEntry> jarEntries = jarFile.entries();
+            while (jarEntries.hasMoreElements()) {
+                final JarEntry entry = jarEntries.nextElement();
+                if (entry.getName().startsWith(MAVEN_METADATA_PATH) && entry.getName().endsWith(POM_PROPERTIES)) {
+                    final Properties properties = new Properties();
+                    try (final InputStream in = jarFile.getInputStream(entry)) {
+                        properties.load(in);
+                    }
+                    final String artifactId = properties.getProperty("artifactId");
+                    //Shaded jars may hold the metadata of several artifacts, prefer the one the jar is named after
+                    if (artifactId != null && jar.getName().startsWith(artifactId)) {
+                        return properties.getProperty("groupId") + ":" + artifactId + ":" + properties.getProperty("version");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to read the Maven metadata of {}.",
+                         jar,
+                         e);
+        }
+        return jar.getName();
+    }
+
+    private static String readChecksum(final File jar) {
+        //Jars resolved from a Maven repository come along with their checksum, which is stale if the jar was installed
+        //locally afterwards
+        final File checksumFile = new File(jar.getPath() + SHA1_EXTENSION);
+        try {
+            if (checksumFile.isFile() && checksumFile.lastModified() >= jar.lastModified()) {
+                final String checksum = new String(Files.readAllBytes(checksumFile.toPath()),
+                                                   StandardCharsets.UTF_8).trim();
+                if (!checksum.isEmpty()) {
+                    return checksum.split("\\s+")[0];
+                }
+            }
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            try (final InputStream in = Files.newInputStream(jar.toPath())) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer,
+                                  0,
+                                  read);
+                }
+            }
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("Unable to compute the checksum of {}, it will be identified by its size and modification time.",
+                         jar,
+                         e);
+            return jar.length() + "#" + jar.lastModified();
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : bytes) {
+            hex.append(String.format("%02x",
+                                     b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceChange;
+
+/**
+ * Merges the incremental changes submitted concurrently for one module into batches. The first caller of a batch waits
+ * for any running build, and for the coalescing window if other changes were queued meanwhile, before building every
+ * queued change in a single batch on behalf of all the waiting callers. An isolated change is built right away. A change to a resource supersedes any queued change to the same resource,
+ * so intermediate versions of a resource saved repeatedly are never built.
+ * <p>
+ * Every message of a batch is returned to exactly one caller, so callers publishing their results do not publish the
+ * same message twice: the messages of a resource go to the caller of its latest change, and the messages of resources
+ * outside the batch, or without a resource, go to the caller that built the batch.
+ */
+class IncrementalBuildCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalBuildCoalescer.class);
+
+    private final Function<Map<Path, Collection<ResourceChange>>, IncrementalBuildResults> batchBuilder;
+    private final Supplier<IncrementalBuildResults> resultsFactory;
+    private final long windowMillis;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private Map<Path, Collection<ResourceChange>> pendingChanges = new LinkedHashMap<>();
+    private Map<Path, Object> pendingCallers = new HashMap<>();
+    private CompletableFuture<BatchResults> pendingResults = new CompletableFuture<>();
+
+    IncrementalBuildCoalescer(final Function<Map<Path, Collection<ResourceChange>>, IncrementalBuildResults> batchBuilder) {
+        this(batchBuilder,
+             IncrementalBuildResults::new,
+             0);
+    }
+
+    IncrementalBuildCoalescer(final Function<Map<Path, Collection<ResourceChange>>, IncrementalBuildResults> batchBuilder,
+                              final Supplier<IncrementalBuildResults> resultsFactory,
+                              final long windowMillis) {
+        this.batchBuilder = batchBuilder;
+        this.resultsFactory = resultsFactory;
+        this.windowMillis = windowMillis;
+    }
+
+    IncrementalBuildResults submit(final Path resource,
+                                   final ResourceChange change) {
+        final Object caller = new Object();
+        final CompletableFuture<BatchResults> batchResults;
+        synchronized (this) {
+            pendingChanges.remove(resource);
+            pendingChanges.put(resource,
+                               Collections.singletonList(change));
+            pendingCallers.put(resource,
+                               caller);
+            batchResults = pendingResults;
+        }
+
+        buildLock.lock();
+        try {
+            if (!batchResults.isDone()) {
+                return buildPendingChanges(batchResults).getResults(caller,
+                                                                    true);
+            }
+        } finally {
+            buildLock.unlock();
+        }
+
+        try {
+            //The change was built along with the changes of another caller
+            return batchResults.join().getResults(caller,
+                                                  false);
+        } catch (CompletionException e) {
+            //Report the failure of the batch to every caller that contributed to it
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private BatchResults buildPendingChanges(final CompletableFuture<BatchResults> batchResults) {
+        awaitWindow();
+
+        final Map<Path, Collection<ResourceChange>> batch;
+        final Map<Path, Object> callers;
+        synchronized (this) {
+            batch = pendingChanges;
+            callers = pendingCallers;
+            pendingChanges = new LinkedHashMap<>();
+            pendingCallers = new HashMap<>();
+            pendingResults = new CompletableFuture<>();
+        }
+
+        if (batch.size() > 1) {
+            logger.debug("Building {} coalesced resource changes.",
+                         batch.size());
+        }
+
+        try {
+            final BatchResults results = new BatchResults(batchBuilder.apply(batch),
+                                                          callers);
+            batchResults.complete(results);
+            return results;
+        } catch (RuntimeException | Error e) {
+            batchResults.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void awaitWindow() {
+        if (windowMillis <= 0) {
+            return;
+        }
+        synchronized (this) {
+            //Only a burst of changes is expected to go on, so an isolated change is not delayed
+            if (pendingChanges.size() < 2) {
+                return;
+            }
+        }
+        try {
+            //Changes submitted meanwhile join the batch
+            TimeUnit.MILLISECONDS.sleep(windowMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class BatchResults {
+
+        private final IncrementalBuildResults results;
+        private final Map<Path, Object> callers;
+
+        private BatchResults(final IncrementalBuildResults results,
+                             final Map<Path, Object> callers) {
+            this.results = results;
+            this.callers = callers;
+        }
+
+        private IncrementalBuildResults getResults(final Object caller,
+                                                   final boolean builder) {
+            final IncrementalBuildResults callerResults = resultsFactory.get();
+            callerResults.addAllAddedMessages(filter(results.getAddedMessages(),
+                                                     caller,
+                                                     builder));
+            callerResults.addAllRemovedMessages(filter(results.getRemovedMessages(),
+                                                       caller,
+                                                       builder));
+            return callerResults;
+        }
+
+        private List<BuildMessage> filter(final List<BuildMessage> messages,
+                                          final Object caller,
+                                          final boolean builder) {
+            final List<BuildMessage> callerMessages = new ArrayList<>();
+            for (BuildMessage message : messages) {
+                final Object messageCaller = message.getPath() != null ? callers.get(message.getPath()) : null;
+                if (messageCaller == caller || (messageCaller == null && builder)) {
+                    callerMessages.add(message);
+                }
+            }
+            return callerMessages;
+        }
+    }
+}
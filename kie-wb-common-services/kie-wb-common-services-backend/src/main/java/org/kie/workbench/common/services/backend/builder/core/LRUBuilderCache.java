@@ -27,13 +27,13 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.backend.builder.JavaSourceFilter;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -46,10 +46,10 @@ import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Builders
+ * A simple LRU cache for Builders, weighed by the resources each Builder holds and weighed again after each build
  */
 @ApplicationScoped
-public class LRUBuilderCache extends LRUCache<Module, Builder> {
+public class LRUBuilderCache extends WeightedLRUCache<Module, Builder> {
     private static final Logger logger = LoggerFactory.getLogger(LRUBuilderCache.class);
 
     protected static final String BUILDER_CACHE_SIZE = "org.kie.builder.cache.size";
@@ -67,6 +67,7 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
     private LRUPomModelCache pomModelCache;
     private PackageNameWhiteListServiceImpl packageNameWhiteListService;
     private Instance<Predicate<String>> classFilterBeans;
+    private ClassVerificationCache classVerificationCache;
 
     public LRUBuilderCache() {
         //CDI proxy
@@ -80,8 +81,10 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
                            final @Named("LRUModuleDependenciesClassLoaderCache") LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache,
                            final @Named("LRUPomModelCache") LRUPomModelCache pomModelCache,
                            final PackageNameWhiteListService packageNameWhiteListService,
-                           final @JavaSourceFilter Instance<Predicate<String>> classFilterBeans) {
-        super(MAX_ENTRIES);
+                           final @JavaSourceFilter Instance<Predicate<String>> classFilterBeans,
+                           final ClassVerificationCache classVerificationCache) {
+        super(MAX_ENTRIES,
+              (module, builder) -> builder.estimateRetainedBytes());
         this.ioService = ioService;
         this.moduleService = moduleService;
         this.importsService = importsService;
@@ -90,6 +93,7 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         this.pomModelCache = pomModelCache;
         this.packageNameWhiteListService = (PackageNameWhiteListServiceImpl) packageNameWhiteListService;
         this.classFilterBeans = classFilterBeans;
+        this.classVerificationCache = classVerificationCache;
     }
 
     @PostConstruct
@@ -154,7 +158,12 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
                                   dependenciesClassLoaderCache,
                                   pomModelCache,
                                   packageNameWhiteListService,
-                                  createSingleClassFilterPredicate());
+                                  createSingleClassFilterPredicate(),
+                                  classVerificationCache);
+            final Builder cachedBuilder = builder;
+            //A built module retains much more memory than the resources the builder is first weighed with
+            builder.setRetainedStateListener(() -> reweigh(module,
+                                                           cachedBuilder));
 
             setEntry(module,
                      builder);
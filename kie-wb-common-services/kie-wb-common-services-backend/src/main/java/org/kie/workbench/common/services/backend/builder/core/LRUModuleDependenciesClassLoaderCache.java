@@ -16,21 +16,24 @@
 
 package org.kie.workbench.common.services.backend.builder.core;
 
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.net.URLClassLoader;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 
 @ApplicationScoped
 @Named("LRUModuleDependenciesClassLoaderCache")
 public class LRUModuleDependenciesClassLoaderCache
-        extends LRUCache<KieModule, ClassLoader> {
+        extends WeightedLRUCache<KieModule, ClassLoader> {
 
     private BuildInfoService buildInfoService;
 
@@ -39,9 +42,29 @@ public class LRUModuleDependenciesClassLoaderCache
 
     @Inject
     public LRUModuleDependenciesClassLoaderCache(BuildInfoService buildInfoService) {
+        super((module, classLoader) -> estimateRetainedBytes(classLoader));
         this.buildInfoService = buildInfoService;
     }
 
+    /**
+     * The classes loaded from the dependencies are estimated to retain as many bytes as the dependency jars take on disk.
+     */
+    static long estimateRetainedBytes(final ClassLoader classLoader) {
+        long bytes = 0;
+        if (classLoader instanceof URLClassLoader) {
+            for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                if ("file".equals(url.getProtocol())) {
+                    try {
+                        bytes += new File(url.toURI()).length();
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        //Dependency can not be weighed, ignore it
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
     protected void setBuildInfoService(final BuildInfoService buildInfoService) {
         this.buildInfoService = buildInfoService;
     }
@@ -22,10 +22,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.appformer.maven.support.PomModel;
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.model.Module;
 import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
@@ -33,7 +33,11 @@ import org.uberfire.backend.vfs.Path;
 @ApplicationScoped
 @Named("LRUPomModelCache")
 public class LRUPomModelCache
-        extends LRUCache<Module, PomModel> {
+        extends WeightedLRUCache<Module, PomModel> {
+
+    //Rough footprint of a parsed pom.xml and of each of its dependencies
+    private static final long POM_MODEL_BYTES = 4 * 1024;
+    private static final long DEPENDENCY_BYTES = 512;
 
     private KieModuleService moduleService;
 
@@ -43,6 +47,7 @@ public class LRUPomModelCache
 
     @Inject
     public LRUPomModelCache(final KieModuleService moduleService) {
+        super((module, pomModel) -> POM_MODEL_BYTES + DEPENDENCY_BYTES * pomModel.getDependencies().size());
         this.moduleService = moduleService;
     }
 
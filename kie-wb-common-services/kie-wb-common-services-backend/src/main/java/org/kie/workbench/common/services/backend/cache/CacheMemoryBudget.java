@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory budget shared by every {@link WeightedLRUCache}. The budget is read from the
+ * {@value #CACHE_MEMORY_BUDGET} system property, in bytes; when it is not set the caches are only bounded by their
+ * number of entries.
+ * <p>
+ * The budget keeps the access order of the entries of all the caches sharing it, so when it is exceeded the least
+ * recently used entries are evicted whichever cache holds them. The budget never takes the lock of a cache: evicted
+ * entries are handed over to their cache, which removes them on its next access or in the background.
+ */
+public class CacheMemoryBudget {
+
+    public static final String CACHE_MEMORY_BUDGET = "org.kie.cache.memory.budget";
+
+    private static final CacheMemoryBudget GLOBAL = new CacheMemoryBudget(Long.getLong(CACHE_MEMORY_BUDGET,
+                                                                                       0L));
+
+    private final long maxWeight;
+    private final Map<Entry, Entry> entries = new LinkedHashMap<>(16,
+                                                                  0.75f,
+                                                                  true);
+    private long weight;
+
+    /**
+     * @param maxWeight Maximum number of bytes retained by all the caches sharing this budget, 0 for no limit.
+     */
+    public CacheMemoryBudget(final long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public static CacheMemoryBudget global() {
+        return GLOBAL;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized boolean isExceeded() {
+        return isLimited() && weight > maxWeight;
+    }
+
+    private boolean isLimited() {
+        return maxWeight > 0;
+    }
+
+    synchronized void add(final Entry entry) {
+        weight += entry.weight;
+        if (!isLimited()) {
+            //The access order is only needed to select the entries to evict
+            return;
+        }
+        entries.put(entry,
+                    entry);
+
+        //The most recently stored entry is always kept, even if it exceeds the budget on its own
+        final Iterator<Entry> eldest = entries.keySet().iterator();
+        while (weight > maxWeight && entries.size() > 1) {
+            final Entry evicted = eldest.next();
+            eldest.remove();
+            weight -= evicted.weight;
+            evicted.cache.onEvicted(evicted);
+        }
+    }
+
+    synchronized void touch(final Entry entry) {
+        if (isLimited()) {
+            entries.get(entry);
+        }
+    }
+
+    synchronized void release(final Entry entry) {
+        if (!isLimited()) {
+            weight -= entry.weight;
+        } else if (entries.remove(entry) != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * An entry stored in a cache sharing the budget. Entries are compared by identity, so an entry evicted by the
+     * budget is never mistaken for a later entry of the same key.
+     */
+    static final class Entry {
+
+        private final WeightedLRUCache<?, ?> cache;
+        private final Object key;
+        private final long weight;
+
+        Entry(final WeightedLRUCache<?, ?> cache,
+              final Object key,
+              final long weight) {
+            this.cache = cache;
+            this.key = key;
+            this.weight = weight;
+        }
+
+        Object getKey() {
+            return key;
+        }
+
+        long getWeight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.cache;
+
+/**
+ * Estimates the memory retained by a cache entry.
+ * @param <K> Type of the cache keys
+ * @param <V> Type of the cache values
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * @param key The key of the cache entry.
+     * @param value The value of the cache entry.
+     * @return The estimated number of bytes retained by the entry, never negative.
+     */
+    long weigh(final K key,
+               final V value);
+}
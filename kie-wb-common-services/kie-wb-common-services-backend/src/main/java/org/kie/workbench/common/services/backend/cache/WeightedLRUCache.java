@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.guvnor.common.services.backend.cache.LRUCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A LRU cache that, besides its maximum number of entries, keeps the memory retained by its entries within a
+ * {@link CacheMemoryBudget}. Each entry is weighed by a {@link Weigher} when it is stored, and again through
+ * {@link #reweigh(Object, Object)} when its value changes; when the budget is exceeded the least recently used entries
+ * of all the caches sharing the budget are evicted. Entries of other caches are removed by their cache on its next
+ * access, or in the background if it is not accessed, so a cache never waits for the lock of another one. Hits, misses and evictions are counted for monitoring purposes. Subclasses keeping
+ * secondary indexes of their keys are notified of every entry leaving the cache through {@link #onEntryRemoved(Object)}.
+ * @param <K> Type of the cache keys
+ * @param <V> Type of the cache values
+ */
+public abstract class WeightedLRUCache<K, V> extends LRUCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedLRUCache.class);
+
+    private final Weigher<K, V> weigher;
+    private final CacheMemoryBudget budget;
+    private final Map<K, CacheMemoryBudget.Entry> entries = new HashMap<>();
+    private final Queue<CacheMemoryBudget.Entry> evictedEntries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    protected WeightedLRUCache() {
+        //CDI proxy
+        this.weigher = (key, value) -> 0;
+        this.budget = CacheMemoryBudget.global();
+    }
+
+    protected WeightedLRUCache(final Weigher<K, V> weigher) {
+        this.weigher = weigher;
+        this.budget = CacheMemoryBudget.global();
+    }
+
+    protected WeightedLRUCache(final int maxEntries,
+                               final Weigher<K, V> weigher) {
+        this(maxEntries,
+             weigher,
+             CacheMemoryBudget.global());
+    }
+
+    protected WeightedLRUCache(final int maxEntries,
+                               final Weigher<K, V> weigher,
+                               final CacheMemoryBudget budget) {
+        super(maxEntries);
+        this.weigher = weigher;
+        this.budget = budget;
+    }
+
+    @Override
+    public synchronized V getEntry(final K key) {
+        removeEvictedEntries();
+        final V value = super.getEntry(key);
+        if (value != null) {
+            hitCount++;
+            //Refresh the access order used to select the entries to evict
+            final CacheMemoryBudget.Entry entry = entries.get(key);
+            if (entry != null) {
+                budget.touch(entry);
+            }
+        } else {
+            missCount++;
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void setEntry(final K key,
+                                      final V value) {
+        removeEvictedEntries();
+        super.setEntry(key,
+                       value);
+        releaseWeight(key);
+        releaseEvictedEntries();
+        addWeight(key,
+                  value);
+    }
+
+    /**
+     * Weighs the entry of the given key again, for values whose retained memory changes while they are cached.
+     * Evicts entries if the new weight exceeds the budget.
+     * @param key Key of the entry to weigh
+     * @param value The value the entry is expected to hold, it is not weighed if the entry was replaced or removed
+     */
+    public synchronized void reweigh(final K key,
+                                     final V value) {
+        removeEvictedEntries();
+        if (!entries.containsKey(key) || super.getEntry(key) != value) {
+            return;
+        }
+        releaseWeight(key);
+        addWeight(key,
+                  value);
+    }
+
+    @Override
+    public synchronized void invalidateCache() {
+        removeEvictedEntries();
+        super.invalidateCache();
+        for (K key : new ArrayList<>(entries.keySet())) {
+            releaseWeight(key);
+            onEntryRemoved(key);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateCache(final K key) {
+        removeEvictedEntries();
+        super.invalidateCache(key);
+        releaseWeight(key);
+        onEntryRemoved(key);
+    }
+
+    public synchronized long getWeight() {
+        removeEvictedEntries();
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        removeEvictedEntries();
+        return evictionCount;
+    }
+
+    /**
+     * Called, while holding the cache lock, whenever an entry is invalidated or evicted.
+     * @param key Key of the entry removed from the cache
+     */
+    protected void onEntryRemoved(final K key) {
+    }
+
+    /**
+     * Called by the budget, which may be holding the lock of another cache, when it evicts an entry of this cache.
+     */
+    void onEvicted(final CacheMemoryBudget.Entry entry) {
+        evictedEntries.add(entry);
+        if (evictionScheduled.compareAndSet(false,
+                                            true)) {
+            CompletableFuture.runAsync(this::removeEvictedEntriesInBackground);
+        }
+    }
+
+    private synchronized void removeEvictedEntriesInBackground() {
+        evictionScheduled.set(false);
+        removeEvictedEntries();
+    }
+
+    //Entries evicted by the budget, their weight has already been released from the budget
+    private void removeEvictedEntries() {
+        CacheMemoryBudget.Entry evicted;
+        while ((evicted = evictedEntries.poll()) != null) {
+            @SuppressWarnings("unchecked")
+            final K key = (K) evicted.getKey();
+            //The key may have been stored again since it was evicted
+            if (entries.get(key) == evicted) {
+                logger.debug("Evicting {} ({} bytes) to keep caches within {} bytes.",
+                             key,
+                             evicted.getWeight(),
+                             budget.getMaxWeight());
+                super.invalidateCache(key);
+                entries.remove(key);
+                weight -= evicted.getWeight();
+                evictionCount++;
+                onEntryRemoved(key);
+            }
+        }
+    }
+
+    //Entries evicted by the underlying LRUCache because of its maximum number of entries
+    private void releaseEvictedEntries() {
+        final Set<K> keys = getKeys();
+        final Iterator<Map.Entry<K, CacheMemoryBudget.Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<K, CacheMemoryBudget.Entry> entry = iterator.next();
+            if (!keys.contains(entry.getKey())) {
+                iterator.remove();
+                weight -= entry.getValue().getWeight();
+                budget.release(entry.getValue());
+                evictionCount++;
+                onEntryRemoved(entry.getKey());
+            }
+        }
+    }
+
+    private void addWeight(final K key,
+                           final V value) {
+        final long entryWeight = value == null ? 0 : Math.max(0,
+                                                              weigher.weigh(key,
+                                                                            value));
+        final CacheMemoryBudget.Entry entry = new CacheMemoryBudget.Entry(this,
+                                                                          key,
+                                                                          entryWeight);
+        entries.put(key,
+                    entry);
+        weight += entryWeight;
+
+        budget.add(entry);
+        //The entries of this cache evicted to keep within the budget
+        removeEvictedEntries();
+    }
+
+    private void releaseWeight(final K key) {
+        final CacheMemoryBudget.Entry entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.getWeight();
+            budget.release(entry);
+        }
+    }
+}
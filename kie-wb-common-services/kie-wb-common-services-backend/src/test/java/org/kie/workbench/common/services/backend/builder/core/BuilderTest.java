@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import com.google.common.io.Resources;
@@ -323,6 +324,39 @@ public class BuilderTest
         assertNotNull(builder.getKieContainer());
     }
 
+    @Test
+    public void testRetainedStateIsNotifiedAfterFullBuildsOnly() throws Exception {
+        SimpleFileSystemProvider provider = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = provider.getPath(this.getClass().getResource("/BuilderExampleBrokenSyntax").toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            mock(PackageNameWhiteListService.class),
+                                            alwaysTrue);
+        final AtomicInteger notifications = new AtomicInteger();
+        builder.setRetainedStateListener(notifications::incrementAndGet);
+
+        builder.build();
+        assertEquals(1,
+                     notifications.get());
+
+        builder.deleteResource(provider.getPath(this.getClass().getResource(File.separatorChar + "BuilderExampleBrokenSyntax" +
+                                                                                    File.separatorChar + "src" +
+                                                                                    File.separatorChar + "main" +
+                                                                                    File.separatorChar + "resources" +
+                                                                                    File.separatorChar + "rule1.drl"
+        ).toURI()));
+        assertEquals(1,
+                     notifications.get());
+    }
+
     @Test
     public void testBuilderKieContainerInstantiation() throws Exception {
 
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.scanner.KieModuleMetaData;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.shared.whitelist.WhiteList;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClassVerificationCacheTest {
+
+    private static final String PACKAGE_NAME = "org.example";
+    private static final String CLASS_NAME = "Foo";
+    private static final String FQCN = PACKAGE_NAME + "." + CLASS_NAME;
+
+    @Mock
+    private KieModuleMetaData kieModuleMetaData;
+
+    @Mock
+    private TypeSourceResolver typeSourceResolver;
+
+    private File dependency;
+
+    private File otherDependency;
+
+    private ExecutorService executor;
+
+    private ClassVerificationCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        dependency = Files.createTempFile("foo-1.0",
+                                          ".jar").toFile();
+        otherDependency = Files.createTempFile("bar-1.0",
+                                               ".jar").toFile();
+        writeJar(dependency,
+                 "foo",
+                 "1");
+        writeJar(otherDependency,
+                 "bar",
+                 "1");
+        executor = Executors.newFixedThreadPool(2);
+        cache = new ClassVerificationCache(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        dependency.delete();
+        otherDependency.delete();
+    }
+
+    @Test
+    public void testArtifactKeyTracksDependencyChanges() throws Exception {
+        final String key = cache.getArtifactKey(dependenciesClassLoader(dependency),
+                                                FQCN);
+        assertTrue(key,
+                   key.startsWith("org.example:foo-1.0"));
+        assertEquals(key,
+                     DependencyArtifacts.toArtifactKey(dependency));
+
+        writeJar(dependency,
+                 "foo",
+                 "22");
+
+        assertNotEquals(key,
+                        cache.getArtifactKey(dependenciesClassLoader(dependency),
+                                             FQCN));
+    }
+
+    @Test
+    public void testStaleChecksumFileIsIgnored() throws Exception {
+        final File checksumFile = new File(dependency.getPath() + ".sha1");
+        try {
+            Files.write(checksumFile.toPath(),
+                        "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+            assertTrue(DependencyArtifacts.toArtifactKey(dependency).endsWith("@0123456789abcdef"));
+
+            //The jar is installed again without its checksum
+            assertTrue(checksumFile.setLastModified(dependency.lastModified() - 10000));
+
+            assertFalse(DependencyArtifacts.toArtifactKey(dependency).endsWith("@0123456789abcdef"));
+        } finally {
+            checksumFile.delete();
+        }
+    }
+
+    @Test
+    public void testArtifactKeyWithoutJar() throws Exception {
+        assertNull(cache.getArtifactKey(null,
+                                        FQCN));
+        assertNull(cache.getArtifactKey(dependenciesClassLoader(dependency),
+                                        "org.example.Missing"));
+    }
+
+    @Test
+    public void testVerifiedClassesAreReused() throws Exception {
+        mockModule(dependenciesClassLoader(dependency));
+
+        final List<BuildMessage> firstRun = verify();
+        final List<BuildMessage> secondRun = verify();
+
+        assertTrue(firstRun.isEmpty());
+        assertTrue(secondRun.isEmpty());
+        assertEquals(1,
+                     cache.size());
+        verify(kieModuleMetaData,
+               times(1)).getClass(PACKAGE_NAME,
+                                  CLASS_NAME);
+    }
+
+    @Test
+    public void testDependenciesKey() throws Exception {
+        final String key = cache.getDependenciesKey(dependenciesClassLoader(dependency,
+                                                                            otherDependency));
+
+        assertEquals(key,
+                     cache.getDependenciesKey(dependenciesClassLoader(otherDependency,
+                                                                      dependency)));
+        assertNotEquals(key,
+                        cache.getDependenciesKey(dependenciesClassLoader(dependency)));
+        assertNull(cache.getDependenciesKey(null));
+        assertNull(cache.getDependenciesKey(dependenciesClassLoader(dependency.getParentFile())));
+    }
+
+    @Test
+    public void testClassesAreVerifiedAgainWhenOtherDependenciesChange() throws Exception {
+        mockModule(dependenciesClassLoader(dependency));
+        verify();
+
+        //Another dependency is added, the artifact providing the class did not change
+        mockModule(dependenciesClassLoader(dependency,
+                                           otherDependency));
+        verify();
+
+        verify(kieModuleMetaData,
+               times(2)).getClass(PACKAGE_NAME,
+                                  CLASS_NAME);
+    }
+
+    @Test
+    public void testClassesAreVerifiedAgainWhenOtherDependenciesAreRemoved() throws Exception {
+        mockModule(dependenciesClassLoader(dependency,
+                                           otherDependency));
+        verify();
+
+        mockModule(dependenciesClassLoader(dependency));
+        verify();
+
+        verify(kieModuleMetaData,
+               times(2)).getClass(PACKAGE_NAME,
+                                  CLASS_NAME);
+    }
+
+    @Test
+    public void testClassesAreVerifiedAgainWhenTheirDependencyChanges() throws Exception {
+        mockModule(dependenciesClassLoader(dependency));
+        verify();
+
+        writeJar(dependency,
+                 "foo",
+                 "22");
+        verify();
+
+        verify(kieModuleMetaData,
+               times(2)).getClass(PACKAGE_NAME,
+                                  CLASS_NAME);
+    }
+
+    @Test
+    public void testFailedVerificationsAreNotCached() throws Exception {
+        mockModule(dependenciesClassLoader(dependency));
+        when(kieModuleMetaData.getClass(PACKAGE_NAME,
+                                        CLASS_NAME)).thenThrow(new NoClassDefFoundError("org/example/Bar"));
+
+        assertEquals(1,
+                     verify().size());
+        assertEquals(1,
+                     verify().size());
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testShutdown() {
+        final ExecutorService cacheExecutor = cache.getExecutor();
+        cache.setVerified("artifact",
+                          FQCN);
+
+        cache.shutdown();
+
+        assertTrue(cacheExecutor.isShutdown());
+        assertEquals(0,
+                     cache.size());
+    }
+
+    private List<BuildMessage> verify() {
+        final WhiteList whiteList = new WhiteList();
+        whiteList.add(PACKAGE_NAME);
+        return new ClassVerifier(kieModuleMetaData,
+                                 typeSourceResolver,
+                                 cache,
+                                 executor).verify(whiteList);
+    }
+
+    private void mockModule(final ClassLoader dependenciesClassLoader) {
+        when(kieModuleMetaData.getClassLoader()).thenReturn(new URLClassLoader(new URL[0],
+                                                                               dependenciesClassLoader));
+        when(kieModuleMetaData.getPackages()).thenReturn(Collections.singletonList(PACKAGE_NAME));
+        when(kieModuleMetaData.getClasses(PACKAGE_NAME)).thenReturn(Collections.singletonList(CLASS_NAME));
+        when(kieModuleMetaData.getClass(PACKAGE_NAME,
+                                        CLASS_NAME)).thenReturn(String.class);
+        when(typeSourceResolver.getTypeSource(String.class)).thenReturn(TypeSource.JAVA_DEPENDENCY);
+    }
+
+    private static ClassLoader dependenciesClassLoader(final File... jars) throws Exception {
+        final URL[] urls = new URL[jars.length];
+        for (int i = 0; i < jars.length; i++) {
+            urls[i] = jars[i].toURI().toURL();
+        }
+        return new URLClassLoader(urls,
+                                  null);
+    }
+
+    private static void writeJar(final File jar,
+                                 final String artifactId,
+                                 final String content) throws Exception {
+        try (final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("META-INF/maven/org.example/" + artifactId + "/pom.properties"));
+            out.write(("groupId=org.example\nartifactId=" + artifactId + "-1.0\nversion=1.0\n").getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new JarEntry("org/example/" + ("foo".equals(artifactId) ? "Foo" : "Bar") + ".class"));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.builder.model.BuildMessage;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceUpdated;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class IncrementalBuildCoalescerTest {
+
+    private static final int THREADS = 10;
+
+    private final List<Map<Path, Collection<ResourceChange>>> batches = new ArrayList<>();
+
+    private final CountDownLatch firstBuildStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseFirstBuild = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    private IncrementalBuildCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+        coalescer = new IncrementalBuildCoalescer(changes -> {
+            synchronized (batches) {
+                batches.add(changes);
+            }
+            firstBuildStarted.countDown();
+            try {
+                releaseFirstBuild.await(10,
+                                        TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final IncrementalBuildResults results = new IncrementalBuildResults();
+            for (Path resource : changes.keySet()) {
+                final BuildMessage message = new BuildMessage();
+                message.setPath(resource);
+                results.addAddedMessage(message);
+            }
+            return results;
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSingleChangeIsBuiltOnItsOwn() {
+        final Path resource = mock(Path.class);
+        releaseFirstBuild.countDown();
+
+        coalescer.submit(resource,
+                         new ResourceUpdated(""));
+
+        assertEquals(1,
+                     batches.size());
+        assertEquals(1,
+                     batches.get(0).size());
+        assertTrue(batches.get(0).containsKey(resource));
+    }
+
+    @Test
+    public void testChangesQueuedDuringBuildAreCoalesced() throws Exception {
+        final Future<IncrementalBuildResults> first = executor.submit(() -> coalescer.submit(mock(Path.class),
+                                                                                             new ResourceUpdated("")));
+        assertTrue(firstBuildStarted.await(10,
+                                           TimeUnit.SECONDS));
+
+        final List<Path> resources = new ArrayList<>();
+        final List<Future<IncrementalBuildResults>> queued = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final Path resource = mock(Path.class);
+            resources.add(resource);
+            queued.add(executor.submit(() -> coalescer.submit(resource,
+                                                              new ResourceUpdated(""))));
+        }
+        waitForQueuedChanges();
+        releaseFirstBuild.countDown();
+
+        first.get(10,
+                  TimeUnit.SECONDS);
+        for (Future<IncrementalBuildResults> future : queued) {
+            future.get(10,
+                       TimeUnit.SECONDS);
+        }
+
+        assertEquals(2,
+                     batches.size());
+        assertEquals(THREADS,
+                     batches.get(1).size());
+        assertTrue(batches.get(1).keySet().containsAll(resources));
+    }
+
+    @Test
+    public void testCoalescedCallersReceiveTheirResults() throws Exception {
+        final Path resource1 = mock(Path.class);
+        final Path resource2 = mock(Path.class);
+        final Future<IncrementalBuildResults> first = executor.submit(() -> coalescer.submit(mock(Path.class),
+                                                                                             new ResourceUpdated("")));
+        assertTrue(firstBuildStarted.await(10,
+                                           TimeUnit.SECONDS));
+
+        final Future<IncrementalBuildResults> queued1 = executor.submit(() -> coalescer.submit(resource1,
+                                                                                               new ResourceUpdated("")));
+        final Future<IncrementalBuildResults> queued2 = executor.submit(() -> coalescer.submit(resource2,
+                                                                                               new ResourceUpdated("")));
+        waitForQueuedChanges();
+        releaseFirstBuild.countDown();
+
+        first.get(10,
+                  TimeUnit.SECONDS);
+        final IncrementalBuildResults results1 = queued1.get(10,
+                                                             TimeUnit.SECONDS);
+        final IncrementalBuildResults results2 = queued2.get(10,
+                                                             TimeUnit.SECONDS);
+
+        assertEquals(2,
+                     batches.size());
+        assertTrue(hasMessageFor(results1,
+                                 resource1));
+        assertTrue(hasMessageFor(results2,
+                                 resource2));
+        //Each message is returned once, to the caller of its resource
+        assertEquals(1,
+                     results1.getAddedMessages().size());
+        assertEquals(1,
+                     results2.getAddedMessages().size());
+    }
+
+    @Test
+    public void testMessagesOutsideTheBatchGoToTheBuildingCaller() {
+        final Path resource = mock(Path.class);
+        final IncrementalBuildCoalescer dependentsCoalescer = new IncrementalBuildCoalescer(changes -> {
+            final IncrementalBuildResults results = new IncrementalBuildResults();
+            final BuildMessage message = new BuildMessage();
+            message.setPath(mock(Path.class));
+            results.addAddedMessage(message);
+            results.addAddedMessage(new BuildMessage());
+            return results;
+        });
+
+        final IncrementalBuildResults results = dependentsCoalescer.submit(resource,
+                                                                           new ResourceUpdated(""));
+
+        assertEquals(2,
+                     results.getAddedMessages().size());
+    }
+
+    @Test
+    public void testChangesSubmittedWithinTheWindowAreCoalesced() throws Exception {
+        final IncrementalBuildCoalescer windowCoalescer = newWindowCoalescer(1000);
+        final Future<IncrementalBuildResults> first = executor.submit(() -> windowCoalescer.submit(mock(Path.class),
+                                                                                                   new ResourceUpdated("")));
+        assertTrue(firstBuildStarted.await(10,
+                                           TimeUnit.SECONDS));
+        final List<Future<IncrementalBuildResults>> queued = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            queued.add(executor.submit(() -> windowCoalescer.submit(mock(Path.class),
+                                                                    new ResourceUpdated(""))));
+        }
+        waitForQueuedChanges();
+        releaseFirstBuild.countDown();
+        //The queued changes wait for the window, so a change submitted meanwhile joins their batch
+        TimeUnit.MILLISECONDS.sleep(100);
+        queued.add(executor.submit(() -> windowCoalescer.submit(mock(Path.class),
+                                                                new ResourceUpdated(""))));
+
+        first.get(10,
+                  TimeUnit.SECONDS);
+        for (Future<IncrementalBuildResults> future : queued) {
+            future.get(10,
+                       TimeUnit.SECONDS);
+        }
+
+        assertEquals(2,
+                     batches.size());
+        assertEquals(1,
+                     batches.get(0).size());
+        assertEquals(3,
+                     batches.get(1).size());
+    }
+
+    @Test
+    public void testSingleChangeDoesNotWaitForTheWindow() {
+        final IncrementalBuildCoalescer windowCoalescer = newWindowCoalescer(10000);
+        releaseFirstBuild.countDown();
+
+        final long start = System.currentTimeMillis();
+        windowCoalescer.submit(mock(Path.class),
+                               new ResourceUpdated(""));
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1,
+                     batches.size());
+    }
+
+    @Test
+    public void testLatestChangeSupersedesQueuedChange() throws Exception {
+        final Path resource = mock(Path.class);
+        final Future<IncrementalBuildResults> first = executor.submit(() -> coalescer.submit(mock(Path.class),
+                                                                                             new ResourceUpdated("")));
+        assertTrue(firstBuildStarted.await(10,
+                                           TimeUnit.SECONDS));
+
+        final Future<IncrementalBuildResults> update = executor.submit(() -> coalescer.submit(resource,
+                                                                                              new ResourceUpdated("")));
+        waitForQueuedChanges();
+        final Future<IncrementalBuildResults> delete = executor.submit(() -> coalescer.submit(resource,
+                                                                                              new ResourceDeleted("")));
+        waitForQueuedChanges();
+        releaseFirstBuild.countDown();
+
+        first.get(10,
+                  TimeUnit.SECONDS);
+        final IncrementalBuildResults updateResults = update.get(10,
+                                                                 TimeUnit.SECONDS);
+        final IncrementalBuildResults deleteResults = delete.get(10,
+                                                                 TimeUnit.SECONDS);
+
+        assertEquals(2,
+                     batches.size());
+        assertEquals(1,
+                     batches.get(1).size());
+        assertSame(ResourceChangeType.DELETE,
+                   batches.get(1).get(resource).iterator().next().getType());
+        //The messages of the resource are returned to the caller of the latest change only
+        assertFalse(hasMessageFor(updateResults,
+                                  resource));
+        assertTrue(hasMessageFor(deleteResults,
+                                 resource));
+    }
+
+    @Test
+    public void testFailureIsReportedToCaller() {
+        final IncrementalBuildCoalescer failingCoalescer = new IncrementalBuildCoalescer(changes -> {
+            throw new IllegalStateException("A full build needs to be performed before any incremental operations.");
+        });
+        try {
+            failingCoalescer.submit(mock(Path.class),
+                                    new ResourceUpdated(""));
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            assertEquals("A full build needs to be performed before any incremental operations.",
+                         e.getMessage());
+        }
+    }
+
+    private boolean hasMessageFor(final IncrementalBuildResults results,
+                                  final Path resource) {
+        return results.getAddedMessages().stream().anyMatch(message -> resource.equals(message.getPath()));
+    }
+
+    private IncrementalBuildCoalescer newWindowCoalescer(final long windowMillis) {
+        return new IncrementalBuildCoalescer(changes -> {
+            synchronized (batches) {
+                batches.add(changes);
+            }
+            firstBuildStarted.countDown();
+            try {
+                releaseFirstBuild.await(10,
+                                        TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new IncrementalBuildResults();
+        },
+                                             IncrementalBuildResults::new,
+                                             windowMillis);
+    }
+
+    private void waitForQueuedChanges() throws InterruptedException {
+        //Changes are queued as soon as they are submitted, the callers then wait for the running build
+        TimeUnit.MILLISECONDS.sleep(500);
+    }
+}
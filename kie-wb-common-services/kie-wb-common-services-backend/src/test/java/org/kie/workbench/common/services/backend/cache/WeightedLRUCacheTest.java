@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class WeightedLRUCacheTest {
+
+    private CacheMemoryBudget budget;
+
+    private WeightedLRUCache<String, String> cache;
+
+    private WeightedLRUCache<String, String> otherCache;
+
+    @Before
+    public void setUp() {
+        budget = new CacheMemoryBudget(10);
+        cache = new WeightedLRUCache<String, String>(5,
+                                                     (key, value) -> value.length(),
+                                                     budget) {
+        };
+        otherCache = new WeightedLRUCache<String, String>(5,
+                                                          (key, value) -> value.length(),
+                                                          budget) {
+        };
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWhenBudgetIsExceeded() {
+        cache.setEntry("a",
+                       "1234");
+        cache.setEntry("b",
+                       "1234");
+        //Touch "a" so that "b" becomes the least recently used entry
+        cache.getEntry("a");
+        cache.setEntry("c",
+                       "1234");
+
+        assertNotNull(cache.getEntry("a"));
+        assertNull(cache.getEntry("b"));
+        assertNotNull(cache.getEntry("c"));
+        assertEquals(8,
+                     cache.getWeight());
+        assertEquals(8,
+                     budget.getWeight());
+        assertEquals(1,
+                     cache.getEvictionCount());
+    }
+
+    @Test
+    public void testKeepsEntryLargerThanBudget() {
+        cache.setEntry("a",
+                       "1234");
+        cache.setEntry("b",
+                       "123456789012");
+
+        assertNull(cache.getEntry("a"));
+        assertNotNull(cache.getEntry("b"));
+        assertEquals(12,
+                     budget.getWeight());
+    }
+
+    @Test
+    public void testBudgetIsSharedBetweenCaches() {
+        otherCache.setEntry("a",
+                            "1234");
+        cache.setEntry("b",
+                       "1234");
+        cache.setEntry("c",
+                       "1234");
+
+        //The least recently used entry is evicted, whichever cache holds it
+        assertNull(otherCache.getEntry("a"));
+        assertNotNull(cache.getEntry("b"));
+        assertNotNull(cache.getEntry("c"));
+        assertEquals(0,
+                     otherCache.getWeight());
+        assertEquals(1,
+                     otherCache.getEvictionCount());
+        assertEquals(8,
+                     budget.getWeight());
+    }
+
+    @Test
+    public void testAccessOrderIsSharedBetweenCaches() {
+        otherCache.setEntry("a",
+                            "1234");
+        cache.setEntry("b",
+                       "1234");
+        //Touch "a" so that "b" becomes the least recently used entry
+        otherCache.getEntry("a");
+        cache.setEntry("c",
+                       "1234");
+
+        assertNotNull(otherCache.getEntry("a"));
+        assertNull(cache.getEntry("b"));
+        assertNotNull(cache.getEntry("c"));
+        assertEquals(8,
+                     budget.getWeight());
+    }
+
+    @Test
+    public void testEntryStoredAgainAfterEvictionIsKept() {
+        otherCache.setEntry("a",
+                            "1234");
+        cache.setEntry("b",
+                       "1234");
+        cache.setEntry("c",
+                       "1234");
+        otherCache.setEntry("a",
+                            "12");
+
+        assertEquals("12",
+                     otherCache.getEntry("a"));
+        assertEquals(2,
+                     otherCache.getWeight());
+    }
+
+    @Test
+    public void testReweighTracksValueChanges() {
+        final WeightedLRUCache<String, StringBuilder> mutableCache = new WeightedLRUCache<String, StringBuilder>(5,
+                                                                                                               (key, value) -> value.length(),
+                                                                                                               budget) {
+        };
+        final StringBuilder value = new StringBuilder("12");
+        cache.setEntry("a",
+                       "1234");
+        mutableCache.setEntry("b",
+                              value);
+
+        value.append("12345");
+        mutableCache.reweigh("b",
+                             value);
+
+        assertEquals(7,
+                     mutableCache.getWeight());
+        //The budget is exceeded by the new weight
+        assertNull(cache.getEntry("a"));
+        assertEquals(7,
+                     budget.getWeight());
+    }
+
+    @Test
+    public void testReweighIgnoresReplacedValue() {
+        cache.setEntry("a",
+                       "1234");
+        cache.reweigh("a",
+                      "123456");
+        cache.reweigh("b",
+                      "123456");
+
+        assertEquals(4,
+                     cache.getWeight());
+    }
+
+    @Test
+    public void testEntryCountEvictionReleasesWeight() {
+        final CacheMemoryBudget unlimited = new CacheMemoryBudget(0);
+        final WeightedLRUCache<String, String> smallCache = new WeightedLRUCache<String, String>(2,
+                                                                                                (key, value) -> value.length(),
+                                                                                                unlimited) {
+        };
+        smallCache.setEntry("a",
+                            "1");
+        smallCache.setEntry("b",
+                            "12");
+        smallCache.setEntry("c",
+                            "123");
+
+        assertEquals(5,
+                     smallCache.getWeight());
+        assertEquals(5,
+                     unlimited.getWeight());
+        assertEquals(1,
+                     smallCache.getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidateReleasesWeight() {
+        cache.setEntry("a",
+                       "1234");
+        cache.setEntry("b",
+                       "12");
+        cache.invalidateCache("a");
+
+        assertEquals(2,
+                     budget.getWeight());
+
+        cache.invalidateCache();
+
+        assertEquals(0,
+                     cache.getWeight());
+        assertEquals(0,
+                     budget.getWeight());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        cache.setEntry("a",
+                       "1");
+        cache.getEntry("a");
+        cache.getEntry("a");
+        cache.getEntry("b");
+
+        assertEquals(2,
+                     cache.getHitCount());
+        assertEquals(1,
+                     cache.getMissCount());
+    }
+}
@@ -51,6 +51,8 @@ public final class ClearGraphCommand extends AbstractGraphCommand {
                 if (null != nodes) {
                     nodes.forEachRemaining(node -> {
                         if (!node.getUUID().equals(rootUUID)) {
+                            // Its outgoing edges are removed from the graph together with the node.
+                            node.getOutEdges().stream().forEach(edge -> getMutableIndex(context).removeEdge((Edge) edge));
                             getMutableIndex(context).removeNode(node);
                             nodes.remove();
                         } else {
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable R-tree over the bounds of some values, bulk loaded using the Sort-Tile-Recursive algorithm.
+ * Searches only visit the branches whose bounds intersect the searched area, so a point or area lookup
+ * is logarithmic on the number of values instead of linear.
+ * @param <T> the type of the indexed values.
+ */
+public final class BoundsTree<T> {
+
+    static final int NODE_CAPACITY = 8;
+
+    private final Box<T> root;
+    private final int size;
+
+    private BoundsTree(final Box<T> root,
+                       final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits the values whose bounds contain the given point, bounds included.
+     */
+    public void search(final double x,
+                       final double y,
+                       final Consumer<T> consumer) {
+        search(x,
+               y,
+               x,
+               y,
+               consumer);
+    }
+
+    /**
+     * Visits the values whose bounds intersect the given area, bounds included.
+     */
+    public void search(final double ulX,
+                       final double ulY,
+                       final double lrX,
+                       final double lrY,
+                       final Consumer<T> consumer) {
+        if (null != root) {
+            search(root,
+                   ulX,
+                   ulY,
+                   lrX,
+                   lrY,
+                   consumer);
+        }
+    }
+
+    private static <T> void search(final Box<T> box,
+                                   final double ulX,
+                                   final double ulY,
+                                   final double lrX,
+                                   final double lrY,
+                                   final Consumer<T> consumer) {
+        if (box.ulX <= lrX && box.lrX >= ulX && box.ulY <= lrY && box.lrY >= ulY) {
+            if (null == box.children) {
+                consumer.accept(box.value);
+            } else {
+                for (final Box<T> child : box.children) {
+                    search(child,
+                           ulX,
+                           ulY,
+                           lrX,
+                           lrY,
+                           consumer);
+                }
+            }
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Box<T>> leaves = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> add(final T value,
+                              final double ulX,
+                              final double ulY,
+                              final double lrX,
+                              final double lrY) {
+            leaves.add(new Box<>(value,
+                                 null,
+                                 ulX,
+                                 ulY,
+                                 lrX,
+                                 lrY));
+            return this;
+        }
+
+        public BoundsTree<T> build() {
+            List<Box<T>> level = new ArrayList<>(leaves);
+            while (level.size() > 1) {
+                level = pack(level);
+            }
+            return new BoundsTree<>(level.isEmpty() ? null : level.get(0),
+                                    leaves.size());
+        }
+
+        /**
+         * Groups the boxes of a level into their parents: the boxes are sorted into vertical slices by their
+         * horizontal center, and each slice is sorted by the vertical center and split into runs of
+         * NODE_CAPACITY boxes.
+         */
+        private static <T> List<Box<T>> pack(final List<Box<T>> boxes) {
+            final int parentsCount = (int) Math.ceil(boxes.size() / (double) NODE_CAPACITY);
+            final int sliceSize = (int) Math.ceil(Math.sqrt(parentsCount)) * NODE_CAPACITY;
+            final List<Box<T>> parents = new ArrayList<>(parentsCount);
+            boxes.sort(Comparator.comparingDouble(box -> box.ulX + box.lrX));
+            for (int i = 0; i < boxes.size(); i += sliceSize) {
+                final List<Box<T>> slice = new ArrayList<>(boxes.subList(i,
+                                                                         Math.min(boxes.size(),
+                                                                                  i + sliceSize)));
+                slice.sort(Comparator.comparingDouble(box -> box.ulY + box.lrY));
+                for (int j = 0; j < slice.size(); j += NODE_CAPACITY) {
+                    parents.add(Box.parentOf(new ArrayList<>(slice.subList(j,
+                                                                           Math.min(slice.size(),
+                                                                                    j + NODE_CAPACITY)))));
+                }
+            }
+            return parents;
+        }
+    }
+
+    private static final class Box<T> {
+
+        private final T value;
+        private final List<Box<T>> children;
+        private final double ulX;
+        private final double ulY;
+        private final double lrX;
+        private final double lrY;
+
+        private Box(final T value,
+                    final List<Box<T>> children,
+                    final double ulX,
+                    final double ulY,
+                    final double lrX,
+                    final double lrY) {
+            this.value = value;
+            this.children = children;
+            this.ulX = ulX;
+            this.ulY = ulY;
+            this.lrX = lrX;
+            this.lrY = lrY;
+        }
+
+        private static <T> Box<T> parentOf(final List<Box<T>> children) {
+            double ulX = Double.POSITIVE_INFINITY;
+            double ulY = Double.POSITIVE_INFINITY;
+            double lrX = Double.NEGATIVE_INFINITY;
+            double lrY = Double.NEGATIVE_INFINITY;
+            for (final Box<T> child : children) {
+                ulX = Math.min(ulX,
+                               child.ulX);
+                ulY = Math.min(ulY,
+                               child.ulY);
+                lrX = Math.max(lrX,
+                               child.lrX);
+                lrY = Math.max(lrY,
+                               child.lrY);
+            }
+            return new Box<>(null,
+                             children,
+                             ulX,
+                             ulY,
+                             lrX,
+                             lrY);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +42,10 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private BoundsTree<Integer> boundsTree;
+    private List<Node<View, Edge>> nodes;
+    private double[] trimmedBounds;
+    private int rootIndex = -1;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -50,6 +55,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
         this.graph = graph;
+        clearIndex();
         return this;
     }
 
@@ -101,66 +107,91 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     @Override
     public double[] getTrimmedBounds() {
-        final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
-        childrenTraverseProcessor
-                .setRootUUID(this.rootUUID)
-                .traverse(graph,
-                          new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
+        ensureIndex();
+        return new double[]{trimmedBounds[0], trimmedBounds[1], trimmedBounds[2], trimmedBounds[3]};
+    }
+
+    @SuppressWarnings("unchecked")
+    public Node<View<?>, Edge> findElementAt(final double x,
+                                             final double y) {
+        ensureIndex();
+        // The last traversed node at the given point wins, as the children are traversed after their parents.
+        final int[] result = {rootIndex};
+        boundsTree.search(x,
+                          y,
+                          index -> {
+                              if (index > result[0]) {
+                                  result[0] = index;
+                              }
+                          });
+        return result[0] < 0 ? null : (Node) nodes.get(result[0]);
+    }
 
-                              @Override
-                              public void onNodeTraverse(final Node<View, Edge> node,
-                                                         final double parentX,
-                                                         final double parentY) {
-                                  final String uuid = node.getUUID();
-                                  final boolean isRoot = null != GraphBoundsIndexerImpl.this.rootUUID
-                                          && GraphBoundsIndexerImpl.this.rootUUID.equals(uuid);
-                                  if (!isRoot) {
+    /**
+     * Indexes the absolute bounds of the graph nodes in a single traversal, the index is reused by the lookups
+     * until the indexer is built again.
+     */
+    private void ensureIndex() {
+        if (null != boundsTree) {
+            return;
+        }
+        final List<Node<View, Edge>> traversedNodes = new ArrayList<>();
+        final BoundsTree.Builder<Integer> builder = BoundsTree.builder();
+        final double[] trimmed = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
+        rootIndex = -1;
+        if (null != graph) {
+            childrenTraverseProcessor
+                    .setRootUUID(null)
+                    .traverse(graph,
+                              new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
+
+                                  @Override
+                                  public void onNodeTraverse(final Node<View, Edge> node,
+                                                             final boolean isRootDescendant,
+                                                             final double parentX,
+                                                             final double parentY) {
+                                      final int index = traversedNodes.size();
+                                      traversedNodes.add(node);
+                                      if (isRoot(node)) {
+                                          // The root node is at any point.
+                                          rootIndex = index;
+                                          return;
+                                      }
                                       final double[] absCoords = getNodeAbsoluteCoordinates(node,
                                                                                             parentX,
                                                                                             parentY);
-                                      final double x = absCoords[0];
-                                      final double y = absCoords[1];
-                                      final double w = absCoords[2];
-                                      final double h = absCoords[3];
-                                      if (x < result[0]) {
-                                          result[0] = x;
-                                      }
-                                      if (y < result[1]) {
-                                          result[1] = y;
-                                      }
-                                      if (w > result[2]) {
-                                          result[2] = w;
-                                      }
-                                      if (h > result[3]) {
-                                          result[3] = h;
+                                      builder.add(index,
+                                                  absCoords[0],
+                                                  absCoords[1],
+                                                  absCoords[2],
+                                                  absCoords[3]);
+                                      if (null == rootUUID || isRootDescendant) {
+                                          trimmed[0] = Math.min(trimmed[0],
+                                                                absCoords[0]);
+                                          trimmed[1] = Math.min(trimmed[1],
+                                                                absCoords[1]);
+                                          trimmed[2] = Math.max(trimmed[2],
+                                                                absCoords[2]);
+                                          trimmed[3] = Math.max(trimmed[3],
+                                                                absCoords[3]);
                                       }
                                   }
-                              }
-                          }));
-        return result;
+                              }));
+        }
+        this.nodes = traversedNodes;
+        this.trimmedBounds = trimmed;
+        this.boundsTree = builder.build();
     }
 
-    @SuppressWarnings("unchecked")
-    public Node<View<?>, Edge> findElementAt(final double x,
-                                             final double y) {
-        final Node[] result = new Node[1];
-        childrenTraverseProcessor.traverse(graph,
-                                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
+    private void clearIndex() {
+        this.boundsTree = null;
+        this.nodes = null;
+        this.trimmedBounds = null;
+        this.rootIndex = -1;
+    }
 
-                                               @Override
-                                               public void onNodeTraverse(final Node<View, Edge> node,
-                                                                          final double parentX,
-                                                                          final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
-                                                   }
-                                               }
-                                           }));
-        return result[0];
+    private boolean isRoot(final Node node) {
+        return null != rootUUID && null != node && rootUUID.equals(node.getUUID());
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -188,31 +219,10 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ulX, ulY, lrX, lrY};
     }
 
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
+        clearIndex();
         return this;
     }
 
@@ -221,11 +231,13 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         this.graph = null;
         this.rootUUID = null;
         this.childrenTraverseProcessor = null;
+        clearIndex();
     }
 
     private abstract class NodeBoundsTraverseCallback {
 
         public abstract void onNodeTraverse(final Node<View, Edge> node,
+                                            final boolean isRootDescendant,
                                             final double parentX,
                                             final double parentY);
     }
@@ -258,6 +270,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         private void onStartNodeTraversal(final Optional<List<Node<View, Edge>>> parents,
                                           final Node<View, Edge> node) {
             final double[] parentLocation = {0, 0};
+            final boolean[] isRootDescendant = {false};
             if (parents.isPresent()) {
                 parents.get().forEach(parent -> {
                     final Point2D nodeCoordinates = getNodeCoordinates(parent);
@@ -265,9 +278,11 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
                         parentLocation[0] += nodeCoordinates.getX();
                         parentLocation[1] += nodeCoordinates.getY();
                     }
+                    isRootDescendant[0] |= isRoot(parent);
                 });
             }
             callback.onNodeTraverse(node,
+                                    isRootDescendant[0],
                                     parentLocation[0],
                                     parentLocation[1]);
         }
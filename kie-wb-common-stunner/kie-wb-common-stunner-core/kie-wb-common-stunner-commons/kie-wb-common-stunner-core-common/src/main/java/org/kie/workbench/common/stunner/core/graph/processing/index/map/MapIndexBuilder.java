@@ -17,8 +17,10 @@
 package org.kie.workbench.common.stunner.core.graph.processing.index.map;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.context.Dependent;
 
@@ -33,19 +35,43 @@ public class MapIndexBuilder implements GraphIndexBuilder<MapIndex> {
     @Override
     public MapIndex build(final Graph<?, Node> graph) {
         assert graph != null;
-        return doWork(graph,
-                      null);
+        return doWork(graph);
     }
 
+    /**
+     * The graph commands keep the index up to date by applying their changes through the MutableIndex operations,
+     * so this is only needed for resynchronizing an index with a graph modified by other means. The entries are
+     * updated in place, and only the stale ones are removed.
+     */
     @Override
     public void update(final MapIndex index,
                        final Graph<?, Node> graph) {
-        doWork(graph,
-               index);
+        final Set<String> nodeIds = new HashSet<>();
+        final Set<String> edgeIds = new HashSet<>();
+        for (Node node : graph.nodes()) {
+            if (nodeIds.add(node.getUUID())) {
+                index.nodes.put(node.getUUID(),
+                                node);
+                final List<Edge> outEdges = node.getOutEdges();
+                if (null != outEdges) {
+                    for (final Edge edge : outEdges) {
+                        if (edgeIds.add(edge.getUUID())) {
+                            index.edges.put(edge.getUUID(),
+                                            edge);
+                        }
+                    }
+                }
+            }
+        }
+        if (index.nodes.size() > nodeIds.size()) {
+            index.nodes.keySet().retainAll(nodeIds);
+        }
+        if (index.edges.size() > edgeIds.size()) {
+            index.edges.keySet().retainAll(edgeIds);
+        }
     }
 
-    private MapIndex doWork(final Graph<?, Node> graph,
-                            final MapIndex current) {
+    private MapIndex doWork(final Graph<?, Node> graph) {
         final Map<String, Node> nodes = new HashMap<>();
         final Map<String, Edge> edges = new HashMap<>();
         Iterable<Node> nodesIter = graph.nodes();
@@ -54,19 +80,9 @@ public class MapIndexBuilder implements GraphIndexBuilder<MapIndex> {
                         edges,
                         node);
         }
-        if (null == current) {
-            // Requesting a new index.
-            return new MapIndex(graph,
-                                nodes,
-                                edges);
-        } else {
-            // Updating an existing index.
-            current.nodes.clear();
-            current.nodes.putAll(nodes);
-            current.edges.clear();
-            current.edges.putAll(edges);
-            return current;
-        }
+        return new MapIndex(graph,
+                            nodes,
+                            edges);
     }
 
     @SuppressWarnings("unchecked")
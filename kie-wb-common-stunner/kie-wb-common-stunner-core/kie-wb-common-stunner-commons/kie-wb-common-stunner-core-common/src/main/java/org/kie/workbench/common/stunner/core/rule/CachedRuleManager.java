@@ -16,10 +16,16 @@
 
 package org.kie.workbench.common.stunner.core.rule;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -28,14 +34,94 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
 
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
+import org.kie.workbench.common.stunner.core.rule.context.ConnectorCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.DockingContext;
+import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.ElementCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.GraphConnectionContext;
+import org.kie.workbench.common.stunner.core.rule.context.NodeContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.NodeDockingContext;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.CardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectorCardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.DockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.EdgeCardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ElementCardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.GraphConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.NodeContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.NodeDockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
+import org.kie.workbench.common.stunner.core.rule.impl.Occurrences;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 
+/**
+ * A rule manager that compiles each rule set once, see {@link CompiledRuleSet}, and keeps the rules that
+ * can be evaluated for each context type.
+ * <p>
+ * For the contexts handled by the built-in evaluation handlers, only the rules for the roles present on the
+ * context are evaluated, as the handlers do not accept the rules for other roles anyway. The rule sets and the
+ * rules by context are published as immutable maps, so the manager can be used concurrently.
+ */
 @Dependent
 @Typed(CachedRuleManager.class)
 public class CachedRuleManager implements RuleManager {
 
+    private static final Map<Class<? extends RuleEvaluationContext>, RoleIndex> ROLE_INDEXES = new HashMap<>(10);
+
+    static {
+        ROLE_INDEXES.put(ContainmentContext.class,
+                         new RoleIndex(CanContain.class,
+                                       handler -> handler instanceof ContainmentEvaluationHandler,
+                                       context -> ((ContainmentContext) context).getParentRoles()));
+        ROLE_INDEXES.put(DockingContext.class,
+                         new RoleIndex(CanDock.class,
+                                       handler -> handler instanceof DockingEvaluationHandler,
+                                       context -> ((DockingContext) context).getParentRoles()));
+        ROLE_INDEXES.put(ConnectionContext.class,
+                         new RoleIndex(CanConnect.class,
+                                       handler -> handler instanceof ConnectionEvaluationHandler,
+                                       context -> Collections.singleton(((ConnectionContext) context).getConnectorRole())));
+        ROLE_INDEXES.put(CardinalityContext.class,
+                         new RoleIndex(Occurrences.class,
+                                       handler -> handler instanceof CardinalityEvaluationHandler,
+                                       context -> ((CardinalityContext) context).getRoles()));
+        ROLE_INDEXES.put(EdgeCardinalityContext.class,
+                         new RoleIndex(EdgeOccurrences.class,
+                                       handler -> handler instanceof EdgeCardinalityEvaluationHandler,
+                                       context -> ((EdgeCardinalityContext) context).getRoles()));
+        ROLE_INDEXES.put(NodeContainmentContext.class,
+                         new RoleIndex(CanContain.class,
+                                       handler -> handler instanceof NodeContainmentEvaluationHandler,
+                                       context -> GraphUtils.getLabels(((NodeContainmentContext) context).getParent())));
+        ROLE_INDEXES.put(NodeDockingContext.class,
+                         new RoleIndex(CanDock.class,
+                                       handler -> handler instanceof NodeDockingEvaluationHandler,
+                                       context -> GraphUtils.getLabels(((NodeDockingContext) context).getParent())));
+        ROLE_INDEXES.put(GraphConnectionContext.class,
+                         new RoleIndex(CanConnect.class,
+                                       handler -> handler instanceof GraphConnectionEvaluationHandler,
+                                       context -> GraphUtils.getLabels(((GraphConnectionContext) context).getConnector())));
+        ROLE_INDEXES.put(ConnectorCardinalityContext.class,
+                         new RoleIndex(EdgeOccurrences.class,
+                                       handler -> handler instanceof ConnectorCardinalityEvaluationHandler,
+                                       context -> GraphUtils.getLabels(((ConnectorCardinalityContext) context).getCandidate())));
+        ROLE_INDEXES.put(ElementCardinalityContext.class,
+                         new RoleIndex(Occurrences.class,
+                                       handler -> handler instanceof ElementCardinalityEvaluationHandler,
+                                       CachedRuleManager::getCandidateRoles));
+    }
+
     private final RuleManagerImpl ruleManager;
-    private final Map<String, CachedContextRules> cachedContextRules;
+    private volatile Map<String, CachedContextRules> cachedContextRules;
 
     @Inject
     public CachedRuleManager(final RuleManagerImpl ruleManager) {
@@ -64,59 +150,95 @@ public class CachedRuleManager implements RuleManager {
     @Override
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
-        return ruleManager.evaluate(ruleSet,
+        final CachedContextRules crs = getCachedContextRules(ruleSet);
+        final ContextRules contextRules = crs.getContextRules(context);
+        final Collection<Rule> rules = contextRules.getRules(crs.compiledRuleSet,
+                                                             context);
+        if (rules.isEmpty() && !contextRules.rules.isEmpty()) {
+            // No rules for the context's roles, so none of the handlers would accept the evaluation.
+            return context.isDefaultDeny() ?
+                    RuleManagerImpl.getDefaultViolationForContext(context) :
+                    new DefaultRuleViolations();
+        }
+        return ruleManager.evaluate(rules,
                                     context);
     }
 
+    /**
+     * Returns the compiled form of the given rule set, which is compiled on its first use.
+     */
+    public CompiledRuleSet getCompiledRuleSet(final RuleSet ruleSet) {
+        return getCachedContextRules(ruleSet).compiledRuleSet;
+    }
+
     @PreDestroy
     public void destroy() {
-        cachedContextRules.values().forEach(CachedContextRules::clear);
-        cachedContextRules.clear();
+        cachedContextRules = new HashMap<>(4);
     }
 
     private Collection<Rule> getRulesByContext(final RuleSet ruleSet,
                                                final RuleEvaluationContext context) {
+        return getCachedContextRules(ruleSet)
+                .getContextRules(context)
+                .rules;
+    }
+
+    private CachedContextRules getCachedContextRules(final RuleSet ruleSet) {
         CachedContextRules crs = cachedContextRules.get(ruleSet.getName());
         if (null == crs) {
-            crs = new CachedContextRules();
-            cachedContextRules.put(ruleSet.getName(),
-                                   crs);
+            crs = new CachedContextRules(CompiledRuleSet.compile(ruleSet));
+            final Map<String, CachedContextRules> copy = new HashMap<>(cachedContextRules);
+            copy.put(ruleSet.getName(),
+                     crs);
+            cachedContextRules = copy;
         }
-        return crs.getRulesByContext(ruleSet,
-                                     context);
+        return crs;
+    }
+
+    private static Collection<String> getCandidateRoles(final RuleEvaluationContext context) {
+        final ElementCardinalityContext cardinalityContext = (ElementCardinalityContext) context;
+        if (cardinalityContext.getCandidates().isEmpty()) {
+            // The handler accepts all the rules if no candidates.
+            return null;
+        }
+        final Set<String> roles = new HashSet<>();
+        cardinalityContext.getCandidates().forEach(candidate -> roles.addAll(GraphUtils.getLabels(candidate)));
+        return roles;
     }
 
     private class CachedContextRules {
 
-        private final Map<Class<? extends RuleEvaluationContext>, List<Rule>> rulesByContent;
+        private final CompiledRuleSet compiledRuleSet;
+        private volatile Map<Class<? extends RuleEvaluationContext>, ContextRules> rulesByContext;
 
-        public CachedContextRules() {
-            this.rulesByContent = new HashMap<>(15);
+        private CachedContextRules(final CompiledRuleSet compiledRuleSet) {
+            this.compiledRuleSet = compiledRuleSet;
+            this.rulesByContext = new HashMap<>(15);
         }
 
-        public Collection<Rule> getRulesByContext(final RuleSet ruleSet,
-                                                  final RuleEvaluationContext context) {
-            List<Rule> rules = rulesByContent.get(context.getClass());
+        private ContextRules getContextRules(final RuleEvaluationContext context) {
+            ContextRules rules = rulesByContext.get(context.getClass());
             if (null == rules) {
-                return cacheRulesByContext(ruleSet,
-                                           context);
+                rules = cacheRulesByContext(context);
             }
             return rules;
         }
 
-        public Collection<Rule> cacheRulesByContext(final RuleSet ruleSet,
-                                                    final RuleEvaluationContext context) {
+        private ContextRules cacheRulesByContext(final RuleEvaluationContext context) {
             final Collection<RuleEvaluationHandler> handlers = registry().getHandlersByContext(context.getType());
-            final List<Rule> rules = ruleSet.getRules().stream()
+            final List<Rule> rules = compiledRuleSet.getRules().stream()
                     .filter(rule -> accepts(handlers,
                                             rule))
                     .collect(Collectors.toList());
-            rulesByContent.put(context.getClass(), rules);
-            return rules;
-        }
-
-        public void clear() {
-            rulesByContent.clear();
+            final ContextRules contextRules = new ContextRules(rules,
+                                                               getRoleIndex(context,
+                                                                            handlers,
+                                                                            rules));
+            final Map<Class<? extends RuleEvaluationContext>, ContextRules> copy = new HashMap<>(rulesByContext);
+            copy.put(context.getClass(),
+                     contextRules);
+            rulesByContext = copy;
+            return contextRules;
         }
 
         private boolean accepts(final Collection<RuleEvaluationHandler> handlers,
@@ -125,5 +247,71 @@ public class CachedRuleManager implements RuleManager {
                     handlers.stream()
                             .anyMatch(handler -> RuleManagerImpl.isRuleTypeAllowed().test(rule, handler));
         }
+
+        // Rules can be looked up by role only if all the handlers for the context are the built-in ones. They are
+        // matched by type, as they are usually container proxies, so subclasses must not accept the rules for other
+        // roles either. The rules for the context's roles are still evaluated by the handlers.
+        private RoleIndex getRoleIndex(final RuleEvaluationContext context,
+                                       final Collection<RuleEvaluationHandler> handlers,
+                                       final List<Rule> rules) {
+            final RoleIndex index = ROLE_INDEXES.get(context.getType());
+            final boolean indexed = null != index &&
+                    !handlers.isEmpty() &&
+                    handlers.stream().allMatch(index.handler) &&
+                    rules.stream().allMatch(rule -> RuleManagerImpl.isRuleExtension().test(rule) ||
+                            index.ruleType.equals(rule.getClass()));
+            return indexed ? index : null;
+        }
+    }
+
+    private static class ContextRules {
+
+        private final List<Rule> rules;
+        private final List<Rule> extensions;
+        private final RoleIndex roleIndex;
+
+        private ContextRules(final List<Rule> rules,
+                             final RoleIndex roleIndex) {
+            this.rules = rules;
+            this.extensions = rules.stream()
+                    .filter(RuleManagerImpl.isRuleExtension())
+                    .collect(Collectors.toList());
+            this.roleIndex = roleIndex;
+        }
+
+        private Collection<Rule> getRules(final CompiledRuleSet compiledRuleSet,
+                                          final RuleEvaluationContext context) {
+            if (null == roleIndex) {
+                return rules;
+            }
+            final Collection<String> roles = roleIndex.roles.apply(context);
+            if (null == roles) {
+                return rules;
+            }
+            final List<Rule> roleRules = compiledRuleSet.getRules(roleIndex.ruleType,
+                                                                  roles);
+            if (extensions.isEmpty()) {
+                return roleRules;
+            }
+            final List<Rule> result = new ArrayList<>(roleRules.size() + extensions.size());
+            result.addAll(roleRules);
+            result.addAll(extensions);
+            return result;
+        }
+    }
+
+    private static class RoleIndex {
+
+        private final Class<? extends Rule> ruleType;
+        private final Predicate<RuleEvaluationHandler> handler;
+        private final Function<RuleEvaluationContext, Collection<String>> roles;
+
+        private RoleIndex(final Class<? extends Rule> ruleType,
+                          final Predicate<RuleEvaluationHandler> handler,
+                          final Function<RuleEvaluationContext, Collection<String>> roles) {
+            this.ruleType = ruleType;
+            this.handler = handler;
+            this.roles = roles;
+        }
     }
 }
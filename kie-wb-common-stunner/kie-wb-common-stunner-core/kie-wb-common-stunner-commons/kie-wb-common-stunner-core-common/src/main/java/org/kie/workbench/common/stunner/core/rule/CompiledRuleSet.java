@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.workbench.common.stunner.core.rule.impl.AbstractOccurrences;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+
+/**
+ * A read only, precompiled form of a {@link RuleSet}.
+ * <p>
+ * The containment, docking, connection and cardinality rules are indexed by their type and by the role they apply
+ * to, so the rules that apply to some given roles are looked up instead of checking each rule in the rule set.
+ * It also keeps lookup tables for the containment, docking and connection rules, so checking if some role can
+ * contain, dock or connect some other role does not evaluate any rule. The tables only answer from the rules in the
+ * rule set, for callers that need a quick answer such as filtering candidates; rule evaluation still goes through the
+ * evaluation handlers, which also consider the rule extensions and the context.
+ * <p>
+ * The rules that apply to several roles are returned in the same order as in the rule set, so the resulting
+ * violations are the same as if evaluating the rules in the rule set.
+ */
+public final class CompiledRuleSet {
+
+    private final String name;
+    private final List<Rule> rules;
+    private final Map<Rule, Integer> positions;
+    private final Map<Class<? extends Rule>, List<Rule>> rulesByType;
+    private final Map<Class<? extends Rule>, Map<String, List<Rule>>> rulesByTypeAndRole;
+    private final Map<String, Set<String>> containment;
+    private final Map<String, Set<String>> docking;
+    private final Map<String, Map<String, Set<String>>> connections;
+
+    public static CompiledRuleSet compile(final RuleSet ruleSet) {
+        return new CompiledRuleSet(ruleSet.getName(),
+                                   ruleSet.getRules());
+    }
+
+    private CompiledRuleSet(final String name,
+                            final Collection<Rule> rules) {
+        this.name = name;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.positions = new HashMap<>(rules.size());
+        this.rulesByType = new HashMap<>();
+        this.rulesByTypeAndRole = new HashMap<>();
+        this.containment = new HashMap<>();
+        this.docking = new HashMap<>();
+        this.connections = new HashMap<>();
+        for (final Rule rule : this.rules) {
+            positions.put(rule,
+                          positions.size());
+            rulesByType.computeIfAbsent(rule.getClass(),
+                                        type -> new ArrayList<>())
+                    .add(rule);
+            final String role = getRole(rule);
+            if (null != role) {
+                rulesByTypeAndRole.computeIfAbsent(rule.getClass(),
+                                                   type -> new HashMap<>())
+                        .computeIfAbsent(role,
+                                         r -> new ArrayList<>())
+                        .add(rule);
+            }
+            if (rule instanceof CanContain) {
+                retainAll(containment,
+                          role,
+                          ((CanContain) rule).getAllowedRoles());
+            } else if (rule instanceof CanDock) {
+                retainAll(docking,
+                          role,
+                          ((CanDock) rule).getAllowedRoles());
+            } else if (rule instanceof CanConnect) {
+                retainAll(connections,
+                          role,
+                          getPermittedConnections((CanConnect) rule));
+            }
+        }
+        rulesByType.replaceAll((type, typeRules) -> Collections.unmodifiableList(typeRules));
+        rulesByTypeAndRole.values()
+                .forEach(rulesByRole -> rulesByRole.replaceAll((role, roleRules) -> Collections.unmodifiableList(roleRules)));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the rules of the given type, in the same order as in the rule set.
+     */
+    public List<Rule> getRules(final Class<? extends Rule> type) {
+        return rulesByType.getOrDefault(type,
+                                        Collections.emptyList());
+    }
+
+    /**
+     * Returns the rules of the given type that apply to any of the given roles, in the same order as in the rule set.
+     */
+    public List<Rule> getRules(final Class<? extends Rule> type,
+                               final Collection<String> roles) {
+        final Map<String, List<Rule>> rulesByRole = rulesByTypeAndRole.get(type);
+        if (null == rulesByRole || roles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Rule> result = null;
+        boolean merged = false;
+        for (final String role : roles) {
+            final List<Rule> roleRules = rulesByRole.get(role);
+            if (null == roleRules) {
+                continue;
+            }
+            if (null == result) {
+                result = roleRules;
+            } else {
+                if (!merged) {
+                    result = new ArrayList<>(result);
+                    merged = true;
+                }
+                result.addAll(roleRules);
+            }
+        }
+        if (null == result) {
+            return Collections.emptyList();
+        }
+        if (merged) {
+            result.sort((r1, r2) -> Integer.compare(positions.get(r1),
+                                                    positions.get(r2)));
+            return Collections.unmodifiableList(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns if there is some containment rule for the parent role, and all of them allow the candidate role.
+     */
+    public boolean canContain(final String parentRole,
+                              final String candidateRole) {
+        final Set<String> allowed = containment.get(parentRole);
+        return null != allowed && allowed.contains(candidateRole);
+    }
+
+    /**
+     * Returns if there is some docking rule for the parent role, and all of them allow the candidate role.
+     */
+    public boolean canDock(final String parentRole,
+                           final String candidateRole) {
+        final Set<String> allowed = docking.get(parentRole);
+        return null != allowed && allowed.contains(candidateRole);
+    }
+
+    /**
+     * Returns if there is some connection rule for the connector role, and all of them permit connecting the
+     * source role to the target role.
+     */
+    public boolean canConnect(final String connectorRole,
+                              final String sourceRole,
+                              final String targetRole) {
+        final Map<String, Set<String>> permitted = connections.get(connectorRole);
+        if (null == permitted) {
+            return false;
+        }
+        final Set<String> targetRoles = permitted.get(sourceRole);
+        return null != targetRoles && targetRoles.contains(targetRole);
+    }
+
+    private static String getRole(final Rule rule) {
+        if (rule instanceof CanContain) {
+            return ((CanContain) rule).getRole();
+        } else if (rule instanceof CanDock) {
+            return ((CanDock) rule).getRole();
+        } else if (rule instanceof CanConnect) {
+            return ((CanConnect) rule).getRole();
+        } else if (rule instanceof AbstractOccurrences) {
+            return ((AbstractOccurrences) rule).getRole();
+        }
+        return null;
+    }
+
+    private static Map<String, Set<String>> getPermittedConnections(final CanConnect rule) {
+        final Map<String, Set<String>> permitted = new HashMap<>();
+        rule.getPermittedConnections()
+                .forEach(pc -> permitted.computeIfAbsent(pc.getStartRole(),
+                                                         role -> new HashSet<>())
+                        .add(pc.getEndRole()));
+        return permitted;
+    }
+
+    private static void retainAll(final Map<String, Set<String>> table,
+                                  final String role,
+                                  final Set<String> allowedRoles) {
+        final Set<String> allowed = table.get(role);
+        if (null == allowed) {
+            table.put(role,
+                      new HashSet<>(allowedRoles));
+        } else {
+            allowed.retainAll(allowedRoles);
+        }
+    }
+
+    private static void retainAll(final Map<String, Map<String, Set<String>>> table,
+                                  final String role,
+                                  final Map<String, Set<String>> permitted) {
+        final Map<String, Set<String>> current = table.get(role);
+        if (null == current) {
+            table.put(role,
+                      permitted);
+        } else {
+            final Iterator<Map.Entry<String, Set<String>>> entries = current.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<String, Set<String>> entry = entries.next();
+                final Set<String> targetRoles = permitted.get(entry.getKey());
+                if (null != targetRoles) {
+                    entry.getValue().retainAll(targetRoles);
+                }
+                if (null == targetRoles || entry.getValue().isEmpty()) {
+                    entries.remove();
+                }
+            }
+        }
+    }
+}
@@ -77,8 +77,16 @@ public class RuleManagerImpl implements RuleManager {
     @Override
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
+        return evaluate(rulesProvider.get(ruleSet, context),
+                        context);
+    }
+
+    /**
+     * Evaluates the context against the given rules, as provided for the context by some rule set.
+     */
+    public RuleViolations evaluate(final Collection<Rule> rules,
+                                   final RuleEvaluationContext context) {
         final DefaultRuleViolations results = new DefaultRuleViolations();
-        final Collection<Rule> rules = rulesProvider.get(ruleSet, context);
 
         // If no rules - no evaluations required - no resulting violations.
         if (rules.isEmpty()) {
@@ -126,7 +134,7 @@ public class RuleManagerImpl implements RuleManager {
                              context);
     }
 
-    private RuleViolations getDefaultViolationForContext(final RuleEvaluationContext context) {
+    static RuleViolations getDefaultViolationForContext(final RuleEvaluationContext context) {
         return new DefaultRuleViolations().addViolation(
                 new ContextOperationNotAllowedViolation(context)
         );
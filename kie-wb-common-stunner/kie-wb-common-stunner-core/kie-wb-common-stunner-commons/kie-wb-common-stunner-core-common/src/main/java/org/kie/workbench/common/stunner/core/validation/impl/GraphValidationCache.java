@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.validation.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+
+/**
+ * Keeps the rule violations for the elements of a graph, as resulting from an incremental validation.
+ * See {@link GraphValidatorImpl#validate(org.kie.workbench.common.stunner.core.graph.Graph, RuleSet, GraphValidationCache, java.util.function.Consumer)}.
+ * <p>
+ * The violations for an element are kept along with the signature of its rule evaluation contexts, and are
+ * only reused while the signature does not change. The elements that are no longer present in the graph are
+ * discarded on each validation, and all the violations are discarded if validating against a different rule set.
+ */
+public class GraphValidationCache {
+
+    private Map<String, Entry> entries;
+    private Map<String, Entry> nextEntries;
+    private RuleSet ruleSet;
+    private long hitCount;
+    private long missCount;
+
+    public GraphValidationCache() {
+        this.entries = new HashMap<>();
+        this.nextEntries = null;
+        this.ruleSet = null;
+        this.hitCount = 0;
+        this.missCount = 0;
+    }
+
+    void start(final RuleSet ruleSet) {
+        if (this.ruleSet != ruleSet) {
+            entries.clear();
+            this.ruleSet = ruleSet;
+        }
+        nextEntries = new HashMap<>(entries.size());
+    }
+
+    Set<RuleViolation> get(final String uuid,
+                           final List<Object> signature) {
+        final Entry entry = entries.get(uuid);
+        if (null != entry && entry.signature.equals(signature)) {
+            hitCount++;
+            return entry.violations;
+        }
+        missCount++;
+        return null;
+    }
+
+    void put(final String uuid,
+             final List<Object> signature,
+             final Set<RuleViolation> violations) {
+        nextEntries.put(uuid,
+                        new Entry(signature,
+                                  violations));
+    }
+
+    void end() {
+        entries = nextEntries;
+        nextEntries = null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void clear() {
+        entries.clear();
+        ruleSet = null;
+    }
+
+    private static class Entry {
+
+        private final List<Object> signature;
+        private final Set<RuleViolation> violations;
+
+        private Entry(final List<Object> signature,
+                      final Set<RuleViolation> violations) {
+            this.signature = signature;
+            this.violations = violations;
+        }
+    }
+}
@@ -16,13 +16,18 @@
 
 package org.kie.workbench.common.stunner.core.validation.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -39,6 +44,7 @@ import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.AbstractTreeTraverseCallback;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessor;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.kie.workbench.common.stunner.core.rule.RuleSet;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
@@ -92,6 +98,79 @@ public class GraphValidatorImpl
                       callback);
     }
 
+    /**
+     * Performs the validation for the <code>graph</code> instance, evaluating the rules for the different graph
+     * elements in parallel if requested. The rule manager and the rule handlers in use must be thread safe, so
+     * it's meant for validating large graphs on server side.
+     * @param graph The instance to validate.
+     * @param ruleSet The rule set instance to validate against it.
+     * @param parallel Whether the rules are evaluated in parallel.
+     * @param resultConsumer The consumer for all the resulting validation violations.
+     */
+    public void validate(final Graph graph,
+                         final RuleSet ruleSet,
+                         final boolean parallel,
+                         final Consumer<Collection<RuleViolation>> resultConsumer) {
+        validate(graph,
+                 Optional.ofNullable(ruleSet),
+                 Optional.empty(),
+                 parallel,
+                 Optional.empty(),
+                 Optional.empty(),
+                 Optional.empty(),
+                 resultConsumer);
+    }
+
+    /**
+     * Performs an incremental validation for the <code>graph</code> instance.
+     * The rules are only evaluated again for the elements whose rule evaluation contexts have changed since the
+     * validation that populated the given <code>cache</code>, the violations for the rest of elements are taken
+     * from the cache. The graph's cardinality rules are always evaluated.
+     * <p>
+     * The evaluation context for an element is given by the roles and the identifiers of the element, its parents,
+     * and for the connectors, of the connected nodes and their connectors. So it must only be used for rule sets
+     * whose evaluations do not depend on anything else, as for example the definition's properties.
+     * @param graph The instance to validate.
+     * @param ruleSet The rule set instance to validate against it.
+     * @param cache The violations from previous validations of the graph, it's updated with the resulting ones.
+     * @param resultConsumer The consumer for all the resulting validation violations.
+     */
+    public void validate(final Graph graph,
+                         final RuleSet ruleSet,
+                         final GraphValidationCache cache,
+                         final Consumer<Collection<RuleViolation>> resultConsumer) {
+        validate(graph,
+                 ruleSet,
+                 cache,
+                 false,
+                 resultConsumer);
+    }
+
+    /**
+     * Performs an incremental validation for the <code>graph</code> instance, see
+     * {@link #validate(Graph, RuleSet, GraphValidationCache, Consumer)}, evaluating the rules for the elements not
+     * present in the cache in parallel if requested, see {@link #validate(Graph, RuleSet, boolean, Consumer)}.
+     * @param graph The instance to validate.
+     * @param ruleSet The rule set instance to validate against it.
+     * @param cache The violations from previous validations of the graph, it's updated with the resulting ones.
+     * @param parallel Whether the rules are evaluated in parallel.
+     * @param resultConsumer The consumer for all the resulting validation violations.
+     */
+    public void validate(final Graph graph,
+                         final RuleSet ruleSet,
+                         final GraphValidationCache cache,
+                         final boolean parallel,
+                         final Consumer<Collection<RuleViolation>> resultConsumer) {
+        validate(graph,
+                 Optional.ofNullable(ruleSet),
+                 Optional.of(cache),
+                 parallel,
+                 Optional.empty(),
+                 Optional.empty(),
+                 Optional.empty(),
+                 resultConsumer);
+    }
+
     /**
      * Performs the validation for the <code>graph</code> instance.
      * @param graph The instance to validate.
@@ -104,17 +183,41 @@ public class GraphValidatorImpl
      * validator for the graph, and all of its nodes and edges. It's being called once the
      * validation has been completed.
      */
+    void validate(final Graph graph,
+                  final Optional<RuleSet> aRuleSet,
+                  final Optional<BiConsumer<Graph, Collection<RuleViolation>>> graphValidatorConsumer,
+                  final Optional<BiConsumer<Node, Collection<RuleViolation>>> nodeValidatorConsumer,
+                  final Optional<BiConsumer<Edge, Collection<RuleViolation>>> edgeValidatorConsumer,
+                  final Consumer<Collection<RuleViolation>> resultConsumer) {
+        validate(graph,
+                 aRuleSet,
+                 Optional.empty(),
+                 false,
+                 graphValidatorConsumer,
+                 nodeValidatorConsumer,
+                 edgeValidatorConsumer,
+                 resultConsumer);
+    }
+
+    /**
+     * The graph is traversed first in order to collect the rule evaluations for each of its elements, then the
+     * evaluations not present in the cache are performed, in parallel if requested, and finally the violations are
+     * given to the consumers in the traversal order.
+     */
     @SuppressWarnings("unchecked")
     void validate(final Graph graph,
                   final Optional<RuleSet> aRuleSet,
+                  final Optional<GraphValidationCache> cache,
+                  final boolean parallel,
                   final Optional<BiConsumer<Graph, Collection<RuleViolation>>> graphValidatorConsumer,
                   final Optional<BiConsumer<Node, Collection<RuleViolation>>> nodeValidatorConsumer,
                   final Optional<BiConsumer<Edge, Collection<RuleViolation>>> edgeValidatorConsumer,
-                  Consumer<Collection<RuleViolation>> resultConsumer) {
-        final RuleSet ruleSet = aRuleSet.orElse(getRuleSet(graph));
-        final ViolationsSet violations = new ViolationsSet();
+                  final Consumer<Collection<RuleViolation>> resultConsumer) {
+        final RuleSet ruleSet = aRuleSet.orElseGet(() -> getRuleSet(graph));
         final StatelessGraphContextBuilder contextBuilder =
                 new StatelessGraphContextBuilder(graph);
+        final List<ElementValidation> validations = new ArrayList<>();
+        cache.ifPresent(c -> c.start(ruleSet));
         treeWalkTraverseProcessor
                 .traverse(graph,
                           new AbstractTreeTraverseCallback<org.kie.workbench.common.stunner.core.graph.Graph, Node, Edge>() {
@@ -127,67 +230,51 @@ public class GraphValidatorImpl
                                   super.startGraphTraversal(graph);
                                   currentParents.clear();
                                   // Evaluate the graph's cardinality rules.
-                                  final Set<RuleViolation> graphCardinalityViolations =
-                                          violations.addViolations(evaluateCardinality(contextBuilder,
-                                                                                       ruleSet));
-                                  graphValidatorConsumer.ifPresent(g -> g.accept(graph,
-                                                                                 graphCardinalityViolations));
+                                  validations.add(new ElementValidation(null,
+                                                                        null,
+                                                                        () -> new ViolationsSet().addViolations(evaluateCardinality(contextBuilder,
+                                                                                                                                    ruleSet)),
+                                                                        v -> graphValidatorConsumer.ifPresent(g -> g.accept(graph,
+                                                                                                                            v))));
                               }
 
                               @Override
                               public boolean startEdgeTraversal(final Edge edge) {
                                   super.startEdgeTraversal(edge);
                                   final Object content = edge.getContent();
-                                  final ViolationsSet edgeViolations =
-                                          new ViolationsSet();
+                                  final Consumer<Collection<RuleViolation>> consumer =
+                                          v -> edgeValidatorConsumer.ifPresent(c -> c.accept(edge,
+                                                                                             v));
                                   if (content instanceof Child) {
                                       this.currentParents.push(edge.getSourceNode());
+                                      validations.add(new ElementValidation(null,
+                                                                            null,
+                                                                            ViolationsSet::new,
+                                                                            consumer));
                                   } else if (content instanceof View) {
-                                      final Optional<Node<? extends View<?>, ? extends Edge>> sourceOpt =
-                                              Optional.ofNullable(edge.getSourceNode());
-                                      final Optional<Node<? extends View<?>, ? extends Edge>> targetOpt =
-                                              Optional.ofNullable(edge.getTargetNode());
-                                      // Check not empty connections.
-                                      final Optional<RuleViolation> emptyConnectionViolation =
-                                              evaluateNotEmptyConnections(edge,
-                                                                          sourceOpt,
-                                                                          targetOpt);
-                                      emptyConnectionViolation.ifPresent(edgeViolations::add);
-                                      // Evaluate connection rules.
-                                      edgeViolations.addViolations(
-                                              evaluateConnection(contextBuilder,
-                                                                 ruleSet,
-                                                                 edge,
-                                                                 sourceOpt,
-                                                                 targetOpt)
-                                      );
-                                      // Evaluate connector cardinality rules for this edge.
-                                      if (null != edge.getTargetNode()) {
-                                          edgeViolations.addViolations(
-                                                  evaluateIncomingEdgeCardinality(contextBuilder,
-                                                                                  ruleSet,
-                                                                                  edge)
-                                          );
-                                      }
-                                      if (null != edge.getSourceNode()) {
-                                          edgeViolations.addViolations(
-                                                  evaluateOutgoingEdgeCardinality(contextBuilder,
-                                                                                  ruleSet,
-                                                                                  edge)
-                                          );
-                                      }
+                                      validations.add(new ElementValidation(edge.getUUID(),
+                                                                            cache.isPresent() ? connectorSignature(edge) : null,
+                                                                            () -> evaluateConnector(contextBuilder,
+                                                                                                    ruleSet,
+                                                                                                    edge),
+                                                                            consumer));
                                   } else if (content instanceof Dock) {
                                       final Node parent = edge.getSourceNode();
                                       final Node docked = edge.getTargetNode();
                                       // Evaluate docking rules for the source & target nodes.
-                                      edgeViolations.addViolations(evaluateDocking(contextBuilder,
-                                                                                   ruleSet,
-                                                                                   parent,
-                                                                                   docked));
+                                      validations.add(new ElementValidation(edge.getUUID(),
+                                                                            cache.isPresent() ? dockSignature(edge) : null,
+                                                                            () -> new ViolationsSet().addViolations(evaluateDocking(contextBuilder,
+                                                                                                                                    ruleSet,
+                                                                                                                                    parent,
+                                                                                                                                    docked)),
+                                                                            consumer));
+                                  } else {
+                                      validations.add(new ElementValidation(null,
+                                                                            null,
+                                                                            ViolationsSet::new,
+                                                                            consumer));
                                   }
-                                  edgeValidatorConsumer.ifPresent(c -> c.accept(edge,
-                                                                                edgeViolations));
-                                  violations.addAll(edgeViolations);
                                   return true;
                               }
 
@@ -202,35 +289,85 @@ public class GraphValidatorImpl
                               @Override
                               public boolean startNodeTraversal(final Node node) {
                                   super.startNodeTraversal(node);
-                                  final Collection<RuleViolation> nodeViolations =
-                                          evaluateNode(node,
-                                                       currentParents.isEmpty() ?
-                                                               null :
-                                                               currentParents.peek());
-                                  nodeValidatorConsumer.ifPresent(c -> c.accept(node,
-                                                                                nodeViolations));
+                                  final Node parent = currentParents.isEmpty() ?
+                                          null :
+                                          currentParents.peek();
+                                  // Evaluate containment rules for this node.
+                                  validations.add(new ElementValidation(node.getUUID(),
+                                                                        cache.isPresent() ? nodeSignature(graph,
+                                                                                                          currentParents,
+                                                                                                          node) : null,
+                                                                        () -> new ViolationsSet().addViolations(evaluateContainment(ruleSet,
+                                                                                                                                    contextBuilder,
+                                                                                                                                    null != parent ? parent : graph,
+                                                                                                                                    node)),
+                                                                        v -> nodeValidatorConsumer.ifPresent(c -> c.accept(node,
+                                                                                                                           v))));
                                   return true;
                               }
 
                               @Override
                               public void endGraphTraversal() {
                                   super.endGraphTraversal();
+                                  final ViolationsSet violations = new ViolationsSet();
+                                  cache.ifPresent(c -> validations.forEach(v -> v.lookup(c)));
+                                  (parallel ? validations.parallelStream() : validations.stream())
+                                          .filter(ElementValidation::isPending)
+                                          .forEach(ElementValidation::evaluate);
+                                  for (final ElementValidation validation : validations) {
+                                      cache.ifPresent(validation::store);
+                                      validation.consumer.accept(validation.violations);
+                                      violations.addAll(validation.violations);
+                                  }
+                                  cache.ifPresent(GraphValidationCache::end);
 
                                   // Finished - feed the consumer instance.
                                   resultConsumer.accept(violations);
                               }
-
-                              private Collection<RuleViolation> evaluateNode(final Node node,
-                                                                             final Node parent) {
-                                  // Evaluate containment rules for this node.
-                                  return violations.addViolations(evaluateContainment(ruleSet,
-                                                                                      contextBuilder,
-                                                                                      null != parent ? parent : graph,
-                                                                                      node));
-                              }
                           });
     }
 
+    @SuppressWarnings("unchecked")
+    private Set<RuleViolation> evaluateConnector(final StatelessGraphContextBuilder contextBuilder,
+                                                 final RuleSet ruleSet,
+                                                 final Edge edge) {
+        final ViolationsSet edgeViolations = new ViolationsSet();
+        final Optional<Node<? extends View<?>, ? extends Edge>> sourceOpt =
+                Optional.ofNullable(edge.getSourceNode());
+        final Optional<Node<? extends View<?>, ? extends Edge>> targetOpt =
+                Optional.ofNullable(edge.getTargetNode());
+        // Check not empty connections.
+        final Optional<RuleViolation> emptyConnectionViolation =
+                evaluateNotEmptyConnections(edge,
+                                            sourceOpt,
+                                            targetOpt);
+        emptyConnectionViolation.ifPresent(edgeViolations::add);
+        // Evaluate connection rules.
+        edgeViolations.addViolations(
+                evaluateConnection(contextBuilder,
+                                   ruleSet,
+                                   edge,
+                                   sourceOpt,
+                                   targetOpt)
+        );
+        // Evaluate connector cardinality rules for this edge.
+        if (null != edge.getTargetNode()) {
+            edgeViolations.addViolations(
+                    evaluateIncomingEdgeCardinality(contextBuilder,
+                                                    ruleSet,
+                                                    edge)
+            );
+        }
+        if (null != edge.getSourceNode()) {
+            edgeViolations.addViolations(
+                    evaluateOutgoingEdgeCardinality(contextBuilder,
+                                                    ruleSet,
+                                                    edge)
+            );
+        }
+        return edgeViolations;
+    }
+
     private RuleSet getRuleSet(final Graph<? extends DefinitionSet, ?> graph) {
         final String defSetId = graph.getContent().getDefinition();
         final Object definitionSet = definitionManager.definitionSets().getDefinitionSetById(defSetId);
@@ -324,7 +461,122 @@ public class GraphValidatorImpl
                                                          Optional.empty()));
     }
 
-    private class ViolationsSet extends LinkedHashSet<RuleViolation> {
+    private static List<Object> nodeSignature(final Graph graph,
+                                              final List<Node> parents,
+                                              final Node node) {
+        final List<Object> signature = new ArrayList<>();
+        addElement(signature,
+                   node);
+        signature.add(graph.getUUID());
+        parents.forEach(parent -> addElement(signature,
+                                             parent));
+        return signature;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> connectorSignature(final Edge edge) {
+        final List<Object> signature = new ArrayList<>();
+        addElement(signature,
+                   edge);
+        addConnectedNode(signature,
+                         edge.getSourceNode(),
+                         edge.getSourceNode() != null ? edge.getSourceNode().getOutEdges() : null);
+        addConnectedNode(signature,
+                         edge.getTargetNode(),
+                         edge.getTargetNode() != null ? edge.getTargetNode().getInEdges() : null);
+        return signature;
+    }
+
+    private static List<Object> dockSignature(final Edge edge) {
+        final List<Object> signature = new ArrayList<>();
+        addElement(signature,
+                   edge);
+        addElement(signature,
+                   edge.getSourceNode());
+        addElement(signature,
+                   edge.getTargetNode());
+        return signature;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addConnectedNode(final List<Object> signature,
+                                         final Node node,
+                                         final List<Edge> edges) {
+        addElement(signature,
+                   node);
+        if (null != node) {
+            Element<?> parent = GraphUtils.getParent(node);
+            while (parent instanceof Node) {
+                addElement(signature,
+                           parent);
+                parent = GraphUtils.getParent((Node) parent);
+            }
+            signature.add(edges.size());
+            edges.forEach(edge -> addElement(signature,
+                                             edge));
+        }
+    }
+
+    private static void addElement(final List<Object> signature,
+                                   final Element<?> element) {
+        if (null == element) {
+            signature.add(null);
+        } else {
+            signature.add(element.getUUID());
+            signature.add(null != element.getLabels() ? new HashSet<>(element.getLabels()) : Collections.emptySet());
+        }
+    }
+
+    /**
+     * The rule evaluations for a single graph element.
+     */
+    private static class ElementValidation {
+
+        private final String uuid;
+        private final List<Object> signature;
+        private final Supplier<Set<RuleViolation>> evaluation;
+        private final Consumer<Collection<RuleViolation>> consumer;
+        private Set<RuleViolation> violations;
+
+        private ElementValidation(final String uuid,
+                                  final List<Object> signature,
+                                  final Supplier<Set<RuleViolation>> evaluation,
+                                  final Consumer<Collection<RuleViolation>> consumer) {
+            this.uuid = uuid;
+            this.signature = signature;
+            this.evaluation = evaluation;
+            this.consumer = consumer;
+        }
+
+        private boolean isCacheable() {
+            return null != uuid && null != signature;
+        }
+
+        private boolean isPending() {
+            return null == violations;
+        }
+
+        private void lookup(final GraphValidationCache cache) {
+            if (isCacheable()) {
+                violations = cache.get(uuid,
+                                       signature);
+            }
+        }
+
+        private void evaluate() {
+            violations = evaluation.get();
+        }
+
+        private void store(final GraphValidationCache cache) {
+            if (isCacheable()) {
+                cache.put(uuid,
+                          signature,
+                          violations);
+            }
+        }
+    }
+
+    private static class ViolationsSet extends LinkedHashSet<RuleViolation> {
 
         public Set<RuleViolation> addViolations(final RuleViolations items) {
             final Set<RuleViolation> result = new LinkedHashSet<>();
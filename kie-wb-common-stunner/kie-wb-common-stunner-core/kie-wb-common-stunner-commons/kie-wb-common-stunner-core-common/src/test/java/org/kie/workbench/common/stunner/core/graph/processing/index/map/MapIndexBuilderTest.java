@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.command.CommandResult;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
+import org.kie.workbench.common.stunner.core.graph.command.impl.ClearGraphCommand;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MapIndexBuilderTest {
+
+    private static final String ROOT_UUID = "root";
+
+    private static final int NODES_COUNT = 2000;
+
+    private MapIndexBuilder tested;
+
+    private Graph<?, Node> graph;
+
+    private List<Node> nodes;
+
+    private int edgesCount;
+
+    @Before
+    public void setUp() {
+        tested = new MapIndexBuilder();
+        graph = new GraphImpl<>("graph",
+                                new GraphNodeStoreImpl());
+        nodes = new ArrayList<>();
+        edgesCount = 0;
+        final Node root = addNode(ROOT_UUID);
+        Node previous = null;
+        for (int i = 0; i < NODES_COUNT; i++) {
+            final Node node = addNode("node" + i);
+            connect(root,
+                    node);
+            if (null != previous) {
+                connect(previous,
+                        node);
+            }
+            previous = node;
+        }
+    }
+
+    @Test
+    public void testBuildLargeGraph() {
+        final MapIndex index = tested.build(graph);
+        assertConsistent(index);
+        assertEquals(NODES_COUNT + 1,
+                     index.nodes.size());
+        assertEquals(2 * NODES_COUNT - 1,
+                     index.edges.size());
+    }
+
+    @Test
+    public void testDeltasKeepTheIndexConsistent() {
+        final MapIndex index = tested.build(graph);
+        final Node root = index.getNode(ROOT_UUID);
+        for (int i = 0; i < NODES_COUNT / 2; i++) {
+            // Same changes the register node and add connector commands apply.
+            final Node node = addNode("added" + i);
+            index.addNode(node);
+            index.addEdge(connect(root,
+                                  node));
+            // Same changes the delete connector and deregister node commands apply.
+            final Node deleted = nodes.get(1 + i * 2);
+            for (Edge edge : new ArrayList<Edge>(deleted.getInEdges())) {
+                index.removeEdge(disconnect(edge));
+            }
+            for (Edge edge : new ArrayList<Edge>(deleted.getOutEdges())) {
+                index.removeEdge(disconnect(edge));
+            }
+            graph.removeNode(deleted.getUUID());
+            index.removeNode(deleted);
+        }
+        assertConsistent(index);
+    }
+
+    @Test
+    public void testUpdateResynchronizesInPlace() {
+        final MapIndex index = tested.build(graph);
+        final Map<String, Node> indexedNodes = index.nodes;
+        final Map<String, Edge> indexedEdges = index.edges;
+        final Node root = index.getNode(ROOT_UUID);
+        final Node added = addNode("added");
+        connect(root,
+                added);
+        final Node removed = nodes.get(NODES_COUNT);
+        for (Edge edge : new ArrayList<Edge>(removed.getInEdges())) {
+            disconnect(edge);
+        }
+        graph.removeNode(removed.getUUID());
+        assertNotEquals(0,
+                        MapIndexConsistencyChecker.check(index).size());
+
+        tested.update(index,
+                      graph);
+        assertConsistent(index);
+        assertSame(indexedNodes,
+                   index.nodes);
+        assertSame(indexedEdges,
+                   index.edges);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClearGraphRemovesTheEdgesOfTheRemovedNodes() {
+        final MapIndex index = tested.build(graph);
+        final GraphCommandExecutionContext context = mock(GraphCommandExecutionContext.class);
+        when(context.getGraphIndex()).thenReturn(index);
+
+        final CommandResult<RuleViolation> result = new ClearGraphCommand(ROOT_UUID).execute(context);
+        assertNotEquals(CommandResult.Type.ERROR,
+                        result.getType());
+        assertConsistent(index);
+        assertEquals(1,
+                     index.nodes.size());
+        assertTrue(index.edges.isEmpty());
+    }
+
+    private static void assertConsistent(final MapIndex index) {
+        assertEquals(new ArrayList<String>(),
+                     MapIndexConsistencyChecker.check(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node addNode(final String uuid) {
+        final Node node = new NodeImpl<>(uuid);
+        graph.addNode(node);
+        nodes.add(node);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Edge connect(final Node source,
+                         final Node target) {
+        final EdgeImpl<Object> edge = new EdgeImpl<>("edge" + edgesCount++);
+        edge.setSourceNode(source);
+        edge.setTargetNode(target);
+        source.getOutEdges().add(edge);
+        target.getInEdges().add(edge);
+        return edge;
+    }
+
+    private static Edge disconnect(final Edge edge) {
+        edge.getSourceNode().getOutEdges().remove(edge);
+        edge.getTargetNode().getInEdges().remove(edge);
+        return edge;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.map;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Node;
+
+/**
+ * Checks that a MapIndex holds exactly the nodes of its graph and their outgoing edges, as a full rebuild would.
+ */
+public class MapIndexConsistencyChecker {
+
+    /**
+     * @return the inconsistencies found, empty when the index is consistent with its graph.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> check(final MapIndex index) {
+        final Map<String, Node> nodes = new HashMap<>();
+        final Map<String, Edge> edges = new HashMap<>();
+        for (Node node : index.getGraph().nodes()) {
+            nodes.put(node.getUUID(),
+                      node);
+            final List<Edge> outEdges = node.getOutEdges();
+            outEdges.forEach(edge -> edges.put(edge.getUUID(),
+                                               edge));
+        }
+        final List<String> inconsistencies = new ArrayList<>();
+        compare("Node",
+                nodes,
+                index.nodes,
+                inconsistencies);
+        compare("Edge",
+                edges,
+                index.edges,
+                inconsistencies);
+        return inconsistencies;
+    }
+
+    private static <T> void compare(final String type,
+                                    final Map<String, T> expected,
+                                    final Map<String, T> indexed,
+                                    final List<String> inconsistencies) {
+        expected.forEach((uuid, element) -> {
+            final T indexedElement = indexed.get(uuid);
+            if (null == indexedElement) {
+                inconsistencies.add(type + " [" + uuid + "] is not indexed.");
+            } else if (indexedElement != element) {
+                inconsistencies.add(type + " [" + uuid + "] is indexed with a stale instance.");
+            }
+        });
+        indexed.keySet().stream()
+                .filter(uuid -> !expected.containsKey(uuid))
+                .forEach(uuid -> inconsistencies.add(type + " [" + uuid + "] is indexed but not in the graph."));
+    }
+}
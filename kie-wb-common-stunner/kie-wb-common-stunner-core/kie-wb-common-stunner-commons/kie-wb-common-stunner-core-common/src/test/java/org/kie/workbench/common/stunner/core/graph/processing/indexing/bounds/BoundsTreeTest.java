@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.BoundsTree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BoundsTreeTest {
+
+    private static final int VALUES_COUNT = 5000;
+
+    @Test
+    public void testEmptyTree() {
+        final BoundsTree<Integer> tree = BoundsTree.<Integer>builder().build();
+        final Set<Integer> found = new HashSet<>();
+        tree.search(0,
+                    0,
+                    found::add);
+        assertEquals(0,
+                     tree.size());
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    public void testSearchIncludesTheBounds() {
+        final BoundsTree<Integer> tree = BoundsTree.<Integer>builder()
+                .add(1,
+                     10,
+                     10,
+                     20,
+                     20)
+                .build();
+        final Set<Integer> found = new HashSet<>();
+        tree.search(20,
+                    10,
+                    found::add);
+        assertEquals(1,
+                     found.size());
+        found.clear();
+        tree.search(20.1,
+                    10,
+                    found::add);
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    public void testSearchFindsTheSameValuesAsAFullScan() {
+        final Random random = new Random(7);
+        final double[][] bounds = new double[VALUES_COUNT][];
+        final BoundsTree.Builder<Integer> builder = BoundsTree.builder();
+        for (int i = 0; i < VALUES_COUNT; i++) {
+            final double x = random.nextInt(5000);
+            final double y = random.nextInt(5000);
+            bounds[i] = new double[]{x, y, x + 1 + random.nextInt(200), y + 1 + random.nextInt(200)};
+            builder.add(i,
+                        bounds[i][0],
+                        bounds[i][1],
+                        bounds[i][2],
+                        bounds[i][3]);
+        }
+        final BoundsTree<Integer> tree = builder.build();
+        assertEquals(VALUES_COUNT,
+                     tree.size());
+        for (int i = 0; i < 500; i++) {
+            final double x = random.nextInt(5200);
+            final double y = random.nextInt(5200);
+            final double w = i % 2 == 0 ? 0 : random.nextInt(300);
+            final double h = i % 2 == 0 ? 0 : random.nextInt(300);
+            final Set<Integer> expected = new HashSet<>();
+            for (int j = 0; j < VALUES_COUNT; j++) {
+                if (bounds[j][0] <= x + w && bounds[j][2] >= x && bounds[j][1] <= y + h && bounds[j][3] >= y) {
+                    expected.add(j);
+                }
+            }
+            final Set<Integer> found = new HashSet<>();
+            tree.search(x,
+                        y,
+                        x + w,
+                        y + h,
+                        found::add);
+            assertEquals(expected,
+                         found);
+        }
+    }
+}
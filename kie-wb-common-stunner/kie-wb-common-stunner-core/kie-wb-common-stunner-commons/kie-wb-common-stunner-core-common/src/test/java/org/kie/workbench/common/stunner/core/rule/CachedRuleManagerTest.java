@@ -19,6 +19,7 @@ package org.kie.workbench.common.stunner.core.rule;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Optional;
 
 import org.junit.Before;
@@ -29,17 +30,25 @@ import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
 import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
 import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
 import org.kie.workbench.common.stunner.core.rule.context.impl.RuleEvaluationContextBuilder;
-import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
 import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
 import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
 import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.violations.ContainmentRuleViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -54,11 +63,28 @@ public class CachedRuleManagerTest {
                                                                          add(("role2"));
                                                                      }});
 
+    private static final CanContain containmentRule2 = new CanContain("cont2",
+                                                                      "role3",
+                                                                      new HashSet<String>() {{
+                                                                          add(("role4"));
+                                                                      }});
+
     private static final CanConnect connectionRule = new CanConnect("conn1",
                                                                     "role1",
                                                                     Arrays.asList(new CanConnect.PermittedConnection("role1",
                                                                                                                      "role2")));
 
+    private static final RuleExtension extension1 = new RuleExtension("ext1",
+                                                                      "role1");
+
+    private static final RuleExtension extension2 = new RuleExtension("ext2",
+                                                                      "role1");
+
+    private static final RuleSet roleRuleSet = new RuleSetImpl("roleRuleSet",
+                                                               Arrays.asList(containmentRule,
+                                                                             connectionRule,
+                                                                             containmentRule2));
+
     @Mock
     private RuleSet ruleSet;
 
@@ -66,14 +92,14 @@ public class CachedRuleManagerTest {
                                                                                                             Collections.emptySet());
 
     @Mock
-    private ContainmentEvaluationHandler containmentHandler;
+    private RuleEvaluationHandler containmentHandler;
 
     private ConnectionContext connectionContext = RuleEvaluationContextBuilder.DomainContexts.connection("role1",
                                                                                                          Optional.empty(),
                                                                                                          Optional.empty());
 
     @Mock
-    private ConnectionEvaluationHandler connectionHandler;
+    private RuleEvaluationHandler connectionHandler;
 
     @Mock
     private RuleHandlerRegistry ruleHandlerRegistry;
@@ -124,4 +150,114 @@ public class CachedRuleManagerTest {
         verify(containmentHandler, never()).evaluate(any(CanContain.class),
                                                      any(ContainmentContext.class));
     }
+
+    @Test
+    public void testEvaluateOnlyRulesForContextRoles() {
+        final RuleManagerImpl delegate = newRoleIndexedDelegate(new ContainmentEvaluationHandler());
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                   Collections.singleton("role3"));
+        final RuleViolations result = newCachedRuleManager(delegate).evaluate(roleRuleSet,
+                                                                              context);
+        final Iterator<RuleViolation> violations = result.violations().iterator();
+        assertTrue(violations.next() instanceof ContainmentRuleViolation);
+        assertFalse(violations.hasNext());
+        verify(delegate, times(1)).evaluate(eq(Collections.singletonList(containmentRule)),
+                                            eq(context));
+    }
+
+    @Test
+    public void testEvaluateAllowedRulesForContextRoles() {
+        final RuleManagerImpl delegate = newRoleIndexedDelegate(new ContainmentEvaluationHandler());
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                   Collections.singleton("role2"));
+        final RuleViolations result = newCachedRuleManager(delegate).evaluate(roleRuleSet,
+                                                                              context);
+        assertFalse(result.violations().iterator().hasNext());
+        verify(delegate, times(1)).evaluate(eq(Collections.singletonList(containmentRule)),
+                                            eq(context));
+    }
+
+    @Test
+    public void testEvaluateExtensionsWithRulesForContextRoles() {
+        final RuleManagerImpl delegate = newRoleIndexedDelegate(new ContainmentEvaluationHandler());
+        final RuleSet ruleSet = new RuleSetImpl("extRuleSet",
+                                                Arrays.asList(extension1,
+                                                              containmentRule2,
+                                                              containmentRule,
+                                                              extension2));
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                   Collections.singleton("role3"));
+        newCachedRuleManager(delegate).evaluate(ruleSet,
+                                                context);
+        verify(delegate, times(1)).evaluate(eq(Arrays.asList(containmentRule,
+                                                             extension1,
+                                                             extension2)),
+                                            eq(context));
+    }
+
+    @Test
+    public void testEvaluateNoRulesForContextRoles() {
+        final RuleManagerImpl delegate = newRoleIndexedDelegate(new ContainmentEvaluationHandler());
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role5"),
+                                                                                                   Collections.singleton("role1"));
+        final RuleViolations result = newCachedRuleManager(delegate).evaluate(roleRuleSet,
+                                                                              context);
+        final Iterator<RuleViolation> violations = result.violations().iterator();
+        assertTrue(violations.next() instanceof ContextOperationNotAllowedViolation);
+        assertFalse(violations.hasNext());
+        verify(delegate, never()).evaluate(anyCollection(),
+                                           any(ContainmentContext.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEvaluateAllRulesForCustomHandlers() {
+        final RuleEvaluationHandler customHandler = mock(RuleEvaluationHandler.class);
+        when(customHandler.getRuleType()).thenReturn(CanContain.class);
+        when(customHandler.getContextType()).thenReturn(ContainmentContext.class);
+        when(customHandler.accepts(any(CanContain.class), any(ContainmentContext.class))).thenReturn(true);
+        when(customHandler.evaluate(any(CanContain.class), any(ContainmentContext.class))).thenReturn(new DefaultRuleViolations());
+        final RuleManagerImpl delegate = newRoleIndexedDelegate(customHandler);
+        final ContainmentContext context = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role5"),
+                                                                                                   Collections.singleton("role1"));
+        newCachedRuleManager(delegate).evaluate(roleRuleSet,
+                                                context);
+        verify(delegate, times(1)).evaluate(eq(Arrays.asList(containmentRule,
+                                                             containmentRule2)),
+                                            eq(context));
+        verify(customHandler, times(1)).evaluate(eq(containmentRule2),
+                                                 eq(context));
+    }
+
+    private RuleManagerImpl newRoleIndexedDelegate(final RuleEvaluationHandler handler) {
+        final RegistryFactory registryFactory = mock(RegistryFactory.class);
+        final RuleHandlerRegistry registry = mock(RuleHandlerRegistry.class);
+        when(registryFactory.newRuleHandlerRegistry()).thenReturn(registry);
+        when(registry.getHandlersByContext(eq(ContainmentContext.class))).thenReturn(Collections.singletonList(handler));
+        return spy(new RuleManagerImpl(registryFactory));
+    }
+
+    private static CachedRuleManager newCachedRuleManager(final RuleManagerImpl delegate) {
+        final CachedRuleManager cachedRuleManager = new CachedRuleManager(delegate);
+        cachedRuleManager.init();
+        return cachedRuleManager;
+    }
+
+    @Test
+    public void testGetCompiledRuleSet() {
+        final CompiledRuleSet compiledRuleSet = tested.getCompiledRuleSet(ruleSet);
+        assertEquals(compiledRuleSet,
+                     tested.getCompiledRuleSet(ruleSet));
+        assertTrue(compiledRuleSet.canContain("role1",
+                                              "role2"));
+        assertTrue(compiledRuleSet.canConnect("role1",
+                                              "role1",
+                                              "role2"));
+        verify(ruleSet, times(1)).getRules();
+        // The lookup tables answer from the rule set, no handler is involved.
+        verify(containmentHandler, never()).evaluate(any(CanContain.class),
+                                                     any(ContainmentContext.class));
+        verify(connectionHandler, never()).evaluate(any(CanConnect.class),
+                                                    any(ConnectionContext.class));
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
+import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
+import org.kie.workbench.common.stunner.core.rule.impl.EdgeOccurrences;
+import org.kie.workbench.common.stunner.core.rule.impl.Occurrences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledRuleSetTest {
+
+    private static final CanContain CONTAINMENT_1 = new CanContain("cont1",
+                                                                   "diagram",
+                                                                   new HashSet<>(Arrays.asList("task",
+                                                                                               "event",
+                                                                                               "lane")));
+    private static final CanContain CONTAINMENT_2 = new CanContain("cont2",
+                                                                   "lane",
+                                                                   new HashSet<>(Arrays.asList("task",
+                                                                                               "event")));
+    private static final CanContain CONTAINMENT_3 = new CanContain("cont3",
+                                                                   "diagram",
+                                                                   new HashSet<>(Arrays.asList("task",
+                                                                                               "lane")));
+    private static final CanDock DOCKING = new CanDock("dock1",
+                                                       "task",
+                                                       Collections.singleton("event"));
+    private static final CanConnect CONNECTION_1 = new CanConnect("conn1",
+                                                                  "sequence",
+                                                                  Arrays.asList(new CanConnect.PermittedConnection("task",
+                                                                                                                   "task"),
+                                                                                new CanConnect.PermittedConnection("task",
+                                                                                                                   "event"),
+                                                                                new CanConnect.PermittedConnection("event",
+                                                                                                                   "task")));
+    private static final CanConnect CONNECTION_2 = new CanConnect("conn2",
+                                                                  "sequence",
+                                                                  Arrays.asList(new CanConnect.PermittedConnection("task",
+                                                                                                                   "task"),
+                                                                                new CanConnect.PermittedConnection("event",
+                                                                                                                   "task")));
+    private static final Occurrences OCCURRENCES = new Occurrences("occ1",
+                                                                   "event",
+                                                                   0,
+                                                                   1);
+    private static final EdgeOccurrences EDGE_OCCURRENCES = new EdgeOccurrences("edgeOcc1",
+                                                                                 "sequence",
+                                                                                 "event",
+                                                                                 EdgeCardinalityContext.Direction.OUTGOING,
+                                                                                 0,
+                                                                                 1);
+
+    private CompiledRuleSet tested;
+
+    @Before
+    public void setUp() {
+        tested = CompiledRuleSet.compile(new RuleSetImpl("ruleSet",
+                                                         Arrays.asList(CONTAINMENT_1,
+                                                                       DOCKING,
+                                                                       CONTAINMENT_2,
+                                                                       CONNECTION_1,
+                                                                       OCCURRENCES,
+                                                                       CONTAINMENT_3,
+                                                                       EDGE_OCCURRENCES,
+                                                                       CONNECTION_2)));
+    }
+
+    @Test
+    public void testGetRules() {
+        assertEquals("ruleSet",
+                     tested.getName());
+        assertEquals(8,
+                     tested.getRules().size());
+        assertEquals(Arrays.asList(CONTAINMENT_1,
+                                   CONTAINMENT_2,
+                                   CONTAINMENT_3),
+                     tested.getRules(CanContain.class));
+        assertEquals(Collections.singletonList(EDGE_OCCURRENCES),
+                     tested.getRules(EdgeOccurrences.class));
+        assertTrue(tested.getRules(Rule.class).isEmpty());
+    }
+
+    @Test
+    public void testGetRulesByRole() {
+        assertEquals(Arrays.asList(CONTAINMENT_1,
+                                   CONTAINMENT_3),
+                     tested.getRules(CanContain.class,
+                                     Collections.singleton("diagram")));
+        assertEquals(Collections.singletonList(OCCURRENCES),
+                     tested.getRules(Occurrences.class,
+                                     Collections.singleton("event")));
+        assertEquals(Collections.singletonList(EDGE_OCCURRENCES),
+                     tested.getRules(EdgeOccurrences.class,
+                                     Collections.singleton("event")));
+        assertTrue(tested.getRules(CanDock.class,
+                                   Collections.singleton("event")).isEmpty());
+        assertTrue(tested.getRules(CanContain.class,
+                                   Collections.emptySet()).isEmpty());
+    }
+
+    @Test
+    public void testGetRulesBySeveralRolesKeepsOrder() {
+        final List<Rule> rules = tested.getRules(CanContain.class,
+                                                 Arrays.asList("lane",
+                                                               "unknown",
+                                                               "diagram"));
+        assertEquals(Arrays.asList(CONTAINMENT_1,
+                                   CONTAINMENT_2,
+                                   CONTAINMENT_3),
+                     rules);
+    }
+
+    @Test
+    public void testCanContain() {
+        assertTrue(tested.canContain("diagram",
+                                     "task"));
+        assertTrue(tested.canContain("diagram",
+                                     "lane"));
+        // Not allowed by all the containment rules for the role.
+        assertFalse(tested.canContain("diagram",
+                                      "event"));
+        assertTrue(tested.canContain("lane",
+                                     "event"));
+        assertFalse(tested.canContain("lane",
+                                      "lane"));
+        assertFalse(tested.canContain("task",
+                                      "event"));
+    }
+
+    @Test
+    public void testCanDock() {
+        assertTrue(tested.canDock("task",
+                                  "event"));
+        assertFalse(tested.canDock("task",
+                                   "task"));
+        assertFalse(tested.canDock("event",
+                                   "task"));
+    }
+
+    @Test
+    public void testCanConnect() {
+        assertTrue(tested.canConnect("sequence",
+                                     "task",
+                                     "task"));
+        assertTrue(tested.canConnect("sequence",
+                                     "event",
+                                     "task"));
+        // Not permitted by all the connection rules for the connector role.
+        assertFalse(tested.canConnect("sequence",
+                                      "task",
+                                      "event"));
+        assertFalse(tested.canConnect("sequence",
+                                      "event",
+                                      "event"));
+        assertFalse(tested.canConnect("message",
+                                      "task",
+                                      "task"));
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.validation.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.RuleEvaluationContext;
+import org.kie.workbench.common.stunner.core.rule.RuleManager;
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
+import org.kie.workbench.common.stunner.core.rule.context.ConnectorCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.GraphConnectionContext;
+import org.kie.workbench.common.stunner.core.rule.context.NodeContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+import org.kie.workbench.common.stunner.core.rule.violations.RuleViolationImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the full, incremental and parallel validations of a large graph.
+ */
+public class GraphValidatorImplLargeGraphTest {
+
+    private static final int NODES_COUNT = 3000;
+    private static final int SUBPROCESS_SIZE = 100;
+    private static final String INVALID = "invalid";
+
+    private final AtomicInteger evaluationsCount = new AtomicInteger();
+
+    private Graph<?, Node> graph;
+    private List<Node> tasks;
+    private RuleSet ruleSet;
+    private GraphValidatorImpl tested;
+
+    @Before
+    public void setUp() {
+        graph = new GraphImpl<>("graph",
+                                new GraphNodeStoreImpl());
+        tasks = new ArrayList<>();
+        ruleSet = mock(RuleSet.class);
+        final Node root = addNode("root");
+        Node subprocess = null;
+        for (int i = 0; i < NODES_COUNT; i++) {
+            if (i % SUBPROCESS_SIZE == 0) {
+                subprocess = addNode("subprocess" + i);
+                addChild(root,
+                         subprocess);
+            }
+            final Node task = addNode("task" + i);
+            task.getLabels().add(i % 250 == 0 ? INVALID : "task");
+            addChild(subprocess,
+                     task);
+            tasks.add(task);
+            if (i % 3 != 0) {
+                connect("edge" + i,
+                        tasks.get(i - 1),
+                        task);
+            }
+            if (i % 30 == 1 && i > 1) {
+                connect("extraEdge" + i,
+                        tasks.get(i - 2),
+                        task);
+            }
+        }
+        tested = new GraphValidatorImpl(null,
+                                        new TestRuleManager(),
+                                        new TreeWalkTraverseProcessorImpl());
+    }
+
+    @Test
+    public void testIncrementalValidation() {
+        final List<String> fullViolations = validate();
+        final int fullEvaluations = evaluationsCount.getAndSet(0);
+        assertFalse(fullViolations.isEmpty());
+
+        final GraphValidationCache cache = new GraphValidationCache();
+        assertEquals(fullViolations,
+                     validate(cache));
+        assertEquals(fullEvaluations,
+                     evaluationsCount.getAndSet(0));
+
+        // Nothing changed, so just the graph's cardinality is evaluated again.
+        assertEquals(fullViolations,
+                     validate(cache));
+        assertEquals(1,
+                     evaluationsCount.getAndSet(0));
+        assertEquals(cache.size(),
+                     cache.getHitCount());
+
+        // Change a node's roles and remove a connector.
+        final Node changed = tasks.get(1001);
+        changed.getLabels().clear();
+        changed.getLabels().add(INVALID);
+        final Edge removed = (Edge) tasks.get(1501).getInEdges().stream()
+                .filter(e -> ((Edge) e).getContent() instanceof ViewConnectorImpl)
+                .findFirst()
+                .get();
+        removed.getSourceNode().getOutEdges().remove(removed);
+        removed.getTargetNode().getInEdges().remove(removed);
+
+        final List<String> incrementalViolations = validate(cache);
+        final int incrementalEvaluations = evaluationsCount.getAndSet(0);
+        assertEquals(validate(),
+                     incrementalViolations);
+        assertTrue(incrementalViolations.contains("containment task1001"));
+        assertTrue("Evaluations: " + incrementalEvaluations,
+                   incrementalEvaluations < 20);
+    }
+
+    @Test
+    public void testParallelValidation() {
+        final List<String> sequentialViolations = validate();
+        final int sequentialEvaluations = evaluationsCount.getAndSet(0);
+        assertEquals(sequentialViolations,
+                     validate(true));
+        assertEquals(sequentialEvaluations,
+                     evaluationsCount.getAndSet(0));
+        final GraphValidationCache cache = new GraphValidationCache();
+        assertEquals(sequentialViolations,
+                     validate(cache,
+                              true));
+        assertEquals(sequentialViolations,
+                     validate(cache,
+                              true));
+        // The parallel evaluation is not kept for the next validations.
+        assertEquals(sequentialViolations,
+                     validate());
+    }
+
+    private List<String> validate() {
+        return validate(false);
+    }
+
+    private List<String> validate(final boolean parallel) {
+        final List<String> result = new ArrayList<>();
+        tested.validate(graph,
+                        ruleSet,
+                        parallel,
+                        violations -> result.addAll(messages(violations)));
+        return result;
+    }
+
+    private List<String> validate(final GraphValidationCache cache) {
+        return validate(cache,
+                        false);
+    }
+
+    private List<String> validate(final GraphValidationCache cache,
+                                  final boolean parallel) {
+        final List<String> result = new ArrayList<>();
+        tested.validate(graph,
+                        ruleSet,
+                        cache,
+                        parallel,
+                        violations -> result.addAll(messages(violations)));
+        return result;
+    }
+
+    private static List<String> messages(final Collection<RuleViolation> violations) {
+        return violations.stream()
+                .map(RuleViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node addNode(final String uuid) {
+        final Node node = new NodeImpl<>(uuid);
+        graph.addNode(node);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addChild(final Node parent,
+                                 final Node child) {
+        final Edge edge = new EdgeImpl<>(parent.getUUID() + "_" + child.getUUID());
+        edge.setContent(new Child());
+        link(edge,
+             parent,
+             child);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void connect(final String uuid,
+                                final Node source,
+                                final Node target) {
+        final Edge edge = new EdgeImpl<>(uuid);
+        edge.setContent(new ViewConnectorImpl<>(new Object(),
+                                                Bounds.create(0,
+                                                              0,
+                                                              10,
+                                                              10)));
+        edge.getLabels().add("sequence");
+        link(edge,
+             source,
+             target);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void link(final Edge edge,
+                             final Node source,
+                             final Node target) {
+        edge.setSourceNode(source);
+        edge.setTargetNode(target);
+        source.getOutEdges().add(edge);
+        target.getInEdges().add(edge);
+    }
+
+    /**
+     * Reports containment violations for the invalid nodes, connection violations for the connectors from invalid
+     * nodes, and incoming cardinality violations for the nodes with more than one incoming connector.
+     */
+    private class TestRuleManager implements RuleManager {
+
+        @Override
+        public RuleHandlerRegistry registry() {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public RuleViolations evaluate(final RuleSet ruleSet,
+                                       final RuleEvaluationContext context) {
+            evaluationsCount.incrementAndGet();
+            final DefaultRuleViolations violations = new DefaultRuleViolations();
+            if (context instanceof NodeContainmentContext) {
+                ((NodeContainmentContext) context).getCandidates().stream()
+                        .filter(candidate -> candidate.getLabels().contains(INVALID))
+                        .forEach(candidate -> violations.addViolation(new RuleViolationImpl("containment " + candidate.getUUID())));
+            } else if (context instanceof GraphConnectionContext) {
+                final GraphConnectionContext connectionContext = (GraphConnectionContext) context;
+                connectionContext.getSource()
+                        .filter(source -> source.getLabels().contains(INVALID))
+                        .ifPresent(source -> violations.addViolation(new RuleViolationImpl("connection " + connectionContext.getConnector().getUUID())));
+            } else if (context instanceof ConnectorCardinalityContext) {
+                final ConnectorCardinalityContext cardinalityContext = (ConnectorCardinalityContext) context;
+                final Node candidate = (Node) cardinalityContext.getCandidate();
+                final List<Edge> edges = cardinalityContext.getDirection() == org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext.Direction.INCOMING ?
+                        candidate.getInEdges() :
+                        Collections.emptyList();
+                final long count = edges.stream()
+                        .filter(e -> e.getContent() instanceof ViewConnectorImpl)
+                        .count();
+                if (count > 1) {
+                    violations.addViolation(new RuleViolationImpl("cardinality " + candidate.getUUID() + " " + cardinalityContext.getEdge().getUUID()));
+                }
+            }
+            return violations;
+        }
+    }
+}
@@ -54,6 +54,7 @@ import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyCard
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyConnection;
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyConnectorCardinality;
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyContainment;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -240,6 +241,76 @@ public class GraphValidatorImplTest {
                         });
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValidateGraph1Incrementally() {
+        final RuleManager ruleManager = graphTestHandler.getRuleManager();
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        final TestingGraphInstanceBuilder.TestGraph1 testGraph1 = TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        final GraphValidationCache cache = new GraphValidationCache();
+        tested.validate(graph,
+                        ruleSet,
+                        cache,
+                        this::assertNoError);
+        final int evalCount = testGraph1.evaluationsCount + 10;
+        verify(ruleManager,
+               times(evalCount)).evaluate(eq(ruleSet),
+                                          any(RuleEvaluationContext.class));
+        assertEquals(5,
+                     cache.size());
+        assertEquals(0,
+                     cache.getHitCount());
+        // Only the graph's cardinality rules are evaluated again.
+        tested.validate(graph,
+                        ruleSet,
+                        cache,
+                        this::assertNoError);
+        verify(ruleManager,
+               times(evalCount + 1)).evaluate(eq(ruleSet),
+                                              any(RuleEvaluationContext.class));
+        assertEquals(5,
+                     cache.getHitCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValidateEmptyViewConnectorNodesIncrementally() {
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        final TestingGraphInstanceBuilder.TestGraph1 testGraph1 = TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        final GraphValidationCache cache = new GraphValidationCache();
+        tested.validate(graph,
+                        ruleSet,
+                        cache,
+                        this::assertNoError);
+        graphTestHandler.removeTargetConnection(testGraph1.edge2);
+        tested.validate(graph,
+                        ruleSet,
+                        cache,
+                        ruleViolations -> {
+                            assertEquals(1,
+                                         ruleViolations.size());
+                            assertTrue(ruleViolations.iterator().next() instanceof EmptyConnectionViolation);
+                        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValidateGraph1InParallel() {
+        final RuleManager ruleManager = graphTestHandler.getRuleManager();
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        final TestingGraphInstanceBuilder.TestGraph1 testGraph1 = TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        tested.validate(graph,
+                        ruleSet,
+                        true,
+                        this::assertNoError);
+        verify(ruleManager,
+               times(testGraph1.evaluationsCount + 10)).evaluate(eq(ruleSet),
+                                                                 any(RuleEvaluationContext.class));
+    }
+
     private void assertNoError(final Collection<RuleViolation> violations) {
         assertFalse(violations.stream()
                             .filter(v -> Violation.Type.ERROR.equals(v.getViolationType()))
@@ -15,29 +15,16 @@
  */
 package org.kie.workbench.common.stunner.bpmn.backend;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
-import bpsim.impl.BpsimFactoryImpl;
-import bpsim.impl.BpsimPackageImpl;
-import org.eclipse.bpmn2.Bpmn2Package;
 import org.eclipse.bpmn2.Definitions;
 import org.eclipse.bpmn2.DocumentRoot;
 import org.eclipse.bpmn2.util.Bpmn2Resource;
-import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.EPackage;
-import org.eclipse.emf.ecore.resource.Resource;
-import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
-import org.jboss.drools.DroolsPackage;
-import org.jboss.drools.impl.DroolsFactoryImpl;
-import org.jboss.drools.impl.DroolsPackageImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.Result;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.TypedFactoryManager;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.fromstunner.ConverterFactory;
@@ -50,7 +37,7 @@ import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.Defini
 import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.GraphBuilder;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.processes.DataTypeCacheServer;
 import org.kie.workbench.common.stunner.bpmn.backend.resource.JBPMBpmn2Resource;
-import org.kie.workbench.common.stunner.bpmn.backend.resource.JBPMBpmn2ResourceFactory;
+import org.kie.workbench.common.stunner.bpmn.backend.resource.JBPMBpmn2ResourceSets;
 import org.kie.workbench.common.stunner.bpmn.workitem.service.WorkItemDefinitionLookupService;
 import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.api.FactoryManager;
@@ -110,11 +97,35 @@ public abstract class BaseDirectDiagramMarshaller implements DiagramMarshaller<G
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public String marshall(final Diagram<Graph, Metadata> diagram) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshall(diagram, outputStream);
+        String outputString = outputStream.toString("UTF-8");
+        LOG.trace(outputString);
+        return outputString;
+    }
+
+    /**
+     * Writes the diagram as UTF-8 encoded BPMN2 XML into the given stream, which is left open.
+     */
+    public void marshall(final Diagram<Graph, Metadata> diagram, final OutputStream outputStream) throws IOException {
+        Bpmn2Resource resource = toBpmn2Resource(diagram);
+        resource.save(outputStream, new HashMap<>());
+    }
+
+    /**
+     * Converts the diagram into the BPMN2 model, the same one which is written by the marshall methods,
+     * without going through its XML representation.
+     */
+    public Definitions marshallToBpmn2Definitions(final Diagram<Graph, Metadata> diagram) throws IOException {
+        return (Definitions) toBpmn2Resource(diagram).getContents().get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Bpmn2Resource toBpmn2Resource(final Diagram<Graph, Metadata> diagram) {
         LOG.debug("Starting diagram marshalling...");
 
-        Bpmn2Resource resource = createBpmn2Resource();
+        Bpmn2Resource resource = JBPMBpmn2ResourceSets.newResource("virtual.bpmn2");
 
         // we start converting from the root, then pull out the result
         PropertyWriterFactory propertyWriterFactory = new PropertyWriterFactory();
@@ -128,26 +139,7 @@ public abstract class BaseDirectDiagramMarshaller implements DiagramMarshaller<G
         resource.getContents().add(definitions);
 
         LOG.debug("Diagram marshalling completed successfully.");
-        String outputString = renderToString(resource);
-        LOG.trace(outputString);
-        return outputString;
-    }
-
-    public Definitions marshallToBpmn2Definitions(final Diagram<Graph, Metadata> diagram) throws IOException {
-        String marshalled = marshall(diagram);
-        try (InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(marshalled.getBytes(StandardCharsets.UTF_8)))) {
-            return parseDefinitions(inputStream).getDefinitions();
-        }
-    }
-
-    private String renderToString(Bpmn2Resource resource) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        try {
-            resource.save(outputStream, new HashMap<>());
-        } finally {
-            outputStream.close();
-        }
-        return outputStream.toString("UTF-8");
+        return resource;
     }
 
     @Override
@@ -229,40 +221,13 @@ public abstract class BaseDirectDiagramMarshaller implements DiagramMarshaller<G
         }
     }
 
-    private Bpmn2Resource createBpmn2Resource() {
-        DroolsFactoryImpl.init();
-        BpsimFactoryImpl.init();
-
-        ResourceSet rSet = new ResourceSetImpl();
-
-        rSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("bpmn2", new JBPMBpmn2ResourceFactory());
-
-        Bpmn2Resource resource = (Bpmn2Resource) rSet.createResource(URI.createURI("virtual.bpmn2"));
-
-        rSet.getResources().add(resource);
-        return resource;
-    }
-
     @Override
     public DiagramMetadataMarshaller<Metadata> getMetadataMarshaller() {
         return diagramMetadataMarshaller;
     }
 
     private static DefinitionsHandler parseDefinitions(final InputStream inputStream) throws IOException {
-        DroolsPackageImpl.init();
-        BpsimPackageImpl.init();
-
-        final ResourceSet resourceSet = new ResourceSetImpl();
-        Resource.Factory.Registry resourceFactoryRegistry = resourceSet.getResourceFactoryRegistry();
-        resourceFactoryRegistry.getExtensionToFactoryMap().put(
-                Resource.Factory.Registry.DEFAULT_EXTENSION, new JBPMBpmn2ResourceFactory());
-
-        EPackage.Registry packageRegistry = resourceSet.getPackageRegistry();
-        packageRegistry.put("http://www.omg.org/spec/BPMN/20100524/MODEL", Bpmn2Package.eINSTANCE);
-        packageRegistry.put("http://www.jboss.org/drools", DroolsPackage.eINSTANCE);
-
-        final JBPMBpmn2Resource resource = (JBPMBpmn2Resource) resourceSet
-                .createResource(URI.createURI("inputStream://dummyUriWithValidSuffix.xml"));
+        final JBPMBpmn2Resource resource = JBPMBpmn2ResourceSets.newResource("inputStream://dummyUriWithValidSuffix.xml");
 
         resource.getDefaultLoadOptions().put(JBPMBpmn2Resource.OPTION_ENCODING, "UTF-8");
         resource.setEncoding("UTF-8");
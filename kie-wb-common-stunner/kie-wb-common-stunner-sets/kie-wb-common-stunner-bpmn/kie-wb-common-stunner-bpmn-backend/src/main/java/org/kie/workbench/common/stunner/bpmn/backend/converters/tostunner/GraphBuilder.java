@@ -42,13 +42,19 @@ import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFact
 import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
 import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
 import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
 import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,15 +78,24 @@ import org.slf4j.LoggerFactory;
  * once all the conversions have took place: it traverses the entire directed graph described by the `BPMNNode`s
  * starting from the "root node", which represents the root of the diagram, and visiting
  * the parent/child relations in each BPMNNode and the `BPMNEdge` they may contain.
+ * <p>
+ * By default the graph is loaded directly: the nodes, edges and parent/child/dock relations are
+ * set up in place, the same way the graph commands would do it, but without creating and executing
+ * a command for each element. The unmarshalling context evaluates no rules, so the outcome is the same.
+ * Set the {@link GraphBuilder#USE_COMMANDS_PROPERTY_NAME} system property to true for building the
+ * graph through the graph commands instead.
  */
 public class GraphBuilder {
 
+    public static final String USE_COMMANDS_PROPERTY_NAME = "org.kie.workbench.common.stunner.bpmn.backend.graphBuilder.useCommands";
+
     private static final Logger logger = LoggerFactory.getLogger(GraphBuilder.class);
 
     private final GraphCommandExecutionContext executionContext;
     private final GraphCommandFactory commandFactory;
     private final GraphCommandManager commandManager;
     private final Graph<DefinitionSet, Node> graph;
+    private final boolean useCommands;
 
     public GraphBuilder(
             Graph<DefinitionSet, Node> graph,
@@ -89,7 +104,25 @@ public class GraphBuilder {
             RuleManager ruleManager,
             GraphCommandFactory commandFactory,
             GraphCommandManager commandManager) {
+        this(graph,
+             definitionManager,
+             typedFactoryManager,
+             ruleManager,
+             commandFactory,
+             commandManager,
+             Boolean.getBoolean(USE_COMMANDS_PROPERTY_NAME));
+    }
+
+    public GraphBuilder(
+            Graph<DefinitionSet, Node> graph,
+            DefinitionManager definitionManager,
+            TypedFactoryManager typedFactoryManager,
+            RuleManager ruleManager,
+            GraphCommandFactory commandFactory,
+            GraphCommandManager commandManager,
+            boolean useCommands) {
         this.graph = graph;
+        this.useCommands = useCommands;
         this.executionContext = new DirectGraphCommandExecutionContext(
                 definitionManager,
                 typedFactoryManager.untyped(),
@@ -154,9 +187,22 @@ public class GraphBuilder {
         return prioritized;
     }
 
+    @SuppressWarnings("unchecked")
     private void addDockedNode(Node parent, Node candidate) {
-        AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
-        execute(addNodeCommand);
+        if (useCommands) {
+            AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
+            execute(addNodeCommand);
+        } else if (GraphUtils.hasTargetConnections(candidate)) {
+            // same outcome as the command, which fails the docking check and reverts the node registration
+            logger.warn("Cannot dock {} into {}, as it has incoming connections.",
+                        candidate.getUUID(), parent.getUUID());
+            graph.removeNode(candidate.getUUID());
+        } else {
+            graph.addNode(candidate);
+            final Edge<Dock, Node> edge = new EdgeImpl<>(UUID.uuid());
+            edge.setContent(new Dock());
+            connect(edge, parent, candidate);
+        }
     }
 
     private void addChildNode(BpmnNode current) {
@@ -183,9 +229,25 @@ public class GraphBuilder {
         return Point2D.create(xFactor, yFactor);
     }
 
+    @SuppressWarnings("unchecked")
     private void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
-        AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
-        execute(addChildNodeCommand);
+        if (useCommands) {
+            AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
+            execute(addChildNodeCommand);
+        } else {
+            graph.addNode(child);
+            final Edge<Child, Node> edge = new EdgeImpl<>(UUID.uuid());
+            edge.setContent(new Child());
+            connect(edge, parent, child);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void connect(Edge edge, Node parent, Node child) {
+        edge.setSourceNode(parent);
+        edge.setTargetNode(child);
+        parent.getOutEdges().add(edge);
+        child.getInEdges().add(edge);
     }
 
     /**
@@ -208,15 +270,25 @@ public class GraphBuilder {
         updatePosition(node, coords);
     }
 
+    @SuppressWarnings("unchecked")
     private void updatePosition(Node node, Point2D position) {
-        UpdateElementPositionCommand updateElementPositionCommand =
-                commandFactory.updatePosition(node, position);
-        execute(updateElementPositionCommand);
+        if (useCommands) {
+            UpdateElementPositionCommand updateElementPositionCommand =
+                    commandFactory.updatePosition(node, position);
+            execute(updateElementPositionCommand);
+        } else {
+            ((View) node.getContent()).setBounds(UpdateElementPositionCommand.computeCandidateBounds(node, position));
+        }
     }
 
+    @SuppressWarnings("unchecked")
     private void addNode(Node node) {
-        AddNodeCommand addNodeCommand = commandFactory.addNode(node);
-        execute(addNodeCommand);
+        if (useCommands) {
+            AddNodeCommand addNodeCommand = commandFactory.addNode(node);
+            execute(addNodeCommand);
+        } else {
+            graph.addNode(node);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -227,6 +299,10 @@ public class GraphBuilder {
             List<Point2D> controlPoints,
             Node target,
             Connection targetConnection) {
+        if (!useCommands) {
+            connect(edge, source, sourceConnection, controlPoints, target, targetConnection);
+            return;
+        }
         final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder =
                 new DeferredCompositeCommand.Builder<>();
         addConnector(commandBuilder, source, edge, sourceConnection);
@@ -239,6 +315,44 @@ public class GraphBuilder {
         execute(commandBuilder.build());
     }
 
+    /**
+     * Same changes as the add connector, add control point and set target node commands.
+     */
+    @SuppressWarnings("unchecked")
+    private static void connect(
+            Edge<? extends View<?>, Node> edge,
+            Node source,
+            Connection sourceConnection,
+            List<Point2D> controlPoints,
+            Node target,
+            Connection targetConnection) {
+        final ViewConnector content = (ViewConnector) edge.getContent();
+        if (null != edge.getSourceNode()) {
+            edge.getSourceNode().getOutEdges().remove(edge);
+        }
+        source.getOutEdges().add(edge);
+        edge.setSourceNode(source);
+        content.setSourceConnection(sourceConnection);
+
+        if (!controlPoints.isEmpty()) {
+            // the new control points are inserted before the existing ones
+            final ControlPoint[] existing = null != content.getControlPoints() ? content.getControlPoints() : new ControlPoint[0];
+            final ControlPoint[] cps = new ControlPoint[controlPoints.size() + existing.length];
+            for (int i = 0; i < controlPoints.size(); i++) {
+                cps[i] = ControlPoint.build(controlPoints.get(i));
+            }
+            System.arraycopy(existing, 0, cps, controlPoints.size(), existing.length);
+            content.setControlPoints(cps);
+        }
+
+        if (null != edge.getTargetNode()) {
+            edge.getTargetNode().getInEdges().remove(edge);
+        }
+        target.getInEdges().add(edge);
+        edge.setTargetNode(target);
+        content.setTargetConnection(targetConnection);
+    }
+
     private void addConnector(final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder,
                               final Node<? extends View<?>, Edge> sourceNode,
                               final Edge<? extends View<?>, Node> edge,
@@ -264,8 +378,12 @@ public class GraphBuilder {
         return commandManager.execute(executionContext, command);
     }
 
-    private CommandResult<RuleViolation> clearGraph() {
-        return commandManager.execute(executionContext, commandFactory.clearGraph());
+    private void clearGraph() {
+        if (useCommands) {
+            commandManager.execute(executionContext, commandFactory.clearGraph());
+        } else {
+            graph.clear();
+        }
     }
 
     private void addEdge(BpmnEdge edge) {
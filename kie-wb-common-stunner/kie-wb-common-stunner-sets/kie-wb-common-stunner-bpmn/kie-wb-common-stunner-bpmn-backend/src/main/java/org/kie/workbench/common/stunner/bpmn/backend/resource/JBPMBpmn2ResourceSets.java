@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.resource;
+
+import bpsim.impl.BpsimFactoryImpl;
+import bpsim.impl.BpsimPackageImpl;
+import org.eclipse.bpmn2.Bpmn2Package;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.jboss.drools.DroolsPackage;
+import org.jboss.drools.impl.DroolsFactoryImpl;
+import org.jboss.drools.impl.DroolsPackageImpl;
+
+/**
+ * Creates the resource sets for reading and writing jBPM BPMN2 documents.
+ * <p>
+ * The resource factory and the package registries are set up once and shared by all the resource sets, as they
+ * are only read once set up. Each resource set is a lightweight instance with its own package registry,
+ * which delegates to the shared one, as the resource sets are not thread safe and hold the resources and
+ * packages created on them.
+ */
+public final class JBPMBpmn2ResourceSets {
+
+    public static final String BPMN_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+    public static final String DROOLS_NAMESPACE = "http://www.jboss.org/drools";
+
+    private static final String BPMN2_EXTENSION = "bpmn2";
+
+    private static final Resource.Factory.Registry RESOURCE_FACTORY_REGISTRY;
+    private static final EPackage.Registry PACKAGE_REGISTRY;
+
+    static {
+        DroolsPackageImpl.init();
+        BpsimPackageImpl.init();
+        DroolsFactoryImpl.init();
+        BpsimFactoryImpl.init();
+
+        final JBPMBpmn2ResourceFactory resourceFactory = new JBPMBpmn2ResourceFactory();
+        RESOURCE_FACTORY_REGISTRY = new ResourceFactoryRegistryImpl();
+        RESOURCE_FACTORY_REGISTRY.getExtensionToFactoryMap().put(BPMN2_EXTENSION, resourceFactory);
+        RESOURCE_FACTORY_REGISTRY.getExtensionToFactoryMap().put(Resource.Factory.Registry.DEFAULT_EXTENSION, resourceFactory);
+
+        PACKAGE_REGISTRY = new EPackageRegistryImpl(EPackage.Registry.INSTANCE);
+        PACKAGE_REGISTRY.put(BPMN_NAMESPACE, Bpmn2Package.eINSTANCE);
+        PACKAGE_REGISTRY.put(DROOLS_NAMESPACE, DroolsPackage.eINSTANCE);
+    }
+
+    private JBPMBpmn2ResourceSets() {
+    }
+
+    public static ResourceSet newResourceSet() {
+        final ResourceSetImpl resourceSet = new ResourceSetImpl();
+        resourceSet.setResourceFactoryRegistry(RESOURCE_FACTORY_REGISTRY);
+        resourceSet.setPackageRegistry(new EPackageRegistryImpl(PACKAGE_REGISTRY));
+        return resourceSet;
+    }
+
+    /**
+     * Creates a resource in a new resource set.
+     */
+    public static JBPMBpmn2Resource newResource(final String uri) {
+        return (JBPMBpmn2Resource) newResourceSet().createResource(URI.createURI(uri));
+    }
+}
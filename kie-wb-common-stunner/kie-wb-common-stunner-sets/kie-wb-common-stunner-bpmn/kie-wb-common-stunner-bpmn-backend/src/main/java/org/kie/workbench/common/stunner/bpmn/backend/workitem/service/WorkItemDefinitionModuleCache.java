@@ -0,0 +1,274 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.workitem.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.guvnor.common.services.project.events.DeleteModuleEvent;
+import org.guvnor.common.services.project.model.Dependencies;
+import org.kie.workbench.common.stunner.bpmn.backend.workitem.WorkItemDefinitionResources;
+import org.kie.workbench.common.stunner.bpmn.workitem.IconDefinition;
+import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinition;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Keeps the work item definitions found on each directory, grouped by the module the directory belongs to.
+ * <p>
+ * The definitions of a module are discarded as soon as any work item definition file, or any of the icons
+ * referenced by the cached definitions, is added, updated, renamed, copied or deleted in the module, or when the
+ * module itself is deleted. So the first lookup after a change parses the module's definitions again, and the rest
+ * of the lookups are served from the cache.
+ * <p>
+ * The cache holds up to {@value #DEFAULT_CACHE_SIZE} directories by default, the least recently used ones are
+ * discarded first. The size can be set by the {@value #CACHE_SIZE} system property.
+ */
+@ApplicationScoped
+public class WorkItemDefinitionModuleCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkItemDefinitionModuleCache.class.getName());
+
+    static final String CACHE_SIZE = "org.kie.workbench.stunner.bpmn.workitem.cache.size";
+    static final int DEFAULT_CACHE_SIZE = 500;
+
+    private final Map<String, CachedDirectory> directories;
+    private final AtomicLong invalidations;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public WorkItemDefinitionModuleCache() {
+        this(Integer.getInteger(CACHE_SIZE,
+                                DEFAULT_CACHE_SIZE));
+    }
+
+    public WorkItemDefinitionModuleCache(final int maxDirectories) {
+        this.directories = Collections.synchronizedMap(new LinkedHashMap<String, CachedDirectory>(16,
+                                                                                                  0.75f,
+                                                                                                  true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedDirectory> eldest) {
+                return size() > maxDirectories;
+            }
+        });
+        this.invalidations = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Returns the work item definitions cached for the given directory, or loads and caches them if not present.
+     * <p>
+     * The returned definitions are copies of the cached ones, so callers are free to modify them. Their maven
+     * dependencies are shared with the cache though, and must not be modified.
+     */
+    public Collection<WorkItemDefinition> get(final Metadata metadata,
+                                              final Path directory,
+                                              final Function<Path, Collection<WorkItemDefinition>> loader) {
+        final String key = directory.toURI();
+        final CachedDirectory cached = directories.get(key);
+        if (null != cached) {
+            hits.incrementAndGet();
+            return copyOf(cached.definitions);
+        }
+        misses.incrementAndGet();
+        final long invalidation = invalidations.get();
+        final List<WorkItemDefinition> loaded = new ArrayList<>(loader.apply(directory));
+        synchronized (directories) {
+            // The definitions are not cached if any module has been invalidated while loading them.
+            if (invalidation == invalidations.get()) {
+                directories.put(key,
+                                new CachedDirectory(getModuleURI(metadata.getRoot()),
+                                                    copyOf(loaded)));
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Work item definitions loaded for [" + key + "], cache hit rate is " + getHitRate());
+        }
+        return loaded;
+    }
+
+    public void invalidate(final Metadata metadata) {
+        invalidate(metadata.getRoot());
+    }
+
+    public void invalidate(final Path root) {
+        final String module = getModuleURI(root);
+        synchronized (directories) {
+            invalidations.incrementAndGet();
+            directories.values().removeIf(directory -> directory.module.equals(module));
+        }
+    }
+
+    public void clear() {
+        synchronized (directories) {
+            invalidations.incrementAndGet();
+            directories.clear();
+        }
+    }
+
+    public int size() {
+        return directories.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio of the lookups served from the cache, between 0 and 1.
+     */
+    public double getHitRate() {
+        final long hitCount = hits.get();
+        final long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public void onModuleDeleted(@Observes final DeleteModuleEvent event) {
+        if (null != event.getModule() && null != event.getModule().getRootPath()) {
+            invalidate(event.getModule().getRootPath());
+        }
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        onResourceChanged(event.getPath());
+    }
+
+    public void onResourceUpdated(@Observes final ResourceUpdatedEvent event) {
+        onResourceChanged(event.getPath());
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        onResourceChanged(event.getPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        onResourceChanged(event.getPath());
+        onResourceChanged(event.getDestinationPath());
+    }
+
+    public void onResourceCopied(@Observes final ResourceCopiedEvent event) {
+        onResourceChanged(event.getDestinationPath());
+    }
+
+    public void onResourceBatchChanges(@Observes final ResourceBatchChangesEvent event) {
+        event.getBatch().keySet().forEach(this::onResourceChanged);
+    }
+
+    void onResourceChanged(final Path path) {
+        if (null == path || directories.isEmpty()) {
+            return;
+        }
+        final String fileName = path.getFileName();
+        final String uri = getModuleURI(path.toURI());
+        final boolean isWorkItemDefinition = WorkItemDefinitionResources.isWorkItemDefinition(fileName);
+        synchronized (directories) {
+            final Set<String> modules = directories.values()
+                    .stream()
+                    .filter(directory -> uri.startsWith(directory.module))
+                    .filter(directory -> isWorkItemDefinition || isIconReferenced(directory.definitions,
+                                                                                   fileName))
+                    .map(directory -> directory.module)
+                    .collect(Collectors.toSet());
+            if (!modules.isEmpty()) {
+                invalidations.incrementAndGet();
+                directories.values().removeIf(directory -> modules.contains(directory.module));
+            }
+        }
+    }
+
+    private static boolean isIconReferenced(final Collection<WorkItemDefinition> definitions,
+                                            final String fileName) {
+        return definitions.stream()
+                .map(WorkItemDefinition::getIconDefinition)
+                .filter(Objects::nonNull)
+                .map(IconDefinition::getUri)
+                .anyMatch(icon -> null != icon && (icon.equals(fileName) || icon.endsWith("/" + fileName)));
+    }
+
+    private static List<WorkItemDefinition> copyOf(final Collection<WorkItemDefinition> definitions) {
+        return definitions.stream()
+                .map(WorkItemDefinitionModuleCache::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    private static WorkItemDefinition copyOf(final WorkItemDefinition definition) {
+        final WorkItemDefinition copy = new WorkItemDefinition()
+                .setName(definition.getName())
+                .setDescription(definition.getDescription())
+                .setCategory(definition.getCategory())
+                .setDisplayName(definition.getDisplayName())
+                .setDocumentation(definition.getDocumentation())
+                .setDefaultHandler(definition.getDefaultHandler())
+                .setParameters(definition.getParameters())
+                .setResults(definition.getResults());
+        copy.setUri(definition.getUri());
+        if (null != definition.getIconDefinition()) {
+            copy.setIconDefinition(new IconDefinition()
+                                           .setUri(definition.getIconDefinition().getUri())
+                                           .setIconData(definition.getIconDefinition().getIconData()));
+        }
+        if (null != definition.getDependencies()) {
+            copy.setDependencies(new Dependencies(new ArrayList<>(definition.getDependencies())));
+        }
+        return copy;
+    }
+
+    private static String getModuleURI(final Path root) {
+        return getModuleURI(root.toURI());
+    }
+
+    private static String getModuleURI(final String uri) {
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    private static class CachedDirectory {
+
+        private final String module;
+        private final Collection<WorkItemDefinition> definitions;
+
+        private CachedDirectory(final String module,
+                                final Collection<WorkItemDefinition> definitions) {
+            this.module = module;
+            this.definitions = definitions;
+        }
+    }
+}
@@ -46,18 +46,22 @@ public class WorkItemDefinitionVFSLookupService
 
     private final VFSService vfsService;
     private final WorkItemDefinitionResources resources;
+    private final WorkItemDefinitionModuleCache cache;
 
     // CDI proxy.
     protected WorkItemDefinitionVFSLookupService() {
         this.vfsService = null;
         this.resources = null;
+        this.cache = null;
     }
 
     @Inject
     public WorkItemDefinitionVFSLookupService(final VFSService vfsService,
-                                              final WorkItemDefinitionResources resources) {
+                                              final WorkItemDefinitionResources resources,
+                                              final WorkItemDefinitionModuleCache cache) {
         this.vfsService = vfsService;
         this.resources = resources;
+        this.cache = cache;
     }
 
     @Override
@@ -68,10 +72,19 @@ public class WorkItemDefinitionVFSLookupService
     public Collection<WorkItemDefinition> search(final Metadata metadata) {
         return resources.resolveResources(metadata)
                 .stream()
-                .flatMap(path -> search(metadata, path).stream())
+                .flatMap(path -> cache.get(metadata,
+                                           path,
+                                           root -> search(metadata, root)).stream())
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Discards the cached work item definitions for the metadata's module, so the next search reads them again.
+     */
+    public void invalidate(final Metadata metadata) {
+        cache.invalidate(metadata);
+    }
+
     public Collection<WorkItemDefinition> search(final Metadata metadata,
                                                  final Path root) {
         final DirectoryStream<Path> files =
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.bpmn.BPMNDefinitionSet;
+import org.kie.workbench.common.stunner.bpmn.BPMNTestDefinitionFactory;
+import org.kie.workbench.common.stunner.bpmn.backend.converters.TypedFactoryManager;
+import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.properties.BasePropertyReader;
+import org.kie.workbench.common.stunner.bpmn.definition.BPMNViewDefinition;
+import org.kie.workbench.common.stunner.core.backend.StunnerTestingGraphBackendAPI;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
+import org.kie.workbench.common.stunner.core.graph.content.view.MagnetConnection;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks the direct graph loading builds the same graphs as the graph commands.
+ */
+public class GraphBuilderModesTest {
+
+    private static final String ROOT_UUID = "root";
+    private static final int SUBPROCESS_SIZE = 50;
+    private static final int DOCKED_INTERVAL = 10;
+    private static final int DOCKED_WITH_INCOMING_INTERVAL = 100;
+
+    private StunnerTestingGraphBackendAPI api;
+    private TypedFactoryManager typedFactoryManager;
+    private BPMNViewDefinition definition;
+    private BasePropertyReader propertyReader;
+
+    @Before
+    public void setUp() throws Exception {
+        api = StunnerTestingGraphBackendAPI.build(BPMNDefinitionSet.class,
+                                                  new BPMNTestDefinitionFactory());
+        typedFactoryManager = new TypedFactoryManager(api.getFactoryManager());
+        definition = mock(BPMNViewDefinition.class);
+        propertyReader = mock(BasePropertyReader.class);
+    }
+
+    @Test
+    public void testSmallProcess() {
+        assertSameGraphs(100);
+    }
+
+    @Test
+    public void testMediumProcess() {
+        assertSameGraphs(1000);
+    }
+
+    @Test
+    public void testLargeProcess() {
+        assertSameGraphs(5000);
+    }
+
+    private void assertSameGraphs(int size) {
+        Graph<DefinitionSet, Node> commandsGraph = build(size, true);
+        Graph<DefinitionSet, Node> directGraph = build(size, false);
+        assertEquals(describe(commandsGraph), describe(directGraph));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Graph<DefinitionSet, Node> build(int size, boolean useCommands) {
+        Graph<DefinitionSet, Node> graph = new GraphImpl<>("graph", new GraphNodeStoreImpl());
+        GraphBuilder graphBuilder = new GraphBuilder(graph,
+                                                     api.getDefinitionManager(),
+                                                     typedFactoryManager,
+                                                     api.getRuleManager(),
+                                                     api.commandFactory,
+                                                     api.commandManager,
+                                                     useCommands);
+        graphBuilder.render(newProcess(size));
+        return graph;
+    }
+
+    /**
+     * A process with the given number of tasks, in sequence and grouped into subprocesses, and some of them
+     * with docked events.
+     */
+    private BpmnNode newProcess(int size) {
+        BpmnNode root = newNode(ROOT_UUID, 0, 0, 100000, 100000);
+        BpmnNode subprocess = null;
+        BpmnNode previous = null;
+        for (int i = 0; i < size; i++) {
+            if (i % SUBPROCESS_SIZE == 0) {
+                subprocess = newNode("subprocess" + i, 10, i * 100, 5000, i * 100 + 100);
+                subprocess.setParent(root);
+            }
+            BpmnNode task = newNode("task" + i, 20 + i * 10, i * 100 + 10, 20 + i * 10 + 80, i * 100 + 50);
+            task.setParent(subprocess);
+            if (null != previous) {
+                previous.addEdge(newEdge("flow" + i, previous, task));
+            }
+            if (i % DOCKED_INTERVAL == 0) {
+                BpmnNode event = newNode("event" + i, 20 + i * 10, i * 100 + 40, 20 + i * 10 + 20, i * 100 + 60).docked();
+                event.setParent(subprocess);
+                task.addEdge(BpmnEdge.docked(task, event));
+                if (i % DOCKED_WITH_INCOMING_INTERVAL == 0 && null != previous) {
+                    // cannot be docked, as it has an incoming connection
+                    previous.addEdge(newEdge("eventFlow" + i, previous, event));
+                }
+            }
+            previous = task;
+        }
+        return root;
+    }
+
+    private BpmnNode newNode(String uuid, double ulX, double ulY, double lrX, double lrY) {
+        Node<View<BPMNViewDefinition>, Edge> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(definition, Bounds.create(ulX, ulY, lrX, lrY)));
+        return BpmnNode.of(node, propertyReader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BpmnEdge newEdge(String uuid, BpmnNode source, BpmnNode target) {
+        EdgeImpl<View<?>> edge = new EdgeImpl<>(uuid);
+        edge.setContent(new ViewConnectorImpl<>(definition, Bounds.create(0, 0, 10, 10)));
+        List<Point2D> controlPoints = new ArrayList<>();
+        controlPoints.add(Point2D.create(1, 2));
+        controlPoints.add(Point2D.create(3, 4));
+        return BpmnEdge.of((Edge) edge,
+                           source,
+                           MagnetConnection.Builder.at(5, 5),
+                           controlPoints,
+                           target,
+                           MagnetConnection.Builder.at(6, 6),
+                           null);
+    }
+
+    /**
+     * Describes the nodes and the relations of a graph, except the generated uuids of the child and dock edges.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> describe(Graph<DefinitionSet, Node> graph) {
+        List<String> description = new ArrayList<>();
+        StreamSupport.stream(graph.nodes().spliterator(), false).forEach(node -> {
+            Bounds bounds = ((View) node.getContent()).getBounds();
+            description.add(node.getUUID() + " " + describe(bounds) + " in: " + node.getInEdges().size());
+            for (Edge edge : (List<Edge>) node.getOutEdges()) {
+                StringBuilder edgeDescription = new StringBuilder(node.getUUID())
+                        .append(" -> ")
+                        .append(edge.getTargetNode().getUUID())
+                        .append(' ')
+                        .append(edge.getContent().getClass().getSimpleName());
+                if (edge.getContent() instanceof ViewConnector) {
+                    ViewConnector connector = (ViewConnector) edge.getContent();
+                    edgeDescription.append(' ').append(edge.getUUID())
+                            .append(' ').append(connector.getSourceConnection().orElse(null))
+                            .append(' ').append(connector.getTargetConnection().orElse(null));
+                    for (ControlPoint controlPoint : connector.getControlPoints()) {
+                        edgeDescription.append(' ').append(controlPoint.getLocation());
+                    }
+                }
+                description.add(edgeDescription.toString());
+            }
+        });
+        Collections.sort(description);
+        return description;
+    }
+
+    private static String describe(Bounds bounds) {
+        return "[" + bounds.getUpperLeft().getX() + ", " + bounds.getUpperLeft().getY() + ", " +
+                bounds.getLowerRight().getX() + ", " + bounds.getLowerRight().getY() + "]";
+    }
+}
@@ -16,12 +16,20 @@
 
 package org.kie.workbench.common.stunner.bpmn.backend.service.diagram.marshalling.definitions;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
 import org.junit.Test;
 import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.marshalling.BPMNDiagramMarshallerBaseTest;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 public class DefinitionsTest extends BPMNDiagramMarshallerBaseTest {
@@ -45,4 +53,34 @@ public class DefinitionsTest extends BPMNDiagramMarshallerBaseTest {
         String marshall = marshaller.marshall(d);
         assertTrue(marshall.contains("schemaLocation"));
     }
+
+    @Test
+    public void marshallToStreamShouldWriteTheSameDocument() throws Exception {
+        Diagram<Graph, Metadata> d = unmarshall(marshaller, BPMN_BASIC_FILE_PATH);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshaller.marshall(d, outputStream);
+        Diagram<Graph, Metadata> reparsed = unmarshall(marshaller, new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(countNodes(d), countNodes(reparsed));
+        assertEquals(d.getMetadata().getCanvasRootUUID(), reparsed.getMetadata().getCanvasRootUUID());
+    }
+
+    @Test
+    public void marshallToBpmn2DefinitionsShouldReturnTheMarshalledModel() throws Exception {
+        Diagram<Graph, Metadata> d = unmarshall(marshaller, BPMN_BASIC_FILE_PATH);
+        Definitions definitions = marshaller.marshallToBpmn2Definitions(d);
+        String marshalled = marshaller.marshall(d);
+        Diagram<Graph, Metadata> reparsed = unmarshall(marshaller, new ByteArrayInputStream(marshalled.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(reparsed.getMetadata().getCanvasRootUUID(), definitions.getId());
+        Process process = (Process) definitions.getRootElements().stream()
+                .filter(e -> e instanceof Process)
+                .findFirst()
+                .get();
+        assertEquals(reparsed.getMetadata().getTitle(), process.getName());
+        assertTrue(marshalled.contains("id=\"" + process.getId() + "\""));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long countNodes(Diagram<Graph, Metadata> diagram) {
+        return StreamSupport.stream(diagram.getGraph().nodes().spliterator(), false).count();
+    }
 }
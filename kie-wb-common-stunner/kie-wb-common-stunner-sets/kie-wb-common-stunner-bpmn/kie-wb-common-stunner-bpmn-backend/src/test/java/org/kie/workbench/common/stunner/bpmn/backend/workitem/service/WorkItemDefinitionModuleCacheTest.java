@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.workitem.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Function;
+
+import org.guvnor.common.services.project.events.DeleteModuleEvent;
+import org.guvnor.common.services.project.model.Module;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.stunner.bpmn.workitem.IconDefinition;
+import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinition;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class WorkItemDefinitionModuleCacheTest {
+
+    private static final String MODULE_URI = "default://master@repo/project";
+
+    @Mock
+    private Metadata metadata;
+
+    @Mock
+    private Path root;
+
+    @Mock
+    private Path directory;
+
+    @Mock
+    private Function<Path, Collection<WorkItemDefinition>> loader;
+
+    private WorkItemDefinition wid;
+    private WorkItemDefinitionModuleCache tested;
+
+    @Before
+    public void init() {
+        wid = new WorkItemDefinition()
+                .setName("Email")
+                .setIconDefinition(new IconDefinition().setUri("icons/email.gif"));
+        when(metadata.getRoot()).thenReturn(root);
+        when(root.toURI()).thenReturn(MODULE_URI);
+        when(directory.toURI()).thenReturn(MODULE_URI + "/global");
+        when(loader.apply(eq(directory))).thenReturn(Collections.singletonList(wid));
+        tested = new WorkItemDefinitionModuleCache();
+    }
+
+    @Test
+    public void testGet() {
+        Collection<WorkItemDefinition> result1 = tested.get(metadata, directory, loader);
+        Collection<WorkItemDefinition> result2 = tested.get(metadata, directory, loader);
+        verify(loader, times(1)).apply(eq(directory));
+        assertEquals(1, result1.size());
+        assertEquals(1, result2.size());
+        assertEquals("Email", result2.iterator().next().getName());
+        assertEquals(1, tested.getHitCount());
+        assertEquals(1, tested.getMissCount());
+        assertEquals(0.5d, tested.getHitRate(), 0d);
+    }
+
+    @Test
+    public void testGetReturnsCopies() {
+        Collection<WorkItemDefinition> result1 = tested.get(metadata, directory, loader);
+        result1.iterator().next().setName("Changed").getIconDefinition().setIconData("data");
+        Collection<WorkItemDefinition> result2 = tested.get(metadata, directory, loader);
+        Collection<WorkItemDefinition> result3 = tested.get(metadata, directory, loader);
+        WorkItemDefinition cached = result2.iterator().next();
+        assertNotSame(wid, cached);
+        assertNotSame(cached, result3.iterator().next());
+        assertEquals("Email", cached.getName());
+        assertEquals("icons/email.gif", cached.getIconDefinition().getUri());
+        assertNull(cached.getIconDefinition().getIconData());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDirectoryIsDiscarded() {
+        Path directory2 = path(MODULE_URI + "/src/main/resources", "resources");
+        when(loader.apply(eq(directory2))).thenReturn(Collections.singletonList(wid));
+        tested = new WorkItemDefinitionModuleCache(1);
+        tested.get(metadata, directory, loader);
+        tested.get(metadata, directory2, loader);
+        tested.get(metadata, directory, loader);
+        assertEquals(1, tested.size());
+        verify(loader, times(2)).apply(eq(directory));
+        verify(loader, times(1)).apply(eq(directory2));
+    }
+
+    @Test
+    public void testModuleDeleted() {
+        Module module = mock(Module.class);
+        when(module.getRootPath()).thenReturn(path(MODULE_URI, "project"));
+        tested.get(metadata, directory, loader);
+        tested.onModuleDeleted(deleteModuleEvent(module));
+        assertEquals(0, tested.size());
+        tested.get(metadata, directory, loader);
+        verify(loader, times(2)).apply(eq(directory));
+    }
+
+    @Test
+    public void testOtherModuleDeleted() {
+        Module module = mock(Module.class);
+        when(module.getRootPath()).thenReturn(path(MODULE_URI + "2", "project2"));
+        tested.get(metadata, directory, loader);
+        tested.onModuleDeleted(deleteModuleEvent(module));
+        assertEquals(1, tested.size());
+    }
+
+    @Test
+    public void testWorkItemDefinitionUpdated() {
+        tested.get(metadata, directory, loader);
+        tested.onResourceUpdated(new ResourceUpdatedEvent(path(MODULE_URI + "/global/Email.wid", "Email.wid"),
+                                                          "",
+                                                          null));
+        tested.get(metadata, directory, loader);
+        verify(loader, times(2)).apply(eq(directory));
+    }
+
+    @Test
+    public void testIconUpdated() {
+        tested.get(metadata, directory, loader);
+        tested.onResourceUpdated(new ResourceUpdatedEvent(path(MODULE_URI + "/global/icons/email.gif", "email.gif"),
+                                                          "",
+                                                          null));
+        tested.get(metadata, directory, loader);
+        verify(loader, times(2)).apply(eq(directory));
+    }
+
+    @Test
+    public void testOtherResourceUpdated() {
+        tested.get(metadata, directory, loader);
+        tested.onResourceUpdated(new ResourceUpdatedEvent(path(MODULE_URI + "/src/main/resources/process.bpmn", "process.bpmn"),
+                                                          "",
+                                                          null));
+        tested.get(metadata, directory, loader);
+        verify(loader, times(1)).apply(eq(directory));
+    }
+
+    @Test
+    public void testOtherModuleUpdated() {
+        tested.get(metadata, directory, loader);
+        tested.onResourceUpdated(new ResourceUpdatedEvent(path(MODULE_URI + "2/global/Email.wid", "Email.wid"),
+                                                          "",
+                                                          null));
+        tested.get(metadata, directory, loader);
+        verify(loader, times(1)).apply(eq(directory));
+    }
+
+    @Test
+    public void testBatchChanges() {
+        tested.get(metadata, directory, loader);
+        tested.onResourceBatchChanges(new ResourceBatchChangesEvent(Collections.singletonMap(path(MODULE_URI + "/global/Email.wid", "Email.wid"),
+                                                                                             Collections.<ResourceChange>emptyList()),
+                                                                    "",
+                                                                    null));
+        tested.get(metadata, directory, loader);
+        verify(loader, times(2)).apply(eq(directory));
+    }
+
+    @Test
+    public void testInvalidate() {
+        tested.get(metadata, directory, loader);
+        tested.invalidate(metadata);
+        tested.get(metadata, directory, loader);
+        verify(loader, times(2)).apply(eq(directory));
+        assertEquals(0, tested.getHitCount());
+        assertEquals(2, tested.getMissCount());
+    }
+
+    private static DeleteModuleEvent deleteModuleEvent(Module module) {
+        DeleteModuleEvent event = mock(DeleteModuleEvent.class);
+        when(event.getModule()).thenReturn(module);
+        return event;
+    }
+
+    private static Path path(String uri,
+                             String fileName) {
+        Path path = mock(Path.class);
+        when(path.toURI()).thenReturn(uri);
+        when(path.getFileName()).thenReturn(fileName);
+        return path;
+    }
+}
@@ -64,6 +64,10 @@ public class WorkItemDefinitionVFSLookupServiceTest {
     @Mock
     private Path widPath;
 
+    @Mock
+    private Path root;
+
+    private WorkItemDefinitionModuleCache cache;
     private WorkItemDefinitionVFSLookupService tested;
 
     @Before
@@ -74,9 +78,14 @@ public class WorkItemDefinitionVFSLookupServiceTest {
                 .thenReturn(new DirectoryStreamImpl(Collections.singletonList(widPath)));
         when(vfsService.readAllString(eq(widPath))).thenReturn(emailRaw);
         when(resources.resolveResources(eq(metadata))).thenReturn(Collections.singleton(path));
+        when(metadata.getRoot()).thenReturn(root);
+        when(root.toURI()).thenReturn("default://master@repo/project");
+        when(path.toURI()).thenReturn("default://master@repo/project/src/main/resources");
 
+        this.cache = new WorkItemDefinitionModuleCache();
         this.tested = new WorkItemDefinitionVFSLookupService(vfsService,
-                                                             resources);
+                                                             resources,
+                                                             cache);
     }
 
     @Test
@@ -114,4 +123,33 @@ public class WorkItemDefinitionVFSLookupServiceTest {
         WorkItemDefinition wid = result.iterator().next();
         assertEquals("Email", wid.getName());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecuteIsCached() {
+        Collection<WorkItemDefinition> result1 = tested.execute(metadata);
+        Collection<WorkItemDefinition> result2 = tested.execute(metadata);
+        verify(vfsService, times(1))
+                .newDirectoryStream(eq(path),
+                                    any(DirectoryStream.Filter.class));
+        verify(vfsService, times(1)).readAllString(eq(widPath));
+        assertEquals(1, result1.size());
+        assertEquals(result1.iterator().next().getName(),
+                     result2.iterator().next().getName());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInvalidate() {
+        tested.execute(metadata);
+        tested.invalidate(metadata);
+        Collection<WorkItemDefinition> result = tested.execute(metadata);
+        verify(vfsService, times(2))
+                .newDirectoryStream(eq(path),
+                                    any(DirectoryStream.Filter.class));
+        assertEquals(1, result.size());
+        assertEquals(0, cache.getHitCount());
+    }
 }
@@ -105,6 +105,8 @@ public class WorkItemDefinitionProjectService
         Collection<WorkItemDefinition> items = search(metadata);
         if (deployPredicate.test(metadata, items)) {
             deployServices.deploy(metadata);
+            // The deployed definitions are read before the resource change events invalidate the cached ones.
+            vfsService.invalidate(metadata);
             items = search(metadata);
         }
         items.forEach(registry::register);
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.project.backend.forms.gen.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.DocumentRoot;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.forms.jbpm.model.authoring.process.BusinessProcessFormModel;
+import org.kie.workbench.common.forms.jbpm.model.authoring.task.TaskFormModel;
+import org.kie.workbench.common.forms.jbpm.server.service.impl.BPMNFormModelGeneratorImpl;
+import org.kie.workbench.common.services.backend.project.ModuleClassLoaderHelper;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.kie.workbench.common.stunner.bpmn.backend.resource.JBPMBpmn2Resource;
+import org.kie.workbench.common.stunner.bpmn.backend.resource.JBPMBpmn2ResourceSets;
+import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.marshalling.BPMNDiagramMarshallerBaseTest;
+import org.kie.workbench.common.stunner.core.backend.service.AbstractDefinitionSetService;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.mockito.Mock;
+import org.uberfire.backend.vfs.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the forms generated from the BPMN2 model of a diagram, which is no longer read back from its XML, are the
+ * same as the ones generated from the marshalled process.
+ */
+public class FormGenerationModelProviderHelperMarshallingTest extends BPMNDiagramMarshallerBaseTest {
+
+    private static final String BPMN_USER_TASK_ASSIGNMENTS = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/userTaskAssignments.bpmn";
+
+    @Mock
+    private AbstractDefinitionSetService backendService;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private KieModule module;
+
+    @Mock
+    private ModuleClassLoaderHelper moduleClassLoaderHelper;
+
+    @Mock
+    private Path path;
+
+    private BPMNFormModelGeneratorImpl formModelGenerator;
+
+    private FormGenerationModelProviderHelper tested;
+
+    @Before
+    public void setUp() {
+        super.init();
+        when(backendService.getDiagramMarshaller()).thenReturn(marshaller);
+        when(moduleService.resolveModule(any())).thenReturn(module);
+        when(moduleClassLoaderHelper.getModuleClassLoader(module)).thenReturn(getClass().getClassLoader());
+        formModelGenerator = new BPMNFormModelGeneratorImpl(moduleService,
+                                                            moduleClassLoaderHelper);
+        tested = new FormGenerationModelProviderHelper(backendService);
+    }
+
+    @Test
+    public void testGeneratedFormModelsMatchTheMarshalledProcess() throws Exception {
+        final Diagram<Graph, Metadata> diagram = unmarshall(marshaller,
+                                                            BPMN_USER_TASK_ASSIGNMENTS);
+
+        final Definitions definitions = tested.generate(diagram);
+        final Definitions marshalledDefinitions = parseDefinitions(marshaller.marshall(diagram));
+
+        final BusinessProcessFormModel processFormModel = formModelGenerator.generateProcessFormModel(definitions,
+                                                                                                      path);
+        final BusinessProcessFormModel marshalledProcessFormModel = formModelGenerator.generateProcessFormModel(marshalledDefinitions,
+                                                                                                                path);
+        assertFalse(processFormModel.getProperties().isEmpty());
+        assertEquals(marshalledProcessFormModel,
+                     processFormModel);
+        assertEquals(marshalledProcessFormModel.getProcessName(),
+                     processFormModel.getProcessName());
+        assertEquals(marshalledProcessFormModel.getProperties(),
+                     processFormModel.getProperties());
+
+        final List<TaskFormModel> taskFormModels = formModelGenerator.generateTaskFormModels(definitions,
+                                                                                             path);
+        final List<TaskFormModel> marshalledTaskFormModels = formModelGenerator.generateTaskFormModels(marshalledDefinitions,
+                                                                                                       path);
+        assertFalse(taskFormModels.isEmpty());
+        assertEquals(marshalledTaskFormModels,
+                     taskFormModels);
+        for (int i = 0; i < taskFormModels.size(); i++) {
+            assertEquals(marshalledTaskFormModels.get(i).getFormName(),
+                         taskFormModels.get(i).getFormName());
+            assertEquals(marshalledTaskFormModels.get(i).getProperties(),
+                         taskFormModels.get(i).getProperties());
+        }
+    }
+
+    private static Definitions parseDefinitions(final String xml) throws Exception {
+        final JBPMBpmn2Resource resource = JBPMBpmn2ResourceSets.newResource("inputStream://dummyUriWithValidSuffix.xml");
+        final Map<String, Object> options = new HashMap<>();
+        options.put(JBPMBpmn2Resource.OPTION_ENCODING,
+                    "UTF-8");
+        options.put(JBPMBpmn2Resource.OPTION_DEFER_IDREF_RESOLUTION,
+                    true);
+        try (InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))) {
+            resource.load(inputStream,
+                          options);
+        }
+        return ((DocumentRoot) resource.getContents().get(0)).getDefinitions();
+    }
+}
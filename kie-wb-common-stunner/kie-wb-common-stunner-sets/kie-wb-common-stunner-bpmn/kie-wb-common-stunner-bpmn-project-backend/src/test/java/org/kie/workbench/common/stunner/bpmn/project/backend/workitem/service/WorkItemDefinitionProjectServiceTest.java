@@ -28,13 +28,18 @@ import org.kie.workbench.common.stunner.bpmn.backend.workitem.service.WorkItemDe
 import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinition;
 import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinitionCacheRegistry;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -83,6 +88,23 @@ public class WorkItemDefinitionProjectServiceTest {
         assertTrue(result.contains(wid2));
     }
 
+    @Test
+    public void testExecuteDeploysWhenNoDefinitionsFound() {
+        when(deployPredicate.test(eq(metadata), any())).thenReturn(true);
+        tested.execute(metadata);
+        InOrder inOrder = inOrder(deployServices, vfsService);
+        inOrder.verify(deployServices).deploy(eq(metadata));
+        inOrder.verify(vfsService).invalidate(eq(metadata));
+        inOrder.verify(vfsService).search(eq(metadata));
+    }
+
+    @Test
+    public void testExecuteDoesNotInvalidateWhenNotDeployed() {
+        tested.execute(metadata);
+        verify(deployServices, never()).deploy(any());
+        verify(vfsService, never()).invalidate(any());
+    }
+
     @Test
     public void testDestroy() {
         tested.execute(metadata);
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,7 +34,9 @@ import javax.inject.Inject;
 import javax.validation.ConstraintViolation;
 
 import org.drools.workbench.models.datamodel.rule.DSLSentence;
+import org.jboss.errai.bus.client.api.messaging.Message;
 import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.ErrorCallback;
 import org.jboss.errai.common.client.api.RemoteCallback;
 import org.jboss.errai.validation.client.dynamic.DynamicValidator;
 import org.kie.soup.commons.validation.PortablePreconditions;
@@ -161,6 +164,16 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
     // Keep the link between fact name and the full qualified class name inside the package
     private FactNameToFQCNHandleRegistry factNameToFQCNHandleRegistry = new FactNameToFQCNHandleRegistry();
 
+    // Version of the server-side DMO the incremental content was last loaded from, 0 if none was loaded yet.
+    private long oracleVersion = 0;
+
+    // Fact Types whose content was incrementally loaded, to be refreshed if the server-side DMO is rebuilt.
+    private Set<String> incrementalFactTypes = new HashSet<String>();
+
+    // Fact Types requested while an incremental update is in flight, with the callbacks waiting for them.
+    private Map<String, List<RemoteCallback<PackageDataModelOracleIncrementalPayload>>> pendingUpdates = new LinkedHashMap<String, List<RemoteCallback<PackageDataModelOracleIncrementalPayload>>>();
+    private boolean updateInFlight = false;
+
     @Inject
     public AsyncPackageDataModelOracleImpl(final Caller<IncrementalDataModelService> service,
                                            final Instance<DynamicValidator> validatorInstance) {
@@ -324,12 +337,10 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (isFactTypeAnEvent == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     Boolean isFactTypeAnEvent = filteredEventTypes.get(factType);
                     if (isFactTypeAnEvent == null) {
                         isFactTypeAnEvent = false;
@@ -338,9 +349,8 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                     }
                     callback.callback(isFactTypeAnEvent);
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(isFactTypeAnEvent);
         }
@@ -358,18 +368,15 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeSource == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     final TypeSource typeSource = filteredTypeSources.get(factType);
                     callback.callback(typeSource);
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(typeSource);
         }
@@ -401,13 +408,8 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
         //Load incremental content
         if (superTypes == null) {
             final String fgcnByFactName = getFQCNByFactName(factType);
-            service.call((RemoteCallback<PackageDataModelOracleIncrementalPayload>) dataModel -> {
-                AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                             dataModel);
-                callback.callback(filteredSuperTypes.get(factType));
-            }).getUpdates(resourcePath,
-                          imports,
-                          fgcnByFactName);
+            loadIncrementalContent(dataModel -> callback.callback(filteredSuperTypes.get(factType)),
+                                   fgcnByFactName);
         } else {
             callback.callback(superTypes);
         }
@@ -425,12 +427,10 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeAnnotations == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     Set<Annotation> typeAnnotations = filteredTypeAnnotations.get(factType);
                     if (typeAnnotations == null) {
                         typeAnnotations = Collections.EMPTY_SET;
@@ -439,9 +439,8 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                     }
                     callback.callback(typeAnnotations);
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(typeAnnotations);
         }
@@ -459,12 +458,10 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeFieldsAnnotations == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     Map<String, Set<Annotation>> typeFieldsAnnotations = filteredTypeFieldsAnnotations.get(factType);
                     if (typeFieldsAnnotations == null) {
                         typeFieldsAnnotations = Collections.EMPTY_MAP;
@@ -473,9 +470,8 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                     }
                     callback.callback(typeFieldsAnnotations);
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(typeFieldsAnnotations);
         }
@@ -547,13 +543,10 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (fields == null || fields.length == 0) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
-
                     // This will stop an infinite loop if there are no fields to be found
                     if (dataModel.getModelFields().get(fgcnByFactName) == null || dataModel.getModelFields().get(fgcnByFactName).length == 0) {
                         callback.callback(new ModelField[0]);
@@ -562,9 +555,8 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                                             callback);
                     }
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          fgcnByFactName);
+            },
+                                   fgcnByFactName);
         } else {
             callback.callback(fields);
         }
@@ -846,19 +838,16 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     final List<MethodInfo> methodInformation = projectMethodInformation.get(fqcnByFactName);
                     callback.callback(getMethodInfos(parameterCount,
                                                      methodInformation));
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          fqcnByFactName);
+            },
+                                   fqcnByFactName);
         } else {
             callback.callback(getMethodInfos(parameterCount,
                                              methodInformation));
@@ -896,19 +885,16 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     final List<MethodInfo> methodInformation = projectMethodInformation.get(fqcnFactName);
                     callback.callback(getMethodParams(methodInformation,
                                                       methodNameWithParams));
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          fqcnFactName);
+            },
+                                   fqcnFactName);
         } else {
             callback.callback(getMethodParams(methodInformation,
                                               methodNameWithParams));
@@ -941,19 +927,16 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     final List<MethodInfo> methodInformation = projectMethodInformation.get(fqcnFactName);
                     callback.callback(getMethodInfo(methodInformation,
                                                     methodNameWithParams));
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(getMethodInfo(methodInformation,
                                             methodNameWithParams));
@@ -1012,17 +995,14 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadIncrementalContent(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
-                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
-                                                                                 dataModel);
                     callback.callback(projectMethodInformation.get(factType));
                 }
-            }).getUpdates(resourcePath,
-                          imports,
-                          factType);
+            },
+                                   factType);
         } else {
             callback.callback(methodInformation);
         }
@@ -1208,6 +1188,74 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                                                                                                            projectFieldParametersType));
     }
 
+    // ####################################
+    // Incremental content
+    // ####################################
+
+    /**
+     * Loads the content of a Fact Type from the server. Fact Types requested while a previous request is in flight are
+     * loaded together in a single request once it completes.
+     * @param callback Invoked once the content has been added to the DMO
+     * @param factType The Fact Type to load
+     */
+    private void loadIncrementalContent(final RemoteCallback<PackageDataModelOracleIncrementalPayload> callback,
+                                        final String factType) {
+        List<RemoteCallback<PackageDataModelOracleIncrementalPayload>> callbacks = pendingUpdates.get(factType);
+        if (callbacks == null) {
+            callbacks = new ArrayList<RemoteCallback<PackageDataModelOracleIncrementalPayload>>();
+            pendingUpdates.put(factType,
+                               callbacks);
+        }
+        callbacks.add(callback);
+        if (!updateInFlight) {
+            requestPendingUpdates();
+        }
+    }
+
+    private void requestPendingUpdates() {
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        final Map<String, List<RemoteCallback<PackageDataModelOracleIncrementalPayload>>> requestedUpdates = pendingUpdates;
+        pendingUpdates = new LinkedHashMap<String, List<RemoteCallback<PackageDataModelOracleIncrementalPayload>>>();
+        updateInFlight = true;
+
+        service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+
+                         @Override
+                         public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
+                             updateInFlight = false;
+                             AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
+                                                                                          dataModel);
+                             if (dataModel != null) {
+                                 oracleVersion = dataModel.getOracleVersion();
+                                 incrementalFactTypes.addAll(dataModel.getModelFields().keySet());
+                             }
+                             for (List<RemoteCallback<PackageDataModelOracleIncrementalPayload>> callbacks : requestedUpdates.values()) {
+                                 for (RemoteCallback<PackageDataModelOracleIncrementalPayload> callback : callbacks) {
+                                     callback.callback(dataModel);
+                                 }
+                             }
+                             requestPendingUpdates();
+                         }
+                     },
+                     new ErrorCallback<Message>() {
+
+                         @Override
+                         public boolean error(final Message message,
+                                              final Throwable throwable) {
+                             //The callbacks of the failed request are dropped, as they were with a request per Fact Type
+                             updateInFlight = false;
+                             requestPendingUpdates();
+                             return true;
+                         }
+                     }).getBatchUpdates(resourcePath,
+                                        imports,
+                                        new HashSet<String>(requestedUpdates.keySet()),
+                                        oracleVersion,
+                                        new HashSet<String>(incrementalFactTypes));
+    }
+
     // ####################################
     // Population of DMO
     // ####################################
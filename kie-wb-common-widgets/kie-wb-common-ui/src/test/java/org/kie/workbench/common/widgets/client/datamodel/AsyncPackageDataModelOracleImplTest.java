@@ -20,8 +20,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.inject.Instance;
 
@@ -40,6 +42,7 @@ import org.kie.soup.project.datamodel.oracle.FieldAccessorsAndMutators;
 import org.kie.soup.project.datamodel.oracle.MethodInfo;
 import org.kie.soup.project.datamodel.oracle.ModelField;
 import org.kie.soup.project.datamodel.oracle.OperatorsOracle;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
 import org.kie.workbench.common.services.datamodel.model.LazyModelField;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
 import org.kie.workbench.common.services.datamodel.service.IncrementalDataModelService;
@@ -861,6 +864,54 @@ public class AsyncPackageDataModelOracleImplTest {
         verify(getSuperTypesCallback, times(1)).callback(anyList());
     }
 
+    @Test
+    public void testIncrementalContentRequestedWhileInFlightIsBatched() {
+        final DeferredService deferredService = new DeferredService();
+        final AsyncPackageDataModelOracle oracle = new AsyncPackageDataModelOracleImpl(deferredService,
+                                                                                       validatorInstance);
+        oracle.setPackageName("org");
+        oracle.addModelFields(createProjectModelFields());
+        oracle.filter(imports);
+
+        final Callback<TypeSource> personCallback = mock(Callback.class);
+        final Callback<TypeSource> addressCallback = mock(Callback.class);
+        final Callback<TypeSource> stringCallback = mock(Callback.class);
+        oracle.getTypeSource("org.test.Person",
+                             personCallback);
+        oracle.getTypeSource("org.Address",
+                             addressCallback);
+        oracle.getTypeSource("java.lang.String",
+                             stringCallback);
+
+        assertEquals(1,
+                     deferredService.requestedFactTypes.size());
+        assertEquals(Collections.singleton("org.test.Person"),
+                     deferredService.requestedFactTypes.get(0));
+        assertEquals(0L,
+                     (long) deferredService.knownOracleVersions.get(0));
+
+        personPayload.setOracleVersion(3L);
+        deferredService.callback.callback(personPayload);
+
+        verify(personCallback).callback(any());
+        assertEquals(2,
+                     deferredService.requestedFactTypes.size());
+        assertEquals(new HashSet<>(Arrays.asList("org.Address",
+                                                 "java.lang.String")),
+                     deferredService.requestedFactTypes.get(1));
+        assertEquals(3L,
+                     (long) deferredService.knownOracleVersions.get(1));
+        assertEquals(Collections.singleton("org.test.Person"),
+                     deferredService.knownFactTypes.get(1));
+
+        deferredService.callback.callback(addressPayload);
+
+        verify(addressCallback).callback(any());
+        verify(stringCallback).callback(any());
+        assertEquals(2,
+                     deferredService.requestedFactTypes.size());
+    }
+
     @Test
     public void testGetPackageNames() {
         List<String> packageNames = oracle.getPackageNames();
@@ -907,6 +958,69 @@ public class AsyncPackageDataModelOracleImplTest {
 
                 return null;
             }
+
+            @Override
+            public PackageDataModelOracleIncrementalPayload getBatchUpdates(Path resourcePath,
+                                                                            Imports imports,
+                                                                            Set<String> factTypes,
+                                                                            long knownOracleVersion,
+                                                                            Set<String> knownFactTypes) {
+                //Requests are issued one at a time, as the callbacks are invoked synchronously
+                assertEquals(1,
+                             factTypes.size());
+                return getUpdates(resourcePath,
+                                  imports,
+                                  factTypes.iterator().next());
+            }
+        };
+
+        @Override
+        public IncrementalDataModelService call() {
+            return service;
+        }
+
+        @Override
+        public IncrementalDataModelService call(RemoteCallback<?> remoteCallback) {
+            callback = (RemoteCallback<PackageDataModelOracleIncrementalPayload>) remoteCallback;
+            return service;
+        }
+
+        @Override
+        public IncrementalDataModelService call(RemoteCallback<?> remoteCallback,
+                                                ErrorCallback<?> errorCallback) {
+            callback = (RemoteCallback<PackageDataModelOracleIncrementalPayload>) remoteCallback;
+            return service;
+        }
+    }
+
+    private static class DeferredService
+            implements Caller<IncrementalDataModelService> {
+
+        private final List<Set<String>> requestedFactTypes = new ArrayList<>();
+        private final List<Long> knownOracleVersions = new ArrayList<>();
+        private final List<Set<String>> knownFactTypes = new ArrayList<>();
+        private RemoteCallback<PackageDataModelOracleIncrementalPayload> callback;
+
+        private IncrementalDataModelService service = new IncrementalDataModelService() {
+            @Override
+            public PackageDataModelOracleIncrementalPayload getUpdates(Path resourcePath,
+                                                                       Imports imports,
+                                                                       String factType) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public PackageDataModelOracleIncrementalPayload getBatchUpdates(Path resourcePath,
+                                                                            Imports imports,
+                                                                            Set<String> factTypes,
+                                                                            long knownOracleVersion,
+                                                                            Set<String> knownFactTypes) {
+                //The response is delivered later on by the test
+                requestedFactTypes.add(factTypes);
+                knownOracleVersions.add(knownOracleVersion);
+                DeferredService.this.knownFactTypes.add(knownFactTypes);
+                return null;
+            }
         };
 
         @Override
@@ -15,6 +15,8 @@
 
 package org.kie.workbench.common.widgets.client.datamodel;
 
+import java.util.Set;
+
 import org.guvnor.common.services.project.model.Package;
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.common.client.api.ErrorCallback;
@@ -28,6 +30,7 @@ import org.kie.workbench.common.services.datamodel.service.IncrementalDataModelS
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.commons.data.Pair;
 
 import static org.mockito.Mockito.*;
 
@@ -50,8 +53,9 @@ public class MockIncrementalDataModelServiceCaller implements Caller<Incremental
                                         packageLoader.getPackageName(),
                                         packageLoader.getPackageName());
         final LRUDataModelOracleCache cachePackages = mock(LRUDataModelOracleCache.class);
-        when(cachePackages.assertPackageDataModelOracle(module,
-                                                        pkg)).thenReturn(packageLoader);
+        when(cachePackages.assertVersionedPackageDataModelOracle(module,
+                                                                 pkg)).thenReturn(new Pair<>(packageLoader,
+                                                                                             1L));
 
         final KieModuleService moduleService = mock(KieModuleService.class);
         when(moduleService.resolveModule(any(Path.class))).thenReturn(module);
@@ -94,12 +98,16 @@ public class MockIncrementalDataModelServiceCaller implements Caller<Incremental
         }
 
         @Override
-        public PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
-                                                                   final Imports imports,
-                                                                   final String factType) {
-            final PackageDataModelOracleIncrementalPayload payload = super.getUpdates(resourcePath,
-                                                                                      imports,
-                                                                                      factType);
+        public PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                                        final Imports imports,
+                                                                        final Set<String> factTypes,
+                                                                        final long knownOracleVersion,
+                                                                        final Set<String> knownFactTypes) {
+            final PackageDataModelOracleIncrementalPayload payload = super.getBatchUpdates(resourcePath,
+                                                                                           imports,
+                                                                                           factTypes,
+                                                                                           knownOracleVersion,
+                                                                                           knownFactTypes);
             final RemoteCallback r = remoteCallback;
             r.callback(payload);
             return payload;